@@ -9,8 +9,16 @@ public class ShareItGatewayConstants {
     public static final String BOOKING_PARAMETER_STATE_NAME = "state";
     public static final String PAGINATION_PARAMETER_FROM_NAME = "from";
     public static final String PAGINATION_PARAMETER_SIZE_NAME = "size";
+    public static final String PAGINATION_PARAMETER_CURSOR_NAME = "cursor";
+    public static final String PAGINATION_PARAMETER_WITH_TOTAL_NAME = "withTotal";
     public static final String DEFAULT_PAGINATION_FROM_AS_STRING = "0";
     public static final String DEFAULT_PAGINATION_SIZE_AS_STRING = "10";
     public static final String NEGATIVE_FROM_ERROR = "Параметр пагинации from не может быть отрицательным";
     public static final String NOT_POSITIVE_SIZE_ERROR = "Параметр пагинации size должен быть положительным";
+    public static final int MAX_SUGGEST_LIMIT = 10;
+    public static final String DEFAULT_SUGGEST_LIMIT_AS_STRING = "10";
+    public static final String SUGGEST_LIMIT_ERROR = "Параметр limit должен быть от 1 до " + MAX_SUGGEST_LIMIT;
+    public static final int MAX_ITEM_BATCH_SIZE = 10_000;
+    public static final String ITEM_BATCH_SIZE_ERROR =
+            "Пакет должен содержать от 1 до " + MAX_ITEM_BATCH_SIZE + " вещей";
 }
@@ -6,6 +6,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.gateway.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
@@ -15,6 +16,8 @@ import java.util.Map;
 
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.*;
 import static ru.practicum.shareit.gateway.booking.BookingController.BOOKING_REQUEST_PARAM_APPROVED_NAME;
+import static ru.practicum.shareit.gateway.booking.BookingController.COUNTS_PATH;
+import static ru.practicum.shareit.gateway.booking.BookingController.EXPORT_PATH;
 import static ru.practicum.shareit.gateway.booking.BookingController.OWNER_PATH;
 
 @Service
@@ -34,26 +37,48 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getCreated(Long userId, BookingState state, int from, int size) {
+    public ResponseEntity<Object> getCreated(Long userId, BookingState state, int from, int size,
+                                             String cursor, boolean withTotal) {
         Map<String, Object> param = Map.of(
                 BOOKING_PARAMETER_STATE_NAME, state.name(),
                 PAGINATION_PARAMETER_FROM_NAME, from,
                 PAGINATION_PARAMETER_SIZE_NAME, size
         );
-        return get("?" + BOOKING_PARAMETER_STATE_NAME + "={" + BOOKING_PARAMETER_STATE_NAME + "}&" +
+        return getPage("?" + BOOKING_PARAMETER_STATE_NAME + "={" + BOOKING_PARAMETER_STATE_NAME + "}&" +
                 PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
-                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}", userId, param);
+                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}",
+                userId, param, cursor, withTotal);
     }
 
-    public ResponseEntity<Object> getForOwnedItems(Long userId, BookingState state, int from, int size) {
+    public ResponseEntity<Object> getForOwnedItems(Long userId, BookingState state, int from, int size,
+                                                   String cursor, boolean withTotal) {
         Map<String, Object> param = Map.of(
                 BOOKING_PARAMETER_STATE_NAME, state.name(),
                 PAGINATION_PARAMETER_FROM_NAME, from,
                 PAGINATION_PARAMETER_SIZE_NAME, size
         );
-        return get(OWNER_PATH + "?" + BOOKING_PARAMETER_STATE_NAME + "={" + BOOKING_PARAMETER_STATE_NAME + "}&" +
+        return getPage(OWNER_PATH + "?" + BOOKING_PARAMETER_STATE_NAME + "={" + BOOKING_PARAMETER_STATE_NAME + "}&" +
                 PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
-                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}", userId, param);
+                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}",
+                userId, param, cursor, withTotal);
+    }
+
+    public ResponseEntity<Object> getCounts(Long userId) {
+        return get(COUNTS_PATH, userId);
+    }
+
+    public ResponseEntity<Object> getCountsForOwnedItems(Long userId) {
+        return get(OWNER_PATH + COUNTS_PATH, userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(long userId, BookingState state) {
+        return stream(EXPORT_PATH + "?" + BOOKING_PARAMETER_STATE_NAME + "={" + BOOKING_PARAMETER_STATE_NAME + "}",
+                userId, Map.of(BOOKING_PARAMETER_STATE_NAME, state.name()));
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportForOwnedItems(long userId, BookingState state) {
+        return stream(OWNER_PATH + EXPORT_PATH + "?" + BOOKING_PARAMETER_STATE_NAME + "={" +
+                BOOKING_PARAMETER_STATE_NAME + "}", userId, Map.of(BOOKING_PARAMETER_STATE_NAME, state.name()));
     }
 
     public ResponseEntity<Object> create(Long userId, BookingIncomingDto bookingIncomingDto) {
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.gateway.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
 import ru.practicum.shareit.gateway.exception.InvalidConditionException;
@@ -25,6 +26,8 @@ public class BookingController {
     protected static final String BOOKING_PREFIX = "/{bookingId}";
     protected static final String STATE_PREFIX = "?state=";
     protected static final String OWNER_PATH = "/owner";
+    protected static final String COUNTS_PATH = "/counts";
+    protected static final String EXPORT_PATH = "/export";
     protected static final String BOOKING_REQUEST_PARAM_APPROVED_NAME = "approved";
     private static final String BOOKING_STATE_DEFAULT = "ALL";
 
@@ -45,13 +48,15 @@ public class BookingController {
             @PositiveOrZero(message = NEGATIVE_FROM_ERROR)
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) int from,
             @Positive(message = NOT_POSITIVE_SIZE_ERROR)
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal
     ) {
         BookingState bookingState = parseBookingState(state);
         log.info("Получен запрос GET к эндпоинту: {}{}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_BOOKING_PATH, STATE_PREFIX, state, userId, from, size);
-        return bookingClient.getCreated(userId, bookingState, from, size);
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_BOOKING_PATH, STATE_PREFIX, state, userId, from, size, cursor, withTotal);
+        return bookingClient.getCreated(userId, bookingState, from, size, cursor, withTotal);
     }
 
     @GetMapping(OWNER_PATH)
@@ -61,13 +66,51 @@ public class BookingController {
             @PositiveOrZero(message = NEGATIVE_FROM_ERROR)
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) int from,
             @Positive(message = NOT_POSITIVE_SIZE_ERROR)
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal
     ) {
         BookingState bookingState = parseBookingState(state);
         log.info("Получен запрос GET к эндпоинту: {}{}{}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_BOOKING_PATH, OWNER_PATH, STATE_PREFIX, state, ownerId, from, size);
-        return bookingClient.getForOwnedItems(ownerId, bookingState, from, size);
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, STATE_PREFIX, state, ownerId, from, size, cursor, withTotal);
+        return bookingClient.getForOwnedItems(ownerId, bookingState, from, size, cursor, withTotal);
+    }
+
+    @GetMapping(COUNTS_PATH)
+    public ResponseEntity<Object> getCountsForUser(@RequestHeader(USER_REQUEST_HEADER) long userId) {
+        log.info("Получен запрос GET к эндпоинту: {}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, COUNTS_PATH, userId);
+        return bookingClient.getCounts(userId);
+    }
+
+    @GetMapping(OWNER_PATH + COUNTS_PATH)
+    public ResponseEntity<Object> getCountsForOwnedItems(@RequestHeader(USER_REQUEST_HEADER) long ownerId) {
+        log.info("Получен запрос GET к эндпоинту: {}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, COUNTS_PATH, ownerId);
+        return bookingClient.getCountsForOwnedItems(ownerId);
+    }
+
+    @GetMapping(EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportForUser(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state
+    ) {
+        BookingState bookingState = parseBookingState(state);
+        log.info("Получен запрос GET к эндпоинту: {}{}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, EXPORT_PATH, STATE_PREFIX, state, userId);
+        return bookingClient.export(userId, bookingState);
+    }
+
+    @GetMapping(OWNER_PATH + EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportForOwnedItems(
+            @RequestHeader(USER_REQUEST_HEADER) long ownerId,
+            @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state
+    ) {
+        BookingState bookingState = parseBookingState(state);
+        log.info("Получен запрос GET к эндпоинту: {}{}{}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, EXPORT_PATH, STATE_PREFIX, state, ownerId);
+        return bookingClient.exportForOwnedItems(ownerId, bookingState);
     }
 
     @PostMapping
@@ -1,13 +1,30 @@
 package ru.practicum.shareit.gateway.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import static ru.practicum.shareit.gateway.ShareItGatewayConstants.PAGINATION_PARAMETER_CURSOR_NAME;
+import static ru.practicum.shareit.gateway.ShareItGatewayConstants.PAGINATION_PARAMETER_WITH_TOTAL_NAME;
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.USER_REQUEST_HEADER;
 
 public class BaseClient {
@@ -29,6 +46,25 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> getPage(String path, Long userId, Map<String, Object> parameters,
+                                             @Nullable String cursor, boolean withTotal) {
+        StringBuilder pagePath = new StringBuilder(path);
+        Map<String, Object> pageParameters = new HashMap<>(parameters);
+        if (cursor != null) {
+            appendParameter(pagePath, PAGINATION_PARAMETER_CURSOR_NAME);
+            pageParameters.put(PAGINATION_PARAMETER_CURSOR_NAME, cursor);
+        }
+        if (withTotal) {
+            appendParameter(pagePath, PAGINATION_PARAMETER_WITH_TOTAL_NAME);
+            pageParameters.put(PAGINATION_PARAMETER_WITH_TOTAL_NAME, true);
+        }
+        return get(pagePath.toString(), userId, pageParameters);
+    }
+
+    private static void appendParameter(StringBuilder path, String name) {
+        path.append(path.indexOf("?") < 0 ? "?" : "&").append(name).append("={").append(name).append('}');
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -77,6 +113,82 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /*
+     * Ответ сервера не читается в память: соединение открывается сразу, чтобы ошибку вернуть с её статусом,
+     * а тело успешного ответа копируется клиенту по мере поступления
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, Map<String, Object> parameters) {
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path, parameters), HttpMethod.GET);
+            request.getHeaders().set(USER_REQUEST_HEADER, String.valueOf(userId));
+            response = request.execute();
+            if (response.getStatusCode().isError()) {
+                try (response) {
+                    byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                    return ResponseEntity.status(response.getRawStatusCode())
+                            .headers(contentTypeOf(response))
+                            .body(out -> out.write(body));
+                }
+            }
+        } catch (IOException exception) {
+            throw new ResourceAccessException("Ошибка обращения к серверу: " + exception.getMessage(), exception);
+        }
+        closeOnAsyncCompletion(response);
+        return ResponseEntity.ok()
+                .headers(contentTypeOf(response))
+                .body(out -> {
+                    try (response) {
+                        StreamUtils.copy(response.getBody(), out);
+                    }
+                });
+    }
+
+    /* Если пул асинхронных ответов отклонит выгрузку, тело не вызывается: соединение закрывается по завершении */
+    private static void closeOnAsyncCompletion(ClientHttpResponse response) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(response,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        response.close();
+                    }
+                });
+    }
+
+    /*
+     * Тело запроса передаётся серверу по мере чтения, если фабрика запросов не буферизует тело;
+     * ответ сервера (небольшой итог) возвращается целиком с его статусом
+     */
+    protected ResponseEntity<Object> postStream(String path, InputStream body, MediaType contentType) {
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.POST);
+            request.getHeaders().setContentType(contentType);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (request instanceof StreamingHttpOutputMessage) {
+                ((StreamingHttpOutputMessage) request).setBody(out -> StreamUtils.copy(body, out));
+            } else {
+                StreamUtils.copy(body, request.getBody());
+            }
+            try (ClientHttpResponse response = request.execute()) {
+                return ResponseEntity.status(response.getRawStatusCode())
+                        .headers(contentTypeOf(response))
+                        .body(StreamUtils.copyToByteArray(response.getBody()));
+            }
+        } catch (IOException exception) {
+            throw new ResourceAccessException("Ошибка обращения к серверу: " + exception.getMessage(), exception);
+        }
+    }
+
+    private static HttpHeaders contentTypeOf(ClientHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(response.getHeaders().getContentType());
+        return headers;
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
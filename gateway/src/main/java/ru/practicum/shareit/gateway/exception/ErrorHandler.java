@@ -2,12 +2,17 @@ package ru.practicum.shareit.gateway.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 @Slf4j
 public class ErrorHandler {
@@ -30,6 +35,35 @@ public class ErrorHandler {
         return errorMessage;
     }
 
+    @ExceptionHandler(value = {ConstraintViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorMessage handleConstraintViolationException(ConstraintViolationException exception) {
+        int statusCode = HttpStatus.BAD_REQUEST.value();
+        ErrorMessage errorMessage = new ErrorMessage(statusCode, exception.getMessage());
+        log.info("Ошибка запроса {} - {}", statusCode, exception.getMessage());
+        return errorMessage;
+    }
+
+    /*
+     * Отказ пула асинхронных ответов. Spring передаёт его дважды: исключением из запроса, начавшего асинхронную
+     * обработку, и результатом повторного dispatch - отвечаем только на второй. Content-Type выгрузки уже
+     * выставлен, поэтому JSON указывается явно.
+     */
+    @ExceptionHandler(value = {RejectedExecutionException.class})
+    public ResponseEntity<ErrorMessage> handleRejectedExecutionException(RejectedExecutionException exception,
+                                                                         HttpServletRequest request) {
+        if (request.isAsyncStarted()) {
+            return null;
+        }
+        int statusCode = HttpStatus.SERVICE_UNAVAILABLE.value();
+        ErrorMessage errorMessage = new ErrorMessage(statusCode, "Слишком много одновременных выгрузок, " +
+                "повторите запрос позже");
+        log.info("Ошибка запроса {} - {}", statusCode, exception.getMessage());
+        return ResponseEntity.status(statusCode)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorMessage);
+    }
+
     @ExceptionHandler(Throwable.class)
     public ResponseEntity<Object> handleThrowable() {
         log.info("Непредвиденная ошибка обработки запроса (status code 500)");
@@ -11,16 +11,25 @@ import ru.practicum.shareit.gateway.client.BaseClient;
 import ru.practicum.shareit.gateway.item.dto.CommentIncomingDto;
 import ru.practicum.shareit.gateway.item.dto.ItemIncomingDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.*;
+import static ru.practicum.shareit.gateway.item.ItemController.AVAILABILITY_PATH;
+import static ru.practicum.shareit.gateway.item.ItemController.BATCH_PATH;
 import static ru.practicum.shareit.gateway.item.ItemController.COMMENT_PATH;
 import static ru.practicum.shareit.gateway.item.ItemController.SEARCH_PATH;
+import static ru.practicum.shareit.gateway.item.ItemController.SUGGEST_PATH;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String SEARCH_TEXT_PREFIX = "text";
+    private static final String SUGGEST_PREFIX_PARAMETER = "prefix";
+    private static final String SUGGEST_LIMIT_PARAMETER = "limit";
+    private static final String INTERVAL_START_PARAMETER = "start";
+    private static final String INTERVAL_END_PARAMETER = "end";
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
@@ -36,18 +45,24 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public ResponseEntity<Object> getAll(long userId, int from, int size, String cursor, boolean withTotal) {
         Map<String, Object> param = Map.of(
                 PAGINATION_PARAMETER_FROM_NAME, from,
                 PAGINATION_PARAMETER_SIZE_NAME, size
         );
-        return get("", userId, param);
+        return getPage("?" + PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
+                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}",
+                userId, param, cursor, withTotal);
     }
 
     public ResponseEntity<Object> addItem(ItemIncomingDto itemDto, long userId) {
         return post("/", userId, itemDto);
     }
 
+    public ResponseEntity<Object> addItems(List<ItemIncomingDto> itemDtos, long userId) {
+        return post(BATCH_PATH, userId, itemDtos);
+    }
+
     public ResponseEntity<Object> addComment(long itemId, CommentIncomingDto commentDto, long userId) {
         return post("/" + itemId + COMMENT_PATH, userId, commentDto);
     }
@@ -56,15 +71,38 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> search(Long userId, String text, int from, int size) {
+    public ResponseEntity<Object> search(Long userId, String text, int from, int size,
+                                         String cursor, boolean withTotal) {
         Map<String, Object> param = Map.of(
                 SEARCH_TEXT_PREFIX, text,
                 PAGINATION_PARAMETER_FROM_NAME, from,
                 PAGINATION_PARAMETER_SIZE_NAME, size
         );
-        return get(SEARCH_PATH + "?" + SEARCH_TEXT_PREFIX + "={" + SEARCH_TEXT_PREFIX + "}&" +
+        return getPage(SEARCH_PATH + "?" + SEARCH_TEXT_PREFIX + "={" + SEARCH_TEXT_PREFIX + "}&" +
                 PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
-                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}", userId, param
+                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}",
+                userId, param, cursor, withTotal
+        );
+    }
+
+    public ResponseEntity<Object> suggest(long userId, String prefix, int limit) {
+        Map<String, Object> param = Map.of(
+                SUGGEST_PREFIX_PARAMETER, prefix,
+                SUGGEST_LIMIT_PARAMETER, limit
+        );
+        return get(SUGGEST_PATH + "?" + SUGGEST_PREFIX_PARAMETER + "={" + SUGGEST_PREFIX_PARAMETER + "}&" +
+                SUGGEST_LIMIT_PARAMETER + "={" + SUGGEST_LIMIT_PARAMETER + "}", userId, param
+        );
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, long userId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> param = Map.of(
+                INTERVAL_START_PARAMETER, start,
+                INTERVAL_END_PARAMETER, end
+        );
+        return get("/" + itemId + AVAILABILITY_PATH + "?" +
+                INTERVAL_START_PARAMETER + "={" + INTERVAL_START_PARAMETER + "}&" +
+                INTERVAL_END_PARAMETER + "={" + INTERVAL_END_PARAMETER + "}", userId, param
         );
     }
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.configurationprocessor.json.JSONObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,10 +13,15 @@ import ru.practicum.shareit.gateway.item.dto.CommentIncomingDto;
 import ru.practicum.shareit.gateway.item.dto.ItemIncomingDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.*;
 
@@ -30,6 +36,9 @@ public class ItemController {
     protected static final String ITEM_PREFIX = "/{itemId}";
     protected static final String SEARCH_PATH = "/search";
     protected static final String COMMENT_PATH = "/comment";
+    protected static final String BATCH_PATH = "/batch";
+    protected static final String SUGGEST_PATH = "/suggest";
+    protected static final String AVAILABILITY_PATH = "/availability";
 
     @GetMapping(ITEM_PREFIX)
     public ResponseEntity<Object> getItemById(@RequestHeader(USER_REQUEST_HEADER) long userId,
@@ -44,11 +53,13 @@ public class ItemController {
             @PositiveOrZero(message = NEGATIVE_FROM_ERROR)
                 @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) int from,
             @Positive(message = NOT_POSITIVE_SIZE_ERROR)
-                @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+                @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
         log.info("Получен запрос GET к эндпоинту: {} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_PATH, ownerId, from, size);
-        return itemClient.getAll(ownerId, from, size);
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_PATH, ownerId, from, size, cursor, withTotal);
+        return itemClient.getAll(ownerId, from, size, cursor, withTotal);
     }
 
     @PostMapping
@@ -59,6 +70,16 @@ public class ItemController {
         return itemClient.addItem(itemDto, userId);
     }
 
+    @PostMapping(BATCH_PATH)
+    public ResponseEntity<Object> createAll(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @NotEmpty(message = ITEM_BATCH_SIZE_ERROR) @Size(max = MAX_ITEM_BATCH_SIZE, message = ITEM_BATCH_SIZE_ERROR)
+                @RequestBody List<@Valid ItemIncomingDto> itemDtos) {
+        log.info("Получен запрос POST к эндпоинту: {}{} от пользователя с id = {}. Количество вещей: {}",
+                COMMON_ITEM_PATH, BATCH_PATH, userId, itemDtos.size());
+        return itemClient.addItems(itemDtos, userId);
+    }
+
     @PatchMapping(ITEM_PREFIX)
     public ResponseEntity<Object> update(@RequestHeader(USER_REQUEST_HEADER) long userId,
                                          @PathVariable long itemId,
@@ -75,14 +96,41 @@ public class ItemController {
             @PositiveOrZero(message = NEGATIVE_FROM_ERROR)
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) int from,
             @Positive(message = NOT_POSITIVE_SIZE_ERROR)
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
         if (text.isBlank()) {
             return new ResponseEntity<Object>(new ArrayList<JSONObject>(), HttpStatus.OK);
         }
         log.info("Получен запрос GET к эндпоинту: {}{}. Строка поиска: {} . " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_PATH, SEARCH_PATH, text, from, size);
-        return itemClient.search(userId, text, from, size);
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_PATH, SEARCH_PATH, text, from, size, cursor, withTotal);
+        return itemClient.search(userId, text, from, size, cursor, withTotal);
+    }
+
+    @GetMapping(SUGGEST_PATH)
+    public ResponseEntity<Object> getSuggestions(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @RequestParam String prefix,
+            @Positive(message = SUGGEST_LIMIT_ERROR) @Max(value = MAX_SUGGEST_LIMIT, message = SUGGEST_LIMIT_ERROR)
+            @RequestParam(required = false, defaultValue = DEFAULT_SUGGEST_LIMIT_AS_STRING) int limit) {
+        if (prefix.isBlank()) {
+            return new ResponseEntity<Object>(new ArrayList<JSONObject>(), HttpStatus.OK);
+        }
+        log.info("Получен запрос GET к эндпоинту: {}{}. Префикс: {}, limit = {}",
+                COMMON_ITEM_PATH, SUGGEST_PATH, prefix, limit);
+        return itemClient.suggest(userId, prefix, limit);
+    }
+
+    @GetMapping(ITEM_PREFIX + AVAILABILITY_PATH)
+    public ResponseEntity<Object> getAvailability(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Получен запрос GET к эндпоинту: {}/{}{} от пользователя с id = {}. Интервал: с {} по {}",
+                COMMON_ITEM_PATH, itemId, AVAILABILITY_PATH, userId, start, end);
+        return itemClient.getAvailability(itemId, userId, start, end);
     }
 
     @PostMapping(ITEM_PREFIX + COMMENT_PATH)
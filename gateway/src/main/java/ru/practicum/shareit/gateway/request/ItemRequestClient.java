@@ -13,6 +13,7 @@ import java.util.Map;
 
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.*;
 import static ru.practicum.shareit.gateway.request.ItemRequestController.ALL_PATH;
+import static ru.practicum.shareit.gateway.request.ItemRequestController.SUGGESTIONS_PATH;
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -30,17 +31,22 @@ public class ItemRequestClient extends BaseClient {
         return get("/" + requestId, userId);
     }
 
+    public ResponseEntity<Object> getSuggestions(long requestId, long userId) {
+        return get("/" + requestId + SUGGESTIONS_PATH, userId);
+    }
+
     public ResponseEntity<Object> getByUserId(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public ResponseEntity<Object> getAll(long userId, int from, int size, String cursor, boolean withTotal) {
         Map<String, Object> param = Map.of(
                 PAGINATION_PARAMETER_FROM_NAME, from,
                 PAGINATION_PARAMETER_SIZE_NAME, size
         );
-        return get(ALL_PATH + "?" + PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
-                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}", userId, param);
+        return getPage(ALL_PATH + "?" + PAGINATION_PARAMETER_FROM_NAME + "={" + PAGINATION_PARAMETER_FROM_NAME + "}&" +
+                PAGINATION_PARAMETER_SIZE_NAME + "={" + PAGINATION_PARAMETER_SIZE_NAME + "}",
+                userId, param, cursor, withTotal);
     }
 
     public ResponseEntity<Object> add(long userId, ItemRequestIncomingDto itemRequestDto) {
@@ -23,6 +23,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
     protected static final String ITEM_REQUEST_PREFIX = "/{requestId}";
     protected static final String ALL_PATH = "/all";
+    protected static final String SUGGESTIONS_PATH = "/suggestions";
 
     @GetMapping(ITEM_REQUEST_PREFIX)
     public ResponseEntity<Object> getItemRequestById(@RequestHeader(USER_REQUEST_HEADER) long userId,
@@ -31,6 +32,14 @@ public class ItemRequestController {
         return itemRequestClient.get(requestId, userId);
     }
 
+    @GetMapping(ITEM_REQUEST_PREFIX + SUGGESTIONS_PATH)
+    public ResponseEntity<Object> getSuggestions(@RequestHeader(USER_REQUEST_HEADER) long userId,
+                                                 @PathVariable long requestId) {
+        log.info("Получен запрос GET к эндпоинту: {}/{}{} от пользователя с id = {}",
+                COMMON_ITEM_REQUEST_PATH, requestId, SUGGESTIONS_PATH, userId);
+        return itemRequestClient.getSuggestions(requestId, userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllByRequesterId(@RequestHeader(USER_REQUEST_HEADER) long requesterId) {
         log.info("Получен запрос GET к эндпоинту: {} от пользователя с id = {}",
@@ -44,11 +53,13 @@ public class ItemRequestController {
             @PositiveOrZero(message = NEGATIVE_FROM_ERROR)
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) int from,
             @Positive(message = NOT_POSITIVE_SIZE_ERROR)
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
         log.info("Получен запрос GET к эндпоинту: {}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_REQUEST_PATH, ALL_PATH, requesterId, from, size);
-        return itemRequestClient.getAll(requesterId, from, size);
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_REQUEST_PATH, ALL_PATH, requesterId, from, size, cursor, withTotal);
+        return itemRequestClient.getAll(requesterId, from, size, cursor, withTotal);
     }
 
     @PostMapping
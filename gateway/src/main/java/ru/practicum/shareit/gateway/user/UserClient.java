@@ -3,6 +3,7 @@ package ru.practicum.shareit.gateway.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -10,7 +11,10 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.gateway.client.BaseClient;
 import ru.practicum.shareit.gateway.user.dto.UserDto;
 
+import java.io.InputStream;
+
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.COMMON_USER_PATH;
+import static ru.practicum.shareit.gateway.user.UserController.IMPORT_PATH;
 
 @Service
 public class UserClient extends BaseClient {
@@ -19,10 +23,17 @@ public class UserClient extends BaseClient {
     public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + COMMON_USER_PATH))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .requestFactory(UserClient::streamingRequestFactory)
                 .build());
     }
 
+    /* Без буферизации тела: импорт пользователей пересылается серверу потоком */
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+
     public ResponseEntity<Object> get(long userId) {
         return get("/" + userId);
     }
@@ -42,4 +53,8 @@ public class UserClient extends BaseClient {
     public ResponseEntity<Object> delete(long userId) {
         return delete("/" + userId);
     }
+
+    public ResponseEntity<Object> importAll(InputStream ndjson) {
+        return postStream(IMPORT_PATH, ndjson, MediaType.APPLICATION_NDJSON);
+    }
 }
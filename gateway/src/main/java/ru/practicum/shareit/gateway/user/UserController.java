@@ -2,6 +2,7 @@ package ru.practicum.shareit.gateway.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 
 import static ru.practicum.shareit.gateway.ShareItGatewayConstants.COMMON_USER_PATH;
 
@@ -21,6 +23,7 @@ public class UserController {
 
     private final UserClient userClient;
     protected static final String USER_PREFIX = "/{userId}";
+    protected static final String IMPORT_PATH = "/import";
 
     @GetMapping(USER_PREFIX)
     public ResponseEntity<Object> getUserById(@PathVariable long userId) {
@@ -40,6 +43,13 @@ public class UserController {
         return userClient.create(userDto);
     }
 
+    /* Строки проверяет сервер порциями: тело не разбирается и не буферизуется, а пересылается как есть */
+    @PostMapping(path = IMPORT_PATH, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importAll(InputStream ndjson) {
+        log.info("Получен запрос POST к эндпоинту: {}{}", COMMON_USER_PATH, IMPORT_PATH);
+        return userClient.importAll(ndjson);
+    }
+
     @PatchMapping(USER_PREFIX)
     public ResponseEntity<Object> update(@RequestBody UserDto userDto,
                                          @PathVariable long userId) {
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.gateway.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+
+/*
+ * Выгрузки NDJSON проксируются с сервера и занимают поток асинхронного пула MVC всё время передачи.
+ * Пул ограничен и без очереди: выгрузка сверх него сразу получает 503. Бином не объявлен,
+ * чтобы не подменять applicationTaskExecutor.
+ */
+@Configuration
+public class AsyncSupportConfiguration implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public AsyncSupportConfiguration(@Value("${shareit.mvc.async.pool-size:8}") int poolSize,
+                                     @Value("${shareit.mvc.async.queue-capacity:0}") int queueCapacity) {
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.server.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.shareit.server.booking.BookingArchiver.ENABLED_PROPERTY;
+
+/*
+ * Фоновый перенос бронирований, завершившихся раньше чем shareit.booking.archive.age назад, из bookings
+ * в bookings_archive. Переносится порциями по shareit.booking.archive.chunk-size строк, каждая порция
+ * в своей транзакции: строки блокируются, копируются в архив и удаляются из оперативной таблицы.
+ * Ожидающие подтверждения бронирования остаются в оперативной таблице независимо от возраста.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "true")
+public class BookingArchiver {
+    public static final String ENABLED_PROPERTY = "shareit.booking.archive.enabled";
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, owner_id, status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration age;
+    private final int chunkSize;
+
+    public BookingArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.archive.age:P30D}") Duration age,
+                           @Value("${shareit.booking.archive.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.age = age;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.archive.initial-delay:PT1M}",
+            fixedDelayString = "${shareit.booking.archive.interval:PT1H}")
+    public void archive() {
+        long startedAt = System.nanoTime();
+        LocalDateTime threshold = LocalDateTime.now().minus(age);
+        long archived = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> archiveChunk(threshold));
+            archived += chunk;
+        } while (chunk == chunkSize);
+        if (archived > 0) {
+            log.info("В архив перенесено {} бронирований, завершившихся до {}, за {} мс",
+                    archived, threshold, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime threshold) {
+        List<Long> ids = jdbcTemplate.queryForList("select id from bookings " +
+                        "where end_date < :threshold and status <> 'WAITING' " +
+                        "order by end_date, id limit :limit for update",
+                new MapSqlParameterSource("threshold", threshold).addValue("limit", chunkSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource chunkIds = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update("insert into bookings_archive (" + COLUMNS + ") " +
+                "select " + COLUMNS + " from bookings where id in (:ids)", chunkIds);
+        jdbcTemplate.update("delete from bookings where id in (:ids)", chunkIds);
+        return ids.size();
+    }
+}
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.server.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.server.booking.dto.*;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Map;
 
 import static ru.practicum.shareit.server.ShareItServerConstants.*;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.*;
@@ -20,10 +28,13 @@ import static ru.practicum.shareit.server.pagination.PaginationConstant.*;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     protected static final String BOOKING_PREFIX = "/{bookingId}";
     protected static final String STATE_PREFIX = "?state=";
     protected static final String APPROVED_PREFIX = "?approved=";
     protected static final String OWNER_PATH = "/owner";
+    protected static final String COUNTS_PATH = "/counts";
+    protected static final String EXPORT_PATH = "/export";
     protected static final String BOOKING_REQUEST_PARAM_APPROVED_NAME = "approved";
     private static final String BOOKING_STATE_DEFAULT = "ALL";
 
@@ -41,15 +52,30 @@ public class BookingController {
             @RequestHeader(USER_REQUEST_HEADER) long userId,
             @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state,
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) long from,
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
         log.info("Получен запрос GET к эндпоинту: {}{}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_BOOKING_PATH, STATE_PREFIX, state, userId, from, size);
-        return bookingService.findAllWithStateForUser(
-                userId,
-                BookingState.valueOf(state),
-                PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC)
-        ).getContent();
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_BOOKING_PATH, STATE_PREFIX, state, userId, from, size, cursor, withTotal);
+        Collection<BookingDto> bookings;
+        if (cursor != null) {
+            bookings = PaginationUtils.withNextCursorHeader(
+                    bookingService.findAllWithStateForUser(userId, BookingState.valueOf(state), cursor, size),
+                    response);
+        } else {
+            bookings = bookingService.findAllWithStateForUser(
+                    userId,
+                    BookingState.valueOf(state),
+                    PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC)
+            ).getContent();
+        }
+        if (withTotal) {
+            response.setHeader(TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countWithStateForUser(userId, BookingState.valueOf(state))));
+        }
+        return bookings;
     }
 
     @GetMapping(OWNER_PATH)
@@ -57,15 +83,62 @@ public class BookingController {
             @RequestHeader(USER_REQUEST_HEADER) long ownerId,
             @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state,
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) long from,
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
         log.info("Получен запрос GET к эндпоинту: {}{}{}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_BOOKING_PATH, OWNER_PATH, STATE_PREFIX, state, ownerId, from, size);
-        return bookingService.findAllWithStateForOwner(
-                ownerId,
-                BookingState.valueOf(state),
-                PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC)
-        ).getContent();
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, STATE_PREFIX, state, ownerId, from, size, cursor, withTotal);
+        Collection<BookingDto> bookings;
+        if (cursor != null) {
+            bookings = PaginationUtils.withNextCursorHeader(
+                    bookingService.findAllWithStateForOwner(ownerId, BookingState.valueOf(state), cursor, size),
+                    response);
+        } else {
+            bookings = bookingService.findAllWithStateForOwner(
+                    ownerId,
+                    BookingState.valueOf(state),
+                    PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC)
+            ).getContent();
+        }
+        if (withTotal) {
+            response.setHeader(TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countWithStateForOwner(ownerId, BookingState.valueOf(state))));
+        }
+        return bookings;
+    }
+
+    @GetMapping(COUNTS_PATH)
+    public Map<BookingState, Long> getCountsForUser(@RequestHeader(USER_REQUEST_HEADER) long userId) {
+        log.info("Получен запрос GET к эндпоинту: {}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, COUNTS_PATH, userId);
+        return bookingService.countAllStatesForUser(userId);
+    }
+
+    @GetMapping(OWNER_PATH + COUNTS_PATH)
+    public Map<BookingState, Long> getCountsForOwner(@RequestHeader(USER_REQUEST_HEADER) long ownerId) {
+        log.info("Получен запрос GET к эндпоинту: {}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, COUNTS_PATH, ownerId);
+        return bookingService.countAllStatesForOwner(ownerId);
+    }
+
+    @GetMapping(EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportWithStateForUser(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state) {
+        log.info("Получен запрос GET к эндпоинту: {}{}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, EXPORT_PATH, STATE_PREFIX, state, userId);
+        return toNdjson(bookingService.exportWithStateForUser(userId, BookingState.valueOf(state)));
+    }
+
+    @GetMapping(OWNER_PATH + EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportWithStateForOwner(
+            @RequestHeader(USER_REQUEST_HEADER) long ownerId,
+            @RequestParam(defaultValue = BOOKING_STATE_DEFAULT) String state) {
+        log.info("Получен запрос GET к эндпоинту: {}{}{}{}{} от пользователя с id = {}",
+                COMMON_BOOKING_PATH, OWNER_PATH, EXPORT_PATH, STATE_PREFIX, state, ownerId);
+        return toNdjson(bookingService.exportWithStateForOwner(ownerId, BookingState.valueOf(state)));
     }
 
     @PostMapping
@@ -89,6 +162,20 @@ public class BookingController {
         return bookingService.setApproved(userId, bookingId, approved);
     }
 
+    /* Одно бронирование - одна строка JSON; буферизует только выходной поток контейнера */
+    private ResponseEntity<StreamingResponseBody> toNdjson(BookingExport export) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> export.forEach(booking -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(booking));
+                        out.write('\n');
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                }));
+    }
+
     protected BookingState parseBookingState(String state) {
         try {
             return BookingState.valueOf(state);
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.server.booking;
+
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+
+import java.util.function.Consumer;
+
+/* Выгрузка бронирований: строки читаются из БД при вызове forEach и передаются по одной, не собираясь в память */
+@FunctionalInterface
+public interface BookingExport {
+
+    void forEach(Consumer<BookingDto> action);
+}
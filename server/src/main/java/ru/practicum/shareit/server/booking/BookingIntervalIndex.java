@@ -0,0 +1,273 @@
+package ru.practicum.shareit.server.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.dto.BookingInterval;
+import ru.practicum.shareit.server.booking.dto.BookingShortDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.server.pagination.PaginationUtils.forEachByKeyset;
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+/*
+ * Бронирования каждой вещи в виде отсортированных массивов long (время в наносекундах UTC).
+ * Последнее/следующее бронирование и занятость вещи на интервал [start, end) находятся бинарным поиском
+ * без запросов в БД.
+ * Набор бронирований вещи неизменяем и при изменении подменяется целиком, поэтому чтение не берёт блокировок.
+ * При запуске загружаются только нужные индексу поля оперативных бронирований и по одному последнему
+ * архивному бронированию каждой вещи: архивные бронирования давно завершены и на поиск следующего бронирования
+ * и занятости вещи в будущем не влияют.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final BookingRepository bookingRepository;
+    private final int loadChunkSize;
+    private final Map<Long, ItemBookings> bookingsByItemId = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.load-chunk-size:10000}") int loadChunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        Map<Long, List<Interval>> intervals = new HashMap<>();
+        Map<Long, Long> owners = new HashMap<>();
+        long loaded = forEachByKeyset(PageRequest.of(0, loadChunkSize), bookingRepository::findIntervalsByIdGreaterThan,
+                BookingInterval::getId, booking -> add(booking, intervals, owners));
+        List<Long> archivedIds = bookingRepository.findLastArchivedIdsByItem();
+        for (int from = 0; from < archivedIds.size(); from += loadChunkSize) {
+            List<Long> ids = archivedIds.subList(from, Math.min(from + loadChunkSize, archivedIds.size()));
+            bookingRepository.findIntervalsInHistoryByIdIn(ids).forEach(booking -> add(booking, intervals, owners));
+        }
+        bookingsByItemId.clear();
+        intervals.forEach((itemId, itemIntervals) ->
+                bookingsByItemId.put(itemId, new ItemBookings(owners.get(itemId), itemIntervals)));
+        log.info("Загружены интервалы бронирований: {} оперативных и {} архивных бронирований {} вещей за {} мс",
+                loaded, archivedIds.size(), bookingsByItemId.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public BookingShortDto findLast(long itemId, LocalDateTime now) {
+        ItemBookings bookings = bookingsByItemId.get(itemId);
+        return bookings == null ? null : bookings.findLast(toEpochNanos(now));
+    }
+
+    public BookingShortDto findNext(long itemId, LocalDateTime now) {
+        ItemBookings bookings = bookingsByItemId.get(itemId);
+        return bookings == null ? null : bookings.findNext(toEpochNanos(now));
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemBookings bookings = bookingsByItemId.get(itemId);
+        return bookings == null || bookings.isFree(toEpochNanos(start), toEpochNanos(end));
+    }
+
+    public void index(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long ownerId = booking.getItem().getOwner().getId();
+        Interval interval = Interval.of(booking);
+        afterCommit(() -> bookingsByItemId.compute(itemId, (id, bookings) ->
+                bookings == null
+                        ? new ItemBookings(ownerId, List.of(interval))
+                        : bookings.with(interval)));
+    }
+
+    public void removeAllByUserId(long userId) {
+        afterCommit(() -> bookingsByItemId.keySet().forEach(itemId ->
+                bookingsByItemId.computeIfPresent(itemId, (id, bookings) -> bookings.withoutUser(userId))));
+    }
+
+    private static void add(BookingInterval booking, Map<Long, List<Interval>> intervals, Map<Long, Long> owners) {
+        intervals.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>()).add(Interval.of(booking));
+        owners.put(booking.getItemId(), booking.getOwnerId());
+    }
+
+    static long toEpochNanos(LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static class Interval {
+        private static final Comparator<Interval> BY_START = Comparator
+                .comparingLong((Interval interval) -> interval.start)
+                .thenComparingLong(interval -> interval.id);
+
+        private final long id;
+        private final long bookerId;
+        private final long start;
+        private final long end;
+        private final boolean active;
+
+        private Interval(long id, long bookerId, long start, long end, boolean active) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+            this.active = active;
+        }
+
+        private static Interval of(Booking booking) {
+            return new Interval(
+                    booking.getId(),
+                    booking.getBooker().getId(),
+                    toEpochNanos(booking.getStart()),
+                    toEpochNanos(booking.getEnd()),
+                    booking.getStatus() != BookingStatus.REJECTED);
+        }
+
+        private static Interval of(BookingInterval booking) {
+            return new Interval(
+                    booking.getId(),
+                    booking.getBookerId(),
+                    toEpochNanos(booking.getStart()),
+                    toEpochNanos(booking.getEnd()),
+                    booking.getStatus() != BookingStatus.REJECTED);
+        }
+    }
+
+    /*
+     * starts/ends/ids/bookerIds упорядочены по (start, id). maxActiveEnds[k] - наибольший конец среди
+     * неотклонённых бронирований 0..k. endOrder - позиции, упорядоченные по концу, lastByEnd[k] - позиция
+     * бронирования с наибольшим началом среди endOrder[0..k].
+     */
+    private static class ItemBookings {
+        private final long ownerId;
+        private final Interval[] intervals;
+        private final long[] starts;
+        private final long[] ids;
+        private final long[] bookerIds;
+        private final long[] maxActiveEnds;
+        private final long[] sortedEnds;
+        private final int[] lastByEnd;
+
+        private ItemBookings(long ownerId, List<Interval> source) {
+            this.ownerId = ownerId;
+            intervals = source.toArray(new Interval[0]);
+            Arrays.sort(intervals, Interval.BY_START);
+            int size = intervals.length;
+            starts = new long[size];
+            ids = new long[size];
+            bookerIds = new long[size];
+            maxActiveEnds = new long[size];
+            long maxActiveEnd = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                Interval interval = intervals[i];
+                starts[i] = interval.start;
+                ids[i] = interval.id;
+                bookerIds[i] = interval.bookerId;
+                if (interval.active) {
+                    maxActiveEnd = Math.max(maxActiveEnd, interval.end);
+                }
+                maxActiveEnds[i] = maxActiveEnd;
+            }
+            Integer[] endOrder = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                endOrder[i] = i;
+            }
+            Arrays.sort(endOrder, Comparator.comparingLong(position -> intervals[position].end));
+            sortedEnds = new long[size];
+            lastByEnd = new int[size];
+            for (int i = 0; i < size; i++) {
+                int position = endOrder[i];
+                sortedEnds[i] = intervals[position].end;
+                lastByEnd[i] = i == 0 || isLater(position, lastByEnd[i - 1]) ? position : lastByEnd[i - 1];
+            }
+        }
+
+        private BookingShortDto findLast(long now) {
+            int endedCount = countLess(sortedEnds, now);
+            return endedCount == 0 ? null : toShortDto(lastByEnd[endedCount - 1]);
+        }
+
+        private BookingShortDto findNext(long now) {
+            int position = countLessOrEqual(starts, now);
+            return position == starts.length ? null : toShortDto(position);
+        }
+
+        private boolean isFree(long start, long end) {
+            int startedCount = countLess(starts, end);
+            return startedCount == 0 || maxActiveEnds[startedCount - 1] <= start;
+        }
+
+        private ItemBookings with(Interval interval) {
+            List<Interval> updated = new ArrayList<>(intervals.length + 1);
+            for (Interval current : intervals) {
+                if (current.id != interval.id) {
+                    updated.add(current);
+                }
+            }
+            updated.add(interval);
+            return new ItemBookings(ownerId, updated);
+        }
+
+        private ItemBookings withoutUser(long userId) {
+            if (ownerId == userId) {
+                return null;
+            }
+            List<Interval> updated = new ArrayList<>(intervals.length);
+            for (Interval current : intervals) {
+                if (current.bookerId != userId) {
+                    updated.add(current);
+                }
+            }
+            if (updated.size() == intervals.length) {
+                return this;
+            }
+            return updated.isEmpty() ? null : new ItemBookings(ownerId, updated);
+        }
+
+        private boolean isLater(int position, int other) {
+            return starts[position] > starts[other] || starts[position] == starts[other] && ids[position] < ids[other];
+        }
+
+        private BookingShortDto toShortDto(int position) {
+            return BookingShortDto.builder()
+                    .id(ids[position])
+                    .bookerId(bookerIds[position])
+                    .build();
+        }
+
+        private static int countLess(long[] sorted, long value) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sorted[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static int countLessOrEqual(long[] sorted, long value) {
+            return value == Long.MAX_VALUE ? sorted.length : countLess(sorted, value + 1);
+        }
+    }
+}
@@ -1,57 +1,252 @@
 package ru.practicum.shareit.server.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.booking.dto.BookingInterval;
+import ru.practicum.shareit.server.booking.dto.BookingProjection;
+import ru.practicum.shareit.server.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingHistory;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.exception.NotFoundException;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String PROJECTION = "select new ru.practicum.shareit.server.booking.dto.BookingProjection(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.requestId, " +
+            "u.id, u.name, u.email) ";
+    String SELECT_PROJECTION = PROJECTION + "from Booking b join b.item i join b.booker u ";
+    /* Оперативные бронирования вместе с архивными, упорядоченные так же, как оперативные */
+    String SELECT_HISTORY_PROJECTION = PROJECTION + "from BookingHistory b join b.item i join b.booker u ";
+    String SELECT_INTERVAL = "select new ru.practicum.shareit.server.booking.dto.BookingInterval(" +
+            "b.id, b.item.id, b.ownerId, b.booker.id, b.start, b.end, b.status) ";
+    /* Все состояния BookingState выражаются одним предикатом: набор статусов и диапазоны начала и конца */
+    String STATE_PREDICATE = "and b.status in :statuses " +
+            "and b.start between :minStart and :maxStart " +
+            "and b.end between :minEnd and :maxEnd ";
+    String COUNT_STATES = "select new ru.practicum.shareit.server.booking.dto.BookingStateCounts(count(b), " +
+            "sum(case when b.start <= :now and b.end >= :now then 1 else 0 end), " +
+            "sum(case when b.start > :now then 1 else 0 end), " +
+            "sum(case when b.end < :now then 1 else 0 end), " +
+            "sum(case when b.status = ru.practicum.shareit.server.booking.model.BookingStatus.REJECTED " +
+            "then 1 else 0 end), " +
+            "sum(case when b.status = ru.practicum.shareit.server.booking.model.BookingStatus.WAITING " +
+            "then 1 else 0 end)) " +
+            "from BookingHistory b ";
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Override
+    @EntityGraph(Booking.DETAIL_GRAPH)
+    Optional<Booking> findById(Long id);
 
     default Booking extract(long id) {
         return findById(id).orElseThrow(
                 () -> new NotFoundException("Запрос на несуществующее бронирование с id = " + id));
     }
 
-    Page<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+    @Query("select b from BookingHistory b join fetch b.item i join fetch i.owner join fetch b.booker where b.id = ?1")
+    Optional<BookingHistory> findInHistoryById(long id);
+
+    /* Архивное бронирование возвращается отсоединённой копией только для чтения */
+    default Booking extractFromHistory(long id) {
+        return findById(id).or(() -> findInHistoryById(id).map(BookingHistory::toBooking)).orElseThrow(
+                () -> new NotFoundException("Запрос на несуществующее бронирование с id = " + id));
+    }
+
+    @Query(SELECT_PROJECTION + "where u.id = :userId " + STATE_PREDICATE)
+    Slice<BookingProjection> findAllForBooker(@Param("userId") long bookerId,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("minStart") LocalDateTime minStart,
+                                              @Param("maxStart") LocalDateTime maxStart,
+                                              @Param("minEnd") LocalDateTime minEnd,
+                                              @Param("maxEnd") LocalDateTime maxEnd,
+                                              Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "where b.ownerId = :userId " + STATE_PREDICATE)
+    Slice<BookingProjection> findAllForOwner(@Param("userId") long ownerId,
+                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("minStart") LocalDateTime minStart,
+                                             @Param("maxStart") LocalDateTime maxStart,
+                                             @Param("minEnd") LocalDateTime minEnd,
+                                             @Param("maxEnd") LocalDateTime maxEnd,
+                                             Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "where u.id = :userId " +
+            STATE_PREDICATE +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingProjection> findAllForBookerBefore(@Param("userId") long bookerId,
+                                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("minStart") LocalDateTime minStart,
+                                                   @Param("maxStart") LocalDateTime maxStart,
+                                                   @Param("minEnd") LocalDateTime minEnd,
+                                                   @Param("maxEnd") LocalDateTime maxEnd,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("id") long id,
+                                                   Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerId(long ownerId, Pageable pageable);
+    @Query(SELECT_PROJECTION + "where b.ownerId = :userId " +
+            STATE_PREDICATE +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingProjection> findAllForOwnerBefore(@Param("userId") long ownerId,
+                                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                                  @Param("minStart") LocalDateTime minStart,
+                                                  @Param("maxStart") LocalDateTime maxStart,
+                                                  @Param("minEnd") LocalDateTime minEnd,
+                                                  @Param("maxEnd") LocalDateTime maxEnd,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("id") long id,
+                                                  Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStatus(
-            long bookerId, BookingStatus status, Pageable pageable);
+    @Query("select count(b) from Booking b where b.booker.id = :userId " +
+            STATE_PREDICATE)
+    long countForBooker(@Param("userId") long bookerId,
+                        @Param("statuses") Collection<BookingStatus> statuses,
+                        @Param("minStart") LocalDateTime minStart,
+                        @Param("maxStart") LocalDateTime maxStart,
+                        @Param("minEnd") LocalDateTime minEnd,
+                        @Param("maxEnd") LocalDateTime maxEnd);
 
-    Page<Booking> findAllByItemOwnerIdAndStatus(
-            long ownerId, BookingStatus status, Pageable pageable);
+    @Query("select count(b) from Booking b where b.ownerId = :userId " +
+            STATE_PREDICATE)
+    long countForOwner(@Param("userId") long ownerId,
+                       @Param("statuses") Collection<BookingStatus> statuses,
+                       @Param("minStart") LocalDateTime minStart,
+                       @Param("maxStart") LocalDateTime maxStart,
+                       @Param("minEnd") LocalDateTime minEnd,
+                       @Param("maxEnd") LocalDateTime maxEnd);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start <= ?2 and b.end >= ?2")
-    Page<Booking> findAllCurrentForBooker(long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_HISTORY_PROJECTION + "where u.id = :userId " + STATE_PREDICATE)
+    Slice<BookingProjection> findAllForBookerWithArchive(@Param("userId") long bookerId,
+                                                         @Param("statuses") Collection<BookingStatus> statuses,
+                                                         @Param("minStart") LocalDateTime minStart,
+                                                         @Param("maxStart") LocalDateTime maxStart,
+                                                         @Param("minEnd") LocalDateTime minEnd,
+                                                         @Param("maxEnd") LocalDateTime maxEnd,
+                                                         Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start <= ?2 and b.end >= ?2")
-    Page<Booking> findAllCurrentForOwner(long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_HISTORY_PROJECTION + "where b.ownerId = :userId " + STATE_PREDICATE)
+    Slice<BookingProjection> findAllForOwnerWithArchive(@Param("userId") long ownerId,
+                                                        @Param("statuses") Collection<BookingStatus> statuses,
+                                                        @Param("minStart") LocalDateTime minStart,
+                                                        @Param("maxStart") LocalDateTime maxStart,
+                                                        @Param("minEnd") LocalDateTime minEnd,
+                                                        @Param("maxEnd") LocalDateTime maxEnd,
+                                                        Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndEndLessThan(
-            long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_HISTORY_PROJECTION + "where u.id = :userId " +
+            STATE_PREDICATE +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingProjection> findAllForBookerBeforeWithArchive(@Param("userId") long bookerId,
+                                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                                              @Param("minStart") LocalDateTime minStart,
+                                                              @Param("maxStart") LocalDateTime maxStart,
+                                                              @Param("minEnd") LocalDateTime minEnd,
+                                                              @Param("maxEnd") LocalDateTime maxEnd,
+                                                              @Param("start") LocalDateTime start,
+                                                              @Param("id") long id,
+                                                              Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerIdAndEndLessThan(
-            long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_HISTORY_PROJECTION + "where b.ownerId = :userId " +
+            STATE_PREDICATE +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingProjection> findAllForOwnerBeforeWithArchive(@Param("userId") long ownerId,
+                                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                                             @Param("minStart") LocalDateTime minStart,
+                                                             @Param("maxStart") LocalDateTime maxStart,
+                                                             @Param("minEnd") LocalDateTime minEnd,
+                                                             @Param("maxEnd") LocalDateTime maxEnd,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("id") long id,
+                                                             Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartGreaterThan(
-            long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("select count(b) from BookingHistory b where b.booker.id = :userId " +
+            STATE_PREDICATE)
+    long countForBookerWithArchive(@Param("userId") long bookerId,
+                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                   @Param("minStart") LocalDateTime minStart,
+                                   @Param("maxStart") LocalDateTime maxStart,
+                                   @Param("minEnd") LocalDateTime minEnd,
+                                   @Param("maxEnd") LocalDateTime maxEnd);
 
-    Page<Booking> findAllByItemOwnerIdAndStartGreaterThan(
-            long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("select count(b) from BookingHistory b where b.ownerId = :userId " +
+            STATE_PREDICATE)
+    long countForOwnerWithArchive(@Param("userId") long ownerId,
+                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                  @Param("minStart") LocalDateTime minStart,
+                                  @Param("maxStart") LocalDateTime maxStart,
+                                  @Param("minEnd") LocalDateTime minEnd,
+                                  @Param("maxEnd") LocalDateTime maxEnd);
 
-    Booking findFirstByItemIdAndEndLessThanOrderByStartDesc(
-            long itemId, LocalDateTime now);
+    /*
+     * Выгрузка всей истории: строки читаются курсором БД порциями по EXPORT_FETCH_SIZE и в память не собираются.
+     * Поток нужно закрыть внутри транзакции
+     */
+    @Query(SELECT_HISTORY_PROJECTION + "where u.id = :userId " + STATE_PREDICATE + "order by b.start desc, b.id desc")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<BookingProjection> streamAllForBookerWithArchive(@Param("userId") long bookerId,
+                                                            @Param("statuses") Collection<BookingStatus> statuses,
+                                                            @Param("minStart") LocalDateTime minStart,
+                                                            @Param("maxStart") LocalDateTime maxStart,
+                                                            @Param("minEnd") LocalDateTime minEnd,
+                                                            @Param("maxEnd") LocalDateTime maxEnd);
 
-    Booking findFirstByItemIdAndStartGreaterThanOrderByStartAsc(
-            long itemId, LocalDateTime now);
+    @Query(SELECT_HISTORY_PROJECTION + "where b.ownerId = :userId " + STATE_PREDICATE +
+            "order by b.start desc, b.id desc")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<BookingProjection> streamAllForOwnerWithArchive(@Param("userId") long ownerId,
+                                                           @Param("statuses") Collection<BookingStatus> statuses,
+                                                           @Param("minStart") LocalDateTime minStart,
+                                                           @Param("maxStart") LocalDateTime maxStart,
+                                                           @Param("minEnd") LocalDateTime minEnd,
+                                                           @Param("maxEnd") LocalDateTime maxEnd);
+
+    @Query(COUNT_STATES + "where b.booker.id = :userId")
+    BookingStateCounts countStatesForBooker(@Param("userId") long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(COUNT_STATES + "where b.ownerId = :userId")
+    BookingStateCounts countStatesForOwner(@Param("userId") long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_INTERVAL + "from Booking b where b.id > ?1 order by b.id")
+    List<BookingInterval> findIntervalsByIdGreaterThan(long id, Pageable pageable);
+
+    /* Архивные бронирования завершены, поэтому для каждой вещи важно только последнее из них по началу */
+    @Query(value = "select r.id from (" +
+            "select a.id, row_number() over (partition by a.item_id order by a.start_date desc, a.id) as position " +
+            "from bookings_archive a) r " +
+            "where r.position = 1 " +
+            "order by r.id",
+            nativeQuery = true)
+    List<Long> findLastArchivedIdsByItem();
+
+    @Query(SELECT_INTERVAL + "from BookingHistory b where b.id in ?1")
+    List<BookingInterval> findIntervalsInHistoryByIdIn(Collection<Long> ids);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 " +
+            "and b.id <> ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3 " +
+            "and b.status = ru.practicum.shareit.server.booking.model.BookingStatus.APPROVED")
+    boolean existsApprovedOverlapping(long itemId, long excludedId, LocalDateTime start, LocalDateTime end);
 
-    @Query("select count (b) from Booking b " +
+    @Query("select count (b) from BookingHistory b " +
             "where b.booker.id = ?1 " +
             "and b.item.id = ?2 " +
             "and b.end < ?3 " +
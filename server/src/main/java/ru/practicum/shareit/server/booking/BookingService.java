@@ -1,18 +1,37 @@
 package ru.practicum.shareit.server.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.server.booking.dto.BookingState;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+import java.util.Map;
 
 public interface BookingService {
 
     BookingDto findByIdForUser(long userId, long id);
 
-    Page<BookingDto> findAllWithStateForUser(long userId, BookingState state, Pageable pageable);
+    Slice<BookingDto> findAllWithStateForUser(long userId, BookingState state, Pageable pageable);
+
+    Slice<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, Pageable pageable);
+
+    CursorPage<BookingDto> findAllWithStateForUser(long userId, BookingState state, String cursor, int size);
+
+    CursorPage<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, String cursor, int size);
+
+    long countWithStateForUser(long userId, BookingState state);
+
+    long countWithStateForOwner(long ownerId, BookingState state);
+
+    Map<BookingState, Long> countAllStatesForUser(long userId);
+
+    Map<BookingState, Long> countAllStatesForOwner(long ownerId);
+
+    BookingExport exportWithStateForUser(long userId, BookingState state);
 
-    Page<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, Pageable pageable);
+    BookingExport exportWithStateForOwner(long ownerId, BookingState state);
 
     BookingDto create(long userId, BookingIncomingDto bookingDto);
 
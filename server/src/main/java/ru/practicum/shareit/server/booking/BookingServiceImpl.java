@@ -4,34 +4,54 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.server.booking.dto.*;
 import ru.practicum.shareit.server.booking.model.*;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    static final String NO_OVERLAPPING_APPROVED_CONSTRAINT = "no_overlapping_approved_bookings";
+
     ItemRepository itemRepository;
     BookingRepository bookingRepository;
+    BookingIntervalIndex bookingIntervalIndex;
     UserRepository userRepository;
+    UserIdIndex userIdIndex;
+    TotalCountCache totalCountCache;
+    TransactionTemplate transactionTemplate;
 
     @Override
     public BookingDto findByIdForUser(long userId, long bookingId) {
         User user = userRepository.extract(userId);
-        Booking booking = bookingRepository.extract(bookingId);
+        Booking booking = bookingRepository.extractFromHistory(bookingId);
 
         if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
             throw new NotFoundException("Невозможно получить бронирование id = " + bookingId +
@@ -41,73 +61,89 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Page<BookingDto> findAllWithStateForUser(long userId, BookingState state, Pageable pageable) {
-        userRepository.extract(userId);
-        LocalDateTime now = LocalDateTime.now();
-        Page<Booking> result;
-        switch (state) {
-            case ALL:
-                result = bookingRepository.findAllByBookerId(userId, pageable);
-                break;
-            case WAITING:
-                result = bookingRepository.findAllByBookerIdAndStatus(
-                        userId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                result = bookingRepository.findAllByBookerIdAndStatus(
-                        userId, BookingStatus.REJECTED, pageable);
-                break;
-            case CURRENT:
-                result = bookingRepository.findAllCurrentForBooker(userId, now, pageable);
-                break;
-            case PAST:
-                result = bookingRepository.findAllByBookerIdAndEndLessThan(
-                        userId, now, pageable);
-                break;
-            case FUTURE:
-                result = bookingRepository.findAllByBookerIdAndStartGreaterThan(
-                        userId, now, pageable);
-                break;
-            default:
-                throw new InvalidConditionException("Unknown state: " + state);
-        }
-        return result
-                .map(BookingMapper::toBookingDto);
+    public Slice<BookingDto> findAllWithStateForUser(long userId, BookingState state, Pageable pageable) {
+        userIdIndex.requireExists(userId);
+        BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+        Slice<BookingProjection> bookings = bounds.withArchive
+                ? bookingRepository.findAllForBookerWithArchive(userId, bounds.statuses,
+                        bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable)
+                : bookingRepository.findAllForBooker(userId, bounds.statuses,
+                        bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable);
+        return bookings.map(BookingMapper::toBookingDto);
     }
 
     @Override
-    public Page<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, Pageable pageable) {
-        userRepository.extract(ownerId);
-        LocalDateTime now = LocalDateTime.now();
-        Page<Booking> result;
-        switch (state) {
-            case ALL:
-                result = bookingRepository.findAllByItemOwnerId(ownerId, pageable);
-                break;
-            case WAITING:
-                result = bookingRepository.findAllByItemOwnerIdAndStatus(
-                        ownerId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                result = bookingRepository.findAllByItemOwnerIdAndStatus(
-                        ownerId, BookingStatus.REJECTED, pageable);
-                break;
-            case CURRENT:
-                result = bookingRepository.findAllCurrentForOwner(ownerId, now, pageable);
-                break;
-            case PAST:
-                result = bookingRepository.findAllByItemOwnerIdAndEndLessThan(
-                        ownerId, now, pageable);
-                break;
-            case FUTURE:
-                result = bookingRepository.findAllByItemOwnerIdAndStartGreaterThan(
-                        ownerId, now, pageable);
-                break;
-            default:
-                throw new InvalidConditionException("Unknown state: " + state);
-        }
-        return result
-                .map(BookingMapper::toBookingDto);
+    public Slice<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, Pageable pageable) {
+        userIdIndex.requireExists(ownerId);
+        BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+        Slice<BookingProjection> bookings = bounds.withArchive
+                ? bookingRepository.findAllForOwnerWithArchive(ownerId, bounds.statuses,
+                        bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable)
+                : bookingRepository.findAllForOwner(ownerId, bounds.statuses,
+                        bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable);
+        return bookings.map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public CursorPage<BookingDto> findAllWithStateForUser(long userId, BookingState state, String cursor, int size) {
+        userIdIndex.requireExists(userId);
+        return findAllWithStateBefore(userId, state, cursor, size,
+                bookingRepository::findAllForBookerBefore, bookingRepository::findAllForBookerBeforeWithArchive);
+    }
+
+    @Override
+    public CursorPage<BookingDto> findAllWithStateForOwner(long ownerId, BookingState state, String cursor, int size) {
+        userIdIndex.requireExists(ownerId);
+        return findAllWithStateBefore(ownerId, state, cursor, size,
+                bookingRepository::findAllForOwnerBefore, bookingRepository::findAllForOwnerBeforeWithArchive);
+    }
+
+    @Override
+    public long countWithStateForUser(long userId, BookingState state) {
+        return totalCountCache.get("bookings:booker:" + userId + ":" + state, () -> {
+            BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+            return bounds.withArchive
+                    ? bookingRepository.countForBookerWithArchive(userId, bounds.statuses,
+                            bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd)
+                    : bookingRepository.countForBooker(userId, bounds.statuses,
+                            bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd);
+        });
+    }
+
+    @Override
+    public long countWithStateForOwner(long ownerId, BookingState state) {
+        return totalCountCache.get("bookings:owner:" + ownerId + ":" + state, () -> {
+            BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+            return bounds.withArchive
+                    ? bookingRepository.countForOwnerWithArchive(ownerId, bounds.statuses,
+                            bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd)
+                    : bookingRepository.countForOwner(ownerId, bounds.statuses,
+                            bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd);
+        });
+    }
+
+    @Override
+    public Map<BookingState, Long> countAllStatesForUser(long userId) {
+        userIdIndex.requireExists(userId);
+        return bookingRepository.countStatesForBooker(userId, LocalDateTime.now()).toMap();
+    }
+
+    @Override
+    public Map<BookingState, Long> countAllStatesForOwner(long ownerId) {
+        userIdIndex.requireExists(ownerId);
+        return bookingRepository.countStatesForOwner(ownerId, LocalDateTime.now()).toMap();
+    }
+
+    @Override
+    public BookingExport exportWithStateForUser(long userId, BookingState state) {
+        userIdIndex.requireExists(userId);
+        return exportWithState(userId, state, bookingRepository::streamAllForBookerWithArchive);
+    }
+
+    @Override
+    public BookingExport exportWithStateForOwner(long ownerId, BookingState state) {
+        userIdIndex.requireExists(ownerId);
+        return exportWithState(ownerId, state, bookingRepository::streamAllForOwnerWithArchive);
     }
 
     @Transactional
@@ -125,7 +161,9 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Booking newBooking = BookingMapper.toBooking(dto, item, booker);
+        requireNoApprovedOverlap(newBooking);
         Booking createdBooking = bookingRepository.save(newBooking);
+        bookingIntervalIndex.index(createdBooking);
         log.info("Добавлено бронирование с id = {} для вещи с id = {} владельца с id = {}",
                 createdBooking.getId(), item.getId(), userId);
         return BookingMapper.toBookingDto(createdBooking);
@@ -134,7 +172,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingDto setApproved(long userId, long id, boolean approved) {
-        userRepository.extract(userId);
+        userIdIndex.requireExists(userId);
         Booking booking = bookingRepository.extract(id);
 
         if (booking.getItem().getOwner().getId() != userId) {
@@ -146,14 +184,85 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidConditionException("Бронирование с id = " + id + " уже одобрено");
         }
         if (approved) {
+            /* Блокировка строки вещи выстраивает одобрения её бронирований в очередь, проверка ниже без гонок */
+            itemRepository.extractForUpdate(booking.getItem().getId());
+            requireNoApprovedOverlap(booking);
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveApproval(booking);
+        bookingIntervalIndex.index(updatedBooking);
         log.info("Владельцем (пользователь id = {}) вещи в бронировании с id = {} изменён статус бронирования на {}",
                 userId, id, updatedBooking.getStatus());
         return BookingMapper.toBookingDto(updatedBooking);
     }
 
+    private void requireNoApprovedOverlap(Booking booking) {
+        if (bookingRepository.existsApprovedOverlapping(booking.getItem().getId(),
+                booking.getId() == null ? 0 : booking.getId(), booking.getStart(), booking.getEnd())) {
+            throw overlapConflict(booking);
+        }
+    }
+
+    /* В PostgreSQL пересечения одобренных бронирований дополнительно запрещает ограничение-исключение */
+    private Booking saveApproval(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException exception) {
+            String cause = exception.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(NO_OVERLAPPING_APPROVED_CONSTRAINT)) {
+                throw overlapConflict(booking);
+            }
+            throw exception;
+        }
+    }
+
+    private static ConflictException overlapConflict(Booking booking) {
+        return new ConflictException("Вещь с id = " + booking.getItem().getId() +
+                " уже забронирована на пересекающийся период с " + booking.getStart() + " по " + booking.getEnd());
+    }
+
+    private CursorPage<BookingDto> findAllWithStateBefore(long userId, BookingState state, String cursor, int size,
+                                                          BookingSeekQuery hotQuery, BookingSeekQuery archiveQuery) {
+        Cursor before = Cursor.decode(cursor);
+        BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+        BookingSeekQuery query = bounds.withArchive ? archiveQuery : hotQuery;
+        List<BookingProjection> bookings = query.find(userId, bounds.statuses,
+                bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd,
+                before == null ? MAX_CURSOR_DATE_TIME : before.getKeyAsDateTime(),
+                before == null ? Long.MAX_VALUE : before.getId(),
+                PageRequest.of(0, size + 1));
+        return CursorPage.of(bookings, size,
+                booking -> Cursor.of(booking.getStart(), booking.getId()),
+                BookingMapper::toBookingDto);
+    }
+
+    /*
+     * Пользователь проверяется сразу, а курсор открывается уже при записи ответа, в отдельной транзакции:
+     * поток из репозитория живёт только внутри неё. Выгрузка редкая и всегда читает историю вместе с архивом
+     */
+    private BookingExport exportWithState(long userId, BookingState state, BookingStreamQuery query) {
+        BookingStateBounds bounds = BookingStateBounds.of(state, LocalDateTime.now());
+        return action -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingProjection> bookings = query.stream(userId, bounds.statuses,
+                    bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd)) {
+                bookings.map(BookingMapper::toBookingDto).forEach(action);
+            }
+        });
+    }
+
+    private interface BookingStreamQuery {
+        Stream<BookingProjection> stream(long userId, Collection<BookingStatus> statuses,
+                                         LocalDateTime minStart, LocalDateTime maxStart,
+                                         LocalDateTime minEnd, LocalDateTime maxEnd);
+    }
+
+    private interface BookingSeekQuery {
+        List<BookingProjection> find(long userId, Collection<BookingStatus> statuses,
+                           LocalDateTime minStart, LocalDateTime maxStart,
+                           LocalDateTime minEnd, LocalDateTime maxEnd,
+                           LocalDateTime start, long id, Pageable pageable);
+    }
+
 }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.server.booking;
+
+import ru.practicum.shareit.server.booking.dto.BookingState;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.exception.InvalidConditionException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MIN_CURSOR_DATE_TIME;
+
+/*
+ * Параметры единого предиката BookingRepository.STATE_PREDICATE для каждого состояния BookingState:
+ * набор статусов и границы начала и конца бронирования.
+ * В архив попадают только завершившиеся и рассмотренные бронирования, поэтому CURRENT, FUTURE и WAITING
+ * читают лишь оперативную таблицу, а ALL, PAST и REJECTED - ещё и архив.
+ */
+class BookingStateBounds {
+    Collection<BookingStatus> statuses = EnumSet.allOf(BookingStatus.class);
+    LocalDateTime minStart = MIN_CURSOR_DATE_TIME;
+    LocalDateTime maxStart = MAX_CURSOR_DATE_TIME;
+    LocalDateTime minEnd = MIN_CURSOR_DATE_TIME;
+    LocalDateTime maxEnd = MAX_CURSOR_DATE_TIME;
+    boolean withArchive;
+
+    static BookingStateBounds of(BookingState state, LocalDateTime now) {
+        BookingStateBounds bounds = new BookingStateBounds();
+        switch (state) {
+            case ALL:
+                bounds.withArchive = true;
+                break;
+            case WAITING:
+                bounds.statuses = EnumSet.of(BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                bounds.statuses = EnumSet.of(BookingStatus.REJECTED);
+                bounds.withArchive = true;
+                break;
+            case CURRENT:
+                bounds.maxStart = now;
+                bounds.minEnd = now;
+                break;
+            case PAST:
+                bounds.maxEnd = now.minusNanos(1);
+                bounds.withArchive = true;
+                break;
+            case FUTURE:
+                bounds.minStart = now.plusNanos(1);
+                break;
+            default:
+                throw new InvalidConditionException("Unknown state: " + state);
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/*
+ * Бронирование в объёме, нужном индексу интервалов: только идентификаторы, границы и статус,
+ * без загрузки сущностей Booking, Item и User.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BookingInterval {
+    Long id;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+}
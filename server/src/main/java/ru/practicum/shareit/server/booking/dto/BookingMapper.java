@@ -3,11 +3,16 @@ package ru.practicum.shareit.server.booking.dto;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemMapper;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @UtilityClass
 public class BookingMapper {
 
@@ -22,6 +27,27 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingProjection projection) {
+        return BookingDto.builder()
+                .id(projection.getId())
+                .start(projection.getStart())
+                .end(projection.getEnd())
+                .item(ItemDto.builder()
+                        .id(projection.getItemId())
+                        .name(projection.getItemName())
+                        .description(projection.getItemDescription())
+                        .available(projection.getItemAvailable())
+                        .requestId(projection.getItemRequestId())
+                        .build())
+                .booker(UserDto.builder()
+                        .id(projection.getBookerId())
+                        .name(projection.getBookerName())
+                        .email(projection.getBookerEmail())
+                        .build())
+                .status(projection.getStatus())
+                .build();
+    }
+
     public static BookingShortDto toBookingShortDto(Booking bookingStorage) {
         if (bookingStorage == null) return null;
         return BookingShortDto.builder()
@@ -32,11 +58,15 @@ public class BookingMapper {
 
     public static Booking toBooking(BookingIncomingDto bookingDto, Item item, User booker) {
         return Booking.builder()
-                .start(bookingDto.getStart())
-                .end(bookingDto.getEnd())
+                .start(toStoredPrecision(bookingDto.getStart()))
+                .end(toStoredPrecision(bookingDto.getEnd()))
                 .item(item)
                 .booker(booker)
                 .status(BookingStatus.WAITING)
                 .build();
     }
+
+    private static LocalDateTime toStoredPrecision(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.truncatedTo(ChronoUnit.MICROS);
+    }
 }
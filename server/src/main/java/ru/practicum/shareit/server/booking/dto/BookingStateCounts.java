@@ -0,0 +1,49 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Количество бронирований по всем состояниям BookingState, посчитанное одним запросом
+ * с условными суммами (sum(case ...)). Для пустой выборки sum возвращает null, он считается нулём.
+ */
+@Getter
+@EqualsAndHashCode
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BookingStateCounts {
+    long all;
+    long current;
+    long future;
+    long past;
+    long rejected;
+    long waiting;
+
+    public BookingStateCounts(Long all, Long current, Long future, Long past, Long rejected, Long waiting) {
+        this.all = valueOf(all);
+        this.current = valueOf(current);
+        this.future = valueOf(future);
+        this.past = valueOf(past);
+        this.rejected = valueOf(rejected);
+        this.waiting = valueOf(waiting);
+    }
+
+    public Map<BookingState, Long> toMap() {
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        counts.put(BookingState.ALL, all);
+        counts.put(BookingState.CURRENT, current);
+        counts.put(BookingState.FUTURE, future);
+        counts.put(BookingState.PAST, past);
+        counts.put(BookingState.REJECTED, rejected);
+        counts.put(BookingState.WAITING, waiting);
+        return counts;
+    }
+
+    private static long valueOf(Long count) {
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.server.booking.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+ * Все бронирования, оперативные и архивные: представление bookings_history объединяет таблицы bookings
+ * и bookings_archive. Только для чтения, изменяются бронирования через Booking.
+ */
+@Entity
+@Immutable
+@Synchronize({"bookings", "bookings_archive"})
+@Table(name = "bookings_history")
+@NoArgsConstructor
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingHistory {
+    @Id
+    Long id;
+    @Column(name = "start_date")
+    LocalDateTime start;
+    @Column(name = "end_date")
+    LocalDateTime end;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    Item item;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false)
+    User booker;
+    @Enumerated(EnumType.STRING)
+    BookingStatus status;
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+
+    public Booking toBooking() {
+        return new Booking(id, start, end, item, booker, status, ownerId);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.server.concurrent;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+public class LockUtils {
+    public static <T> T read(ReadWriteLock lock, Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static void write(ReadWriteLock lock, Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
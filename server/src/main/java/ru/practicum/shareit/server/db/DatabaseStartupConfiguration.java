@@ -0,0 +1,27 @@
+package ru.practicum.shareit.server.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Режим запуска выбирается профилем: dev пересоздаёт схему с нуля, test загружает исходные данные
+ * скриптом spring.sql.init, в остальных профилях применяются только новые миграции
+ */
+@Slf4j
+@Configuration
+public class DatabaseStartupConfiguration {
+    public static final String RESET_ON_START_PROPERTY = "shareit.db.reset-on-start";
+
+    @Bean
+    @ConditionalOnProperty(name = RESET_ON_START_PROPERTY, havingValue = "true")
+    public FlywayMigrationStrategy resetMigrationStrategy() {
+        return flyway -> {
+            log.warn("Схема БД очищается и создаётся заново");
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
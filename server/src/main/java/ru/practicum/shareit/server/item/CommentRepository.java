@@ -1,10 +1,20 @@
 package ru.practicum.shareit.server.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.server.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(Comment.WITH_AUTHOR_GRAPH)
     List<Comment> findAllByItem_IdOrderByCreatedDesc(long itemId);
-}
\ No newline at end of file
+
+    @Query("select c from Comment c " +
+            "left join fetch c.author " +
+            "where c.item.id in ?1 " +
+            "order by c.created desc")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+}
@@ -3,11 +3,15 @@ package ru.practicum.shareit.server.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.server.ShareItServerConstants.*;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.*;
@@ -22,6 +26,10 @@ public class ItemController {
     protected static final String SEARCH_PATH = "/search";
     protected static final String SEARCH_PREFIX = "?text=";
     protected static final String COMMENT_PATH = "/comment";
+    protected static final String BATCH_PATH = "/batch";
+    protected static final String SUGGEST_PATH = "/suggest";
+    protected static final String AVAILABILITY_PATH = "/availability";
+    protected static final String DEFAULT_SUGGEST_LIMIT_AS_STRING = "10";
 
     @GetMapping(ITEM_PREFIX)
     public ItemDto getItemById(@RequestHeader(USER_REQUEST_HEADER) long userId,
@@ -34,14 +42,26 @@ public class ItemController {
     public Collection<ItemDto> getAllByOwnerId(
             @RequestHeader(USER_REQUEST_HEADER) long ownerId,
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) long from,
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
         log.info("Получен запрос GET к эндпоинту: {} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_PATH, ownerId, from, size);
-        return itemService.findAllByOwnerId(
-                ownerId,
-                PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT)
-        ).getContent();
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_PATH, ownerId, from, size, cursor, withTotal);
+        Collection<ItemDto> items;
+        if (cursor != null) {
+            items = PaginationUtils.withNextCursorHeader(itemService.findAllByOwnerId(ownerId, cursor, size), response);
+        } else {
+            items = itemService.findAllByOwnerId(
+                    ownerId,
+                    PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT)
+            ).getContent();
+        }
+        if (withTotal) {
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(itemService.countByOwnerId(ownerId)));
+        }
+        return items;
     }
 
     @PostMapping
@@ -52,6 +72,14 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(BATCH_PATH)
+    public List<ItemDto> createAll(@RequestHeader(USER_REQUEST_HEADER) long userId,
+                                   @RequestBody List<ItemIncomingDto> itemDtos) {
+        log.info("Получен запрос POST к эндпоинту: {}{} от пользователя с id = {}. Количество вещей: {}",
+                COMMON_ITEM_PATH, BATCH_PATH, userId, itemDtos.size());
+        return itemService.createAll(itemDtos, userId);
+    }
+
     @PatchMapping(ITEM_PREFIX)
     public ItemDto update(@RequestHeader(USER_REQUEST_HEADER) long userId,
                           @PathVariable long itemId,
@@ -65,14 +93,46 @@ public class ItemController {
     public Collection<ItemDto> getAvailableByText(
             @RequestParam String text,
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) long from,
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
         log.info("Получен запрос GET к эндпоинту: {}{}. Строка поиска: {} . " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_PATH, SEARCH_PATH, text, from, size);
-        return itemService.findAvailableByText(
-                text,
-                PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT)
-        ).getContent();
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_PATH, SEARCH_PATH, text, from, size, cursor, withTotal);
+        Collection<ItemDto> items;
+        if (cursor != null) {
+            items = PaginationUtils.withNextCursorHeader(itemService.findAvailableByText(text, cursor, size), response);
+        } else {
+            items = itemService.findAvailableByText(
+                    text,
+                    PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT)
+            ).getContent();
+        }
+        if (withTotal) {
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(itemService.countAvailableByText(text)));
+        }
+        return items;
+    }
+
+    @GetMapping(SUGGEST_PATH)
+    public Collection<ItemSuggestionDto> getSuggestions(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = DEFAULT_SUGGEST_LIMIT_AS_STRING) int limit) {
+        log.info("Получен запрос GET к эндпоинту: {}{}. Префикс: {}, limit = {}",
+                COMMON_ITEM_PATH, SUGGEST_PATH, prefix, limit);
+        return itemService.suggest(prefix, limit);
+    }
+
+    @GetMapping(ITEM_PREFIX + AVAILABILITY_PATH)
+    public ItemAvailabilityDto getAvailability(
+            @RequestHeader(USER_REQUEST_HEADER) long userId,
+            @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Получен запрос GET к эндпоинту: {}/{}{} от пользователя с id = {}. Интервал: с {} по {}",
+                COMMON_ITEM_PATH, itemId, AVAILABILITY_PATH, userId, start, end);
+        return itemService.checkAvailability(itemId, start, end);
     }
 
     @PostMapping(ITEM_PREFIX + COMMENT_PATH)
@@ -1,28 +1,122 @@
 package ru.practicum.shareit.server.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.server.item.model.Item;
 
+import javax.persistence.LockModeType;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String SELECT_ITEM_DTO = "select new ru.practicum.shareit.server.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, i.requestId) from Item i ";
+
+    @Override
+    @EntityGraph(Item.DETAIL_GRAPH)
+    Optional<Item> findById(Long id);
 
     default Item extract(long id) {
         return findById(id).orElseThrow(
                 () -> new NotFoundException("Запрос на несуществующую вещь с id = " + id));
     }
 
-    Page<Item> findAllByOwnerId(long ownerId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long id);
+
+    default Item extractForUpdate(long id) {
+        return findByIdForUpdate(id).orElseThrow(
+                () -> new NotFoundException("Запрос на несуществующую вещь с id = " + id));
+    }
+
+    Slice<Item> findAllByOwnerId(long ownerId, Pageable pageable);
+
+    long countByOwnerId(long ownerId);
+
+    /* Вещи пользователя и вещи, предложенные на его запросы: при удалении пользователя БД меняет их каскадом */
+    @Query("select i.id from Item i where i.owner.id = ?1 " +
+            "or i.requestId in (select r.id from ItemRequest r where r.requester.id = ?1)")
+    List<Long> findIdsByOwnerIdOrRequesterId(long userId);
 
-    @Query("select i from Item i " +
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderById(long ownerId, long id, Pageable pageable);
+
+    @Query(SELECT_ITEM_DTO +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            " and i.available = true")
+    Slice<ItemDto> findAvailableByText(String text, Pageable pageable);
+
+    @Query("select count(i) from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
             " and i.available = true")
-    Page<Item> findAvailableByText(String text, Pageable pageable);
+    long countAvailableByText(String text);
+
+    @Query(SELECT_ITEM_DTO +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            " and i.available = true and i.id > ?2 " +
+            "order by i.id")
+    List<ItemDto> findAvailableByTextAndIdGreaterThan(String text, long id, Pageable pageable);
+
+    List<Item> findAllByAvailableTrueAndIdGreaterThan(long id, Pageable pageable);
+
+    long countByAvailableTrue();
+
+    @Query("select coalesce(max(i.id), 0) from Item i where i.available = true")
+    long findMaxAvailableId();
+
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ to_tsquery('simple', :query) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id",
+            nativeQuery = true)
+    Slice<Item> findAvailableByFullText(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "select count(*) from items i " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    long countAvailableByFullText(@Param("query") String query);
 
-    Collection<Item> findAllByRequestId(long requestId);
+    @Query(value = "select r.id as id, r.rank as rank from (" +
+            "select i.id, ts_rank(i.search_vector, to_tsquery('simple', :query)) as rank from items i " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ to_tsquery('simple', :query)) r " +
+            "where r.rank < cast(:rank as real) or (r.rank = cast(:rank as real) and r.id > :id) " +
+            "order by r.rank desc, r.id",
+            nativeQuery = true)
+    List<ItemRank> findAvailableRanksByFullText(@Param("query") String query,
+                                                @Param("rank") float rank,
+                                                @Param("id") long id,
+                                                Pageable pageable);
+
+    @Query(SELECT_ITEM_DTO + "where i.id in ?1")
+    List<ItemDto> findAllItemDtoByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.server.item.dto.ItemForItemRequestDto(" +
+            "i.id, i.name, i.description, i.owner.id, i.available, i.requestId) " +
+            "from Item i where i.requestId = ?1")
+    List<ItemForItemRequestDto> findAllByRequestId(long requestId);
+
+    @Query("select new ru.practicum.shareit.server.item.dto.ItemForItemRequestDto(" +
+            "i.id, i.name, i.description, i.owner.id, i.available, i.requestId) " +
+            "from Item i where i.requestId in ?1")
+    List<ItemForItemRequestDto> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    interface ItemRank {
+        Long getId();
+
+        Float getRank();
+    }
 }
@@ -1,20 +1,38 @@
 package ru.practicum.shareit.server.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.server.item.dto.*;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ItemService {
 
     ItemDto findById(long userId, long id);
 
-    Page<ItemDto> findAllByOwnerId(long ownerId, Pageable pageable);
+    Slice<ItemDto> findAllByOwnerId(long ownerId, Pageable pageable);
+
+    CursorPage<ItemDto> findAllByOwnerId(long ownerId, String cursor, int size);
+
+    long countByOwnerId(long ownerId);
 
     ItemDto create(ItemIncomingDto itemDto, long userId);
 
+    List<ItemDto> createAll(List<ItemIncomingDto> itemDtos, long userId);
+
     ItemDto update(ItemIncomingDto itemDto, long itemId, long userId);
 
-    Page<ItemDto> findAvailableByText(String text, Pageable pageable);
+    Slice<ItemDto> findAvailableByText(String text, Pageable pageable);
+
+    CursorPage<ItemDto> findAvailableByText(String text, String cursor, int size);
+
+    long countAvailableByText(String text);
+
+    List<ItemSuggestionDto> suggest(String prefix, int limit);
+
+    ItemAvailabilityDto checkAvailability(long itemId, LocalDateTime start, LocalDateTime end);
 
     CommentDto createComment(long authorId, long id, CommentIncomingDto commentDto);
 }
@@ -4,26 +4,43 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
 import ru.practicum.shareit.server.booking.BookingRepository;
-import ru.practicum.shareit.server.booking.dto.BookingMapper;
-import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.dto.BookingShortDto;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
+import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
+import ru.practicum.shareit.server.request.ItemRequestFeed;
+import ru.practicum.shareit.server.request.ItemRequestMatcher;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,18 +49,26 @@ import java.util.Collections;
 public class ItemServiceImpl implements ItemService {
     CommentRepository commentRepository;
     BookingRepository bookingRepository;
+    BookingIntervalIndex bookingIntervalIndex;
     ItemRepository itemRepository;
     UserRepository userRepository;
+    UserIdIndex userIdIndex;
     ItemRequestRepository requestRepository;
+    ItemSearchEngine itemSearchEngine;
+    ItemNameSuggester itemNameSuggester;
+    TotalCountCache totalCountCache;
+    ItemRequestFeed itemRequestFeed;
+    ItemRequestMatcher itemRequestMatcher;
 
     @Override
     public ItemDto findById(long userId, long id) {
         Item item = itemRepository.extract(id);
         if (item.getOwner().getId() == userId) {
+            LocalDateTime now = LocalDateTime.now();
             return ItemMapper.toItemDto(
                     item,
-                    BookingMapper.toBookingShortDto(findLastBooking(item.getId())),
-                    BookingMapper.toBookingShortDto(findNextBooking(item.getId())),
+                    findLastBooking(item.getId(), now),
+                    findNextBooking(item.getId(), now),
                     findComments(id)
             );
         }
@@ -54,15 +79,29 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Page<ItemDto> findAllByOwnerId(long ownerId, Pageable pageable) {
-        userRepository.extract(ownerId);
-        return itemRepository.findAllByOwnerId(ownerId, pageable)
-                .map(item -> ItemMapper.toItemDto(
-                        item,
-                        BookingMapper.toBookingShortDto(findLastBooking(item.getId())),
-                        BookingMapper.toBookingShortDto(findNextBooking(item.getId())),
-                        findComments(item.getId())
-                ));
+    public Slice<ItemDto> findAllByOwnerId(long ownerId, Pageable pageable) {
+        userIdIndex.requireExists(ownerId);
+        Slice<Item> items = itemRepository.findAllByOwnerId(ownerId, pageable);
+        List<ItemDto> itemDtos = toOwnerItemDtos(items.getContent());
+        return new SliceImpl<>(itemDtos, items.getPageable(), items.hasNext());
+    }
+
+    @Override
+    public CursorPage<ItemDto> findAllByOwnerId(long ownerId, String cursor, int size) {
+        userIdIndex.requireExists(ownerId);
+        Cursor after = Cursor.decode(cursor);
+        CursorPage<Item> items = CursorPage.of(
+                itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(
+                        ownerId, after == null ? 0 : after.getId(), PageRequest.of(0, size + 1)),
+                size,
+                item -> Cursor.of(item.getId()),
+                Function.identity());
+        return new CursorPage<>(toOwnerItemDtos(items.getContent()), items.getNextCursor());
+    }
+
+    @Override
+    public long countByOwnerId(long ownerId) {
+        return totalCountCache.get("items:owner:" + ownerId, () -> itemRepository.countByOwnerId(ownerId));
     }
 
     @Transactional
@@ -74,15 +113,44 @@ public class ItemServiceImpl implements ItemService {
         }
         Item newItem = ItemMapper.toItem(itemDto, user);
         Item createdItem = itemRepository.save(newItem);
+        itemSearchEngine.index(createdItem);
+        itemNameSuggester.index(createdItem);
+        itemRequestFeed.index(createdItem);
+        itemRequestMatcher.recordMatches(List.of(createdItem), true);
         log.info("Добавлена вещь с id = {} для пользователя с id = {}", createdItem.getId(), userId);
         return ItemMapper.toItemDto(createdItem);
     }
 
+    /*
+     * Владелец и запросы проверяются один раз на весь пакет, id берутся из последовательности блоками,
+     * поэтому Hibernate отправляет вставки JDBC-пакетами (hibernate.jdbc.batch_size)
+     */
+    @Transactional
+    @Override
+    public List<ItemDto> createAll(List<ItemIncomingDto> itemDtos, long userId) {
+        User user = userRepository.extract(userId);
+        requireRequestsExist(itemDtos);
+        List<Item> createdItems = itemRepository.saveAll(itemDtos.stream()
+                .map(itemDto -> ItemMapper.toItem(itemDto, user))
+                .collect(Collectors.toList()));
+        for (Item createdItem : createdItems) {
+            itemSearchEngine.index(createdItem);
+            itemNameSuggester.index(createdItem);
+            itemRequestFeed.index(createdItem);
+        }
+        itemRequestMatcher.recordMatches(createdItems, true);
+        log.info("Добавлено {} вещей для пользователя с id = {}", createdItems.size(), userId);
+        return createdItems.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     @Override
     public ItemDto update(ItemIncomingDto itemDto, long itemId, long userId) {
         User user = userRepository.extract(userId);
-        Item currentItem = itemRepository.extract(itemId);
+        /* Строка блокируется до конца транзакции: параллельные правки вещи идут по очереди, не падая на версии */
+        Item currentItem = itemRepository.extractForUpdate(itemId);
         if (itemDto.getRequestId() != null) {
             requestRepository.extract(itemDto.getRequestId());
         }
@@ -103,22 +171,70 @@ public class ItemServiceImpl implements ItemService {
             currentItem.setAvailable(itemAvailable);
         }
         Item updatedItem = itemRepository.save(currentItem);
+        itemSearchEngine.index(updatedItem);
+        itemNameSuggester.index(updatedItem);
+        itemRequestFeed.index(updatedItem);
+        itemRequestMatcher.recordMatches(List.of(updatedItem), false);
         log.info("Обновлена вещь с id = {} для пользователя с id = {}", updatedItem.getId(), userId);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
-    public Page<ItemDto> findAvailableByText(String text, Pageable pageable) {
+    public Slice<ItemDto> findAvailableByText(String text, Pageable pageable) {
         if (text.isEmpty()) {
-            return new PageImpl<>(Collections.emptyList());
+            return new SliceImpl<>(Collections.emptyList());
         }
-        Page<ItemDto> itemDtos = itemRepository.findAvailableByText(text, pageable)
-                .map(ItemMapper::toItemDto);
+        Slice<ItemDto> itemDtos = itemSearchEngine.findAvailableByText(text, pageable);
         log.info((itemDtos.isEmpty() ? "Не найдены" : "Найдены") +
                 " вещи, имя или описание которых содержат строку = {}", text);
         return itemDtos;
     }
 
+    @Override
+    public CursorPage<ItemDto> findAvailableByText(String text, String cursor, int size) {
+        if (text.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        CursorPage<ItemDto> itemDtos = itemSearchEngine.findAvailableByText(text, Cursor.decode(cursor), size);
+        log.info((itemDtos.getContent().isEmpty() ? "Не найдены" : "Найдены") +
+                " вещи, имя или описание которых содержат строку = {}", text);
+        return itemDtos;
+    }
+
+    @Override
+    public long countAvailableByText(String text) {
+        if (text.isEmpty()) {
+            return 0;
+        }
+        return totalCountCache.get("items:search:" + text, () -> itemSearchEngine.countAvailableByText(text));
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        if (prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<ItemSuggestionDto> suggestions = itemNameSuggester.suggest(prefix, limit);
+        log.info("Найдено {} подсказок для префикса = {}", suggestions.size(), prefix);
+        return suggestions;
+    }
+
+    @Override
+    public ItemAvailabilityDto checkAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new InvalidConditionException("Начало интервала должно быть раньше его окончания");
+        }
+        Item item = itemRepository.extract(itemId);
+        boolean available = item.getAvailable() && bookingIntervalIndex.isFree(itemId, start, end);
+        log.info("Вещь с id = {} {} на интервал с {} по {}", itemId, available ? "свободна" : "занята", start, end);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .available(available)
+                .build();
+    }
+
     @Transactional
     @Override
     public CommentDto createComment(long userId, long itemId, CommentIncomingDto commentDto) {
@@ -134,12 +250,44 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(createdComment);
     }
 
-    protected Booking findLastBooking(long itemId) {
-        return bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(itemId, LocalDateTime.now());
+    protected List<ItemDto> toOwnerItemDtos(List<Item> items) {
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Comment>> comments = findComments(itemIds);
+        return items
+                .stream()
+                .map(item -> ItemMapper.toItemDto(
+                        item,
+                        findLastBooking(item.getId(), now),
+                        findNextBooking(item.getId(), now),
+                        comments
+                ))
+                .collect(Collectors.toList());
+    }
+
+    protected BookingShortDto findLastBooking(long itemId, LocalDateTime now) {
+        return bookingIntervalIndex.findLast(itemId, now);
     }
 
-    protected Booking findNextBooking(long itemId) {
-        return bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(itemId, LocalDateTime.now());
+    protected BookingShortDto findNextBooking(long itemId, LocalDateTime now) {
+        return bookingIntervalIndex.findNext(itemId, now);
+    }
+
+    private void requireRequestsExist(List<ItemIncomingDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemIncomingDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existingIds = requestRepository.findExistingIds(requestIds);
+        for (Long requestId : requestIds) {
+            if (!existingIds.contains(requestId)) {
+                throw new NotFoundException("Запрос на несуществующий для поиска нужной вещи запрос с id = " +
+                        requestId);
+            }
+        }
     }
 
     private boolean isAuthorUsedItem(long authorId, long itemId) {
@@ -151,4 +299,13 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.findAllByItem_IdOrderByCreatedDesc(itemId);
     }
 
+    protected Map<Long, List<Comment>> findComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.server.item;
+
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Последние применённые к индексу в памяти версии вещей. Колбэки после фиксации двух транзакций,
+ * изменивших одну вещь, могут дойти до индекса в обратном порядке - более старая версия тогда пропускается.
+ * Вещи удаляются только вместе с владельцем, поэтому версии хранятся с владельцем и удаляются вместе с его вещами.
+ * Не потокобезопасен, вызывается под блокировкой записи индекса.
+ */
+public class ItemVersions {
+    private final Map<Long, AppliedVersion> versionsByItemId = new HashMap<>();
+
+    /* true, если версия вещи новее применённой; она запоминается как применённая */
+    public boolean advance(Item item) {
+        Long version = item.getVersion();
+        if (version == null) {
+            return true;
+        }
+        AppliedVersion applied = versionsByItemId.get(item.getId());
+        if (applied != null && applied.version >= version) {
+            return false;
+        }
+        versionsByItemId.put(item.getId(), new AppliedVersion(version, item.getOwner().getId()));
+        return true;
+    }
+
+    public void removeAllByOwnerId(long ownerId) {
+        versionsByItemId.values().removeIf(applied -> applied.ownerId == ownerId);
+    }
+
+    private static class AppliedVersion {
+        private final long version;
+        private final long ownerId;
+
+        private AppliedVersion(long version, long ownerId) {
+            this.version = version;
+            this.ownerId = ownerId;
+        }
+    }
+}
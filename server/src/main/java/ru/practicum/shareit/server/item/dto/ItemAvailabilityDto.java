@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Getter
+@EqualsAndHashCode
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@Builder
+public class ItemAvailabilityDto {
+    Long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+    Boolean available;
+}
@@ -24,4 +24,12 @@ public class ItemDto {
     @Setter
     Collection<CommentDto> comments;
     Long requestId;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
 }
@@ -7,6 +7,9 @@ import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -44,6 +47,18 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDto toItemDto(Item itemStorage,
+                                    BookingShortDto lastBooking,
+                                    BookingShortDto nextBooking,
+                                    Map<Long, List<Comment>> commentsByItemId) {
+        return toItemDto(
+                itemStorage,
+                lastBooking,
+                nextBooking,
+                commentsByItemId.getOrDefault(itemStorage.getId(), Collections.emptyList())
+        );
+    }
+
     public static ItemForItemRequestDto toItemForItemRequestDto(Item itemStorage) {
         return ItemForItemRequestDto.builder()
                 .id(itemStorage.getId())
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemSuggestionDto {
+    String text;
+    List<Long> itemIds;
+}
@@ -2,12 +2,17 @@ package ru.practicum.shareit.server.item.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.server.user.model.User;
 
 import javax.persistence.*;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Item.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -15,16 +20,24 @@ import javax.persistence.*;
 @Builder(toBuilder = true)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Item {
+    public static final String DETAIL_GRAPH = "Item.detail";
+    public static final String ID_SEQUENCE = "items_seq";
+
+    /* id выдаются из последовательности блоками: вставки вещей группируются в JDBC-пакеты */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
     Long id;
     String name;
     String description;
     @Column(name = "is_available")
     Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     User owner;
     @Column(name = "request_id")
     Long requestId;
+    /* Растёт с каждым изменением: индексы в памяти по ней отбрасывают устаревшие изменения */
+    @Version
+    Long version;
 }
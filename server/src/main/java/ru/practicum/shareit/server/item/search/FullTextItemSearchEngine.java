@@ -0,0 +1,77 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.server.item.search.ItemSearchEngine.ENGINE_PROPERTY;
+
+@Component
+@ConditionalOnProperty(name = ENGINE_PROPERTY, havingValue = "full-text")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<ItemDto> findAvailableByText(String text, Pageable pageable) {
+        String query = toPrefixTsQuery(text);
+        if (query.isEmpty()) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+        return itemRepository.findAvailableByFullText(
+                        query, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(ItemMapper::toItemDto);
+    }
+
+    @Override
+    public CursorPage<ItemDto> findAvailableByText(String text, Cursor cursor, int size) {
+        String query = toPrefixTsQuery(text);
+        if (query.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        List<ItemRepository.ItemRank> ranks = itemRepository.findAvailableRanksByFullText(
+                query,
+                cursor == null ? Float.MAX_VALUE : cursor.getKeyAsFloat(),
+                cursor == null ? 0 : cursor.getId(),
+                PageRequest.of(0, size + 1));
+        Map<Long, ItemDto> items = itemRepository.findAllItemDtoByIdIn(
+                        ranks.stream().map(ItemRepository.ItemRank::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        return CursorPage.of(
+                ranks,
+                size,
+                rank -> Cursor.of(rank.getRank(), rank.getId()),
+                rank -> items.get(rank.getId()));
+    }
+
+    @Override
+    public long countAvailableByText(String text) {
+        String query = toPrefixTsQuery(text);
+        return query.isEmpty() ? 0 : itemRepository.countAvailableByFullText(query);
+    }
+
+    protected static String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.server.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemVersions;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.server.concurrent.LockUtils.read;
+import static ru.practicum.shareit.server.concurrent.LockUtils.write;
+import static ru.practicum.shareit.server.item.search.ItemSearchEngine.ENGINE_PROPERTY;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+import static ru.practicum.shareit.server.pagination.PaginationUtils.forEachByKeyset;
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ENGINE_PROPERTY, havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, MeterBinder, SmartInitializingSingleton {
+    private final ItemRepository itemRepository;
+    private final int buildChunkSize;
+    private final ItemIndexStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemVersions versions = new ItemVersions();
+    private ItemTrigramIndex index = new ItemTrigramIndex();
+    private long changes;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${shareit.item.search.in-memory.build-chunk-size:1000}")
+                                    int buildChunkSize,
+                                    @Value("${shareit.item.search.in-memory.directory:}")
+                                    String directory) {
+        this.itemRepository = itemRepository;
+        this.buildChunkSize = buildChunkSize;
+        if (directory.isBlank()) {
+            store = null;
+        } else {
+            try {
+                store = new ItemIndexStore(Path.of(directory));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        build();
+    }
+
+    public void build() {
+        long startedAt = System.nanoTime();
+        if (restore()) {
+            log.info("Индекс поиска вещей восстановлен с диска: {} вещей за {} мс, занимает ~{} байт",
+                    size(), (System.nanoTime() - startedAt) / 1_000_000, memoryFootprintBytes());
+            return;
+        }
+        ItemTrigramIndex built = new ItemTrigramIndex();
+        forEachByKeyset(PageRequest.of(0, buildChunkSize, DEFAULT_PAGINATION_SORT),
+                itemRepository::findAllByAvailableTrueAndIdGreaterThan, Item::getId, built::upsert);
+        write(lock, () -> index = built);
+        log.info("Построен индекс поиска вещей: {} вещей за {} мс, занимает ~{} байт",
+                size(), (System.nanoTime() - startedAt) / 1_000_000, memoryFootprintBytes());
+    }
+
+    @Override
+    public Slice<ItemDto> findAvailableByText(String text, Pageable pageable) {
+        return read(lock, () -> index.search(text, pageable));
+    }
+
+    @Override
+    public CursorPage<ItemDto> findAvailableByText(String text, Cursor cursor, int size) {
+        List<ItemDto> found = read(lock, () -> index.searchAfter(text, cursor == null ? 0 : cursor.getId(), size + 1));
+        return CursorPage.of(found, size, itemDto -> Cursor.of(itemDto.getId()), Function.identity());
+    }
+
+    @Override
+    public long countAvailableByText(String text) {
+        return read(lock, () -> index.count(text));
+    }
+
+    @Override
+    public void index(Item item) {
+        afterCommit(() -> write(lock, () -> {
+            if (!versions.advance(item)) {
+                return;
+            }
+            index.upsert(item);
+            changes++;
+        }));
+    }
+
+    @Override
+    public void removeAllByOwnerId(long ownerId) {
+        afterCommit(() -> write(lock, () -> {
+            index.removeAllByOwnerId(ownerId);
+            versions.removeAllByOwnerId(ownerId);
+            changes++;
+        }));
+    }
+
+    public int size() {
+        return read(lock, () -> index.size());
+    }
+
+    public long memoryFootprintBytes() {
+        return read(lock, () -> index.memoryFootprintBytes());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.item.search.index.memory", this, InMemoryItemSearchEngine::memoryFootprintBytes)
+                .baseUnit("bytes")
+                .description("Оценка памяти, занятой индексом поиска вещей")
+                .register(registry);
+        Gauge.builder("shareit.item.search.index.items", this, InMemoryItemSearchEngine::size)
+                .description("Количество доступных вещей в индексе поиска")
+                .register(registry);
+    }
+
+    /*
+     * Снимок сериализуется в память под блокировкой чтения и пишется на диск уже без неё.
+     * Если за время записи индекс изменился, снимок устарел и отметка о штатной остановке не ставится.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (store == null) {
+            return;
+        }
+        long snapshotChanges;
+        byte[] snapshot;
+        lock.readLock().lock();
+        try {
+            snapshotChanges = changes;
+            snapshot = ItemIndexStore.snapshot(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+        store.checkpoint(snapshot);
+        lock.writeLock().lock();
+        try {
+            if (changes == snapshotChanges) {
+                store.markCleanShutdown();
+                log.debug("Индекс поиска вещей сохранён на диск");
+            } else {
+                log.warn("Индекс поиска вещей изменился во время сохранения, при запуске он будет построен заново");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean restore() {
+        if (store == null) {
+            return false;
+        }
+        try {
+            Optional<ItemTrigramIndex> restored = store.restore();
+            if (restored.isPresent()
+                    && restored.get().size() == itemRepository.countByAvailableTrue()
+                    && restored.get().maxItemId() == itemRepository.findMaxAvailableId()) {
+                write(lock, () -> index = restored.get());
+                return true;
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать индекс поиска вещей с диска", e);
+        }
+        log.info("Индекс поиска вещей на диске отсутствует, не был закрыт штатно или не совпадает с БД, " +
+                "строится заново");
+        return false;
+    }
+}
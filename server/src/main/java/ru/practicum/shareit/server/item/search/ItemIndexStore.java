@@ -0,0 +1,117 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+ * Каталог индекса содержит сегмент segment-N.seg - полный снимок индекса поколения N.
+ * Сегмент неизменяем и записывается через временный файл, поэтому на диске всегда есть целый снимок.
+ * Журнала изменений нет: снимок пишется при штатной остановке, после чего создаётся файл clean-shutdown.
+ * Файл удаляется при открытии, поэтому после аварийной остановки сегмент не используется и индекс строится по БД.
+ */
+@Slf4j
+class ItemIndexStore {
+    private static final int SEGMENT_MAGIC = 0x53485349;
+    private static final int SEGMENT_VERSION = 1;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.(seg|tmp)");
+    private static final String CLEAN_SHUTDOWN_MARKER = "clean-shutdown";
+
+    private final Path directory;
+    private long generation;
+
+    ItemIndexStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    Optional<ItemTrigramIndex> restore() throws IOException {
+        Optional<Long> latest = latestGeneration();
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        generation = latest.get();
+        if (!Files.deleteIfExists(directory.resolve(CLEAN_SHUTDOWN_MARKER))) {
+            log.warn("Индекс поиска в {} не был закрыт штатно", directory);
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(generation), StandardOpenOption.READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.getInt() != SEGMENT_MAGIC || segment.getInt() != SEGMENT_VERSION) {
+                log.warn("Сегмент индекса поиска {} имеет неизвестный формат", segmentPath(generation));
+                return Optional.empty();
+            }
+            return Optional.of(ItemTrigramIndex.readFrom(segment));
+        } catch (RuntimeException e) {
+            log.warn("Сегмент индекса поиска {} повреждён", segmentPath(generation), e);
+            return Optional.empty();
+        }
+    }
+
+    /* Сериализация в память выполняется под блокировкой индекса, запись на диск - уже без неё */
+    static byte[] snapshot(ItemTrigramIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            index.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    void checkpoint(byte[] snapshot) throws IOException {
+        long nextGeneration = generation + 1;
+        Path temporary = directory.resolve("segment-" + nextGeneration + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, segmentPath(nextGeneration), StandardCopyOption.ATOMIC_MOVE);
+        generation = nextGeneration;
+        deleteGenerationsBefore(nextGeneration);
+    }
+
+    void markCleanShutdown() throws IOException {
+        Files.write(directory.resolve(CLEAN_SHUTDOWN_MARKER), new byte[0]);
+    }
+
+    private Optional<Long> latestGeneration() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(matcher -> matcher.matches() && "seg".equals(matcher.group(2)))
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .max(Long::compare);
+        }
+    }
+
+    private void deleteGenerationsBefore(long keptGeneration) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(1)) < keptGeneration) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return directory.resolve("segment-" + segmentGeneration + ".seg");
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+public interface ItemSearchEngine {
+    String ENGINE_PROPERTY = "shareit.item.search.engine";
+
+    Slice<ItemDto> findAvailableByText(String text, Pageable pageable);
+
+    CursorPage<ItemDto> findAvailableByText(String text, Cursor cursor, int size);
+
+    long countAvailableByText(String text);
+
+    default void index(Item item) {
+    }
+
+    default void removeAllByOwnerId(long ownerId) {
+    }
+}
@@ -0,0 +1,384 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Не потокобезопасен, синхронизация - на стороне InMemoryItemSearchEngine.
+ * Каждая версия вещи получает новый порядковый номер документа, поэтому списки документов
+ * в постингах всегда отсортированы и только дописываются. Старая версия помечается удалённой
+ * и физически исчезает при уплотнении.
+ */
+class ItemTrigramIndex {
+    static final int GRAM_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    private static final long NO_REQUEST = 0;
+
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+    private long[] ownerIds = new long[INITIAL_CAPACITY];
+    private long[] requestIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int documentCount;
+    private BitSet deleted = new BitSet();
+    private int deletedCount;
+    private Map<Long, Integer> ordinalsByItemId = new HashMap<>();
+    private Map<Long, Postings> postingsByGram = new HashMap<>();
+
+    void upsert(Item item) {
+        remove(item.getId());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            add(item.getId(), item.getOwner().getId(),
+                    item.getRequestId() == null ? NO_REQUEST : item.getRequestId(),
+                    item.getName(), item.getDescription());
+        }
+    }
+
+    void remove(long itemId) {
+        Integer ordinal = ordinalsByItemId.remove(itemId);
+        if (ordinal != null) {
+            markDeleted(ordinal);
+            compactIfSparse();
+        }
+    }
+
+    /* Уплотнение перенумеровывает документы, поэтому выполняется один раз после прохода, а не внутри него */
+    void removeAllByOwnerId(long ownerId) {
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            if (!deleted.get(ordinal) && ownerIds[ordinal] == ownerId) {
+                ordinalsByItemId.remove(itemIds[ordinal]);
+                markDeleted(ordinal);
+            }
+        }
+        compactIfSparse();
+    }
+
+    int size() {
+        return ordinalsByItemId.size();
+    }
+
+    long maxItemId() {
+        return ordinalsByItemId.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        int[] newOrdinals = new int[documentCount];
+        int liveCount = 0;
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            newOrdinals[ordinal] = deleted.get(ordinal) ? -1 : liveCount++;
+        }
+        out.writeInt(liveCount);
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            if (!deleted.get(ordinal)) {
+                out.writeLong(itemIds[ordinal]);
+                out.writeLong(ownerIds[ordinal]);
+                out.writeLong(requestIds[ordinal]);
+                writeString(out, names[ordinal]);
+                writeString(out, descriptions[ordinal]);
+            }
+        }
+        int[] buffer = new int[INITIAL_CAPACITY];
+        List<Map.Entry<Long, int[]>> livePostings = new ArrayList<>(postingsByGram.size());
+        for (Map.Entry<Long, Postings> entry : postingsByGram.entrySet()) {
+            Postings postings = entry.getValue();
+            if (buffer.length < postings.size) {
+                buffer = new int[postings.size];
+            }
+            int size = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int newOrdinal = newOrdinals[postings.ordinals[i]];
+                if (newOrdinal >= 0) {
+                    buffer[size++] = newOrdinal;
+                }
+            }
+            if (size > 0) {
+                livePostings.add(Map.entry(entry.getKey(), Arrays.copyOf(buffer, size)));
+            }
+        }
+        out.writeInt(livePostings.size());
+        for (Map.Entry<Long, int[]> entry : livePostings) {
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            for (int ordinal : entry.getValue()) {
+                out.writeInt(ordinal);
+            }
+        }
+    }
+
+    static ItemTrigramIndex readFrom(ByteBuffer in) {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        int count = in.getInt();
+        index.ensureCapacity(count);
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            long itemId = in.getLong();
+            index.itemIds[ordinal] = itemId;
+            index.ownerIds[ordinal] = in.getLong();
+            index.requestIds[ordinal] = in.getLong();
+            index.names[ordinal] = readString(in);
+            index.descriptions[ordinal] = readString(in);
+            index.ordinalsByItemId.put(itemId, ordinal);
+        }
+        index.documentCount = count;
+        int gramCount = in.getInt();
+        for (int i = 0; i < gramCount; i++) {
+            long gram = in.getLong();
+            Postings postings = new Postings();
+            postings.size = in.getInt();
+            postings.ordinals = new int[Math.max(postings.size, 1)];
+            in.asIntBuffer().get(postings.ordinals, 0, postings.size);
+            in.position(in.position() + postings.size * Integer.BYTES);
+            index.postingsByGram.put(gram, postings);
+        }
+        return index;
+    }
+
+    Page<ItemDto> search(String text, Pageable pageable) {
+        String query = normalize(text);
+        long[] matchedItemIds = matchingItemIds(query);
+        Arrays.sort(matchedItemIds);
+        int from = (int) Math.min(pageable.getOffset(), matchedItemIds.length);
+        int to = Math.min(from + pageable.getPageSize(), matchedItemIds.length);
+        List<ItemDto> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(toItemDto(ordinalsByItemId.get(matchedItemIds[i])));
+        }
+        return new PageImpl<>(content, pageable, matchedItemIds.length);
+    }
+
+    int count(String text) {
+        return matchingItemIds(normalize(text)).length;
+    }
+
+    List<ItemDto> searchAfter(String text, long afterItemId, int limit) {
+        long[] matchedItemIds = matchingItemIds(normalize(text));
+        Arrays.sort(matchedItemIds);
+        int position = Arrays.binarySearch(matchedItemIds, afterItemId);
+        int from = position >= 0 ? position + 1 : -position - 1;
+        int to = Math.min(from + limit, matchedItemIds.length);
+        List<ItemDto> content = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            content.add(toItemDto(ordinalsByItemId.get(matchedItemIds[i])));
+        }
+        return content;
+    }
+
+    long memoryFootprintBytes() {
+        long bytes = (long) itemIds.length * (3 * Long.BYTES + 2 * Integer.BYTES) + deleted.size() / Byte.SIZE;
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            if (!deleted.get(ordinal)) {
+                bytes += estimateStringBytes(names[ordinal]) + estimateStringBytes(descriptions[ordinal]);
+            }
+        }
+        bytes += ordinalsByItemId.size() * 64L;
+        for (Postings postings : postingsByGram.values()) {
+            bytes += 96L + (long) postings.ordinals.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    private void add(long itemId, long ownerId, long requestId, String name, String description) {
+        ensureCapacity(documentCount + 1);
+        int ordinal = documentCount++;
+        itemIds[ordinal] = itemId;
+        ownerIds[ordinal] = ownerId;
+        requestIds[ordinal] = requestId;
+        names[ordinal] = name;
+        descriptions[ordinal] = description;
+        ordinalsByItemId.put(itemId, ordinal);
+        addPostings(ordinal, normalize(name));
+        addPostings(ordinal, normalize(description));
+    }
+
+    private void addPostings(int ordinal, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postingsByGram.computeIfAbsent(gram(text, i), key -> new Postings()).add(ordinal);
+        }
+    }
+
+    private void markDeleted(int ordinal) {
+        deleted.set(ordinal);
+        deletedCount++;
+        names[ordinal] = null;
+        descriptions[ordinal] = null;
+    }
+
+    private void compactIfSparse() {
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount > documentCount - deletedCount) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        long[] oldItemIds = itemIds;
+        long[] oldOwnerIds = ownerIds;
+        long[] oldRequestIds = requestIds;
+        String[] oldNames = names;
+        String[] oldDescriptions = descriptions;
+        int oldDocumentCount = documentCount;
+        BitSet oldDeleted = deleted;
+        int capacity = Math.max(INITIAL_CAPACITY, (oldDocumentCount - deletedCount) * 2);
+        itemIds = new long[capacity];
+        ownerIds = new long[capacity];
+        requestIds = new long[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        documentCount = 0;
+        deleted = new BitSet();
+        deletedCount = 0;
+        ordinalsByItemId = new HashMap<>();
+        postingsByGram = new HashMap<>();
+        for (int ordinal = 0; ordinal < oldDocumentCount; ordinal++) {
+            if (!oldDeleted.get(ordinal)) {
+                add(oldItemIds[ordinal], oldOwnerIds[ordinal], oldRequestIds[ordinal],
+                        oldNames[ordinal], oldDescriptions[ordinal]);
+            }
+        }
+    }
+
+    private long[] matchingItemIds(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return scan(query);
+        }
+        List<Postings> candidates = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Postings postings = postingsByGram.get(gram(query, i));
+            if (postings == null) {
+                return new long[0];
+            }
+            candidates.add(postings);
+        }
+        candidates.sort(Comparator.comparingInt(postings -> postings.size));
+        int[] ordinals = Arrays.copyOf(candidates.get(0).ordinals, candidates.get(0).size);
+        int length = ordinals.length;
+        for (int i = 1; i < candidates.size() && length > 0; i++) {
+            length = intersect(ordinals, length, candidates.get(i));
+        }
+        long[] result = new long[length];
+        int matched = 0;
+        for (int i = 0; i < length; i++) {
+            int ordinal = ordinals[i];
+            if (!deleted.get(ordinal) && matches(ordinal, query)) {
+                result[matched++] = itemIds[ordinal];
+            }
+        }
+        return Arrays.copyOf(result, matched);
+    }
+
+    private long[] scan(String query) {
+        long[] result = new long[documentCount - deletedCount];
+        int matched = 0;
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            if (!deleted.get(ordinal) && matches(ordinal, query)) {
+                result[matched++] = itemIds[ordinal];
+            }
+        }
+        return Arrays.copyOf(result, matched);
+    }
+
+    private boolean matches(int ordinal, String query) {
+        return containsIgnoreCase(names[ordinal], query) || containsIgnoreCase(descriptions[ordinal], query);
+    }
+
+    private ItemDto toItemDto(int ordinal) {
+        return ItemDto.builder()
+                .id(itemIds[ordinal])
+                .name(names[ordinal])
+                .description(descriptions[ordinal])
+                .available(true)
+                .requestId(requestIds[ordinal] == NO_REQUEST ? null : requestIds[ordinal])
+                .build();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > itemIds.length) {
+            int newCapacity = Math.max(capacity, itemIds.length * 2);
+            itemIds = Arrays.copyOf(itemIds, newCapacity);
+            ownerIds = Arrays.copyOf(ownerIds, newCapacity);
+            requestIds = Arrays.copyOf(requestIds, newCapacity);
+            names = Arrays.copyOf(names, newCapacity);
+            descriptions = Arrays.copyOf(descriptions, newCapacity);
+        }
+    }
+
+    private static int intersect(int[] ordinals, int length, Postings postings) {
+        int result = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < postings.size; i++) {
+            while (j < postings.size && postings.ordinals[j] < ordinals[i]) {
+                j++;
+            }
+            if (j < postings.size && postings.ordinals[j] == ordinals[i]) {
+                ordinals[result++] = ordinals[i];
+            }
+        }
+        return result;
+    }
+
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static boolean containsIgnoreCase(String source, String query) {
+        for (int i = 0; i + query.length() <= source.length(); i++) {
+            if (source.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long estimateStringBytes(String value) {
+        return 40L + 2L * value.length();
+    }
+
+    private static class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+
+import java.util.function.Function;
+
+import static ru.practicum.shareit.server.item.search.ItemSearchEngine.ENGINE_PROPERTY;
+
+@Component
+@ConditionalOnProperty(name = ENGINE_PROPERTY, havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<ItemDto> findAvailableByText(String text, Pageable pageable) {
+        return itemRepository.findAvailableByText(text, pageable);
+    }
+
+    @Override
+    public CursorPage<ItemDto> findAvailableByText(String text, Cursor cursor, int size) {
+        return CursorPage.of(
+                itemRepository.findAvailableByTextAndIdGreaterThan(
+                        text, cursor == null ? 0 : cursor.getId(), PageRequest.of(0, size + 1)),
+                size,
+                itemDto -> Cursor.of(itemDto.getId()),
+                Function.identity());
+    }
+
+    @Override
+    public long countAvailableByText(String text) {
+        return itemRepository.countAvailableByText(text);
+    }
+}
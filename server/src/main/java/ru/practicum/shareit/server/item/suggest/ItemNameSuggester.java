@@ -0,0 +1,101 @@
+package ru.practicum.shareit.server.item.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemVersions;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.server.concurrent.LockUtils.read;
+import static ru.practicum.shareit.server.concurrent.LockUtils.write;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+import static ru.practicum.shareit.server.pagination.PaginationUtils.forEachByKeyset;
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+@Slf4j
+@Component
+public class ItemNameSuggester implements SmartInitializingSingleton {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ItemRepository itemRepository;
+    private final int buildChunkSize;
+    private final ItemNameTrie trie = new ItemNameTrie(MAX_SUGGESTIONS);
+    private final Map<Long, IndexedItem> indexedItems = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemVersions versions = new ItemVersions();
+
+    public ItemNameSuggester(ItemRepository itemRepository,
+                             @Value("${shareit.item.suggest.build-chunk-size:1000}") int buildChunkSize) {
+        this.itemRepository = itemRepository;
+        this.buildChunkSize = buildChunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        forEachByKeyset(PageRequest.of(0, buildChunkSize, DEFAULT_PAGINATION_SORT),
+                itemRepository::findAllByAvailableTrueAndIdGreaterThan, Item::getId, this::upsert);
+        log.info("Построено дерево подсказок: {} названий за {} мс",
+                trie.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        return read(lock, () -> trie.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    public void index(Item item) {
+        afterCommit(() -> write(lock, () -> {
+            if (versions.advance(item)) {
+                upsert(item);
+            }
+        }));
+    }
+
+    public void removeAllByOwnerId(long ownerId) {
+        afterCommit(() -> write(lock, () -> {
+            Iterator<Map.Entry<Long, IndexedItem>> iterator = indexedItems.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, IndexedItem> indexed = iterator.next();
+                if (indexed.getValue().ownerId == ownerId) {
+                    trie.remove(indexed.getValue().name, indexed.getKey());
+                    iterator.remove();
+                }
+            }
+            versions.removeAllByOwnerId(ownerId);
+        }));
+    }
+
+    private void upsert(Item item) {
+        write(lock, () -> {
+            IndexedItem previous = indexedItems.remove(item.getId());
+            if (previous != null) {
+                trie.remove(previous.name, item.getId());
+            }
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                trie.add(item.getName(), item.getId());
+                indexedItems.put(item.getId(), new IndexedItem(item.getName(), item.getOwner().getId()));
+            }
+        });
+    }
+
+    private static class IndexedItem {
+        private final String name;
+        private final long ownerId;
+
+        private IndexedItem(String name, long ownerId) {
+            this.name = name;
+            this.ownerId = ownerId;
+        }
+    }
+}
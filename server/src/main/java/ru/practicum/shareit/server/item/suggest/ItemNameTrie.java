@@ -0,0 +1,188 @@
+package ru.practicum.shareit.server.item.suggest;
+
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Сжатое префиксное дерево нормализованных названий вещей. В каждом узле заранее
+ * посчитаны topK лучших названий поддерева (больше вещей, затем по алфавиту),
+ * поэтому подсказка - это спуск по префиксу без обхода поддерева.
+ * Не потокобезопасен, синхронизация - на стороне ItemNameSuggester.
+ */
+class ItemNameTrie {
+    private static final Comparator<Entry> RANK = Comparator.comparingInt((Entry entry) -> -entry.names.size())
+            .thenComparing(entry -> entry.key);
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    ItemNameTrie(int topK) {
+        this.topK = topK;
+    }
+
+    void add(String name, long itemId) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry entry = entries.computeIfAbsent(key, Entry::new);
+        entry.names.put(itemId, name);
+        entry.refresh(topK);
+        insert(root, key, 0, entry);
+    }
+
+    void remove(String name, long itemId) {
+        String key = normalize(name);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.names.remove(itemId) == null) {
+            return;
+        }
+        if (entry.names.isEmpty()) {
+            entries.remove(key);
+        } else {
+            entry.refresh(topK);
+        }
+        delete(root, key, 0, entry.names.isEmpty());
+    }
+
+    List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.children.get(key.charAt(offset));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            int common = commonPrefixLength(child.label, key, offset);
+            if (offset + common < key.length() && common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            offset += common;
+            node = child;
+        }
+        int size = Math.min(limit, node.top.length);
+        List<ItemSuggestionDto> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(node.top[i].suggestion);
+        }
+        return suggestions;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void insert(Node node, String key, int offset, Entry entry) {
+        if (offset == key.length()) {
+            node.terminal = entry;
+        } else {
+            char first = key.charAt(offset);
+            Node child = node.children.get(first);
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.children.put(first, child);
+                child.terminal = entry;
+                child.refreshTop(topK);
+            } else {
+                int common = commonPrefixLength(child.label, key, offset);
+                if (common < child.label.length()) {
+                    Node split = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children.put(child.label.charAt(0), child);
+                    node.children.put(first, split);
+                    child = split;
+                }
+                insert(child, key, offset + common, entry);
+            }
+        }
+        node.refreshTop(topK);
+    }
+
+    private void delete(Node node, String key, int offset, boolean removeTerminal) {
+        if (offset == key.length()) {
+            if (removeTerminal) {
+                node.terminal = null;
+            }
+        } else {
+            char first = key.charAt(offset);
+            Node child = node.children.get(first);
+            delete(child, key, offset + child.label.length(), removeTerminal);
+            if (child.terminal == null && child.children.isEmpty()) {
+                node.children.remove(first);
+            } else if (child.terminal == null && child.children.size() == 1) {
+                Node grandChild = child.children.values().iterator().next();
+                grandChild.label = child.label + grandChild.label;
+                node.children.put(first, grandChild);
+            }
+        }
+        node.refreshTop(topK);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Node {
+        private String label;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private Entry terminal;
+        private Entry[] top = new Entry[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private void refreshTop(int topK) {
+            List<Entry> candidates = new ArrayList<>();
+            if (terminal != null) {
+                candidates.add(terminal);
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANK);
+            top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(new Entry[0]);
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final TreeMap<Long, String> names = new TreeMap<>();
+        private ItemSuggestionDto suggestion;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        private void refresh(int topK) {
+            List<Long> itemIds = new ArrayList<>(Math.min(topK, names.size()));
+            for (Long itemId : names.keySet()) {
+                if (itemIds.size() == topK) {
+                    break;
+                }
+                itemIds.add(itemId);
+            }
+            suggestion = new ItemSuggestionDto(names.firstEntry().getValue(), Collections.unmodifiableList(itemIds));
+        }
+    }
+}
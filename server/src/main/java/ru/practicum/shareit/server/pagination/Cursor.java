@@ -0,0 +1,66 @@
+package ru.practicum.shareit.server.pagination;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.server.exception.InvalidConditionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+    private static final String SEPARATOR = "|";
+
+    private final String key;
+    private final long id;
+
+    public static Cursor of(long id) {
+        return new Cursor("", id);
+    }
+
+    public static Cursor of(Object key, long id) {
+        return new Cursor(key.toString(), id);
+    }
+
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new Cursor(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw invalid(token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw invalid(encode());
+        }
+    }
+
+    public float getKeyAsFloat() {
+        try {
+            return Float.parseFloat(key);
+        } catch (NumberFormatException e) {
+            throw invalid(encode());
+        }
+    }
+
+    private static InvalidConditionException invalid(String token) {
+        return new InvalidConditionException("Некорректный курсор пагинации: " + token);
+    }
+}
@@ -2,10 +2,16 @@ package ru.practicum.shareit.server.pagination;
 
 import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
+
 public class PaginationConstant {
     public static final String DEFAULT_PAGINATION_FROM_AS_STRING = "0";
     public static final String DEFAULT_PAGINATION_SIZE_AS_STRING = "10";
     public static final Sort DEFAULT_PAGINATION_SORT = Sort.by("id").ascending();
     public static final Sort SORT_CREATED_DESC = Sort.by("created").descending();
     public static final Sort SORT_START_DESC = Sort.by("start").descending();
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final LocalDateTime MIN_CURSOR_DATE_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_CURSOR_DATE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
 }
@@ -1,7 +1,46 @@
 package ru.practicum.shareit.server.pagination;
 
+import org.springframework.data.domain.Pageable;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static ru.practicum.shareit.server.pagination.PaginationConstant.NEXT_CURSOR_HEADER;
+
 public class PaginationUtils {
     public static int getCalculatedPage(long from, int size) {
         return Math.toIntExact(from / size);
     }
+
+    public static <T> List<T> withNextCursorHeader(CursorPage<T> page, HttpServletResponse response) {
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
+    }
+
+    /*
+     * Обход всех строк порциями размера chunk.getPageSize(): следующая порция запрашивается после id последней
+     * строки предыдущей, без OFFSET. Возвращает количество обработанных строк.
+     */
+    public static <T> long forEachByKeyset(Pageable chunk,
+                                           BiFunction<Long, Pageable, List<T>> loader,
+                                           ToLongFunction<T> idOf,
+                                           Consumer<T> action) {
+        long lastId = 0;
+        long loaded = 0;
+        List<T> rows;
+        do {
+            rows = loader.apply(lastId, chunk);
+            rows.forEach(action);
+            loaded += rows.size();
+            if (!rows.isEmpty()) {
+                lastId = idOf.applyAsLong(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == chunk.getPageSize());
+        return loaded;
+    }
 }
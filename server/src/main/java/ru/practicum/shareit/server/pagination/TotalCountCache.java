@@ -0,0 +1,48 @@
+package ru.practicum.shareit.server.pagination;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/*
+ * Общее количество элементов списка считается отдельным запросом count(*), поэтому
+ * списки его не возвращают. Если клиенту нужен итог, он берётся отсюда: значение
+ * приблизительное и пересчитывается не чаще одного раза за ttl для каждого ключа.
+ */
+@Component
+public class TotalCountCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public TotalCountCache(@Value("${shareit.pagination.total-count.ttl-seconds:30}") long ttlSeconds,
+                           @Value("${shareit.pagination.total-count.max-size:10000}") int maxSize) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.countedAt < ttlNanos) {
+            return entry.count;
+        }
+        long count = counter.getAsLong();
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(count, now));
+        return count;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final long count;
+        private final long countedAt;
+    }
+}
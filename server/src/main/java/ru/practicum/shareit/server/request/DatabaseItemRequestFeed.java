@@ -0,0 +1,64 @@
+package ru.practicum.shareit.server.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.request.ItemRequestFeed.FEED_PROPERTY;
+
+@Component
+@ConditionalOnProperty(name = FEED_PROPERTY, havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseItemRequestFeed implements ItemRequestFeed {
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Pageable pageable) {
+        Slice<ItemRequestShortDto> itemRequests = requestRepository.findAllByRequesterIdNot(requesterId, pageable);
+        Map<Long, List<ItemForItemRequestDto>> itemsByRequestId = findItems(itemRequests.getContent());
+        return itemRequests.map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest, itemsByRequestId));
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Cursor cursor, int size) {
+        List<ItemRequestShortDto> itemRequests = requestRepository.findAllByRequesterIdNotBefore(
+                requesterId,
+                cursor == null ? MAX_CURSOR_DATE_TIME : cursor.getKeyAsDateTime(),
+                cursor == null ? Long.MAX_VALUE : cursor.getId(),
+                PageRequest.of(0, size + 1));
+        Map<Long, List<ItemForItemRequestDto>> itemsByRequestId =
+                findItems(itemRequests.size() > size ? itemRequests.subList(0, size) : itemRequests);
+        return CursorPage.of(
+                itemRequests,
+                size,
+                itemRequest -> Cursor.of(itemRequest.getCreated(), itemRequest.getId()),
+                itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest, itemsByRequestId));
+    }
+
+    private Map<Long, List<ItemForItemRequestDto>> findItems(Collection<ItemRequestShortDto> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ItemRequestMapper.groupByRequestId(itemRepository.findAllByRequestIdIn(itemRequests.stream()
+                .map(ItemRequestShortDto::getId)
+                .collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.server.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemVersions;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.request.ItemRequestRingBuffer.Entry;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.server.concurrent.LockUtils.read;
+import static ru.practicum.shareit.server.concurrent.LockUtils.write;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+import static ru.practicum.shareit.server.request.ItemRequestFeed.FEED_PROPERTY;
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+/*
+ * Лента одна на всех пользователей, поэтому shareit.request.feed.in-memory.capacity самых новых запросов
+ * с их вещами держатся в памяти и обновляются после фиксации транзакций. Запросы читающего отфильтровываются
+ * при чтении. В БД уходят только страницы глубже буфера.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = FEED_PROPERTY, havingValue = "in-memory")
+public class InMemoryItemRequestFeed implements ItemRequestFeed, SmartInitializingSingleton {
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final DatabaseItemRequestFeed databaseFeed;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemVersions versions = new ItemVersions();
+    private ItemRequestRingBuffer buffer;
+
+    public InMemoryItemRequestFeed(ItemRequestRepository requestRepository,
+                                   ItemRepository itemRepository,
+                                   @Value("${shareit.request.feed.in-memory.capacity:1000}") int capacity) {
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.databaseFeed = new DatabaseItemRequestFeed(requestRepository, itemRepository);
+        this.capacity = capacity;
+        this.buffer = new ItemRequestRingBuffer(capacity);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public void load() {
+        long startedAt = System.nanoTime();
+        List<ItemRequest> newest = requestRepository.findNewest(PageRequest.of(0, capacity + 1));
+        List<ItemRequest> kept = newest.size() > capacity ? newest.subList(0, capacity) : newest;
+        Map<Long, List<ItemForItemRequestDto>> itemsByRequestId = kept.isEmpty()
+                ? Collections.emptyMap()
+                : ItemRequestMapper.groupByRequestId(itemRepository.findAllByRequestIdIn(kept.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())));
+        ItemRequestRingBuffer loaded = new ItemRequestRingBuffer(capacity);
+        if (newest.size() > capacity) {
+            loaded.limitTo(Entry.of(newest.get(capacity), List.of()));
+        }
+        kept.forEach(itemRequest -> loaded.add(
+                Entry.of(itemRequest, itemsByRequestId.getOrDefault(itemRequest.getId(), List.of()))));
+        write(lock, () -> buffer = loaded);
+        log.info("Загружена лента запросов: {} запросов за {} мс, в БД есть более старые: {}",
+                loaded.size(), (System.nanoTime() - startedAt) / 1_000_000, !loaded.isComplete());
+    }
+
+    @Override
+    public Slice<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Pageable pageable) {
+        if (!SORT_CREATED_DESC.equals(pageable.getSort())) {
+            return databaseFeed.findAllByRequesterIdNot(requesterId, pageable);
+        }
+        int size = pageable.getPageSize();
+        List<ItemRequestDto> found = read(lock, () -> buffer.find(
+                requesterId, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, pageable.getOffset(), size + 1));
+        if (found == null) {
+            return databaseFeed.findAllByRequesterIdNot(requesterId, pageable);
+        }
+        boolean hasNext = found.size() > size;
+        return new SliceImpl<>(hasNext ? found.subList(0, size) : found, pageable, hasNext);
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Cursor cursor, int size) {
+        LocalDateTime created = cursor == null ? MAX_CURSOR_DATE_TIME : cursor.getKeyAsDateTime();
+        long id = cursor == null ? Long.MAX_VALUE : cursor.getId();
+        List<ItemRequestDto> found = read(lock, () -> buffer.find(requesterId, created, id, 0, size + 1));
+        if (found == null) {
+            return databaseFeed.findAllByRequesterIdNot(requesterId, cursor, size);
+        }
+        return CursorPage.of(found, size, itemRequest -> Cursor.of(itemRequest.getCreated(), itemRequest.getId()),
+                Function.identity());
+    }
+
+    @Override
+    public void add(ItemRequest itemRequest) {
+        Entry entry = Entry.of(itemRequest, List.of());
+        afterCommit(() -> write(lock, () -> buffer.add(entry)));
+    }
+
+    @Override
+    public void index(Item item) {
+        if (item.getRequestId() == null) {
+            return;
+        }
+        afterCommit(() -> write(lock, () -> {
+            if (versions.advance(item)) {
+                buffer.index(ItemMapper.toItemForItemRequestDto(item));
+            }
+        }));
+    }
+
+    @Override
+    public void removeAllByUserId(long userId) {
+        afterCommit(() -> write(lock, () -> {
+            buffer.removeAllByUserId(userId);
+            versions.removeAllByOwnerId(userId);
+        }));
+    }
+}
@@ -4,11 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
 import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
 import java.util.List;
 
@@ -23,6 +25,7 @@ public class ItemRequestController {
     private final ItemRequestService requestService;
     protected static final String ITEM_REQUEST_PREFIX = "/{requestId}";
     protected static final String ALL_PATH = "/all";
+    protected static final String SUGGESTIONS_PATH = "/suggestions";
 
     @GetMapping(ITEM_REQUEST_PREFIX)
     public ItemRequestDto getItemRequestById(@RequestHeader(USER_REQUEST_HEADER) long userId,
@@ -31,6 +34,14 @@ public class ItemRequestController {
         return requestService.findById(userId, requestId);
     }
 
+    @GetMapping(ITEM_REQUEST_PREFIX + SUGGESTIONS_PATH)
+    public List<ItemForItemRequestDto> getSuggestions(@RequestHeader(USER_REQUEST_HEADER) long userId,
+                                                      @PathVariable long requestId) {
+        log.info("Получен запрос GET к эндпоинту: {}/{}{} от пользователя с id = {}",
+                COMMON_ITEM_REQUEST_PATH, requestId, SUGGESTIONS_PATH, userId);
+        return requestService.findSuggestions(userId, requestId);
+    }
+
     @GetMapping
     public List<ItemRequestDto> getAllByRequesterId(
             @RequestHeader(USER_REQUEST_HEADER) long requesterId) {
@@ -43,14 +54,28 @@ public class ItemRequestController {
     public Collection<ItemRequestDto> getAllByExpectRequesterId(
             @RequestHeader(USER_REQUEST_HEADER) long requesterId,
             @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_FROM_AS_STRING) long from,
-            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size) {
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGINATION_SIZE_AS_STRING) int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
         log.info("Получен запрос GET к эндпоинту: {}{} от пользователя с id = {}. " +
-                        "Параметры пагинации: from = {}, size = {}",
-                COMMON_ITEM_REQUEST_PATH, ALL_PATH, requesterId, from, size);
-        return requestService.findAllByExpectRequesterId(
-                requesterId,
-                PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_CREATED_DESC)
-        ).getContent();
+                        "Параметры пагинации: from = {}, size = {}, cursor = {}, withTotal = {}",
+                COMMON_ITEM_REQUEST_PATH, ALL_PATH, requesterId, from, size, cursor, withTotal);
+        Collection<ItemRequestDto> requests;
+        if (cursor != null) {
+            requests = PaginationUtils.withNextCursorHeader(
+                    requestService.findAllByExpectRequesterId(requesterId, cursor, size), response);
+        } else {
+            requests = requestService.findAllByExpectRequesterId(
+                    requesterId,
+                    PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_CREATED_DESC)
+            ).getContent();
+        }
+        if (withTotal) {
+            response.setHeader(TOTAL_COUNT_HEADER,
+                    String.valueOf(requestService.countByExpectRequesterId(requesterId)));
+        }
+        return requests;
     }
 
     @PostMapping
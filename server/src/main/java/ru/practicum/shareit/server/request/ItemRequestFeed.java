@@ -0,0 +1,29 @@
+package ru.practicum.shareit.server.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+
+/*
+ * Общая лента запросов /requests/all: запросы всех пользователей, кроме читающего, от новых к старым
+ */
+public interface ItemRequestFeed {
+    String FEED_PROPERTY = "shareit.request.feed";
+
+    Slice<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Pageable pageable);
+
+    CursorPage<ItemRequestDto> findAllByRequesterIdNot(long requesterId, Cursor cursor, int size);
+
+    default void add(ItemRequest itemRequest) {
+    }
+
+    default void index(Item item) {
+    }
+
+    default void removeAllByUserId(long userId) {
+    }
+}
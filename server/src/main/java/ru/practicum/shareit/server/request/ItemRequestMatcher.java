@@ -0,0 +1,158 @@
+package ru.practicum.shareit.server.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.request.model.ItemSuggestion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+import static ru.practicum.shareit.server.pagination.PaginationUtils.forEachByKeyset;
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+/*
+ * Подбор вещей под запросы без поиска со стороны автора запроса: новая или изменённая доступная вещь
+ * сверяется с индексом описаний запросов, совпадения записываются в item_suggestions после коммита
+ * в отдельной транзакции. На одну вещь записывается не больше shareit.request.matcher.max-matches запросов.
+ */
+@Slf4j
+@Component
+public class ItemRequestMatcher implements SmartInitializingSingleton {
+    private final ItemRequestRepository requestRepository;
+    private final ItemSuggestionRepository suggestionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int buildChunkSize;
+    private final int maxMatches;
+    private final RequestKeywordIndex index = new RequestKeywordIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemRequestMatcher(ItemRequestRepository requestRepository,
+                              ItemSuggestionRepository suggestionRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${shareit.request.matcher.build-chunk-size:1000}") int buildChunkSize,
+                              @Value("${shareit.request.matcher.max-matches:50}") int maxMatches) {
+        this.requestRepository = requestRepository;
+        this.suggestionRepository = suggestionRepository;
+        /* После коммита ресурсы завершённой транзакции ещё привязаны к потоку: нужна новая транзакция */
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buildChunkSize = buildChunkSize;
+        this.maxMatches = maxMatches;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        forEachByKeyset(PageRequest.of(0, buildChunkSize, DEFAULT_PAGINATION_SORT),
+                requestRepository::findAllByIdGreaterThan, ItemRequest::getId, this::addToIndex);
+        log.info("Построен индекс описаний запросов: {} запросов за {} мс",
+                index.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public void add(ItemRequest itemRequest) {
+        afterCommit(() -> addToIndex(itemRequest));
+    }
+
+    public void removeAllByUserId(long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.removeAllByUserId(userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /*
+     * created - вещи только что добавлены, и записанных совпадений у них ещё нет.
+     * Параллельная правка той же вещи может успеть записать те же пары: на нарушение uq_item_suggestion
+     * запись повторяется один раз, и повтор уже видит пары, записанные другой транзакцией.
+     */
+    public void recordMatches(Collection<Item> items, boolean created) {
+        afterCommit(() -> {
+            Map<Long, List<Long>> requestIdsByItemId = new LinkedHashMap<>();
+            for (Item item : items) {
+                List<Long> requestIds = match(item);
+                if (!requestIds.isEmpty()) {
+                    requestIdsByItemId.put(item.getId(), requestIds);
+                }
+            }
+            if (!requestIdsByItemId.isEmpty()
+                    && !saveMatches(requestIdsByItemId, created)
+                    && !saveMatches(requestIdsByItemId, false)) {
+                log.warn("Совпадения вещей с запросами не записаны после повторной попытки");
+            }
+        });
+    }
+
+    private boolean saveMatches(Map<Long, List<Long>> requestIdsByItemId, boolean created) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertMatches(requestIdsByItemId, created));
+            return true;
+        } catch (DataIntegrityViolationException exception) {
+            log.info("Совпадения вещей с запросами не записаны: {}", exception.getMostSpecificCause().getMessage());
+            return false;
+        }
+    }
+
+    private void insertMatches(Map<Long, List<Long>> requestIdsByItemId, boolean created) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemSuggestion> suggestions = new ArrayList<>();
+        requestIdsByItemId.forEach((itemId, requestIds) -> {
+            Set<Long> recorded = created ? Set.of() : suggestionRepository.findRequestIdsByItemId(itemId);
+            for (Long requestId : requestIds) {
+                if (!recorded.contains(requestId)) {
+                    suggestions.add(ItemSuggestion.builder()
+                            .requestId(requestId)
+                            .itemId(itemId)
+                            .created(now)
+                            .build());
+                }
+            }
+        });
+        if (!suggestions.isEmpty()) {
+            suggestionRepository.saveAll(suggestions);
+            log.info("Записано {} совпадений вещей с запросами", suggestions.size());
+        }
+    }
+
+    private List<Long> match(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return index.match(item.getOwner().getId(), item.getRequestId(), maxMatches,
+                    item.getName(), item.getDescription());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addToIndex(ItemRequest itemRequest) {
+        lock.writeLock().lock();
+        try {
+            index.add(itemRequest.getId(), itemRequest.getRequester().getId(), itemRequest.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,22 +1,54 @@
 package ru.practicum.shareit.server.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String SELECT_SHORT_DTO = "select new ru.practicum.shareit.server.request.dto.ItemRequestShortDto(" +
+            "r.id, r.description, r.created) from ItemRequest r ";
 
     default ItemRequest extract(long id) {
         return findById(id).orElseThrow(
                 () -> new NotFoundException("Запрос на несуществующий для поиска нужной вещи запрос с id = " + id));
     }
 
-    List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long requesterId);
+    /* Проверка существования сразу нескольких запросов одним обращением к БД */
+    @Query("select r.id from ItemRequest r where r.id in ?1")
+    Set<Long> findExistingIds(Collection<Long> ids);
 
-    Page<ItemRequest> findAllByRequesterIdNot(long requesterId, Pageable pageable);
+    @Query("select r.id from ItemRequest r where r.requester.id = ?1")
+    List<Long> findIdsByRequesterId(long requesterId);
+
+    @Query(SELECT_SHORT_DTO + "where r.requester.id = ?1 order by r.created desc")
+    List<ItemRequestShortDto> findAllByRequesterIdOrderByCreatedDesc(long requesterId);
+
+    @Query(SELECT_SHORT_DTO + "where r.requester.id <> ?1")
+    Slice<ItemRequestShortDto> findAllByRequesterIdNot(long requesterId, Pageable pageable);
+
+    long countByRequesterIdNot(long requesterId);
+
+    List<ItemRequest> findAllByIdGreaterThan(long id, Pageable pageable);
+
+    @Query("select r from ItemRequest r order by r.created desc, r.id desc")
+    List<ItemRequest> findNewest(Pageable pageable);
+
+    @Query(SELECT_SHORT_DTO + "where r.requester.id <> :requesterId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequestShortDto> findAllByRequesterIdNotBefore(@Param("requesterId") long requesterId,
+                                                            @Param("created") LocalDateTime created,
+                                                            @Param("id") long id,
+                                                            Pageable pageable);
 
 }
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.server.request;
+
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * Кольцевой буфер самых новых запросов вместе с вещами, добавленными по ним, от новых к старым по (created, id).
+ * В буфере лежат все запросы новее границы horizon, более старые есть только в БД; без границы в буфере все запросы.
+ * Новый запрос встаёт в голову без сдвига остальных, при переполнении самый старый вытесняется и становится границей.
+ * Не потокобезопасен, доступ синхронизирует InMemoryItemRequestFeed.
+ */
+class ItemRequestRingBuffer {
+    private final Entry[] entries;
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private int head;
+    private int size;
+    private Entry horizon;
+
+    ItemRequestRingBuffer(int capacity) {
+        entries = new Entry[capacity];
+    }
+
+    void limitTo(Entry horizon) {
+        this.horizon = horizon;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isComplete() {
+        return horizon == null;
+    }
+
+    void add(Entry entry) {
+        if (horizon != null && !horizon.isOlderThan(entry.created, entry.id) || entriesById.containsKey(entry.id)) {
+            return;
+        }
+        int position = firstOlderThan(entry.created, entry.id);
+        if (size == entries.length) {
+            if (position == size) {
+                horizon = entry;
+                return;
+            }
+            horizon = get(size - 1);
+            entriesById.remove(horizon.id);
+            size--;
+        }
+        if (position < size - position) {
+            head = (head + entries.length - 1) % entries.length;
+            for (int i = 0; i < position; i++) {
+                set(i, get(i + 1));
+            }
+        } else {
+            for (int i = size; i > position; i--) {
+                set(i, get(i - 1));
+            }
+        }
+        set(position, entry);
+        size++;
+        entriesById.put(entry.id, entry);
+    }
+
+    void index(ItemForItemRequestDto item) {
+        Entry entry = entriesById.get(item.getRequestId());
+        if (entry != null) {
+            entry.items = entry.withItem(item);
+        }
+    }
+
+    void removeAllByUserId(long userId) {
+        List<Entry> kept = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Entry entry = get(i);
+            if (entry.requesterId == userId) {
+                entriesById.remove(entry.id);
+            } else {
+                entry.items = entry.withoutItemsOf(userId);
+                kept.add(entry);
+            }
+        }
+        Arrays.fill(entries, null);
+        head = 0;
+        size = kept.size();
+        for (int i = 0; i < size; i++) {
+            entries[i] = kept.get(i);
+        }
+    }
+
+    /*
+     * Запросы старше (created, id), кроме запросов requesterId: первые skip пропускаются, возвращается не больше limit.
+     * null, если в буфере столько не набралось, а за границей буфера в БД есть ещё запросы
+     */
+    List<ItemRequestDto> find(long requesterId, LocalDateTime created, long id, long skip, int limit) {
+        List<ItemRequestDto> found = new ArrayList<>(Math.min(limit, size));
+        long skipped = 0;
+        for (int i = firstOlderThan(created, id); i < size && found.size() < limit; i++) {
+            Entry entry = get(i);
+            if (entry.requesterId == requesterId) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+            found.add(entry.toItemRequestDto());
+        }
+        return found.size() == limit || isComplete() ? found : null;
+    }
+
+    private int firstOlderThan(LocalDateTime created, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle).isOlderThan(created, id)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private Entry get(int position) {
+        return entries[(head + position) % entries.length];
+    }
+
+    private void set(int position, Entry entry) {
+        entries[(head + position) % entries.length] = entry;
+    }
+
+    static class Entry {
+        private final long id;
+        private final String description;
+        private final LocalDateTime created;
+        private final long requesterId;
+        private List<ItemForItemRequestDto> items;
+
+        Entry(long id, String description, LocalDateTime created, long requesterId,
+              List<ItemForItemRequestDto> items) {
+            this.id = id;
+            this.description = description;
+            this.created = created;
+            this.requesterId = requesterId;
+            this.items = List.copyOf(items);
+        }
+
+        static Entry of(ItemRequest itemRequest, List<ItemForItemRequestDto> items) {
+            return new Entry(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(),
+                    itemRequest.getRequester().getId(), items);
+        }
+
+        private boolean isOlderThan(LocalDateTime otherCreated, long otherId) {
+            return created.isBefore(otherCreated) || created.isEqual(otherCreated) && id < otherId;
+        }
+
+        private List<ItemForItemRequestDto> withItem(ItemForItemRequestDto item) {
+            List<ItemForItemRequestDto> updated = new ArrayList<>(items.size() + 1);
+            boolean replaced = false;
+            for (ItemForItemRequestDto current : items) {
+                if (current.getId().equals(item.getId())) {
+                    updated.add(item);
+                    replaced = true;
+                } else {
+                    updated.add(current);
+                }
+            }
+            if (!replaced) {
+                updated.add(item);
+            }
+            return List.copyOf(updated);
+        }
+
+        private List<ItemForItemRequestDto> withoutItemsOf(long ownerId) {
+            return items.stream()
+                    .filter(item -> item.getOwnerId() != ownerId)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        private ItemRequestDto toItemRequestDto() {
+            return ItemRequestDto.builder()
+                    .id(id)
+                    .description(description)
+                    .created(created)
+                    .items(items)
+                    .build();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.server.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.request.dto.*;
 
 import java.util.List;
@@ -12,7 +14,13 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> findAllByRequesterId(long requesterId);
 
-    Page<ItemRequestDto> findAllByExpectRequesterId(long requesterId, Pageable pageable);
+    Slice<ItemRequestDto> findAllByExpectRequesterId(long requesterId, Pageable pageable);
+
+    CursorPage<ItemRequestDto> findAllByExpectRequesterId(long requesterId, String cursor, int size);
+
+    long countByExpectRequesterId(long requesterId);
+
+    List<ItemForItemRequestDto> findSuggestions(long userId, long id);
 
     ItemRequestShortDto create(ItemRequestIncomingDto itemRequestDto, long userId);
 }
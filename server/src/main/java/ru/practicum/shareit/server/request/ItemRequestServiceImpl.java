@@ -4,17 +4,26 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
 import ru.practicum.shareit.server.request.dto.*;
 import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +34,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     ItemRequestRepository requestRepository;
     ItemRepository itemRepository;
     UserRepository userRepository;
+    UserIdIndex userIdIndex;
+    TotalCountCache totalCountCache;
+    ItemRequestFeed itemRequestFeed;
+    ItemRequestMatcher itemRequestMatcher;
+    ItemSuggestionRepository suggestionRepository;
 
     @Override
     public ItemRequestDto findById(long userId, long id) {
-        userRepository.extract(userId);
+        userIdIndex.requireExists(userId);
         ItemRequest itemRequest = requestRepository.extract(id);
         return ItemRequestMapper.toItemRequestDto(
                 itemRequest,
@@ -38,23 +52,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> findAllByRequesterId(long requesterId) {
-        userRepository.extract(requesterId);
-        return requestRepository.findAllByRequesterIdOrderByCreatedDesc(requesterId)
-                .stream()
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(
-                        itemRequest,
-                        itemRepository.findAllByRequestId(requesterId)))
+        userIdIndex.requireExists(requesterId);
+        List<ItemRequestShortDto> itemRequests = requestRepository.findAllByRequesterIdOrderByCreatedDesc(requesterId);
+        Map<Long, List<ItemForItemRequestDto>> itemsByRequestId = findItems(itemRequests);
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest, itemsByRequestId))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Page<ItemRequestDto> findAllByExpectRequesterId(long requesterId, Pageable pageable) {
-        userRepository.extract(requesterId);
-        return requestRepository.findAllByRequesterIdNot(requesterId, pageable)
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(
-                        itemRequest,
-                        itemRepository.findAllByRequestId(itemRequest.getId())
-                ));
+    public Slice<ItemRequestDto> findAllByExpectRequesterId(long requesterId, Pageable pageable) {
+        userIdIndex.requireExists(requesterId);
+        return itemRequestFeed.findAllByRequesterIdNot(requesterId, pageable);
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> findAllByExpectRequesterId(long requesterId, String cursor, int size) {
+        userIdIndex.requireExists(requesterId);
+        return itemRequestFeed.findAllByRequesterIdNot(requesterId, Cursor.decode(cursor), size);
+    }
+
+    @Override
+    public long countByExpectRequesterId(long requesterId) {
+        return totalCountCache.get("requests:all:" + requesterId,
+                () -> requestRepository.countByRequesterIdNot(requesterId));
+    }
+
+    @Override
+    public List<ItemForItemRequestDto> findSuggestions(long userId, long id) {
+        userIdIndex.requireExists(userId);
+        ItemRequest itemRequest = requestRepository.extract(id);
+        if (itemRequest.getRequester().getId() != userId) {
+            throw new ForbiddenException("Подобранные по запросу вещи доступны только автору запроса");
+        }
+        return suggestionRepository.findAvailableItemsByRequestId(id);
     }
 
     @Transactional
@@ -63,9 +94,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = userRepository.extract(userId);
         ItemRequest newItemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         ItemRequest createdItemRequest = requestRepository.save(newItemRequest);
+        itemRequestFeed.add(createdItemRequest);
+        itemRequestMatcher.add(createdItemRequest);
         log.info("Добавлен для нужной вещи запрос с id = {} для пользователя с id = {}",
                 createdItemRequest.getId(), userId);
         return ItemRequestMapper.toItemRequestShortDto(createdItemRequest);
     }
 
+    private Map<Long, List<ItemForItemRequestDto>> findItems(Collection<ItemRequestShortDto> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ItemRequestMapper.groupByRequestId(itemRepository.findAllByRequestIdIn(itemRequests.stream()
+                .map(ItemRequestShortDto::getId)
+                .collect(Collectors.toList())));
+    }
+
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.request;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.request.model.ItemSuggestion;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ItemSuggestionRepository extends JpaRepository<ItemSuggestion, Long> {
+
+    @Query("select s.requestId from ItemSuggestion s where s.itemId = ?1")
+    Set<Long> findRequestIdsByItemId(long itemId);
+
+    /* Недоступные сейчас вещи не предлагаются, но и не удаляются: после возврата доступности снова видны */
+    @Query("select new ru.practicum.shareit.server.item.dto.ItemForItemRequestDto(" +
+            "i.id, i.name, i.description, i.owner.id, i.available, s.requestId) " +
+            "from ItemSuggestion s join Item i on i.id = s.itemId " +
+            "where s.requestId = ?1 and i.available = true order by s.created desc, s.id desc")
+    List<ItemForItemRequestDto> findAvailableItemsByRequestId(long requestId);
+}
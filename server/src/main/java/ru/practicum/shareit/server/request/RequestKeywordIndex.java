@@ -0,0 +1,126 @@
+package ru.practicum.shareit.server.request;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * Обратный индекс ключевых слов из описаний запросов: описание каждого запроса - постоянный поисковый запрос,
+ * под который проверяется каждая новая или изменённая вещь. Ключевое слово - первые STEM_LENGTH букв слова
+ * не короче MIN_KEYWORD_LENGTH без гласных на конце, так что "щётка" и "щёткой" совпадают. Слова, которыми
+ * просят о вещи, а не описывают её, в индекс не попадают.
+ * Не потокобезопасен, доступ синхронизирует ItemRequestMatcher.
+ */
+class RequestKeywordIndex {
+    static final int MIN_KEYWORD_LENGTH = 4;
+    static final int STEM_LENGTH = 5;
+    private static final String STEM_ENDINGS = "аеиоуыэюяьйъaeiouy";
+    private static final Set<String> STOP_WORDS = Arrays.stream(new String[]{
+            "нужна", "нужен", "нужно", "нужны", "хочу", "хотел", "хотела", "хотелось", "пожалуйста", "одолжить",
+            "взять", "аренду", "арендовать", "воспользоваться", "может", "можно", "какой", "какую", "нибудь",
+            "need", "want", "looking", "please", "would", "some", "with", "rent", "borrow", "anyone"})
+            .map(RequestKeywordIndex::stem)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final Map<String, Set<Long>> requestIdsByKeyword = new HashMap<>();
+    private final Map<Long, StandingQuery> queriesById = new HashMap<>();
+
+    void add(long requestId, long requesterId, String description) {
+        Set<String> keywords = keywords(description);
+        if (keywords.isEmpty() || queriesById.containsKey(requestId)) {
+            return;
+        }
+        queriesById.put(requestId, new StandingQuery(requesterId, keywords));
+        for (String keyword : keywords) {
+            requestIdsByKeyword.computeIfAbsent(keyword, key -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    void removeAllByUserId(long userId) {
+        Iterator<Map.Entry<Long, StandingQuery>> iterator = queriesById.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, StandingQuery> query = iterator.next();
+            if (query.getValue().requesterId == userId) {
+                for (String keyword : query.getValue().keywords) {
+                    Set<Long> requestIds = requestIdsByKeyword.get(keyword);
+                    requestIds.remove(query.getKey());
+                    if (requestIds.isEmpty()) {
+                        requestIdsByKeyword.remove(keyword);
+                    }
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    int size() {
+        return queriesById.size();
+    }
+
+    /*
+     * Один проход по ключевым словам вещи: у каждого задетого запроса считается число совпавших слов.
+     * Запросы владельца вещи и запрос, по которому вещь уже добавлена, пропускаются. Возвращается не больше
+     * limit запросов - с наибольшим числом совпадений, при равенстве более новые
+     */
+    List<Long> match(long ownerId, Long linkedRequestId, int limit, String... texts) {
+        Map<Long, Integer> matchCounts = new HashMap<>();
+        for (String keyword : keywords(texts)) {
+            for (Long requestId : requestIdsByKeyword.getOrDefault(keyword, Set.of())) {
+                if (queriesById.get(requestId).requesterId != ownerId && !requestId.equals(linkedRequestId)) {
+                    matchCounts.merge(requestId, 1, Integer::sum);
+                }
+            }
+        }
+        return matchCounts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    static Set<String> keywords(String... texts) {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= MIN_KEYWORD_LENGTH) {
+                    String keyword = stem(word);
+                    if (!STOP_WORDS.contains(keyword)) {
+                        keywords.add(keyword);
+                    }
+                }
+            }
+        }
+        return keywords;
+    }
+
+    private static String stem(String word) {
+        String normalized = word.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int length = Math.min(normalized.length(), STEM_LENGTH);
+        while (length > MIN_KEYWORD_LENGTH && STEM_ENDINGS.indexOf(normalized.charAt(length - 1)) >= 0) {
+            length--;
+        }
+        return normalized.substring(0, length);
+    }
+
+    private static class StandingQuery {
+        private final long requesterId;
+        private final List<String> keywords;
+
+        private StandingQuery(long requesterId, Set<String> keywords) {
+            this.requesterId = requesterId;
+            this.keywords = List.copyOf(keywords);
+        }
+    }
+}
@@ -1,29 +1,50 @@
 package ru.practicum.shareit.server.request.dto;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.server.item.dto.ItemMapper;
-import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @UtilityClass
 public class ItemRequestMapper {
     public static ItemRequestDto toItemRequestDto(
-            ItemRequest itemRequestStorage, Collection<Item> items) {
+            ItemRequest itemRequestStorage, Collection<ItemForItemRequestDto> items) {
         return ItemRequestDto.builder()
                 .id(itemRequestStorage.getId())
                 .description(itemRequestStorage.getDescription())
                 .created(itemRequestStorage.getCreated())
-                .items(items.stream()
-                        .map(ItemMapper::toItemForItemRequestDto)
-                        .collect(Collectors.toList()))
+                .items(items)
                 .build();
     }
 
+    public static ItemRequestDto toItemRequestDto(
+            ItemRequestShortDto itemRequest, Collection<ItemForItemRequestDto> items) {
+        return ItemRequestDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequestDto toItemRequestDto(
+            ItemRequestShortDto itemRequest, Map<Long, List<ItemForItemRequestDto>> itemsByRequestId) {
+        return toItemRequestDto(itemRequest, itemsByRequestId.getOrDefault(itemRequest.getId(), List.of()));
+    }
+
+    /* Вещи, загруженные одним запросом для страницы запросов, раскладываются по id запроса */
+    public static Map<Long, List<ItemForItemRequestDto>> groupByRequestId(Collection<ItemForItemRequestDto> items) {
+        return items.stream()
+                .collect(Collectors.groupingBy(ItemForItemRequestDto::getRequestId));
+    }
+
     public static ItemRequestShortDto toItemRequestShortDto(ItemRequest itemRequestStorage) {
         return ItemRequestShortDto.builder()
                 .id(itemRequestStorage.getId())
@@ -36,7 +57,7 @@ public class ItemRequestMapper {
         return ItemRequest.builder()
                 .description(itemRequestDto.getDescription())
                 .requester(user)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
     }
 }
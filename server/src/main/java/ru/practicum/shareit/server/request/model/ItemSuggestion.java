@@ -0,0 +1,29 @@
+package ru.practicum.shareit.server.request.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/* Вещь, подходящая под описание запроса, найденная при её добавлении или изменении */
+@Entity
+@Table(name = "item_suggestions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder(toBuilder = true)
+public class ItemSuggestion {
+    public static final String ID_SEQUENCE = "item_suggestions_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    Long id;
+    @Column(name = "request_id")
+    Long requestId;
+    @Column(name = "item_id")
+    Long itemId;
+    LocalDateTime created;
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.server.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
 
+import java.io.InputStream;
 import java.util.Collection;
 
 import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_USER_PATH;
@@ -16,6 +19,7 @@ import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_USER_PAT
 public class UserController {
     private final UserService userService;
     protected static final String USER_PREFIX = "/{userId}";
+    protected static final String IMPORT_PATH = "/import";
 
 
     @GetMapping(USER_PREFIX)
@@ -36,6 +40,13 @@ public class UserController {
         return userService.create(userDto);
     }
 
+    /* Тело читается потоком, по строке на пользователя; ответ - итог по каждой строке */
+    @PostMapping(path = IMPORT_PATH, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public UserImportResult importAll(InputStream ndjson) {
+        log.info("Получен запрос POST к эндпоинту: {}{}", COMMON_USER_PATH, IMPORT_PATH);
+        return userService.importAll(ndjson);
+    }
+
     @PatchMapping(USER_PREFIX)
     public UserDto update(@RequestBody UserDto userDto, @PathVariable Long userId) {
         log.info("Получен запрос PATCH к эндпоинту: {}/{}. Данные тела запроса: {}", COMMON_USER_PATH, userId, userDto);
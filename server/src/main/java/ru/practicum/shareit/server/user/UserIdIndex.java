@@ -0,0 +1,109 @@
+package ru.practicum.shareit.server.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.exception.NotFoundException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static ru.practicum.shareit.server.pagination.PaginationUtils.forEachByKeyset;
+
+/*
+ * Битовое множество id существующих пользователей для проверок "пользователь существует" без запроса в БД.
+ * Чтение не берёт блокировок; изменения редкие и сериализуются. Если id в множестве нет (например,
+ * пользователь создан другим экземпляром сервера), наличие проверяется в БД и найденный id добавляется,
+ * если за время проверки не было удалений: иначе ответ БД мог устареть до того, как id попадёт в множество.
+ */
+@Slf4j
+@Component
+public class UserIdIndex implements SmartInitializingSingleton {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final UserRepository userRepository;
+    private final int loadChunkSize;
+    private final AtomicLong removals = new AtomicLong();
+    private volatile AtomicLongArray words = new AtomicLongArray(1);
+
+    public UserIdIndex(UserRepository userRepository,
+                       @Value("${shareit.user.id-index.load-chunk-size:10000}") int loadChunkSize) {
+        this.userRepository = userRepository;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public void load() {
+        long startedAt = System.nanoTime();
+        long loaded = forEachByKeyset(PageRequest.of(0, loadChunkSize),
+                userRepository::findAllIdsGreaterThan, Long::longValue, this::add);
+        log.info("Загружены id пользователей: {} id за {} мс, занимают ~{} байт",
+                loaded, (System.nanoTime() - startedAt) / 1_000_000, (long) words.length() * Long.BYTES);
+    }
+
+    public void requireExists(long id) {
+        if (contains(id)) {
+            return;
+        }
+        long removalsBefore = removals.get();
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException("Запрос на несуществующего пользователя с id = " + id);
+        }
+        addUnlessRemovedSince(id, removalsBefore);
+    }
+
+    public boolean contains(long id) {
+        AtomicLongArray current = words;
+        return id > 0
+                && wordIndex(id) < current.length()
+                && (current.get((int) wordIndex(id)) & bit(id)) != 0;
+    }
+
+    public synchronized void add(long id) {
+        if (id <= 0 || wordIndex(id) >= Integer.MAX_VALUE) {
+            return;
+        }
+        int index = (int) wordIndex(id);
+        if (index >= words.length()) {
+            grow(index);
+        }
+        words.getAndUpdate(index, word -> word | bit(id));
+    }
+
+    private synchronized void addUnlessRemovedSince(long id, long removalsBefore) {
+        if (removals.get() == removalsBefore) {
+            add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        removals.incrementAndGet();
+        if (contains(id)) {
+            words.getAndUpdate((int) wordIndex(id), word -> word & ~bit(id));
+        }
+    }
+
+    private void grow(int index) {
+        AtomicLongArray current = words;
+        AtomicLongArray grown = new AtomicLongArray((int) Math.min(
+                Math.max(index + 1L, current.length() * 2L), Integer.MAX_VALUE));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        words = grown;
+    }
+
+    private static long wordIndex(long id) {
+        return id >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static long bit(long id) {
+        return 1L << id;
+    }
+}
@@ -0,0 +1,272 @@
+package ru.practicum.shareit.server.user;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportLineResult;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
+import ru.practicum.shareit.server.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
+/*
+ * Импорт пользователей из NDJSON: строки читаются по одной и копятся в порции по shareit.user.import.chunk-size.
+ * На порцию - один запрос занятых email: у найденных пользователей обновляется имя, остальные вставляются
+ * JDBC-пакетом. Каждая порция в своей транзакции, поэтому ошибка в одной порции не откатывает предыдущие.
+ * Итог по строкам не копится: считаются добавленные, обновлённые и оставшиеся без изменений, из отклонённых
+ * запоминаются первые shareit.user.import.max-rejected-lines.
+ */
+@Slf4j
+@Component
+public class UserImporter {
+    static final String NOT_USER_ERROR = "Строка не является JSON-объектом пользователя";
+    static final String CHUNK_CONFLICT_ERROR = "Порция не сохранена: email занят параллельно или нарушено " +
+            "ограничение БД";
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_EMAIL_LENGTH = 512;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserIdIndex userIdIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectReader userReader;
+    private final int chunkSize;
+    private final int maxRejectedLines;
+
+    public UserImporter(NamedParameterJdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        UserIdIndex userIdIndex,
+                        EntityManagerFactory entityManagerFactory,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.user.import.chunk-size:1000}") int chunkSize,
+                        @Value("${shareit.user.import.max-rejected-lines:1000}") int maxRejectedLines) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userIdIndex = userIdIndex;
+        this.entityManagerFactory = entityManagerFactory;
+        this.userReader = objectMapper.readerFor(UserDto.class);
+        this.chunkSize = chunkSize;
+        this.maxRejectedLines = maxRejectedLines;
+    }
+
+    public UserImportResult importAll(InputStream ndjson) {
+        long startedAt = System.nanoTime();
+        Tally tally = new Tally(maxRejectedLines);
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            long number = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                UserDto userDto = parse(line);
+                String error = validate(userDto);
+                if (error != null) {
+                    tally.reject(number, error);
+                    continue;
+                }
+                chunk.add(new ImportLine(number, userDto.getName(), userDto.getEmail()));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, tally);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, tally);
+        }
+        UserImportResult result = tally.toResult();
+        log.info("Импорт пользователей: добавлено {}, обновлено {}, без изменений {}, отклонено {} строк за {} мс",
+                result.getCreated(), result.getUpdated(), result.getUnchanged(), result.getRejected(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return result;
+    }
+
+    private UserDto parse(String line) {
+        try {
+            return userReader.readValue(line);
+        } catch (JsonProcessingException exception) {
+            return null;
+        }
+    }
+
+    static String validate(UserDto userDto) {
+        if (userDto == null) {
+            return NOT_USER_ERROR;
+        }
+        String name = userDto.getName();
+        if (name == null || name.isBlank()) {
+            return "Не указано имя (name) пользователя";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "Имя (name) пользователя длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        String email = userDto.getEmail();
+        if (email == null || email.isBlank()) {
+            return "Не указан email пользователя";
+        }
+        if (email.length() > MAX_EMAIL_LENGTH || !isEmail(email)) {
+            return "Указан некорректный email пользователя";
+        }
+        return null;
+    }
+
+    private static boolean isEmail(String email) {
+        int at = email.indexOf('@');
+        return at > 0
+                && at == email.lastIndexOf('@')
+                && at < email.length() - 1
+                && email.chars().noneMatch(Character::isWhitespace);
+    }
+
+    private void importChunk(List<ImportLine> chunk, Tally tally) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> upsertChunk(chunk));
+            tally.created += result.created;
+            tally.updated += result.updated;
+            tally.unchanged += result.unchanged;
+        } catch (DataIntegrityViolationException exception) {
+            log.info("Порция импорта пользователей из {} строк не сохранена: {}",
+                    chunk.size(), exception.getMostSpecificCause().getMessage());
+            chunk.forEach(line -> tally.reject(line.number, CHUNK_CONFLICT_ERROR));
+        }
+    }
+
+    /*
+     * Если email повторяется внутри порции, имя берётся из последней строки, а предыдущие строки с этим email
+     * считаются оставшимися без изменений. Так же считаются строки с тем же именем, что уже сохранено
+     */
+    private ChunkResult upsertChunk(List<ImportLine> chunk) {
+        Map<String, String> namesByEmail = new LinkedHashMap<>();
+        chunk.forEach(line -> namesByEmail.put(line.email, line.name));
+        Map<String, User> existingByEmail = findAllByEmails(namesByEmail.keySet());
+
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<String> newEmails = new ArrayList<>();
+        namesByEmail.forEach((email, name) -> {
+            User existing = existingByEmail.get(email);
+            if (existing == null) {
+                inserts.add(new MapSqlParameterSource("name", name).addValue("email", email));
+                newEmails.add(email);
+            } else if (!name.equals(existing.getName())) {
+                updates.add(new MapSqlParameterSource("name", name).addValue("id", existing.getId()));
+            }
+        });
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into users (name, email) values (:name, :email)",
+                    inserts.toArray(SqlParameterSource[]::new));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("update users set name = :name where id = :id",
+                    updates.toArray(SqlParameterSource[]::new));
+            /* Имена обновлены в обход Hibernate, минуя кэш второго уровня */
+            afterCommit(() -> entityManagerFactory.getCache().evict(User.class));
+        }
+        if (!newEmails.isEmpty()) {
+            Collection<User> created = findAllByEmails(newEmails).values();
+            afterCommit(() -> created.forEach(user -> userIdIndex.add(user.getId())));
+        }
+        return new ChunkResult(newEmails.size(), updates.size(), chunk.size() - newEmails.size() - updates.size());
+    }
+
+    private Map<String, User> findAllByEmails(Collection<String> emails) {
+        return jdbcTemplate.query("select id, name, email from users where email in (:emails)",
+                        new MapSqlParameterSource("emails", emails),
+                        (resultSet, rowNumber) -> User.builder()
+                                .id(resultSet.getLong("id"))
+                                .name(resultSet.getString("name"))
+                                .email(resultSet.getString("email"))
+                                .build())
+                .stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+    }
+
+    private static final class ChunkResult {
+        private final long created;
+        private final long updated;
+        private final long unchanged;
+
+        private ChunkResult(long created, long updated, long unchanged) {
+            this.created = created;
+            this.updated = updated;
+            this.unchanged = unchanged;
+        }
+    }
+
+    private static final class Tally {
+        private final int maxRejectedLines;
+        private final List<UserImportLineResult> rejectedLines = new ArrayList<>();
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long rejected;
+
+        private Tally(int maxRejectedLines) {
+            this.maxRejectedLines = maxRejectedLines;
+        }
+
+        private void reject(long number, String error) {
+            rejected++;
+            if (rejectedLines.size() < maxRejectedLines) {
+                rejectedLines.add(UserImportLineResult.builder()
+                        .line(number)
+                        .error(error)
+                        .build());
+            }
+        }
+
+        /* Строки порции, отклонённой целиком, добавляются после уже отклонённых при чтении строк */
+        private UserImportResult toResult() {
+            rejectedLines.sort(Comparator.comparingLong(UserImportLineResult::getLine));
+            return UserImportResult.builder()
+                    .created(created)
+                    .updated(updated)
+                    .unchanged(unchanged)
+                    .rejected(rejected)
+                    .rejectedLines(rejectedLines)
+                    .build();
+        }
+    }
+
+    private static final class ImportLine {
+        private final long number;
+        private final String name;
+        private final String email;
+
+        private ImportLine(long number, String name, String email) {
+            this.number = number;
+            this.name = name;
+            this.email = email;
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.server.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     default User extract(long id) {
         return findById(id).orElseThrow(
                 () -> new NotFoundException("Запрос на несуществующего пользователя с id = " + id));
     }
+
+    @Query("select u.id from User u where u.id > ?1 order by u.id")
+    List<Long> findAllIdsGreaterThan(long id, Pageable pageable);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.server.user;
 
 import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
 
+import java.io.InputStream;
 import java.util.Collection;
 
 public interface UserService {
@@ -14,4 +16,6 @@ public interface UserService {
     UserDto update(long id, UserDto userDto);
 
     void delete(long id);
+
+    UserImportResult importAll(InputStream ndjson);
 }
\ No newline at end of file
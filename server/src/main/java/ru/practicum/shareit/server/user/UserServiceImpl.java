@@ -4,18 +4,44 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.server.request.ItemRequestFeed;
+import ru.practicum.shareit.server.request.ItemRequestMatcher;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
 import ru.practicum.shareit.server.user.dto.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.server.transaction.TransactionUtils.afterCommit;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserIdIndex userIdIndex;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemNameSuggester itemNameSuggester;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserImporter userImporter;
 
     @Override
     public UserDto findById(long id) {
@@ -35,6 +61,7 @@ public class UserServiceImpl implements UserService {
     public UserDto create(UserDto userDto) {
         User newUser = UserMapper.toUser(userDto);
         User createdUser = userRepository.save(newUser);
+        afterCommit(() -> userIdIndex.add(createdUser.getId()));
         log.info("Добавлен пользователь с id = {}", createdUser.getId());
         return UserMapper.toUserDto(createdUser);
     }
@@ -60,8 +87,27 @@ public class UserServiceImpl implements UserService {
     @Override
     public void delete(long id) {
         userRepository.extract(id);
+        /* Вещи и запросы пользователя меняются каскадом в БД, минуя кэш второго уровня */
+        List<Long> itemIds = itemRepository.findIdsByOwnerIdOrRequesterId(id);
+        List<Long> requestIds = itemRequestRepository.findIdsByRequesterId(id);
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            userIdIndex.remove(id);
+            Cache cache = entityManagerFactory.getCache();
+            itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+            requestIds.forEach(requestId -> cache.evict(ItemRequest.class, requestId));
+        });
+        itemSearchEngine.removeAllByOwnerId(id);
+        itemNameSuggester.removeAllByOwnerId(id);
+        bookingIntervalIndex.removeAllByUserId(id);
+        itemRequestFeed.removeAllByUserId(id);
+        itemRequestMatcher.removeAllByUserId(id);
         log.info("Удалён пользователь с id = {}", id);
     }
 
+    @Override
+    public UserImportResult importAll(InputStream ndjson) {
+        return userImporter.importAll(ndjson);
+    }
+
 }
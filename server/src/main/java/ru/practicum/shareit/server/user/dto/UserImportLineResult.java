@@ -0,0 +1,15 @@
+package ru.practicum.shareit.server.user.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/* Отклонённая строка импорта: номер строки и причина */
+@Getter
+@EqualsAndHashCode
+@Builder(toBuilder = true)
+@ToString
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class UserImportLineResult {
+    long line;
+    String error;
+}
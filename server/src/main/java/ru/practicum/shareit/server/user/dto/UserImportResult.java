@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.user.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/* Итог импорта: счётчики по всем строкам и отклонённые строки (не больше shareit.user.import.max-rejected-lines) */
+@Getter
+@EqualsAndHashCode
+@Builder(toBuilder = true)
+@ToString
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class UserImportResult {
+    long created;
+    long updated;
+    long unchanged;
+    long rejected;
+    List<UserImportLineResult> rejectedLines;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.server.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+
+/*
+ * Отдельный ограниченный пул для асинхронных ответов MVC (выгрузки NDJSON): выгрузка держит поток до часа,
+ * поэтому лишние выгрузки не ждут в очереди, а сразу отклоняются с 503.
+ * Пул не объявлен бином, чтобы не заменять applicationTaskExecutor Spring Boot.
+ */
+@Configuration
+public class AsyncSupportConfiguration implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public AsyncSupportConfiguration(@Value("${shareit.mvc.async.pool-size:8}") int poolSize,
+                                     @Value("${shareit.mvc.async.queue-capacity:0}") int queueCapacity) {
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS item_suggestions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS item_suggestions (
+    id BIGINT PRIMARY KEY NOT NULL,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT uq_item_suggestion UNIQUE (request_id, item_id),
+    CONSTRAINT fk_suggestion_request FOREIGN KEY(request_id) REFERENCES requests(id) ON DELETE CASCADE,
+    CONSTRAINT fk_suggestion_item FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_item_suggestions_item ON item_suggestions (item_id);
@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT PRIMARY KEY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(64) NOT NULL,
+    CONSTRAINT valid_archived_status CHECK (status IN('APPROVED', 'REJECTED', 'CANCELED')),
+    CONSTRAINT fk_archived_booking_item_owner FOREIGN KEY (item_id, owner_id)
+        REFERENCES items (id, owner_id) ON UPDATE CASCADE ON DELETE CASCADE,
+    CONSTRAINT fk_archived_booking_user FOREIGN KEY(booker_id) REFERENCES users(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_start ON bookings_archive (owner_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_item_end ON bookings_archive (booker_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date, id);
+
+CREATE VIEW bookings_history AS
+    SELECT id, start_date, end_date, item_id, booker_id, owner_id, status FROM bookings
+    UNION ALL
+    SELECT id, start_date, end_date, item_id, booker_id, owner_id, status FROM bookings_archive;
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_end ON bookings (item_id, end_date) WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_date) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_items_available ON items (id) WHERE is_available;
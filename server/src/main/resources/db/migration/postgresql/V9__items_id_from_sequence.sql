@@ -0,0 +1,5 @@
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) FROM items) + 50);
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.server;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.ItemRequestService;
+import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest
+class EntityCacheTestIT {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics statistics;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        emf.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userIds.stream()
+                .filter(userRepository::existsById)
+                .forEach(userService::delete);
+    }
+
+    @Test
+    void findById_whenReadAgain_thenServedFromCache() {
+        long userId = createUser("cached@test.com");
+        emf.getCache().evictAll();
+        statistics.clear();
+
+        userService.findById(userId);
+        userService.findById(userId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void update_thenCachedUserUpdated() {
+        long userId = createUser("old@test.com");
+        userService.findById(userId);
+
+        userService.update(userId, UserDto.builder().email("new@test.com").build());
+        statistics.clear();
+
+        assertEquals("new@test.com", userService.findById(userId).getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void delete_thenCascadedItemsEvicted() {
+        long userId = createUser("owner@test.com");
+        long itemId = itemService.create(ItemIncomingDto.builder()
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .build(), userId).getId();
+        long otherUserId = createUser("other@test.com");
+        long requestId = itemRequestService.create(ItemRequestIncomingDto.builder()
+                .description("RequestDescription")
+                .build(), userId).getId();
+        long offeredItemId = itemService.create(ItemIncomingDto.builder()
+                .name("OfferedName")
+                .description("OfferedDescription")
+                .available(true)
+                .requestId(requestId)
+                .build(), otherUserId).getId();
+        long unrelatedItemId = itemService.create(ItemIncomingDto.builder()
+                .name("UnrelatedName")
+                .description("UnrelatedDescription")
+                .available(true)
+                .build(), otherUserId).getId();
+        itemRepository.findById(itemId);
+        itemRepository.findById(offeredItemId);
+        itemRepository.findById(unrelatedItemId);
+
+        userService.delete(userId);
+
+        assertTrue(itemRepository.findById(itemId).isEmpty());
+        assertNull(itemRepository.findById(offeredItemId).orElseThrow().getRequestId());
+        assertFalse(emf.getCache().contains(ItemRequest.class, requestId));
+        assertTrue(emf.getCache().contains(Item.class, unrelatedItemId));
+    }
+
+    @Test
+    void metrics_thenCacheRequestsExposed() throws Exception {
+        userService.findById(createUser("metrics@test.com"));
+
+        mvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+    }
+
+    private long createUser(String email) {
+        long userId = userService.create(UserDto.builder().name("UserName").email(email).build()).getId();
+        userIds.add(userId);
+        return userId;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.server;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.server.booking.BookingServiceImpl;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.CommentIncomingDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.user.UserIdIndex;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.server.ShareItServerConstants.*;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanQueryCountTestIT {
+    private static final int ITEMS_COUNT = 3;
+    private static final int REQUESTS_COUNT = 2;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private ItemRequestServiceImpl requestService;
+
+    @Autowired
+    private UserIdIndex userIdIndex;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.create(UserDto.builder().name("Owner").email("owner@test.com").build()).getId();
+        bookerId = userService.create(UserDto.builder().name("Booker").email("booker@test.com").build()).getId();
+        /* Транзакция теста не фиксируется, поэтому id регистрируются в индексе явно */
+        userIdIndex.add(ownerId);
+        userIdIndex.add(bookerId);
+        LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            ItemDto item = itemService.create(ItemIncomingDto.builder()
+                    .name("ItemName" + i)
+                    .description("ItemDescription")
+                    .available(true)
+                    .build(), ownerId);
+            BookingDto lastBooking = bookingService.create(bookerId, BookingIncomingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.minusHours(2))
+                    .end(start.minusHours(1))
+                    .build());
+            bookingService.setApproved(ownerId, lastBooking.getId(), true);
+            itemService.createComment(bookerId, item.getId(), CommentIncomingDto.builder().text("Comment").build());
+            bookingService.create(bookerId, BookingIncomingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(1))
+                    .end(start.plusHours(2))
+                    .build());
+            itemId = item.getId();
+            bookingId = lastBooking.getId();
+        }
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            requestService.create(ItemRequestIncomingDto.builder().description("Request" + i).build(), bookerId);
+        }
+    }
+
+    @Test
+    void bookingList_thenOnlyOneJoinedBookingQuery() throws Exception {
+        assertEquals(1, statementsFor(get(COMMON_BOOKING_PATH).header(USER_REQUEST_HEADER, bookerId)));
+        assertEquals(1, statementsFor(get(COMMON_BOOKING_PATH + "/owner").header(USER_REQUEST_HEADER, ownerId)));
+        assertEquals(1, statementsFor(get(COMMON_BOOKING_PATH)
+                .param("cursor", "")
+                .header(USER_REQUEST_HEADER, bookerId)));
+    }
+
+    @Test
+    void bookingDetail_thenUserAndOneJoinedBookingQuery() throws Exception {
+        assertEquals(2, statementsFor(get(COMMON_BOOKING_PATH + "/" + bookingId).header(USER_REQUEST_HEADER, ownerId)));
+    }
+
+    @Test
+    void itemDetail_thenItemAndCommentsQueries() throws Exception {
+        assertEquals(2, statementsFor(get(COMMON_ITEM_PATH + "/" + itemId).header(USER_REQUEST_HEADER, ownerId)));
+        assertEquals(2, statementsFor(get(COMMON_ITEM_PATH + "/" + itemId).header(USER_REQUEST_HEADER, bookerId)));
+    }
+
+    @Test
+    void itemList_thenQueryCountDoesNotDependOnItemsCount() throws Exception {
+        assertEquals(2, statementsFor(get(COMMON_ITEM_PATH).header(USER_REQUEST_HEADER, ownerId)));
+        assertEquals(1, statementsFor(get(COMMON_ITEM_PATH + "/search")
+                .param("text", "itemname")
+                .header(USER_REQUEST_HEADER, ownerId)));
+    }
+
+    @Test
+    void requestFeeds_thenRequestersNotLoadedAndItemsLoadedInOneQuery() throws Exception {
+        assertEquals(2, statementsFor(get(COMMON_ITEM_REQUEST_PATH + "/all")
+                .header(USER_REQUEST_HEADER, ownerId)));
+        assertEquals(2, statementsFor(get(COMMON_ITEM_REQUEST_PATH + "/all")
+                .param("cursor", "")
+                .header(USER_REQUEST_HEADER, ownerId)));
+        assertEquals(2, statementsFor(get(COMMON_ITEM_REQUEST_PATH).header(USER_REQUEST_HEADER, bookerId)));
+    }
+
+    @Test
+    void listEndpoints_thenNoEntitiesLoaded() throws Exception {
+        statementsFor(get(COMMON_BOOKING_PATH).header(USER_REQUEST_HEADER, bookerId));
+        assertEquals(0, statistics.getEntityLoadCount());
+        statementsFor(get(COMMON_BOOKING_PATH + "/owner").param("cursor", "").header(USER_REQUEST_HEADER, ownerId));
+        assertEquals(0, statistics.getEntityLoadCount());
+        statementsFor(get(COMMON_ITEM_PATH + "/search").param("text", "itemname").header(USER_REQUEST_HEADER, ownerId));
+        assertEquals(0, statistics.getEntityLoadCount());
+        statementsFor(get(COMMON_ITEM_REQUEST_PATH + "/all").header(USER_REQUEST_HEADER, ownerId));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private long statementsFor(RequestBuilder request) throws Exception {
+        em.flush();
+        em.clear();
+        emf.getCache().evictAll();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.db.QueryPlanDataset;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.server.db.QueryPlanDataset.*;
+
+/*
+ * Планы запросов строятся по SQL, эквивалентному запросам репозиториев, на заполненных таблицах:
+ * ни один горячий запрос не должен читать таблицу целиком
+ */
+@Transactional
+@SpringBootTest
+class QueryPlanTestIT {
+    private static final String SELECT_BOOKINGS = "select b.id, b.start_date, b.end_date, b.status, " +
+            "i.id, i.name, u.id, u.name from bookings b " +
+            "join items i on i.id = b.item_id " +
+            "join users u on u.id = b.booker_id ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        QueryPlanDataset.insert(jdbcTemplate, now);
+    }
+
+    @Test
+    void bookingsForBooker_thenIndexScan() {
+        assertNoFullScan(SELECT_BOOKINGS + "where u.id = ? order by b.start_date desc", USER_ID);
+        assertNoFullScan(SELECT_BOOKINGS + "where u.id = ? and b.status = ? order by b.start_date desc",
+                USER_ID, "WAITING");
+        assertNoFullScan(SELECT_BOOKINGS + "where u.id = ? and b.start_date <= ? and b.end_date >= ? " +
+                "order by b.start_date desc", USER_ID, timestamp(now), timestamp(now));
+        assertNoFullScan(SELECT_BOOKINGS + "where u.id = ? and b.end_date < ? order by b.start_date desc",
+                USER_ID, timestamp(now));
+        assertNoFullScan(SELECT_BOOKINGS + "where u.id = ? and b.start_date > ? order by b.start_date desc",
+                USER_ID, timestamp(now));
+        assertNoFullScan("select count(*) from bookings b where b.booker_id = ? and b.item_id = ? " +
+                "and b.end_date < ? and b.status = 'APPROVED'", USER_ID, ITEM_ID, timestamp(now));
+    }
+
+    @Test
+    void bookingsForOwner_thenIndexScan() {
+        assertNoFullScan(SELECT_BOOKINGS + "where b.owner_id = ? order by b.start_date desc", USER_ID);
+        assertNoFullScan(SELECT_BOOKINGS + "where b.owner_id = ? and b.status = ? order by b.start_date desc",
+                USER_ID, "WAITING");
+        assertNoFullScan(SELECT_BOOKINGS + "where b.owner_id = ? and b.start_date > ? " +
+                "order by b.start_date desc", USER_ID, timestamp(now));
+    }
+
+    @Test
+    void bookingsOfItem_thenIndexScan() {
+        assertNoFullScan("select count(*) from bookings b where b.item_id = ? and b.id <> ? " +
+                        "and b.start_date < ? and b.end_date > ? and b.status = 'APPROVED'",
+                ITEM_ID, 0, timestamp(now.plusDays(1)), timestamp(now));
+        assertNoFullScan("select b.id from bookings b join items i on i.id = b.item_id where b.id > ? " +
+                "order by b.id limit 100", FIRST_ID);
+    }
+
+    @Test
+    void bookingsHistory_thenIndexScan() {
+        assertNoFullScan("select b.id from bookings b where b.end_date < ? and b.status <> 'WAITING' " +
+                "order by b.end_date, b.id limit 1000", timestamp(now.minusDays(1)));
+        assertNoFullScan("select b.id, b.start_date from bookings_history b where b.booker_id = ? " +
+                "order by b.start_date desc, b.id desc", USER_ID);
+        assertNoFullScan("select b.id, b.start_date from bookings_history b where b.owner_id = ? " +
+                "and b.end_date < ? order by b.start_date desc, b.id desc", USER_ID, timestamp(now));
+    }
+
+    @Test
+    void itemsOfOwnerAndRequest_thenIndexScan() {
+        assertNoFullScan("select i.id, i.name from items i where i.owner_id = ? and i.id > ? order by i.id limit 20",
+                USER_ID, 0);
+        assertNoFullScan("select count(*) from items i where i.owner_id = ?", USER_ID);
+        assertNoFullScan("select i.id, i.name from items i where i.request_id = ?", FIRST_ID);
+    }
+
+    @Test
+    void commentsOfItems_thenIndexScan() {
+        assertNoFullScan("select c.id, c.text, u.name from comments c left join users u on u.id = c.author_id " +
+                "where c.item_id = ? order by c.created desc", ITEM_ID);
+        assertNoFullScan("select c.id, c.text, u.name from comments c left join users u on u.id = c.author_id " +
+                "where c.item_id in (?, ?, ?) order by c.created desc", ITEM_ID, ITEM_ID + 1, ITEM_ID + 2);
+    }
+
+    @Test
+    void requestsOfRequester_thenIndexScan() {
+        assertNoFullScan("select r.id, r.description, r.created from requests r where r.requester_id = ? " +
+                "order by r.created desc", USER_ID);
+    }
+
+    @Test
+    void newestRequests_thenIndexScan() {
+        assertNoFullScan("select r.id, r.description, r.requester_id, r.created from requests r " +
+                "order by r.created desc, r.id desc limit 100");
+    }
+
+    private void assertNoFullScan(String sql, Object... args) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, args));
+        assertFalse(plan.contains("tableScan") || plan.contains("Seq Scan"),
+                "Запрос читает таблицу целиком:\n" + plan);
+    }
+}
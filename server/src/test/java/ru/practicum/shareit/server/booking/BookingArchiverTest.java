@@ -0,0 +1,64 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingArchiver bookingArchiver;
+
+    @BeforeEach
+    void setUp() {
+        bookingArchiver = new BookingArchiver(jdbcTemplate, transactionTemplate, Duration.ofDays(30), 2);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void archive_whenFullChunk_thenNextChunkInSeparateTransaction() {
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        bookingArchiver.archive();
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(jdbcTemplate, times(2)).update(startsWith("insert into bookings_archive"),
+                any(MapSqlParameterSource.class));
+        verify(jdbcTemplate, times(1)).update(eq("delete from bookings where id in (:ids)"),
+                argThat((MapSqlParameterSource ids) -> List.of(1L, 2L).equals(ids.getValue("ids"))));
+        verify(jdbcTemplate, times(1)).update(eq("delete from bookings where id in (:ids)"),
+                argThat((MapSqlParameterSource ids) -> List.of(3L).equals(ids.getValue("ids"))));
+    }
+
+    @Test
+    void archive_whenNothingEnded_thenNothingMoved() {
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of());
+
+        bookingArchiver.archive();
+
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(jdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+}
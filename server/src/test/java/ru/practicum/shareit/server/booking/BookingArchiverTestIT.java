@@ -0,0 +1,156 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.server.booking.dto.BookingState;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_START_DESC;
+
+@SpringBootTest(properties = {
+        "shareit.booking.archive.enabled=true",
+        "shareit.booking.archive.initial-delay=P1D",
+        "shareit.booking.archive.age=P1D",
+        "shareit.booking.archive.chunk-size=2"
+})
+class BookingArchiverTestIT {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private EntityManager em;
+
+    LocalDateTime now = LocalDateTime.now();
+    Pageable pageable = PageRequest.of(0, 10, SORT_START_DESC);
+
+    @Test
+    @Transactional
+    void archive_thenEndedBookingsMovedAndStillReadable() {
+        long ownerId = userService.create(UserDto.builder().name("Owner").email("owner@test.com").build()).getId();
+        long bookerId = userService.create(UserDto.builder().name("Booker").email("booker@test.com").build()).getId();
+        long itemId = itemService.create(ItemIncomingDto.builder()
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .build(), ownerId).getId();
+        long approvedId = createBooking(bookerId, itemId, now.minusDays(10), now.minusDays(9));
+        bookingService.setApproved(ownerId, approvedId, true);
+        long rejectedId = createBooking(bookerId, itemId, now.minusDays(8), now.minusDays(7));
+        bookingService.setApproved(ownerId, rejectedId, false);
+        long rejectedId2 = createBooking(bookerId, itemId, now.minusDays(6), now.minusDays(5));
+        bookingService.setApproved(ownerId, rejectedId2, false);
+        long waitingId = createBooking(bookerId, itemId, now.minusDays(4), now.minusDays(3));
+        long recentId = createBooking(bookerId, itemId, now.minusHours(2), now.minusHours(1));
+        bookingService.setApproved(ownerId, recentId, true);
+
+        bookingArchiver.archive();
+
+        assertEquals(List.of(approvedId, rejectedId, rejectedId2), em.createNativeQuery(
+                "select id from bookings_archive order by id").getResultList().stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList()));
+        assertEquals(List.of(recentId, waitingId), em.createNativeQuery(
+                "select id from bookings order by start_date desc").getResultList().stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList()));
+
+        assertEquals(List.of(recentId, waitingId, rejectedId2, rejectedId, approvedId),
+                ids(bookingService.findAllWithStateForUser(bookerId, BookingState.PAST, pageable).getContent()));
+        assertEquals(List.of(rejectedId2, rejectedId),
+                ids(bookingService.findAllWithStateForOwner(ownerId, BookingState.REJECTED, pageable).getContent()));
+        assertEquals(List.of(waitingId),
+                ids(bookingService.findAllWithStateForUser(bookerId, BookingState.WAITING, pageable).getContent()));
+        assertEquals(List.of(recentId, waitingId, rejectedId2, rejectedId, approvedId),
+                ids(findAllPagesForOwner(ownerId)));
+        assertEquals(5, bookingService.countWithStateForOwner(ownerId, BookingState.ALL));
+        assertEquals(5, bookingService.countAllStatesForUser(bookerId).get(BookingState.PAST));
+        assertEquals(BookingStatus.APPROVED, bookingService.findByIdForUser(bookerId, approvedId).getStatus());
+
+        bookingArchiver.archive();
+        assertEquals(3, ((Number) em.createNativeQuery("select count(*) from bookings_archive")
+                .getSingleResult()).intValue());
+    }
+
+    /* Без транзакции теста: ленивые связи архивного бронирования не догрузить после выхода из репозитория */
+    @Test
+    void findByIdForUser_whenArchivedAndNoTransaction_thenItemOwnerAndBookerFetched() {
+        long ownerId = userService.create(UserDto.builder().name("Owner").email("owner@archive.com").build()).getId();
+        long bookerId = userService.create(UserDto.builder().name("Booker").email("booker@archive.com").build())
+                .getId();
+        try {
+            long itemId = itemService.create(ItemIncomingDto.builder()
+                    .name("ArchivedItem")
+                    .description("ItemDescription")
+                    .available(true)
+                    .build(), ownerId).getId();
+            long bookingId = createBooking(bookerId, itemId, now.minusDays(10), now.minusDays(9));
+            bookingService.setApproved(ownerId, bookingId, true);
+
+            bookingArchiver.archive();
+            assertEquals(1, ((Number) em.createNativeQuery("select count(*) from bookings_archive where id = ?1")
+                    .setParameter(1, bookingId)
+                    .getSingleResult()).intValue());
+
+            BookingDto forOwner = bookingService.findByIdForUser(ownerId, bookingId);
+            assertEquals("ArchivedItem", forOwner.getItem().getName());
+            assertEquals("Booker", forOwner.getBooker().getName());
+            assertEquals(BookingStatus.APPROVED, bookingService.findByIdForUser(bookerId, bookingId).getStatus());
+        } finally {
+            userService.delete(bookerId);
+            userService.delete(ownerId);
+        }
+    }
+
+    private long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.create(bookerId, BookingIncomingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build()).getId();
+    }
+
+    private List<BookingDto> findAllPagesForOwner(long ownerId) {
+        List<BookingDto> bookings = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<BookingDto> page = bookingService.findAllWithStateForOwner(ownerId, BookingState.ALL, cursor, 2);
+            bookings.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return bookings;
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -6,33 +6,42 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.server.booking.dto.*;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 import ru.practicum.shareit.server.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_BOOKING_PATH;
 import static ru.practicum.shareit.server.booking.BookingController.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_START_DESC;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.TOTAL_COUNT_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -72,8 +81,10 @@ class BookingControllerTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC);
-    Page<BookingDto> pageBookingDto = new PageImpl<>(
-            Collections.singletonList(expectedBookingDto), pageable, 1);
+    Slice<BookingDto> pageBookingDto = new SliceImpl<>(
+            Collections.singletonList(expectedBookingDto), pageable, false);
+    CursorPage<BookingDto> cursorPageBookingDto = new CursorPage<>(
+            Collections.singletonList(expectedBookingDto), Cursor.of(start, id).encode());
 
     @Test
     @DisplayName("Метод getByIdForUser - Успех: запрос от арендатора или владельца")
@@ -174,6 +185,94 @@ class BookingControllerTest {
                 .findAllWithStateForOwner(anyLong(), any(BookingState.class), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("Метод getAllWithStateForUser - Успех: пагинация по курсору")
+    void getAllWithStateForUser_whenCursorPassed_thenResponseContainsNextCursorHeader() throws Exception {
+        when(bookingService.findAllWithStateForUser(anyLong(), any(BookingState.class), anyString(), anyInt()))
+                .thenReturn(cursorPageBookingDto);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + STATE_PREFIX + "WAITING&cursor=&size=" + size)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, cursorPageBookingDto.getNextCursor()))
+                .andExpect(content().json(mapper.writeValueAsString(cursorPageBookingDto.getContent())));
+        verify(bookingService, times(1))
+                .findAllWithStateForUser(userId, BookingState.WAITING, "", size);
+        verify(bookingService, never())
+                .findAllWithStateForUser(anyLong(), any(BookingState.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Метод getAllWithStateForOwner - Успех: последняя страница по курсору")
+    void findAllWithStateForOwner_whenLastCursorPage_thenResponseWithoutNextCursorHeader() throws Exception {
+        String cursor = cursorPageBookingDto.getNextCursor();
+        when(bookingService.findAllWithStateForOwner(anyLong(), any(BookingState.class), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(Collections.singletonList(expectedBookingDto), null));
+
+        mvc.perform(get(COMMON_BOOKING_PATH + OWNER_PATH + STATE_PREFIX + "ALL&cursor=" + cursor)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(cursorPageBookingDto.getContent())));
+        verify(bookingService, times(1))
+                .findAllWithStateForOwner(userId, BookingState.ALL, cursor, size);
+    }
+
+    @Test
+    @DisplayName("Метод getAllWithStateForUser - Успех: общее количество по запросу")
+    void getAllWithStateForUser_whenWithTotal_thenResponseContainsTotalCountHeader() throws Exception {
+        when(bookingService.findAllWithStateForUser(anyLong(), any(BookingState.class), any(Pageable.class)))
+                .thenReturn(pageBookingDto);
+        when(bookingService.countWithStateForUser(anyLong(), any(BookingState.class))).thenReturn(42L);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + STATE_PREFIX + "PAST&withTotal=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "42"))
+                .andExpect(content().json(mapper.writeValueAsString(pageBookingDto.getContent())));
+        verify(bookingService, times(1)).countWithStateForUser(userId, BookingState.PAST);
+    }
+
+    @Test
+    @DisplayName("Метод getAllWithStateForOwner - Успех: общее количество не запрошено")
+    void findAllWithStateForOwner_whenWithTotalNotPassed_thenNoCountAndNoTotalCountHeader() throws Exception {
+        when(bookingService.findAllWithStateForOwner(anyLong(), any(BookingState.class), any(Pageable.class)))
+                .thenReturn(pageBookingDto);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + OWNER_PATH + STATE_PREFIX + "ALL")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TOTAL_COUNT_HEADER));
+        verify(bookingService, never()).countWithStateForOwner(anyLong(), any(BookingState.class));
+    }
+
+    @Test
+    @DisplayName("Метод getAllWithStateForOwner - Успех: курсор и общее количество")
+    void findAllWithStateForOwner_whenCursorAndWithTotal_thenResponseContainsBothHeaders() throws Exception {
+        when(bookingService.findAllWithStateForOwner(anyLong(), any(BookingState.class), anyString(), anyInt()))
+                .thenReturn(cursorPageBookingDto);
+        when(bookingService.countWithStateForOwner(anyLong(), any(BookingState.class))).thenReturn(7L);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + OWNER_PATH + STATE_PREFIX + "ALL&cursor=&withTotal=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, cursorPageBookingDto.getNextCursor()))
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "7"));
+        verify(bookingService, times(1)).countWithStateForOwner(userId, BookingState.ALL);
+    }
+
     @Test
     @DisplayName("Метод create - Успех")
     void create_whenValidAllParams_thenResponseStatusOkWithBookingDtoInBody() throws Exception {
@@ -269,6 +368,86 @@ class BookingControllerTest {
         verify(bookingService, times(1)).setApproved(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    @DisplayName("Метод update - Пересечение с одобренным бронированием")
+    void setApproved_whenOverlapsApprovedBooking_thenResponseStatusConflict() throws Exception {
+        when(bookingService.setApproved(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(ConflictException.class);
+
+        mvc.perform(patch(COMMON_BOOKING_PATH + BOOKING_PREFIX + APPROVED_PREFIX + "true", id)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+        verify(bookingService, times(1)).setApproved(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Метод getCountsForUser - Успех")
+    void getCountsForUser_thenResponseStatusOkWithCountForEveryState() throws Exception {
+        Map<BookingState, Long> counts = new BookingStateCounts(6L, 1L, 2L, 3L, 0L, 5L).toMap();
+        when(bookingService.countAllStatesForUser(anyLong()))
+                .thenReturn(counts);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + COUNTS_PATH)
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"ALL\":6,\"CURRENT\":1,\"FUTURE\":2,\"PAST\":3," +
+                        "\"REJECTED\":0,\"WAITING\":5}"));
+        verify(bookingService, times(1)).countAllStatesForUser(userId);
+    }
+
+    @Test
+    @DisplayName("Метод getCountsForOwner - Пользователь не найден")
+    void getCountsForOwner_whenOwnerNotFound_thenResponseStatusNotFound() throws Exception {
+        when(bookingService.countAllStatesForOwner(anyLong()))
+                .thenThrow(NotFoundException.class);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + OWNER_PATH + COUNTS_PATH)
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        verify(bookingService, times(1)).countAllStatesForOwner(userId);
+    }
+
+    @Test
+    @DisplayName("Метод exportWithStateForUser - Успех: бронирования построчно в NDJSON")
+    void exportWithStateForUser_whenValidAllParams_thenResponseStatusOkWithNdjsonLines() throws Exception {
+        BookingDto secondBookingDto = expectedBookingDto.toBuilder().id(id + 1).build();
+        when(bookingService.exportWithStateForUser(anyLong(), any(BookingState.class)))
+                .thenReturn(action -> {
+                    action.accept(expectedBookingDto);
+                    action.accept(secondBookingDto);
+                });
+
+        MvcResult result = mvc.perform(get(COMMON_BOOKING_PATH + EXPORT_PATH)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", "PAST"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(expectedBookingDto) + "\n" +
+                        mapper.writeValueAsString(secondBookingDto) + "\n"));
+        verify(bookingService, times(1)).exportWithStateForUser(userId, BookingState.PAST);
+    }
+
+    @Test
+    @DisplayName("Метод exportWithStateForOwner - Пользователь не найден")
+    void exportWithStateForOwner_whenOwnerNotFound_thenResponseStatusNotFound() throws Exception {
+        when(bookingService.exportWithStateForOwner(anyLong(), any(BookingState.class)))
+                .thenThrow(NotFoundException.class);
+
+        mvc.perform(get(COMMON_BOOKING_PATH + OWNER_PATH + EXPORT_PATH)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isNotFound());
+        verify(bookingService, times(1)).exportWithStateForOwner(userId, BookingState.ALL);
+    }
+
     @Test
     @DisplayName("Приватный метод parseBookingState - Успех: хороший state")
     void parseBookingState_whenValidState_thenReturnedBookingState() {
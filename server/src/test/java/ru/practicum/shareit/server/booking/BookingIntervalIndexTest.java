@@ -0,0 +1,186 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.server.booking.dto.BookingInterval;
+import ru.practicum.shareit.server.booking.dto.BookingShortDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    User owner = User.builder().id(1L).build();
+    User booker = User.builder().id(2L).build();
+    User otherBooker = User.builder().id(3L).build();
+    Item item = Item.builder().id(10L).owner(owner).available(true).build();
+    LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, 2);
+    }
+
+    @Test
+    void load_thenBookingsLoadedByChunks() {
+        Booking past = booking(1, booker, -5, -4, BookingStatus.APPROVED);
+        Booking future = booking(2, booker, 4, 5, BookingStatus.WAITING);
+        Booking otherItem = booking(3, booker, 1, 2, BookingStatus.WAITING)
+                .toBuilder().item(Item.builder().id(11L).owner(owner).build()).build();
+        when(bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, 2)))
+                .thenReturn(List.of(interval(past), interval(future)));
+        when(bookingRepository.findIntervalsByIdGreaterThan(2, PageRequest.of(0, 2)))
+                .thenReturn(List.of(interval(otherItem)));
+
+        index.afterSingletonsInstantiated();
+
+        assertEquals(shortDto(past), index.findLast(item.getId(), now));
+        assertEquals(shortDto(future), index.findNext(item.getId(), now));
+        assertEquals(shortDto(otherItem), index.findNext(11L, now));
+        verify(bookingRepository, times(2)).findIntervalsByIdGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    void load_thenLastArchivedBookingOfEachItemLoadedByChunks() {
+        Booking archived = booking(5, booker, -50, -40, BookingStatus.APPROVED);
+        Booking otherArchived = booking(6, booker, -60, -50, BookingStatus.APPROVED)
+                .toBuilder().item(Item.builder().id(11L).owner(owner).build()).build();
+        Booking thirdArchived = booking(7, booker, -70, -60, BookingStatus.CANCELED)
+                .toBuilder().item(Item.builder().id(12L).owner(owner).build()).build();
+        Booking hot = booking(1, booker, -5, -4, BookingStatus.APPROVED);
+        when(bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, 2)))
+                .thenReturn(List.of(interval(hot)));
+        when(bookingRepository.findLastArchivedIdsByItem()).thenReturn(List.of(5L, 6L, 7L));
+        when(bookingRepository.findIntervalsInHistoryByIdIn(List.of(5L, 6L)))
+                .thenReturn(List.of(interval(archived), interval(otherArchived)));
+        when(bookingRepository.findIntervalsInHistoryByIdIn(List.of(7L)))
+                .thenReturn(List.of(interval(thirdArchived)));
+
+        index.afterSingletonsInstantiated();
+
+        assertEquals(shortDto(hot), index.findLast(item.getId(), now));
+        assertEquals(shortDto(archived), index.findLast(item.getId(), now.minusHours(10)));
+        assertEquals(shortDto(otherArchived), index.findLast(11L, now));
+        assertEquals(shortDto(thirdArchived), index.findLast(12L, now));
+    }
+
+    @Test
+    void findLast_thenLatestStartedAmongEnded() {
+        Booking longEnded = booking(1, booker, -10, -1, BookingStatus.APPROVED);
+        Booking shortEnded = booking(2, booker, -3, -2, BookingStatus.APPROVED);
+        Booking current = booking(3, booker, -1, 1, BookingStatus.APPROVED);
+        Booking old = booking(4, booker, -20, -15, BookingStatus.REJECTED);
+        List.of(longEnded, shortEnded, current, old).forEach(index::index);
+
+        assertEquals(shortDto(shortEnded), index.findLast(item.getId(), now));
+        assertEquals(shortDto(old), index.findLast(item.getId(), now.minusHours(3)));
+        assertNull(index.findLast(item.getId(), now.minusHours(16)));
+        assertNull(index.findLast(item.getId() + 1, now));
+    }
+
+    @Test
+    void findNext_thenEarliestStartAfterNow() {
+        Booking first = booking(2, booker, 1, 2, BookingStatus.WAITING);
+        Booking sameStart = booking(3, otherBooker, 1, 3, BookingStatus.WAITING);
+        Booking later = booking(1, booker, 5, 6, BookingStatus.REJECTED);
+        List.of(later, sameStart, first).forEach(index::index);
+
+        assertEquals(shortDto(first), index.findNext(item.getId(), now));
+        assertEquals(shortDto(later), index.findNext(item.getId(), now.plusHours(1)));
+        assertNull(index.findNext(item.getId(), now.plusHours(5)));
+    }
+
+    @Test
+    void isFree_thenOnlyWaitingAndApprovedBookingsOccupyItem() {
+        index.index(booking(1, booker, 2, 4, BookingStatus.APPROVED));
+        index.index(booking(2, booker, 6, 8, BookingStatus.REJECTED));
+        index.index(booking(3, booker, 10, 12, BookingStatus.WAITING));
+
+        assertTrue(index.isFree(item.getId(), now, now.plusHours(1)));
+        assertFalse(index.isFree(item.getId(), now.plusHours(3), now.plusHours(5)));
+        assertTrue(index.isFree(item.getId(), now.plusHours(4), now.plusHours(5)));
+        assertTrue(index.isFree(item.getId(), now, now.plusHours(2)));
+        assertTrue(index.isFree(item.getId(), now.plusHours(5), now.plusHours(9)));
+        assertFalse(index.isFree(item.getId(), now.plusHours(9), now.plusHours(13)));
+        assertTrue(index.isFree(item.getId(), now.plusHours(13), LocalDateTime.MAX));
+        assertTrue(index.isFree(item.getId() + 1, now, now.plusHours(100)));
+    }
+
+    @Test
+    void index_whenStatusChanged_thenBookingReplaced() {
+        Booking booking = booking(1, booker, 2, 4, BookingStatus.WAITING);
+        index.index(booking);
+
+        index.index(booking.toBuilder().status(BookingStatus.REJECTED).build());
+
+        assertTrue(index.isFree(item.getId(), now.plusHours(2), now.plusHours(3)));
+        assertEquals(shortDto(booking), index.findNext(item.getId(), now));
+    }
+
+    @Test
+    void removeAllByUserId_thenBookerBookingsAndOwnerItemsRemoved() {
+        Item otherItem = Item.builder().id(11L).owner(otherBooker).build();
+        index.index(booking(1, booker, 2, 4, BookingStatus.WAITING));
+        index.index(booking(2, otherBooker, 5, 6, BookingStatus.WAITING));
+        index.index(booking(3, booker, 2, 4, BookingStatus.WAITING).toBuilder().item(otherItem).build());
+
+        index.removeAllByUserId(booker.getId());
+
+        assertEquals(2, index.findNext(item.getId(), now).getId());
+        assertNull(index.findNext(otherItem.getId(), now));
+
+        index.removeAllByUserId(owner.getId());
+
+        assertNull(index.findNext(item.getId(), now));
+    }
+
+    @Test
+    void load_whenNoBookings_thenEverythingFree() {
+        when(bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, 2)))
+                .thenReturn(Collections.emptyList());
+
+        index.afterSingletonsInstantiated();
+
+        assertNull(index.findLast(item.getId(), now));
+        assertTrue(index.isFree(item.getId(), LocalDateTime.MIN, LocalDateTime.MAX));
+    }
+
+    private static BookingInterval interval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    private Booking booking(long id, User booker, int startHours, int endHours, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .start(now.plusHours(startHours))
+                .end(now.plusHours(endHours))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+
+    private static BookingShortDto shortDto(Booking booking) {
+        return BookingShortDto.builder().id(booking.getId()).bookerId(booking.getBooker().getId()).build();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.db.PostgresContainerTest;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_BOOKING_PATH;
+import static ru.practicum.shareit.server.ShareItServerConstants.USER_REQUEST_HEADER;
+import static ru.practicum.shareit.server.booking.BookingController.APPROVED_PREFIX;
+import static ru.practicum.shareit.server.booking.BookingController.BOOKING_PREFIX;
+
+/*
+ * Проверка пересечений в сервисе отключена, поэтому второе одобрение отклоняет
+ * исключающее ограничение btree_gist в PostgreSQL, а клиент получает 409
+ */
+@AutoConfigureMockMvc
+class BookingOverlapConstraintTestIT extends PostgresContainerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @SpyBean
+    private BookingRepository bookingRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    void setApproved_whenOverlapsApprovedBooking_thenConstraintViolationMappedToConflict() throws Exception {
+        doReturn(false).when(bookingRepository)
+                .existsApprovedOverlapping(anyLong(), anyLong(), any(LocalDateTime.class), any(LocalDateTime.class));
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long itemId = itemService.create(ItemIncomingDto.builder()
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .build(), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        long firstId = createBooking(bookerId, itemId, start, start.plusHours(2));
+        long secondId = createBooking(bookerId, itemId, start.plusHours(1), start.plusHours(3));
+
+        approve(ownerId, firstId).andExpect(status().isOk());
+        approve(ownerId, secondId).andExpect(status().isConflict());
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.extract(firstId).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.extract(secondId).getStatus());
+    }
+
+    private ResultActions approve(long ownerId, long bookingId) throws Exception {
+        return mvc.perform(patch(COMMON_BOOKING_PATH + BOOKING_PREFIX + APPROVED_PREFIX + "true", bookingId)
+                .header(USER_REQUEST_HEADER, ownerId));
+    }
+
+    private long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.create(bookerId, BookingIncomingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build()).getId();
+    }
+
+    private long createUser(String name) {
+        long userId = userService.create(UserDto.builder().name(name).email(name + "@test.com").build()).getId();
+        userIds.add(userId);
+        return userId;
+    }
+}
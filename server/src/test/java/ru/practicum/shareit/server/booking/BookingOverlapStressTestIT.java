@@ -0,0 +1,127 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingOverlapStressTestIT {
+    private static final int THREADS = 8;
+    private static final int BOOKINGS = 400;
+    private static final int SLOTS = 24;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void createAndApprove_whenConcurrent_thenNoApprovedBookingsOverlap() throws Exception {
+        long ownerId = createUser("owner");
+        long itemId = itemService.create(ItemIncomingDto.builder()
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .build(), ownerId).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(createUser("booker" + i));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                long bookerId = bookerIds.get(i % THREADS);
+                LocalDateTime start = base.plusMinutes(30L * (i % SLOTS));
+                LocalDateTime end = start.plusMinutes(30L * (1 + i % 3));
+                tasks.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        BookingDto booking = bookingService.create(bookerId, BookingIncomingDto.builder()
+                                .itemId(itemId)
+                                .start(start)
+                                .end(end)
+                                .build());
+                        bookingService.setApproved(ownerId, booking.getId(), true);
+                        approved.incrementAndGet();
+                    } catch (ConflictException exception) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Booking> approvedBookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId() == itemId)
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(Collectors.toList());
+        assertEquals(approved.get(), approvedBookings.size());
+        assertEquals(BOOKINGS, approved.get() + conflicts.get());
+        assertTrue(approved.get() > 0);
+        assertTrue(conflicts.get() > 0);
+        for (int i = 1; i < approvedBookings.size(); i++) {
+            assertFalse(approvedBookings.get(i).getStart().isBefore(approvedBookings.get(i - 1).getEnd()),
+                    "Пересекаются одобренные бронирования " + approvedBookings.get(i - 1).getId() +
+                            " и " + approvedBookings.get(i).getId());
+        }
+    }
+
+    private long createUser(String name) {
+        long userId = userService.create(UserDto.builder().name(name).email(name + "@test.com").build()).getId();
+        userIds.add(userId);
+        return userId;
+    }
+}
@@ -5,9 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.booking.dto.BookingInterval;
+import ru.practicum.shareit.server.booking.dto.BookingProjection;
+import ru.practicum.shareit.server.booking.dto.BookingState;
+import ru.practicum.shareit.server.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.exception.NotFoundException;
@@ -18,8 +23,14 @@ import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MIN_CURSOR_DATE_TIME;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_START_DESC;
 
 @DataJpaTest
@@ -34,6 +45,9 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     int from = 0;
     int size = 10;
     User saveBooker;
@@ -43,7 +57,7 @@ class BookingRepositoryTest {
     Booking saveBooking;
     Booking saveBooking2;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC);
-    LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+    LocalDateTime start = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MICROS);
     LocalDateTime end = start.plusMinutes(10);
 
     @BeforeEach
@@ -87,18 +101,21 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerId() {
-        Page<Booking> result = bookingRepository.findAllByBookerId(saveBooker.getId(), pageable);
+    void findAllForBooker_whenStateAll() {
+        Slice<BookingProjection> result = findAllForBooker(saveBooker.getId(), pageable);
 
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByBookerId(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking), result.getContent().get(1));
+        assertFalse(result.hasNext());
+        assertTrue(findAllForBooker(
+                saveBooker.getId(), PageRequest.of(0, 1, SORT_START_DESC)).hasNext());
+        assertEquals(0, findAllForBooker(
                 saveOwner.getId(), pageable).getContent().size());
     }
 
     @Test
-    void findAllByItemOwnerId() {
+    void findAllForOwner_whenStateAll() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -113,16 +130,31 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllByItemOwnerId(saveOwner.getId(), pageable);
+        Slice<BookingProjection> result = findAllForOwner(saveOwner.getId(), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByBookerId(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking), result.getContent().get(1));
+        assertEquals(0, findAllForBooker(
                 saveOwner.getId() + 100, pageable).getContent().size());
     }
 
     @Test
-    void findAllByBookerIdAndStatus() {
+    void save_thenOwnerIdCopiedFromItemAndFollowsOwnerChange() {
+        assertEquals(saveOwner.getId(), saveBooking.getOwnerId());
+
+        saveItem.setOwner(saveBooker);
+        itemRepository.saveAndFlush(saveItem);
+        entityManager.clear();
+
+        assertEquals(saveBooker.getId(), bookingRepository.extract(saveBooking.getId()).getOwnerId());
+        assertEquals(List.of(saveBooking.getId()),
+                findAllForOwner(saveBooker.getId(), pageable).getContent().stream()
+                        .map(BookingProjection::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllForBooker_whenStatus() {
         Booking saveBooking3 = bookingRepository.save(Booking.builder()
                 .start(start.plusMinutes(120))
                 .end(end.plusMinutes(120))
@@ -132,19 +164,19 @@ class BookingRepositoryTest {
                 .build());
         saveBooking2.setStatus(BookingStatus.APPROVED);
 
-        Page<Booking> result = bookingRepository.findAllByBookerIdAndStatus(
+        Slice<BookingProjection> result = findAllForBooker(
                 saveBooker.getId(), BookingStatus.WAITING, pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking3, result.getContent().get(0));
-        assertEquals(saveBooking, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByBookerIdAndStatus(
+        assertEquals(toProjection(saveBooking3), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking), result.getContent().get(1));
+        assertEquals(0, findAllForBooker(
                 saveOwner.getId() + 100, BookingStatus.WAITING, pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByBookerIdAndStatus(
+        assertEquals(0, findAllForBooker(
                 saveBooker.getId(), BookingStatus.REJECTED, pageable).getContent().size());
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatus() {
+    void findAllForOwner_whenStatus() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -167,19 +199,19 @@ class BookingRepositoryTest {
                 .build());
         saveBooking2.setStatus(BookingStatus.APPROVED);
 
-        Page<Booking> result = bookingRepository.findAllByItemOwnerIdAndStatus(
+        Slice<BookingProjection> result = findAllForOwner(
                 saveOwner.getId(), BookingStatus.APPROVED, pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking3, result.getContent().get(0));
-        assertEquals(saveBooking2, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndStatus(
+        assertEquals(toProjection(saveBooking3), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking2), result.getContent().get(1));
+        assertEquals(0, findAllForOwner(
                 saveOwner.getId() + 100, BookingStatus.WAITING, pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndStatus(
+        assertEquals(0, findAllForOwner(
                 saveOwner.getId(), BookingStatus.REJECTED, pageable).getContent().size());
     }
 
     @Test
-    void findAllCurrentForBooker() {
+    void findAllForBooker_whenStateCurrent() {
         Booking saveBooking3 = bookingRepository.save(Booking.builder()
                 .start(start.plusMinutes(50))
                 .end(end.plusMinutes(70))
@@ -188,19 +220,19 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllCurrentForBooker(
+        Slice<BookingProjection> result = findAllForBooker(BookingState.CURRENT,
                 saveBooker.getId(), start.plusMinutes(65), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking3, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllCurrentForBooker(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking3), result.getContent().get(1));
+        assertEquals(0, findAllForBooker(BookingState.CURRENT,
                 saveOwner.getId(), start.plusMinutes(65), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllCurrentForBooker(
+        assertEquals(0, findAllForBooker(BookingState.CURRENT,
                 saveBooker.getId(), start.plusMinutes(40), pageable).getContent().size());
     }
 
     @Test
-    void findAllCurrentForOwner() {
+    void findAllForOwner_whenStateCurrent() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -222,19 +254,19 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllCurrentForOwner(
+        Slice<BookingProjection> result = findAllForOwner(BookingState.CURRENT,
                 saveOwner.getId(), start.plusMinutes(65), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking3, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllCurrentForOwner(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking3), result.getContent().get(1));
+        assertEquals(0, findAllForOwner(BookingState.CURRENT,
                 saveBooker.getId(), start.plusMinutes(200), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllCurrentForOwner(
+        assertEquals(0, findAllForOwner(BookingState.CURRENT,
                 saveOwner.getId(), start.plusMinutes(200), pageable).getContent().size());
     }
 
     @Test
-    void findAllByBookerIdAndEndLessThan() {
+    void findAllForBooker_whenStatePast() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -256,19 +288,19 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllByBookerIdAndEndLessThan(
+        Slice<BookingProjection> result = findAllForBooker(BookingState.PAST,
                 saveBooker.getId(), start.plusMinutes(80), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByBookerIdAndEndLessThan(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking), result.getContent().get(1));
+        assertEquals(0, findAllForBooker(BookingState.PAST,
                 saveOwner.getId(), start.plusMinutes(50), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByBookerIdAndEndLessThan(
+        assertEquals(0, findAllForBooker(BookingState.PAST,
                 saveBooker.getId(), start.plusMinutes(5), pageable).getContent().size());
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndLessThan() {
+    void findAllForOwner_whenStatePast() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -290,19 +322,19 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllByItemOwnerIdAndEndLessThan(
+        Slice<BookingProjection> result = findAllForOwner(BookingState.PAST,
                 saveOwner.getId(), start.plusMinutes(80), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking2, result.getContent().get(0));
-        assertEquals(saveBooking, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndEndLessThan(
+        assertEquals(toProjection(saveBooking2), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking), result.getContent().get(1));
+        assertEquals(0, findAllForOwner(BookingState.PAST,
                 saveBooker.getId(), start.plusMinutes(50), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndEndLessThan(
+        assertEquals(0, findAllForOwner(BookingState.PAST,
                 saveOwner.getId(), start.plusMinutes(5), pageable).getContent().size());
     }
 
     @Test
-    void findAllByBookerIdAndStartGreaterThan() {
+    void findAllForBooker_whenStateFuture() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -324,19 +356,19 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllByBookerIdAndStartGreaterThan(
+        Slice<BookingProjection> result = findAllForBooker(BookingState.FUTURE,
                 saveBooker.getId(), start.plusMinutes(40), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking3, result.getContent().get(0));
-        assertEquals(saveBooking2, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByBookerIdAndStartGreaterThan(
+        assertEquals(toProjection(saveBooking3), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking2), result.getContent().get(1));
+        assertEquals(0, findAllForBooker(BookingState.FUTURE,
                 saveOwner.getId(), start.plusMinutes(80), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByBookerIdAndStartGreaterThan(
+        assertEquals(0, findAllForBooker(BookingState.FUTURE,
                 saveBooker.getId(), start.plusMinutes(200), pageable).getContent().size());
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartGreaterThan() {
+    void findAllForOwner_whenStateFuture() {
         Item saveItem3 = itemRepository.save(Item.builder()
                 .name("TestItemName3")
                 .description("ItemDescription3")
@@ -358,61 +390,161 @@ class BookingRepositoryTest {
                 .status(BookingStatus.WAITING)
                 .build());
 
-        Page<Booking> result = bookingRepository.findAllByItemOwnerIdAndStartGreaterThan(
+        Slice<BookingProjection> result = findAllForOwner(BookingState.FUTURE,
                 saveOwner.getId(), start.plusMinutes(40), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveBooking3, result.getContent().get(0));
-        assertEquals(saveBooking2, result.getContent().get(1));
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndStartGreaterThan(
+        assertEquals(toProjection(saveBooking3), result.getContent().get(0));
+        assertEquals(toProjection(saveBooking2), result.getContent().get(1));
+        assertEquals(0, findAllForOwner(BookingState.FUTURE,
                 saveBooker.getId(), start.plusMinutes(80), pageable).getContent().size());
-        assertEquals(0, bookingRepository.findAllByItemOwnerIdAndStartGreaterThan(
+        assertEquals(0, findAllForOwner(BookingState.FUTURE,
                 saveOwner.getId(), start.plusMinutes(200), pageable).getContent().size());
     }
 
     @Test
-    void findFirstByItemIdAndEndLessThanOrderByStartDesc() {
+    void findAllForBookerBefore() {
         Booking saveBooking3 = bookingRepository.save(Booking.builder()
-                .start(start.plusMinutes(100))
-                .end(end.plusMinutes(100))
-                .item(saveItem2)
-                .booker(saveBooker)
-                .status(BookingStatus.WAITING)
-                .build());
-        bookingRepository.save(Booking.builder()
-                .start(start.plusMinutes(150))
-                .end(end.plusMinutes(150))
-                .item(saveItem2)
+                .start(saveBooking2.getStart())
+                .end(end.plusMinutes(90))
+                .item(saveItem)
                 .booker(saveBooker)
-                .status(BookingStatus.WAITING)
-                .build());
+                .status(BookingStatus.REJECTED)
+                .build());
+        Pageable firstTwo = PageRequest.of(0, 2);
+
+        List<BookingProjection> firstPage = bookingRepository.findAllForBookerBefore(saveBooker.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, firstTwo);
+        List<BookingProjection> secondPage = bookingRepository.findAllForBookerBefore(saveBooker.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, saveBooking2.getStart(), saveBooking2.getId(), firstTwo);
+
+        assertEquals(List.of(toProjection(saveBooking3), toProjection(saveBooking2)), firstPage);
+        assertEquals(List.of(toProjection(saveBooking)), secondPage);
+        assertEquals(List.of(toProjection(saveBooking3)), bookingRepository.findAllForBookerBefore(saveBooker.getId(),
+                EnumSet.of(BookingStatus.REJECTED), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, firstTwo));
+        assertEquals(0, bookingRepository.findAllForBookerBefore(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, firstTwo).size());
+    }
 
-        assertEquals(saveBooking3, bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(
-                saveItem2.getId(), start.plusMinutes(130)));
-        assertNull(bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(
-                saveItem.getId(), start.plusMinutes(5)));
+    @Test
+    void findAllForOwnerBefore() {
+        LocalDateTime now = start.plusMinutes(65);
+
+        assertEquals(List.of(toProjection(saveBooking2)), bookingRepository.findAllForOwnerBefore(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, now,
+                now, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, pageable));
+        assertEquals(List.of(toProjection(saveBooking)), bookingRepository.findAllForOwnerBefore(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, now.minusNanos(1), MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, pageable));
+        assertEquals(0, bookingRepository.findAllForOwnerBefore(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), now.plusNanos(1), MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, pageable).size());
+    }
+
+    @Test
+    void countForBooker() {
+        assertEquals(2, bookingRepository.countForBooker(saveBooker.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
+        assertEquals(0, bookingRepository.countForBooker(saveBooker.getId(),
+                EnumSet.of(BookingStatus.REJECTED), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
+        assertEquals(0, bookingRepository.countForBooker(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
     }
 
     @Test
-    void findFirstByItemIdAndStartGreaterThanOrderByStartAsc() {
+    void countForOwner() {
+        LocalDateTime now = start.plusMinutes(65);
+
+        assertEquals(1, bookingRepository.countForOwner(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, now,
+                now, MAX_CURSOR_DATE_TIME));
+        assertEquals(1, bookingRepository.countForOwner(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, now.minusNanos(1)));
+        assertEquals(0, bookingRepository.countForOwner(saveBooker.getId(),
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
+    }
+
+    @Test
+    void countStates_thenEveryStateCountedInOneQuery() {
+        saveBooking2.setStatus(BookingStatus.REJECTED);
         bookingRepository.save(Booking.builder()
-                .start(start.plusMinutes(100))
-                .end(end.plusMinutes(100))
-                .item(saveItem2)
+                .start(start.minusMinutes(30))
+                .end(start.minusMinutes(20))
+                .item(saveItem)
                 .booker(saveBooker)
-                .status(BookingStatus.WAITING)
+                .status(BookingStatus.APPROVED)
                 .build());
         bookingRepository.save(Booking.builder()
-                .start(start.plusMinutes(150))
-                .end(end.plusMinutes(150))
+                .start(start.minusMinutes(10))
+                .end(end)
                 .item(saveItem2)
                 .booker(saveBooker)
                 .status(BookingStatus.WAITING)
                 .build());
 
-        assertEquals(saveBooking2, bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(
-                saveItem2.getId(), start.plusMinutes(50)));
-        assertNull(bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(
-                saveItem.getId(), start.plusMinutes(10)));
+        assertEquals(new BookingStateCounts(4L, 2L, 1L, 1L, 1L, 2L),
+                bookingRepository.countStatesForBooker(saveBooker.getId(), start));
+        assertEquals(new BookingStateCounts(4L, 2L, 1L, 1L, 1L, 2L),
+                bookingRepository.countStatesForOwner(saveOwner.getId(), start));
+        assertEquals(new BookingStateCounts(0L, 0L, 0L, 0L, 0L, 0L),
+                bookingRepository.countStatesForBooker(saveOwner.getId(), start));
+    }
+
+    @Test
+    void existsApprovedOverlapping() {
+        saveBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(saveBooking);
+
+        assertTrue(bookingRepository.existsApprovedOverlapping(
+                saveItem.getId(), 0, start.minusMinutes(1), start.plusMinutes(1)));
+        assertTrue(bookingRepository.existsApprovedOverlapping(
+                saveItem.getId(), 0, start.plusMinutes(1), end.minusMinutes(1)));
+        assertFalse(bookingRepository.existsApprovedOverlapping(
+                saveItem.getId(), 0, end, end.plusMinutes(1)));
+        assertFalse(bookingRepository.existsApprovedOverlapping(
+                saveItem.getId(), 0, start.minusMinutes(1), start));
+        assertFalse(bookingRepository.existsApprovedOverlapping(
+                saveItem.getId(), saveBooking.getId(), start, end));
+        assertFalse(bookingRepository.existsApprovedOverlapping(
+                saveItem2.getId(), 0, start.plusMinutes(60), end.plusMinutes(60)));
+    }
+
+    @Test
+    void findIntervalsByIdGreaterThan() {
+        assertEquals(List.of(toInterval(saveBooking), toInterval(saveBooking2)),
+                bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, size)));
+        assertEquals(List.of(toInterval(saveBooking2)),
+                bookingRepository.findIntervalsByIdGreaterThan(saveBooking.getId(), PageRequest.of(0, size)));
+        assertEquals(List.of(toInterval(saveBooking)),
+                bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void findLastArchivedIdsByItem_thenLatestStartedArchivedBookingOfEachItem() {
+        Booking earlier = bookingRepository.save(saveBooking.toBuilder()
+                .id(null)
+                .start(start.minusMinutes(30))
+                .end(start.minusMinutes(20))
+                .status(BookingStatus.APPROVED)
+                .build());
+        saveBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(saveBooking);
+        moveToArchive(earlier.getId());
+        moveToArchive(saveBooking.getId());
+
+        assertEquals(List.of(saveBooking.getId()), bookingRepository.findLastArchivedIdsByItem());
+        assertEquals(List.of(toInterval(saveBooking)),
+                bookingRepository.findIntervalsInHistoryByIdIn(List.of(saveBooking.getId())));
+        assertEquals(List.of(toInterval(saveBooking2)),
+                bookingRepository.findIntervalsByIdGreaterThan(0, PageRequest.of(0, size)));
     }
 
     @Test
@@ -448,10 +580,106 @@ class BookingRepositoryTest {
                 saveBooker.getId(), saveItem2.getId(), start.plusMinutes(170)));
     }
 
+    @Test
+    void archivedBooking_thenReadThroughHistoryOnly() {
+        saveBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(saveBooking);
+        moveToArchive(saveBooking.getId());
+
+        assertTrue(bookingRepository.findById(saveBooking.getId()).isEmpty());
+        Booking archived = bookingRepository.extractFromHistory(saveBooking.getId());
+        assertEquals(saveBooking.getId(), archived.getId());
+        assertEquals(BookingStatus.APPROVED, archived.getStatus());
+        assertEquals(saveOwner.getId(), archived.getItem().getOwner().getId());
+        assertEquals(saveBooking2.getId(), bookingRepository.extractFromHistory(saveBooking2.getId()).getId());
+        assertThrows(NotFoundException.class, () -> bookingRepository.extractFromHistory(saveBooking.getId() + 100));
+
+        assertEquals(List.of(saveBooking2.getId()), findAllForBooker(saveBooker.getId(), pageable).stream()
+                .map(BookingProjection::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(saveBooking2.getId(), saveBooking.getId()), bookingRepository
+                .findAllForBookerWithArchive(saveBooker.getId(), EnumSet.allOf(BookingStatus.class),
+                        MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                        pageable).stream()
+                .map(BookingProjection::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(saveBooking.getId()), bookingRepository.findAllForOwnerBeforeWithArchive(
+                        saveOwner.getId(), EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME,
+                        MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                        saveBooking2.getStart(), saveBooking2.getId(), PageRequest.of(0, size)).stream()
+                .map(BookingProjection::getId)
+                .collect(Collectors.toList()));
+        assertEquals(2, bookingRepository.countForOwnerWithArchive(saveOwner.getId(),
+                EnumSet.allOf(BookingStatus.class),
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
+        assertEquals(1, bookingRepository.countForOwner(saveOwner.getId(), EnumSet.allOf(BookingStatus.class),
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME));
+        assertEquals(2, bookingRepository.countStatesForBooker(saveBooker.getId(), start).getAll());
+        assertEquals(1, bookingRepository.countCompletedBookings(
+                saveBooker.getId(), saveItem.getId(), end.plusMinutes(1)));
+    }
+
     @AfterEach
     private void deleteBookings() {
         bookingRepository.deleteAll();
         itemRepository.deleteAll();
         userRepository.deleteAll();
     }
+
+    private void moveToArchive(long bookingId) {
+        String columns = "id, start_date, end_date, item_id, booker_id, owner_id, status";
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("insert into bookings_archive (" + columns + ") " +
+                        "select " + columns + " from bookings where id = ?1")
+                .setParameter(1, bookingId)
+                .executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("delete from bookings where id = ?1")
+                .setParameter(1, bookingId)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private Slice<BookingProjection> findAllForBooker(long bookerId, Pageable pageable) {
+        return findAllForBooker(BookingState.ALL, bookerId, start, pageable);
+    }
+
+    private Slice<BookingProjection> findAllForOwner(long ownerId, Pageable pageable) {
+        return findAllForOwner(BookingState.ALL, ownerId, start, pageable);
+    }
+
+    private Slice<BookingProjection> findAllForBooker(long bookerId, BookingStatus status, Pageable pageable) {
+        return bookingRepository.findAllForBooker(bookerId, EnumSet.of(status),
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, pageable);
+    }
+
+    private Slice<BookingProjection> findAllForOwner(long ownerId, BookingStatus status, Pageable pageable) {
+        return bookingRepository.findAllForOwner(ownerId, EnumSet.of(status),
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, pageable);
+    }
+
+    private Slice<BookingProjection> findAllForBooker(BookingState state, long bookerId, LocalDateTime now,
+                                                      Pageable pageable) {
+        BookingStateBounds bounds = BookingStateBounds.of(state, now);
+        return bookingRepository.findAllForBooker(bookerId, bounds.statuses,
+                bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable);
+    }
+
+    private Slice<BookingProjection> findAllForOwner(BookingState state, long ownerId, LocalDateTime now,
+                                                     Pageable pageable) {
+        BookingStateBounds bounds = BookingStateBounds.of(state, now);
+        return bookingRepository.findAllForOwner(ownerId, bounds.statuses,
+                bounds.minStart, bounds.maxStart, bounds.minEnd, bounds.maxEnd, pageable);
+    }
+
+    private static BookingProjection toProjection(Booking booking) {
+        return new BookingProjection(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().getAvailable(), booking.getItem().getRequestId(),
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail());
+    }
+
+    private static BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
 }
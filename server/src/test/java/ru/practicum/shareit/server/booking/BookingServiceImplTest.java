@@ -4,28 +4,46 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.server.booking.dto.*;
 import ru.practicum.shareit.server.booking.model.*;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MIN_CURSOR_DATE_TIME;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_START_DESC;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +52,18 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private UserIdIndex userIdIndex;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private TotalCountCache totalCountCache = new TotalCountCache(30, 100);
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -77,6 +104,10 @@ class BookingServiceImplTest {
             .status(BookingStatus.WAITING)
             .build();
 
+    BookingProjection bookingProjection = new BookingProjection(id, start, end, BookingStatus.WAITING,
+            itemId, "TestItemName", "DescriptionItem", true, null,
+            bookerId, "Booker", "booker@test.com");
+
     BookingDto expectedBookingDto = BookingDto.builder()
             .id(id)
             .start(start)
@@ -103,21 +134,21 @@ class BookingServiceImplTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_START_DESC);
-    Page<Booking> pageBooking = new PageImpl<>(
-            Collections.singletonList(booking), pageable, 1);
-    Page<BookingDto> pageBookingDto = new PageImpl<>(
-            Collections.singletonList(expectedBookingDto), pageable, 1);
+    Slice<BookingProjection> pageBooking = new SliceImpl<>(
+            Collections.singletonList(bookingProjection), pageable, false);
+    Slice<BookingDto> pageBookingDto = new SliceImpl<>(
+            Collections.singletonList(expectedBookingDto), pageable, false);
 
     String exceptionMessage = "Message";
 
     @Test
     void findByIdForUser_whenBookingFoundAndValidAllParams_thenReturnedBookingDto() {
         when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.extract(anyLong())).thenReturn(booking);
+        when(bookingRepository.extractFromHistory(anyLong())).thenReturn(booking);
 
         assertEquals(expectedBookingDto, bookingService.findByIdForUser(bookerId, id));
         verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).extract(anyLong());
+        verify(bookingRepository, times(1)).extractFromHistory(anyLong());
     }
 
     @Test
@@ -129,13 +160,13 @@ class BookingServiceImplTest {
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, never()).extract(anyLong());
+        verify(bookingRepository, never()).extractFromHistory(anyLong());
     }
 
     @Test
     void findByIdForUser_whenBookingNotFound_thenNotReturnedBookingDto() {
         when(userRepository.extract(anyLong())).thenReturn(alien);
-        when(bookingRepository.extract(anyLong())).thenReturn(booking);
+        when(bookingRepository.extractFromHistory(anyLong())).thenReturn(booking);
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.findByIdForUser(alienId, id));
@@ -143,236 +174,430 @@ class BookingServiceImplTest {
                 exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).extract(anyLong());
+        verify(bookingRepository, times(1)).extractFromHistory(anyLong());
     }
 
     @Test
     void findByIdForUser_whenNotBookerAndNotOwner_thenNotReturnedBookingDto() {
         when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        when(bookingRepository.extractFromHistory(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.findByIdForUser(bookerId, id));
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).extract(anyLong());
+        verify(bookingRepository, times(1)).extractFromHistory(anyLong());
     }
 
     @Test
     void findAllWithStateForUser_whenBookingStateALL_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllByBookerId(anyLong(), any(Pageable.class)))
+        when(bookingRepository.findAllForBookerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.ALL, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByBookerId(anyLong(), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBookerWithArchive(eq(bookerId),
+                eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
+    @Test
+    void exportWithStateForUser_whenBookingStateALL_thenBookingsStreamedOnlyOnForEach() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(bookingRepository.streamAllForBookerWithArchive(anyLong(), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(Stream.of(bookingProjection));
+
+        BookingExport export = bookingService.exportWithStateForUser(bookerId, BookingState.ALL);
+
+        verify(userIdIndex, times(1)).requireExists(bookerId);
+        verifyNoInteractions(bookingRepository);
+
+        List<BookingDto> exported = new ArrayList<>();
+        export.forEach(exported::add);
+
+        assertEquals(List.of(expectedBookingDto), exported);
+        verify(bookingRepository, times(1)).streamAllForBookerWithArchive(eq(bookerId),
+                eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME));
+        verifyNoMoreInteractions(userRepository, bookingRepository);
+    }
+
+    @Test
+    void exportWithStateForOwner_whenBookingStateWAITING_thenBookingsStreamedWithStatusFilter() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(bookingRepository.streamAllForOwnerWithArchive(anyLong(), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(Stream.of(bookingProjection));
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportWithStateForOwner(ownerId, BookingState.WAITING).forEach(exported::add);
+
+        assertEquals(List.of(expectedBookingDto), exported);
+        verify(userIdIndex, times(1)).requireExists(ownerId);
+        verify(bookingRepository, times(1)).streamAllForOwnerWithArchive(eq(ownerId),
+                eq(EnumSet.of(BookingStatus.WAITING)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME));
+    }
+
+    @Test
+    void exportWithStateForUser_whenUserNotFound_thenNotFoundExceptionBeforeStreaming() {
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
+
+        assertThrows(NotFoundException.class, () -> bookingService.exportWithStateForUser(bookerId, BookingState.ALL));
+
+        verifyNoInteractions(bookingRepository, transactionTemplate);
+    }
+
     @Test
     void findAllWithStateForUser_whenBookingStateWAITING_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllByBookerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class)))
+        when(bookingRepository.findAllForBooker(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.WAITING, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByBookerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBooker(eq(bookerId), eq(EnumSet.of(BookingStatus.WAITING)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForUser_whenBookingStateREJECTED_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllByBookerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class)))
+        when(bookingRepository.findAllForBookerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.REJECTED, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByBookerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBookerWithArchive(eq(bookerId),
+                eq(EnumSet.of(BookingStatus.REJECTED)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForUser_whenBookingStateCURRENT_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllCurrentForBooker(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForBooker(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.CURRENT, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllCurrentForBooker(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBooker(eq(bookerId), eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), argThat(maxStart -> maxStart.isBefore(MAX_CURSOR_DATE_TIME)),
+                argThat(minEnd -> minEnd.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForUser_whenBookingStatePAST_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllByBookerIdAndEndLessThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForBookerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.PAST, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByBookerIdAndEndLessThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBookerWithArchive(eq(bookerId),
+                eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), argThat(maxEnd -> maxEnd.isBefore(MAX_CURSOR_DATE_TIME)), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForUser_whenBookingStateFUTURE_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(bookingRepository.findAllByBookerIdAndStartGreaterThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForBooker(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForUser(
                 bookerId, BookingState.FUTURE, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByBookerIdAndStartGreaterThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForBooker(eq(bookerId), eq(EnumSet.allOf(BookingStatus.class)),
+                argThat(minStart -> minStart.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForUser_whenNotBooker_thenNotReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.findAllWithStateForUser(
                         bookerId, BookingState.ALL, pageable));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStateALL_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(Pageable.class)))
+        when(bookingRepository.findAllForOwnerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.ALL, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByItemOwnerId(anyLong(), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwnerWithArchive(eq(ownerId),
+                eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStateWAITING_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class)))
+        when(bookingRepository.findAllForOwner(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.WAITING, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwner(eq(ownerId), eq(EnumSet.of(BookingStatus.WAITING)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStateREJECTED_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class)))
+        when(bookingRepository.findAllForOwnerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.REJECTED, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatus(
-                anyLong(), any(BookingStatus.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwnerWithArchive(eq(ownerId),
+                eq(EnumSet.of(BookingStatus.REJECTED)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStateCURRENT_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllCurrentForOwner(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForOwner(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.CURRENT, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllCurrentForOwner(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwner(eq(ownerId), eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), argThat(maxStart -> maxStart.isBefore(MAX_CURSOR_DATE_TIME)),
+                argThat(minEnd -> minEnd.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStatePAST_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerIdAndEndLessThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForOwnerWithArchive(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.PAST, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndEndLessThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwnerWithArchive(eq(ownerId),
+                eq(EnumSet.allOf(BookingStatus.class)),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), argThat(maxEnd -> maxEnd.isBefore(MAX_CURSOR_DATE_TIME)), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenBookingStateFUTURE_thenReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerIdAndStartGreaterThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAllForOwner(
+                anyLong(), anyCollection(), any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(pageBooking);
 
         assertEquals(pageBookingDto, bookingService.findAllWithStateForOwner(
                 ownerId, BookingState.FUTURE, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartGreaterThan(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingRepository, times(1)).findAllForOwner(eq(ownerId), eq(EnumSet.allOf(BookingStatus.class)),
+                argThat(minStart -> minStart.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(pageable));
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
     @Test
     void findAllWithStateForOwner_whenNotOwner_thenNotReturnedPageBookingDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.findAllWithStateForOwner(
                         ownerId, BookingState.ALL, pageable));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
 
+    @Test
+    void findAllWithStateForUser_whenFirstCursorPageHasMore_thenReturnedNextCursor() {
+        BookingProjection olderBooking = new BookingProjection(id + 1, start.minusMinutes(1), end,
+                BookingStatus.WAITING, itemId, "TestItemName", "DescriptionItem", true, null,
+                bookerId, "Booker", "booker@test.com");
+        when(bookingRepository.findAllForBookerBeforeWithArchive(anyLong(), anyCollection(), any(), any(), any(),
+                any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(bookingProjection, olderBooking));
+
+        CursorPage<BookingDto> result = bookingService.findAllWithStateForUser(bookerId, BookingState.ALL, "", 1);
+
+        assertEquals(List.of(expectedBookingDto), result.getContent());
+        assertEquals(Cursor.of(start, id).encode(), result.getNextCursor());
+        verify(bookingRepository, times(1)).findAllForBookerBeforeWithArchive(bookerId,
+                EnumSet.allOf(BookingStatus.class), MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void findAllWithStateForOwner_whenCursorPassed_thenSeekFromCursorWithStateBounds() {
+        String cursor = Cursor.of(start, id).encode();
+        when(bookingRepository.findAllForOwnerBefore(anyLong(), anyCollection(), any(), any(), any(), any(),
+                any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(bookingProjection));
+        when(bookingRepository.findAllForOwnerBeforeWithArchive(anyLong(), anyCollection(), any(), any(), any(),
+                any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(bookingProjection));
+
+        for (BookingState state : BookingState.values()) {
+            CursorPage<BookingDto> result = bookingService.findAllWithStateForOwner(ownerId, state, cursor, size);
+            assertEquals(List.of(expectedBookingDto), result.getContent());
+            assertNull(result.getNextCursor());
+        }
+
+        verify(bookingRepository, times(1)).findAllForOwnerBefore(eq(ownerId), eq(EnumSet.of(BookingStatus.WAITING)),
+                any(), any(), any(), any(), eq(start), eq(id), eq(PageRequest.of(0, size + 1)));
+        verify(bookingRepository, times(1)).findAllForOwnerBeforeWithArchive(eq(ownerId),
+                eq(EnumSet.of(BookingStatus.REJECTED)), any(), any(), any(), any(), eq(start), eq(id),
+                any(Pageable.class));
+        verify(bookingRepository, times(1)).findAllForOwnerBefore(eq(ownerId), anyCollection(),
+                eq(MIN_CURSOR_DATE_TIME), argThat(maxStart -> maxStart.isBefore(MAX_CURSOR_DATE_TIME)),
+                argThat(minEnd -> minEnd.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME),
+                eq(start), eq(id), any(Pageable.class));
+        verify(bookingRepository, times(1)).findAllForOwnerBeforeWithArchive(eq(ownerId), anyCollection(),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(MIN_CURSOR_DATE_TIME),
+                argThat(maxEnd -> maxEnd.isBefore(MAX_CURSOR_DATE_TIME)), eq(start), eq(id), any(Pageable.class));
+        verify(bookingRepository, times(1)).findAllForOwnerBeforeWithArchive(eq(ownerId),
+                eq(EnumSet.allOf(BookingStatus.class)), eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(start), eq(id), any(Pageable.class));
+        verify(bookingRepository, times(1)).findAllForOwnerBefore(eq(ownerId), anyCollection(),
+                argThat(minStart -> minStart.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(start), eq(id), any(Pageable.class));
+    }
+
+    @Test
+    void findAllWithStateForUser_whenInvalidCursor_thenThrownInvalidConditionException() {
+
+        assertThrows(InvalidConditionException.class, () -> bookingService.findAllWithStateForUser(
+                bookerId, BookingState.ALL, "not a cursor", size));
+        assertThrows(InvalidConditionException.class, () -> bookingService.findAllWithStateForUser(
+                bookerId, BookingState.ALL, Cursor.of("yesterday", id).encode(), size));
+        verify(bookingRepository, never()).findAllForBookerBefore(anyLong(), anyCollection(), any(), any(), any(),
+                any(), any(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void countWithStateForUser_whenCountedTwice_thenSingleCountQueryWithStateBounds() {
+        when(bookingRepository.countForBooker(anyLong(), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(3L);
+
+        assertEquals(3, bookingService.countWithStateForUser(bookerId, BookingState.WAITING));
+        assertEquals(3, bookingService.countWithStateForUser(bookerId, BookingState.WAITING));
+
+        verify(bookingRepository, times(1)).countForBooker(bookerId, EnumSet.of(BookingStatus.WAITING),
+                MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void countWithStateForOwner_whenDifferentStates_thenCountedSeparately() {
+        when(bookingRepository.countForOwner(anyLong(), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(2L);
+        when(bookingRepository.countForOwnerWithArchive(anyLong(), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(2L);
+
+        assertEquals(2, bookingService.countWithStateForOwner(ownerId, BookingState.FUTURE));
+        assertEquals(2, bookingService.countWithStateForOwner(ownerId, BookingState.PAST));
+
+        verify(bookingRepository, times(1)).countForOwner(eq(ownerId), anyCollection(),
+                argThat(minStart -> minStart.isAfter(MIN_CURSOR_DATE_TIME)), eq(MAX_CURSOR_DATE_TIME),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME));
+        verify(bookingRepository, times(1)).countForOwnerWithArchive(eq(ownerId), anyCollection(),
+                eq(MIN_CURSOR_DATE_TIME), eq(MAX_CURSOR_DATE_TIME), eq(MIN_CURSOR_DATE_TIME),
+                argThat(maxEnd -> maxEnd.isBefore(MAX_CURSOR_DATE_TIME)));
+    }
+
+    @Test
+    void countAllStatesForUser_thenAllStatesFromSingleQuery() {
+        when(bookingRepository.countStatesForBooker(eq(bookerId), any(LocalDateTime.class)))
+                .thenReturn(new BookingStateCounts(6L, 1L, 2L, 3L, 0L, 5L));
+
+        Map<BookingState, Long> counts = bookingService.countAllStatesForUser(bookerId);
+
+        assertEquals(Map.of(BookingState.ALL, 6L, BookingState.CURRENT, 1L, BookingState.FUTURE, 2L,
+                BookingState.PAST, 3L, BookingState.REJECTED, 0L, BookingState.WAITING, 5L), counts);
+        verify(userIdIndex, times(1)).requireExists(bookerId);
+        verify(bookingRepository, times(1)).countStatesForBooker(eq(bookerId), any(LocalDateTime.class));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void countAllStatesForOwner_whenNoBookings_thenZeroForEveryState() {
+        when(bookingRepository.countStatesForOwner(eq(ownerId), any(LocalDateTime.class)))
+                .thenReturn(new BookingStateCounts(0L, null, null, null, null, null));
+
+        Map<BookingState, Long> counts = bookingService.countAllStatesForOwner(ownerId);
+
+        assertEquals(BookingState.values().length, counts.size());
+        counts.values().forEach(count -> assertEquals(0L, count));
+    }
+
+    @Test
+    void countAllStatesForOwner_whenOwnerNotFound_thenNotCounted() {
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
+
+        assertThrows(NotFoundException.class, () -> bookingService.countAllStatesForOwner(ownerId));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void create_whenBookingCreated_thenReturnedBookingDto() {
         when(userRepository.extract(anyLong())).thenReturn(booker);
@@ -383,6 +608,20 @@ class BookingServiceImplTest {
         assertEquals(expectedBookingDto, bookingService.create(bookerId, bookingIncomingDto));
 
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingIntervalIndex, times(1)).index(booking);
+    }
+
+    @Test
+    void create_whenOverlapsApprovedBooking_thenConflictException() {
+        when(userRepository.extract(anyLong())).thenReturn(booker);
+        when(itemRepository.extract(anyLong())).thenReturn(item);
+        when(bookingRepository.existsApprovedOverlapping(eq(itemId), eq(0L), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.create(bookerId, bookingIncomingDto));
+
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
@@ -394,6 +633,7 @@ class BookingServiceImplTest {
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
@@ -406,6 +646,7 @@ class BookingServiceImplTest {
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
@@ -419,6 +660,7 @@ class BookingServiceImplTest {
                 " является владельцем вещи с id = " + item.getId(), exception.getMessage());
 
         verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
@@ -433,58 +675,61 @@ class BookingServiceImplTest {
         assertEquals("Вещь с id = " + item.getId() + " недоступна для бронирования", exception.getMessage());
 
         verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
     void setApproved_whenBookingSetStatusApproved_thenReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
         when(bookingRepository.extract(anyLong())).thenReturn(booking);
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(booking.toBuilder().status(BookingStatus.APPROVED).build());
 
         assertEquals(expectedBookingDtoWithStatusApproved, bookingService.setApproved(ownerId, id, true));
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+        verify(itemRepository, times(1)).extractForUpdate(itemId);
+        verify(bookingRepository, times(1)).existsApprovedOverlapping(itemId, id, start, end);
+        verify(bookingIntervalIndex, times(1)).index(argThat(indexed -> indexed.getStatus() == BookingStatus.APPROVED));
     }
 
     @Test
     void setApproved_whenBookingSetStatusRejected_thenReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
         when(bookingRepository.extract(anyLong())).thenReturn(booking);
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(booking.toBuilder().status(BookingStatus.REJECTED).build());
 
         assertEquals(expectedBookingDtoWithStatusRejected, bookingService.setApproved(ownerId, id, false));
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+        verify(itemRepository, never()).extractForUpdate(anyLong());
     }
 
     @Test
     void setApproved_whenUserNotFound_thenNotReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.setApproved(bookerId, id, true));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
     void setApproved_whenBookingNotFound_thenNotReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
         when(bookingRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> bookingService.setApproved(bookerId, id, true));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
     void setApproved_whenNotOwner_thenNotReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(booker);
         when(bookingRepository.extract(anyLong())).thenReturn(booking);
 
         NotFoundException exception =
@@ -493,12 +738,12 @@ class BookingServiceImplTest {
                 " не является владельцем вещи с id = " + booking.getItem().getId() +
                 " из бронирования с id = " + id, exception.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
     void setApproved_whenBookingAlreadyApproved_thenNotReturnedBookingDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
         booking.setStatus(BookingStatus.APPROVED);
         when(bookingRepository.extract(anyLong())).thenReturn(booking);
 
@@ -506,6 +751,44 @@ class BookingServiceImplTest {
                 assertThrows(InvalidConditionException.class, () -> bookingService.setApproved(ownerId, id, true));
         assertEquals("Бронирование с id = " + id + " уже одобрено", exception.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void setApproved_whenOverlapsApprovedBooking_thenConflictException() {
+        when(bookingRepository.extract(anyLong())).thenReturn(booking);
+        when(bookingRepository.existsApprovedOverlapping(itemId, id, start, end)).thenReturn(true);
+
+        ConflictException exception =
+                assertThrows(ConflictException.class, () -> bookingService.setApproved(ownerId, id, true));
+        assertEquals("Вещь с id = " + itemId + " уже забронирована на пересекающийся период с " + start +
+                " по " + end, exception.getMessage());
+
+        verify(itemRepository, times(1)).extractForUpdate(itemId);
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void setApproved_whenExclusionConstraintViolated_thenConflictException() {
+        when(bookingRepository.extract(anyLong())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("conflicting key value violates exclusion " +
+                "constraint \"" + BookingServiceImpl.NO_OVERLAPPING_APPROVED_CONSTRAINT + "\"")));
+
+        assertThrows(ConflictException.class, () -> bookingService.setApproved(ownerId, id, true));
+
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void setApproved_whenOtherIntegrityViolation_thenRethrown() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("other");
+        when(bookingRepository.extract(anyLong())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.setApproved(ownerId, id, true)));
     }
 }
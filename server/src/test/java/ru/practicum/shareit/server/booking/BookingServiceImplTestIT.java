@@ -4,16 +4,18 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.server.booking.dto.*;
 import ru.practicum.shareit.server.booking.model.*;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemServiceImpl;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 import ru.practicum.shareit.server.user.UserServiceImpl;
 import ru.practicum.shareit.server.user.dto.UserDto;
@@ -21,6 +23,11 @@ import ru.practicum.shareit.server.user.dto.UserDto;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -219,7 +226,7 @@ class BookingServiceImplTestIT {
                         bookingService.findAllWithStateForUser(UNKNOWN_ID, BookingState.ALL, pageable));
         assertEquals(exceptionMessageNotUser + UNKNOWN_ID, exception.getMessage());
 
-        Page<BookingDto> resultAll =
+        Slice<BookingDto> resultAll =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.ALL, pageable);
 
         assertThat(6, equalTo(resultAll.getContent().size()));
@@ -227,26 +234,26 @@ class BookingServiceImplTestIT {
                 savedBookingFuture2, savedBookingFuture1, savedBookingCurrent1,
                 savedBookingCurrent2, savedBookingPast2, savedBookingPast1));
 
-        Page<BookingDto> resultAllEmpty =
+        Slice<BookingDto> resultAllEmpty =
                 bookingService.findAllWithStateForUser(resultUser.getId(), BookingState.ALL, pageable);
 
         assertThat(0, equalTo(resultAllEmpty.getContent().size()));
 
-        Page<BookingDto> resultCurrent =
+        Slice<BookingDto> resultCurrent =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.CURRENT, pageable);
 
         assertThat(2, equalTo(resultCurrent.getContent().size()));
         assertThat(resultCurrent.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingCurrent1, savedBookingCurrent2));
 
-        Page<BookingDto> resultPast =
+        Slice<BookingDto> resultPast =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.PAST, pageable);
 
         assertThat(2, equalTo(resultPast.getContent().size()));
         assertThat(resultPast.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingPast2, savedBookingPast1));
 
-        Page<BookingDto> resultFuture =
+        Slice<BookingDto> resultFuture =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.FUTURE, pageable);
 
         assertThat(2, equalTo(resultFuture.getContent().size()));
@@ -260,14 +267,14 @@ class BookingServiceImplTestIT {
         BookingDto savedBookingCurrent1Rejected =
                 bookingService.setApproved(resultOwner.getId(), savedBookingCurrent1.getId(), false);
 
-        Page<BookingDto> resultWaiting =
+        Slice<BookingDto> resultWaiting =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.WAITING, pageable);
 
         assertThat(3, equalTo(resultWaiting.getContent().size()));
         assertThat(resultWaiting.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingFuture2, savedBookingFuture1, savedBookingCurrent2));
 
-        Page<BookingDto> resultRejected =
+        Slice<BookingDto> resultRejected =
                 bookingService.findAllWithStateForUser(resultBooker.getId(), BookingState.REJECTED, pageable);
 
         assertThat(3, equalTo(resultRejected.getContent().size()));
@@ -331,7 +338,7 @@ class BookingServiceImplTestIT {
                         bookingService.findAllWithStateForOwner(UNKNOWN_ID, BookingState.ALL, pageable));
         assertEquals(exceptionMessageNotUser + UNKNOWN_ID, exception.getMessage());
 
-        Page<BookingDto> resultAll =
+        Slice<BookingDto> resultAll =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.ALL, pageable);
 
         assertThat(6, equalTo(resultAll.getContent().size()));
@@ -339,26 +346,26 @@ class BookingServiceImplTestIT {
                 savedBookingFuture2, savedBookingFuture1, savedBookingCurrent1,
                 savedBookingCurrent2, savedBookingPast2, savedBookingPast1));
 
-        Page<BookingDto> resultAllEmpty =
+        Slice<BookingDto> resultAllEmpty =
                 bookingService.findAllWithStateForOwner(resultUser.getId(), BookingState.ALL, pageable);
 
         assertThat(0, equalTo(resultAllEmpty.getContent().size()));
 
-        Page<BookingDto> resultCurrent =
+        Slice<BookingDto> resultCurrent =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.CURRENT, pageable);
 
         assertThat(2, equalTo(resultCurrent.getContent().size()));
         assertThat(resultCurrent.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingCurrent1, savedBookingCurrent2));
 
-        Page<BookingDto> resultPast =
+        Slice<BookingDto> resultPast =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.PAST, pageable);
 
         assertThat(2, equalTo(resultPast.getContent().size()));
         assertThat(resultPast.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingPast2, savedBookingPast1));
 
-        Page<BookingDto> resultFuture =
+        Slice<BookingDto> resultFuture =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.FUTURE, pageable);
 
         assertThat(2, equalTo(resultFuture.getContent().size()));
@@ -372,14 +379,14 @@ class BookingServiceImplTestIT {
         BookingDto savedBookingCurrent1Rejected =
                 bookingService.setApproved(resultOwner.getId(), savedBookingCurrent1.getId(), false);
 
-        Page<BookingDto> resultWaiting =
+        Slice<BookingDto> resultWaiting =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.WAITING, pageable);
 
         assertThat(3, equalTo(resultWaiting.getContent().size()));
         assertThat(resultWaiting.getContent(), Matchers.containsInRelativeOrder(
                 savedBookingFuture2, savedBookingFuture1, savedBookingCurrent2));
 
-        Page<BookingDto> resultRejected =
+        Slice<BookingDto> resultRejected =
                 bookingService.findAllWithStateForOwner(resultOwner.getId(), BookingState.REJECTED, pageable);
 
         assertThat(3, equalTo(resultRejected.getContent().size()));
@@ -387,6 +394,57 @@ class BookingServiceImplTestIT {
                 savedBookingCurrent1Rejected, savedBookingPast2Rejected, savedBookingPast1Rejected));
     }
 
+    @Test
+    void findAllWithStateWithCursorOrExport_whenWalkedPageByPage_thenSameBookingsAsOffsetPagination() {
+        UserDto resultOwner = userService.create(owner);
+        UserDto resultBooker = userService.create(booker);
+        ItemDto resultItem = itemService.create(itemIncomingDto, resultOwner.getId());
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDateTime bookingStart : List.of(now.minusHours(3), now.minusHours(2), now.minusMinutes(5),
+                now.plusHours(1), now.plusHours(1), now.plusHours(2))) {
+            bookingService.create(resultBooker.getId(), BookingIncomingDto.builder()
+                    .itemId(resultItem.getId())
+                    .start(bookingStart)
+                    .end(bookingStart.plusMinutes(30))
+                    .build());
+        }
+        em.flush();
+
+        for (BookingState state : BookingState.values()) {
+            List<Long> expected = bookingService.findAllWithStateForUser(resultBooker.getId(), state, pageable)
+                    .stream()
+                    .sorted(Comparator.comparing(BookingDto::getStart).thenComparing(BookingDto::getId).reversed())
+                    .map(BookingDto::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, walkCursorPages(cursor ->
+                    bookingService.findAllWithStateForUser(resultBooker.getId(), state, cursor, 2)), state.name());
+            assertEquals(expected, walkCursorPages(cursor ->
+                    bookingService.findAllWithStateForOwner(resultOwner.getId(), state, cursor, 2)), state.name());
+            assertEquals(expected, exportedIds(bookingService.exportWithStateForUser(resultBooker.getId(), state)),
+                    state.name());
+            assertEquals(expected, exportedIds(bookingService.exportWithStateForOwner(resultOwner.getId(), state)),
+                    state.name());
+        }
+        assertThrows(NotFoundException.class, () -> bookingService.exportWithStateForUser(UNKNOWN_ID, BookingState.ALL));
+    }
+
+    private static List<Long> exportedIds(BookingExport export) {
+        List<Long> ids = new ArrayList<>();
+        export.forEach(bookingDto -> ids.add(bookingDto.getId()));
+        return ids;
+    }
+
+    private static List<Long> walkCursorPages(Function<String, CursorPage<BookingDto>> pageLoader) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<BookingDto> page = pageLoader.apply(cursor);
+            page.getContent().forEach(bookingDto -> ids.add(bookingDto.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
     @Test
     void setApproved() {
         UserDto resultOwner = userService.create(owner);
@@ -430,10 +488,16 @@ class BookingServiceImplTestIT {
                         bookingService.setApproved(resultOwner.getId(), resultBooking.getId(), true));
         assertEquals("Бронирование с id = " + resultBooking.getId() + " уже одобрено", exception2.getMessage());
 
+        ConflictException exception3 = assertThrows(
+                ConflictException.class, () ->
+                        bookingService.create(resultBooker.getId(), bookingIncomingDto));
+        assertTrue(exception3.getMessage().startsWith(
+                "Вещь с id = " + resultItem.getId() + " уже забронирована на пересекающийся период"));
+
         BookingIncomingDto bookingIncoming2Dto = BookingIncomingDto.builder()
                 .itemId(resultItem.getId())
-                .start(start.minusHours(4))
-                .end(end.minusHours(4))
+                .start(start.minusHours(3))
+                .end(end.minusHours(3))
                 .build();
         BookingDto resultBooking2 = bookingService.create(resultBooker.getId(), bookingIncoming2Dto);
 
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.db;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.*;
+
+class DatabaseStartupConfigurationTest {
+
+    @Test
+    void resetMigrationStrategy_thenSchemaCleanedBeforeMigrate() {
+        Flyway flyway = mock(Flyway.class);
+
+        new DatabaseStartupConfiguration().resetMigrationStrategy().migrate(flyway);
+
+        InOrder inOrder = inOrder(flyway);
+        inOrder.verify(flyway).clean();
+        inOrder.verify(flyway).migrate();
+        verifyNoMoreInteractions(flyway);
+    }
+}
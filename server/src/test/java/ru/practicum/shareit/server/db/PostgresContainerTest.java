@@ -0,0 +1,39 @@
+package ru.practicum.shareit.server.db;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/*
+ * Основа тестов на настоящем PostgreSQL: схема создаётся миграциями Flyway из db/migration/postgresql.
+ * Тесты помечены тегом postgres и запускаются только профилем Maven: mvn -Ppostgres test.
+ * Без Docker они пропускаются. Контейнер один на все тесты, чтобы контекст Spring переиспользовался
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("postgres")
+@SpringBootTest(properties = {
+        "shareit.item.search.engine=full-text",
+        "shareit.booking.archive.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.shareit.server.db.CapturingStatementInspector"
+})
+public abstract class PostgresContainerTest {
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("shareit");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
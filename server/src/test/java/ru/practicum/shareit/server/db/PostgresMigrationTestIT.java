@@ -0,0 +1,65 @@
+package ru.practicum.shareit.server.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresMigrationTestIT extends PostgresContainerTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_thenAllVersionsAppliedSuccessfully() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success and version is not null " +
+                        "order by installed_rank", String.class);
+
+        assertTrue(versions.containsAll(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12")),
+                "Применены не все миграции: " + versions);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where not success", Integer.class));
+    }
+
+    @Test
+    void migrate_thenSearchVectorGeneratedAndIndexedForAvailableItems() {
+        assertEquals("tsvector", jdbcTemplate.queryForObject("select data_type from information_schema.columns " +
+                "where table_name = 'items' and column_name = 'search_vector'", String.class));
+        assertEquals("ALWAYS", jdbcTemplate.queryForObject("select is_generated from information_schema.columns " +
+                "where table_name = 'items' and column_name = 'search_vector'", String.class));
+
+        String definition = indexDefinition("idx_items_search_vector");
+        assertTrue(definition.contains("USING gin (search_vector)"), definition);
+        assertTrue(definition.contains("WHERE is_available"), definition);
+    }
+
+    @Test
+    void migrate_thenPartialIndexesCreated() {
+        assertPartialIndex("idx_bookings_item_approved_end", "(item_id, end_date)", "'APPROVED'");
+        assertPartialIndex("idx_bookings_booker_waiting", "(booker_id, start_date)", "'WAITING'");
+        assertPartialIndex("idx_items_available", "(id)", "is_available");
+    }
+
+    @Test
+    void migrate_thenApprovedBookingsExclusionConstraintCreated() {
+        String definition = jdbcTemplate.queryForObject("select pg_get_constraintdef(c.oid) from pg_constraint c " +
+                "where c.conname = 'no_overlapping_approved_bookings' and c.contype = 'x'", String.class);
+
+        assertNotNull(definition);
+        assertTrue(definition.startsWith("EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date"),
+                definition);
+        assertTrue(definition.contains("WITH &&) WHERE") && definition.contains("'APPROVED'"), definition);
+    }
+
+    private void assertPartialIndex(String name, String columns, String predicate) {
+        String definition = indexDefinition(name);
+        assertTrue(definition.contains(columns + " WHERE") && definition.contains(predicate), definition);
+    }
+
+    private String indexDefinition(String name) {
+        return jdbcTemplate.queryForObject("select indexdef from pg_indexes where indexname = ?", String.class, name);
+    }
+}
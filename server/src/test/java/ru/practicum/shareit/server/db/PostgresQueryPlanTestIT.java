@@ -0,0 +1,144 @@
+package ru.practicum.shareit.server.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.server.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.server.booking.model.BookingStatus.WAITING;
+import static ru.practicum.shareit.server.db.QueryPlanDataset.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MIN_CURSOR_DATE_TIME;
+
+/*
+ * Планы строятся по SQL, который Hibernate действительно отправил при вызовах репозиториев.
+ * Драйвер после нескольких выполнений переходит на подготовленные запросы, поэтому проверяется общий план
+ * без значений параметров. Последовательное чтение запрещено: если в плане остался Seq Scan, подходящего индекса нет
+ */
+@Transactional
+class PostgresQueryPlanTestIT extends PostgresContainerTest {
+    private static final String PLAN_NAME = "plan_check";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        QueryPlanDataset.insert(jdbcTemplate, now);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void fullTextSearch_thenIndexScan() {
+        assertNoFullScan(() -> {
+            itemRepository.findAvailableByFullText("item:*", PageRequest.of(0, 20));
+            itemRepository.countAvailableByFullText("item:*");
+            itemRepository.findAvailableRanksByFullText("item:*", Float.MAX_VALUE, 0, PageRequest.of(0, 21));
+        });
+    }
+
+    @Test
+    void itemsOfOwnerAndRequest_thenIndexScan() {
+        assertNoFullScan(() -> {
+            itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(USER_ID, 0, PageRequest.of(0, 20));
+            itemRepository.findAllByRequestId(FIRST_ID);
+            commentRepository.findAllByItemIdIn(List.of(ITEM_ID, ITEM_ID + 1));
+        });
+    }
+
+    @Test
+    void bookingsPages_thenIndexScan() {
+        assertNoFullScan(() -> {
+            bookingRepository.findAllForBookerBefore(USER_ID, List.of(WAITING), MIN_CURSOR_DATE_TIME,
+                    MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                    Long.MAX_VALUE, PageRequest.of(0, 20));
+            bookingRepository.findAllForOwnerBefore(USER_ID, List.of(APPROVED, WAITING), now,
+                    MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME, MAX_CURSOR_DATE_TIME,
+                    Long.MAX_VALUE, PageRequest.of(0, 20));
+            bookingRepository.findAllForBookerBeforeWithArchive(USER_ID, List.of(APPROVED), MIN_CURSOR_DATE_TIME,
+                    MAX_CURSOR_DATE_TIME, MIN_CURSOR_DATE_TIME, now, MAX_CURSOR_DATE_TIME,
+                    Long.MAX_VALUE, PageRequest.of(0, 20));
+        });
+    }
+
+    @Test
+    void bookingsOfItem_thenIndexScan() {
+        assertNoFullScan(() -> {
+            bookingRepository.existsApprovedOverlapping(ITEM_ID, 0, now, now.plusDays(1));
+            bookingRepository.countCompletedBookings(USER_ID, ITEM_ID, now);
+            bookingRepository.findIntervalsByIdGreaterThan(FIRST_ID, PageRequest.of(0, 100));
+        });
+    }
+
+    @Test
+    void requests_thenIndexScan() {
+        assertNoFullScan(() -> {
+            itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(USER_ID);
+            itemRequestRepository.findNewest(PageRequest.of(0, 100));
+        });
+    }
+
+    private void assertNoFullScan(Runnable repositoryCalls) {
+        List<String> statements;
+        CapturingStatementInspector.start();
+        try {
+            repositoryCalls.run();
+        } finally {
+            statements = CapturingStatementInspector.stop();
+        }
+        assertFalse(statements.isEmpty(), "Вызовы репозиториев не отправили SQL");
+        statements.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .forEach(this::assertGenericPlanHasNoSeqScan);
+    }
+
+    private void assertGenericPlanHasNoSeqScan(String sql) {
+        int parameters = 0;
+        StringBuilder prepared = new StringBuilder();
+        for (char symbol : sql.toCharArray()) {
+            if (symbol == '?') {
+                prepared.append('$').append(++parameters);
+            } else {
+                prepared.append(symbol);
+            }
+        }
+        jdbcTemplate.execute("set local enable_seqscan = off");
+        jdbcTemplate.execute("set local plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("prepare " + PLAN_NAME + " as " + prepared);
+        try {
+            String nulls = String.join(", ", Collections.nCopies(parameters, "null"));
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain execute " + PLAN_NAME +
+                    (parameters == 0 ? "" : "(" + nulls + ")"), String.class));
+            assertFalse(plan.contains("Seq Scan"), "Запрос читает таблицу целиком:\n" + sql + "\n" + plan);
+        } finally {
+            jdbcTemplate.execute("deallocate " + PLAN_NAME);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Заполнение таблиц для проверки планов запросов: одинаковые данные для H2 и PostgreSQL */
+public final class QueryPlanDataset {
+    public static final long FIRST_ID = 1_000_000;
+    public static final int USERS_COUNT = 50;
+    public static final int ITEMS_PER_USER = 10;
+    public static final int BOOKINGS_PER_ITEM = 10;
+    public static final int REQUESTS_PER_USER = 10;
+    public static final long USER_ID = FIRST_ID + USERS_COUNT / 2;
+    public static final long ITEM_ID = FIRST_ID + USERS_COUNT * ITEMS_PER_USER / 2;
+
+    private QueryPlanDataset() {
+    }
+
+    public static void insert(JdbcTemplate jdbcTemplate, LocalDateTime now) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long user = FIRST_ID; user < FIRST_ID + USERS_COUNT; user++) {
+            users.add(new Object[]{user, "User" + user, "user" + user + "@test.com"});
+        }
+        for (int i = 0; i < USERS_COUNT * REQUESTS_PER_USER; i++) {
+            requests.add(new Object[]{FIRST_ID + i, "Request" + i, FIRST_ID + i % USERS_COUNT,
+                    timestamp(now.minusHours(i))});
+        }
+        for (int i = 0; i < USERS_COUNT * ITEMS_PER_USER; i++) {
+            long item = FIRST_ID + i;
+            items.add(new Object[]{item, "Item" + i, "Description" + i, i % 3 != 0, FIRST_ID + i % USERS_COUNT,
+                    i % 2 == 0 ? FIRST_ID + i : null});
+            comments.add(new Object[]{item, "Comment" + i, item, FIRST_ID + (i + 1) % USERS_COUNT,
+                    timestamp(now.minusDays(1))});
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2);
+                bookings.add(new Object[]{item * BOOKINGS_PER_ITEM + j, timestamp(start),
+                        timestamp(start.plusHours(12)), item, FIRST_ID + (i + j + 1) % USERS_COUNT,
+                        FIRST_ID + i % USERS_COUNT, j % 2 == 0 ? "APPROVED" : "WAITING"});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate(
+                "insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into bookings " +
+                "(id, start_date, end_date, item_id, booker_id, owner_id, status) values (?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate(
+                "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)", comments);
+    }
+
+    public static Timestamp timestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+}
@@ -75,4 +75,55 @@ class CommentRepositoryTest {
         assertEquals(saveComment, result.get(1));
         assertEquals(0, commentRepository.findAllByItem_IdOrderByCreatedDesc(saveItem3.getId()).size());
     }
+
+    @Test
+    void findAllByItemIdIn() {
+        User saveAuthor = userRepository.save(User.builder().name("AuthorName").email("author@test.com").build());
+        User saveOwner = userRepository.save(User.builder().name("OwnerName").email("owner@test.com").build());
+
+        Item saveItem = itemRepository.save(Item.builder()
+                .name("TestItemName")
+                .description("ItemDescription")
+                .available(true)
+                .owner(saveOwner)
+                .build());
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem2Name")
+                .description("Item2Description")
+                .available(true)
+                .owner(saveOwner)
+                .build());
+        Item saveItem3 = itemRepository.save(Item.builder()
+                .name("TestItem3Name")
+                .description("Item3Description")
+                .available(true)
+                .owner(saveOwner)
+                .build());
+
+        LocalDateTime created = LocalDateTime.now().plusMinutes(5);
+        Comment saveComment = commentRepository.save(Comment.builder()
+                .text("CommentText")
+                .item(saveItem)
+                .author(saveAuthor)
+                .created(created)
+                .build());
+        Comment saveComment2 = commentRepository.save(Comment.builder()
+                .text("Comment2Text")
+                .item(saveItem2)
+                .author(saveAuthor)
+                .created(created.plusMinutes(20))
+                .build());
+        Comment saveComment3 = commentRepository.save(Comment.builder()
+                .text("Comment3Text")
+                .item(saveItem)
+                .author(saveAuthor)
+                .created(created.plusMinutes(10))
+                .build());
+
+        assertEquals(List.of(saveComment2, saveComment3, saveComment),
+                commentRepository.findAllByItemIdIn(List.of(saveItem.getId(), saveItem2.getId())));
+        assertEquals(List.of(saveComment3, saveComment),
+                commentRepository.findAllByItemIdIn(List.of(saveItem.getId())));
+        assertEquals(0, commentRepository.findAllByItemIdIn(List.of(saveItem3.getId())).size());
+    }
 }
@@ -6,10 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,19 +17,25 @@ import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.server.booking.dto.BookingShortDto;
 import ru.practicum.shareit.server.exception.*;
 import ru.practicum.shareit.server.item.dto.*;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_ITEM_PATH;
 import static ru.practicum.shareit.server.item.ItemController.*;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.TOTAL_COUNT_HEADER;
 
 @WebMvcTest(controllers = ItemController.class)
 class ItemControllerTest {
@@ -92,11 +98,11 @@ class ItemControllerTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT);
-    Page<ItemDto> pageItemDtoForOwner = new PageImpl<>(
-            Collections.singletonList(expectedItemDtoForOwner), pageable, 1);
+    Slice<ItemDto> pageItemDtoForOwner = new SliceImpl<>(
+            Collections.singletonList(expectedItemDtoForOwner), pageable, false);
 
-    Page<ItemDto> pageItemDtoForSearch = new PageImpl<>(
-            Collections.singletonList(expectedItemDto), pageable, 1);
+    Slice<ItemDto> pageItemDtoForSearch = new SliceImpl<>(
+            Collections.singletonList(expectedItemDto), pageable, false);
 
     @Test
     @DisplayName("Метод getItemById - Успех: запрос от не владельца")
@@ -225,6 +231,24 @@ class ItemControllerTest {
         verify(itemService, times(1)).create(any(ItemIncomingDto.class), anyLong());
     }
 
+    @Test
+    @DisplayName("Метод createAll - Успех")
+    void createAll_whenValidItemIncomingDtos_thenResponseStatusOkWithItemDtosInBody() throws Exception {
+        when(itemService.createAll(anyList(), anyLong()))
+                .thenReturn(List.of(expectedItemDtoWithRequestId, expectedItemDtoWithRequestId));
+
+        mvc.perform(post(COMMON_ITEM_PATH + BATCH_PATH)
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(List.of(itemIncomingDto, itemIncomingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(
+                        List.of(expectedItemDtoWithRequestId, expectedItemDtoWithRequestId))));
+        verify(itemService, times(1)).createAll(argThat(itemDtos -> itemDtos.size() == 2), eq(userId));
+    }
+
     @Test
     @DisplayName("Метод update - Успех")
     void update_whenValidItemIncomingDtoAndOwner_thenResponseStatusOkWithItemDtoWithRequestIdInBody() throws Exception {
@@ -290,6 +314,139 @@ class ItemControllerTest {
         verify(itemService, times(1)).findAvailableByText(anyString(), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("Метод getAllByOwnerId - Успех: общее количество по запросу")
+    void getAllByOwnerId_whenWithTotal_thenResponseContainsTotalCountHeader() throws Exception {
+        when(itemService.findAllByOwnerId(anyLong(), any(Pageable.class)))
+                .thenReturn(pageItemDtoForOwner);
+        when(itemService.countByOwnerId(anyLong())).thenReturn(12L);
+
+        mvc.perform(get(COMMON_ITEM_PATH)
+                        .param("withTotal", "true")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "12"))
+                .andExpect(content().json(mapper.writeValueAsString(pageItemDtoForOwner.getContent())));
+        verify(itemService, times(1)).countByOwnerId(userId);
+    }
+
+    @Test
+    @DisplayName("Метод getAvailableByText - Успех: общее количество по запросу")
+    void getAvailableByText_whenWithTotal_thenResponseContainsTotalCountHeader() throws Exception {
+        when(itemService.findAvailableByText(anyString(), any(Pageable.class)))
+                .thenReturn(pageItemDtoForSearch);
+        when(itemService.countAvailableByText(anyString())).thenReturn(3L);
+
+        mvc.perform(get(COMMON_ITEM_PATH + SEARCH_PATH)
+                        .param("text", "дрель")
+                        .param("withTotal", "true")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "3"));
+        verify(itemService, times(1)).countAvailableByText("дрель");
+    }
+
+    @Test
+    @DisplayName("Метод getAllByOwnerId - Успех: пагинация по курсору")
+    void getAllByOwnerId_whenCursorPassed_thenResponseContainsNextCursorHeader() throws Exception {
+        String nextCursor = Cursor.of(id).encode();
+        when(itemService.findAllByOwnerId(userId, "", size))
+                .thenReturn(new CursorPage<>(Collections.singletonList(expectedItemDtoForOwner), nextCursor));
+
+        mvc.perform(get(COMMON_ITEM_PATH)
+                        .param("cursor", "")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(expectedItemDtoForOwner))));
+        verify(itemService, never()).findAllByOwnerId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Метод getAvailableByText - Успех: пагинация по курсору")
+    void getAvailableByText_whenCursorPassed_thenResponseStatusOkWithoutHeaderOnLastPage() throws Exception {
+        String cursor = Cursor.of(id).encode();
+        when(itemService.findAvailableByText("text", cursor, 5))
+                .thenReturn(new CursorPage<>(Collections.singletonList(expectedItemDto), null));
+
+        mvc.perform(get(COMMON_ITEM_PATH + SEARCH_PATH)
+                        .param("text", "text")
+                        .param("size", "5")
+                        .param("cursor", cursor)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(expectedItemDto))));
+        verify(itemService, never()).findAvailableByText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Метод getAvailableByText - Некорректный курсор")
+    void getAvailableByText_whenInvalidCursor_thenResponseStatusBadRequest() throws Exception {
+        when(itemService.findAvailableByText(anyString(), anyString(), anyInt()))
+                .thenThrow(InvalidConditionException.class);
+
+        mvc.perform(get(COMMON_ITEM_PATH + SEARCH_PATH)
+                        .param("text", "text")
+                        .param("cursor", "???")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Метод getSuggestions - Успех")
+    void getSuggestions_whenInvoked_thenResponseStatusOkWithSuggestionsInBody() throws Exception {
+        List<ItemSuggestionDto> suggestions = List.of(ItemSuggestionDto.builder()
+                .text("Дрель")
+                .itemIds(List.of(1L, 2L))
+                .build());
+        when(itemService.suggest("дре", 5)).thenReturn(suggestions);
+
+        mvc.perform(get(COMMON_ITEM_PATH + SUGGEST_PATH)
+                        .param("prefix", "дре")
+                        .param("limit", "5")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(suggestions)));
+        verify(itemService, times(1)).suggest("дре", 5);
+    }
+
+    @Test
+    @DisplayName("Метод getAvailability - Успех")
+    void getAvailability_whenInvoked_thenResponseStatusOkWithAvailabilityInBody() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(id)
+                .start(start)
+                .end(end)
+                .available(true)
+                .build();
+        when(itemService.checkAvailability(id, start, end)).thenReturn(availability);
+
+        mvc.perform(get(COMMON_ITEM_PATH + ITEM_PREFIX + AVAILABILITY_PATH, id)
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-01T12:00:00")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(availability)));
+        verify(itemService, times(1)).checkAvailability(id, start, end);
+    }
+
     @Test
     @DisplayName("Метод createComment - Успех")
     void createComment_whenValidAllParams_thenResponseStatusOkWithCommentDtoInBody() throws Exception {
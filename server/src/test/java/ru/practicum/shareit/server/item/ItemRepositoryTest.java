@@ -8,6 +8,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
@@ -17,6 +19,9 @@ import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
@@ -60,10 +65,20 @@ class ItemRepositoryTest {
         assertEquals("Запрос на несуществующую вещь с id = " + (saveItem.getId() + 1), exception.getMessage());
     }
 
+    @Test
+    void extractForUpdate() {
+        assertEquals(saveItem, itemRepository.extractForUpdate(saveItem.getId()));
+        NotFoundException exception =
+                assertThrows(NotFoundException.class, () -> itemRepository.extractForUpdate(saveItem.getId() + 1));
+        assertEquals("Запрос на несуществующую вещь с id = " + (saveItem.getId() + 1), exception.getMessage());
+    }
+
     @Test
     void findAllByOwnerId() {
         assertEquals(1, itemRepository.findAllByOwnerId(saveUser.getId(), pageable).getContent().size());
         assertEquals(0, itemRepository.findAllByOwnerId(saveUser.getId() + 1, pageable).getContent().size());
+        assertEquals(1, itemRepository.countByOwnerId(saveUser.getId()));
+        assertEquals(0, itemRepository.countByOwnerId(saveUser.getId() + 1));
     }
 
     @Test
@@ -82,9 +97,99 @@ class ItemRepositoryTest {
                 .build());
 
         assertEquals(2, itemRepository.findAvailableByText("NAME", pageable).getContent().size());
-        assertEquals(saveItem, itemRepository.findAvailableByText("NAME", pageable).getContent().get(0));
-        assertEquals(saveItem2, itemRepository.findAvailableByText("NAME", pageable).getContent().get(1));
+        assertEquals(ItemMapper.toItemDto(saveItem),
+                itemRepository.findAvailableByText("NAME", pageable).getContent().get(0));
+        assertEquals(ItemMapper.toItemDto(saveItem2),
+                itemRepository.findAvailableByText("NAME", pageable).getContent().get(1));
         assertEquals(0, itemRepository.findAvailableByText("alien", pageable).getContent().size());
+        assertTrue(itemRepository.findAvailableByText("NAME", PageRequest.of(0, 1)).hasNext());
+        assertEquals(2, itemRepository.countAvailableByText("NAME"));
+        assertEquals(0, itemRepository.countAvailableByText("alien"));
+    }
+
+    @Test
+    void findAllByOwnerIdAndIdGreaterThanOrderById() {
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem2")
+                .description("ItemDescription2")
+                .available(false)
+                .owner(saveUser)
+                .build());
+        Pageable first = PageRequest.of(0, 1);
+
+        assertEquals(Collections.singletonList(saveItem),
+                itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(saveUser.getId(), 0, first));
+        assertEquals(Collections.singletonList(saveItem2),
+                itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(saveUser.getId(), saveItem.getId(), first));
+        assertEquals(0, itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(
+                saveUser.getId() + 1, 0, first).size());
+    }
+
+    @Test
+    void findAvailableByTextAndIdGreaterThan() {
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem")
+                .description("Item_nAmE_Description")
+                .available(true)
+                .owner(saveUser)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("TestItemName")
+                .description("ItemDescription")
+                .available(false)
+                .owner(saveUser)
+                .build());
+        Pageable first = PageRequest.of(0, 1);
+
+        assertEquals(Collections.singletonList(ItemMapper.toItemDto(saveItem)),
+                itemRepository.findAvailableByTextAndIdGreaterThan("NAME", 0, first));
+        assertEquals(Collections.singletonList(ItemMapper.toItemDto(saveItem2)),
+                itemRepository.findAvailableByTextAndIdGreaterThan("NAME", saveItem.getId(), first));
+        assertEquals(0, itemRepository.findAvailableByTextAndIdGreaterThan("NAME", saveItem2.getId(), first).size());
+    }
+
+    @Test
+    void findAllByAvailableTrueAndIdGreaterThan() {
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem")
+                .description("Item_nAmE_Description")
+                .available(true)
+                .owner(saveUser)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("TestItemName")
+                .description("ItemDescription")
+                .available(false)
+                .owner(saveUser)
+                .build());
+        Pageable chunk = PageRequest.of(0, 1, DEFAULT_PAGINATION_SORT);
+
+        assertEquals(Collections.singletonList(saveItem),
+                itemRepository.findAllByAvailableTrueAndIdGreaterThan(0, chunk));
+        assertEquals(Collections.singletonList(saveItem2),
+                itemRepository.findAllByAvailableTrueAndIdGreaterThan(saveItem.getId(), chunk));
+        assertEquals(0, itemRepository.findAllByAvailableTrueAndIdGreaterThan(saveItem2.getId(), chunk).size());
+    }
+
+    @Test
+    void countByAvailableTrueAndFindMaxAvailableId() {
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem")
+                .description("Item_nAmE_Description")
+                .available(true)
+                .owner(saveUser)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("TestItemName")
+                .description("ItemDescription")
+                .available(false)
+                .owner(saveUser)
+                .build());
+
+        assertEquals(2, itemRepository.countByAvailableTrue());
+        assertEquals(saveItem2.getId(), itemRepository.findMaxAvailableId());
+        itemRepository.deleteAll();
+        assertEquals(0, itemRepository.findMaxAvailableId());
     }
 
     @Test
@@ -104,10 +209,56 @@ class ItemRepositoryTest {
                 .build());
 
         assertEquals(1, itemRepository.findAllByRequestId(saveRequest.getId()).size());
-        assertEquals(Collections.singletonList(saveItem2), itemRepository.findAllByRequestId(saveRequest.getId()));
+        assertEquals(Collections.singletonList(ItemForItemRequestDto.builder()
+                        .id(saveItem2.getId())
+                        .name(saveItem2.getName())
+                        .description(saveItem2.getDescription())
+                        .ownerId(saveUser.getId())
+                        .available(true)
+                        .requestId(saveRequest.getId())
+                        .build()),
+                itemRepository.findAllByRequestId(saveRequest.getId()));
         assertEquals(0, itemRepository.findAllByRequestId(saveRequest.getId() + 1).size());
     }
 
+    @Test
+    void findAllByRequestIdIn() {
+        ItemRequest saveRequest = requestRepository.save(ItemRequest.builder()
+                .description("RequestDescription")
+                .requester(saveUser)
+                .created(LocalDateTime.now().plusMinutes(5))
+                .build());
+        ItemRequest saveRequest2 = requestRepository.save(ItemRequest.builder()
+                .description("Request2Description")
+                .requester(saveUser)
+                .created(LocalDateTime.now().plusMinutes(10))
+                .build());
+        Item saveItem2 = itemRepository.save(Item.builder()
+                .name("TestItem")
+                .description("Description")
+                .available(true)
+                .owner(saveUser)
+                .requestId(saveRequest.getId())
+                .build());
+        Item saveItem3 = itemRepository.save(Item.builder()
+                .name("TestItem2")
+                .description("Description2")
+                .available(false)
+                .owner(saveUser)
+                .requestId(saveRequest2.getId())
+                .build());
+
+        List<ItemForItemRequestDto> result = itemRepository.findAllByRequestIdIn(
+                List.of(saveRequest.getId(), saveRequest2.getId(), saveRequest2.getId() + 1));
+        assertEquals(Set.of(saveItem2.getId(), saveItem3.getId()), result.stream()
+                .map(ItemForItemRequestDto::getId)
+                .collect(Collectors.toSet()));
+        assertEquals(List.of(saveRequest2.getId()), itemRepository.findAllByRequestIdIn(List.of(saveRequest2.getId()))
+                .stream()
+                .map(ItemForItemRequestDto::getRequestId)
+                .collect(Collectors.toList()));
+    }
+
     @AfterEach
     private void deleteItems() {
         itemRepository.deleteAll();
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.server.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
+import ru.practicum.shareit.server.booking.BookingServiceImpl;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.server.booking.dto.BookingState;
+import ru.practicum.shareit.server.item.dto.CommentIncomingDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_START_DESC;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemServiceImplQueryCountTestIT {
+    private static final int ITEMS_COUNT = 6;
+    private static final int BATCH_ITEMS_COUNT = 120;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private ItemRequestServiceImpl requestService;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    UserDto owner = UserDto.builder().name("OwnerName").email("owner@test.com").build();
+    UserDto booker = UserDto.builder().name("BookerName").email("booker@test.com").build();
+
+    ItemIncomingDto itemIncomingDto = ItemIncomingDto.builder()
+            .name("ItemName")
+            .description("ItemDescription")
+            .available(true)
+            .build();
+
+    CommentIncomingDto commentIncomingDto = CommentIncomingDto.builder().text("CommentText").build();
+
+    LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+    LocalDateTime end = LocalDateTime.now().plusMinutes(55);
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findAllByOwnerId_whenPageSizeGrows_thenQueryCountIsConstantAndBookingsIndexed() {
+        UserDto savedOwner = userService.create(owner);
+        UserDto savedBooker = userService.create(booker);
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            ItemDto savedItem = itemService.create(itemIncomingDto, savedOwner.getId());
+            BookingDto lastBooking = bookingService.create(savedBooker.getId(), BookingIncomingDto.builder()
+                    .itemId(savedItem.getId())
+                    .start(start.minusHours(2))
+                    .end(end.minusHours(2))
+                    .build());
+            bookingService.setApproved(savedOwner.getId(), lastBooking.getId(), true);
+            itemService.createComment(savedBooker.getId(), savedItem.getId(), commentIncomingDto);
+            bookingService.create(savedBooker.getId(), BookingIncomingDto.builder()
+                    .itemId(savedItem.getId())
+                    .start(start.plusHours(2))
+                    .end(end.plusHours(2))
+                    .build());
+        }
+
+        em.flush();
+        /* Транзакция теста не фиксируется, поэтому индекс бронирований перечитывается явно */
+        bookingIntervalIndex.afterSingletonsInstantiated();
+        em.clear();
+        statistics.clear();
+        Slice<ItemDto> smallPage = itemService.findAllByOwnerId(
+                savedOwner.getId(), PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT));
+        long smallPageBookingQueries = countBookingQueryExecutions();
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        em.clear();
+        statistics.clear();
+        Slice<ItemDto> fullPage = itemService.findAllByOwnerId(
+                savedOwner.getId(), PageRequest.of(0, ITEMS_COUNT, DEFAULT_PAGINATION_SORT));
+        long fullPageBookingQueries = countBookingQueryExecutions();
+        long fullPageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(2, smallPage.getContent().size());
+        assertEquals(ITEMS_COUNT, fullPage.getContent().size());
+        fullPage.forEach(itemDto -> {
+            assertNotNull(itemDto.getLastBooking());
+            assertNotNull(itemDto.getNextBooking());
+            assertEquals(1, itemDto.getComments().size());
+        });
+        assertEquals(0, smallPageBookingQueries);
+        assertEquals(smallPageBookingQueries, fullPageBookingQueries);
+        assertEquals(smallPageStatements, fullPageStatements);
+    }
+
+    @Test
+    void listEndpoints_whenPageIsFull_thenNoCountQuery() {
+        UserDto savedOwner = userService.create(owner);
+        UserDto savedBooker = userService.create(booker);
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            ItemDto savedItem = itemService.create(itemIncomingDto, savedOwner.getId());
+            bookingService.create(savedBooker.getId(), BookingIncomingDto.builder()
+                    .itemId(savedItem.getId())
+                    .start(start.plusHours(i))
+                    .end(end.plusHours(i))
+                    .build());
+            requestService.create(ItemRequestIncomingDto.builder().description("Request" + i).build(),
+                    savedBooker.getId());
+        }
+        PageRequest firstTwo = PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT);
+
+        em.flush();
+        em.clear();
+        statistics.clear();
+        Slice<ItemDto> items = itemService.findAllByOwnerId(savedOwner.getId(), firstTwo);
+        Slice<ItemDto> found = itemService.findAvailableByText("itemname", firstTwo);
+        Slice<BookingDto> bookings = bookingService.findAllWithStateForOwner(
+                savedOwner.getId(), BookingState.ALL, PageRequest.of(0, 2, SORT_START_DESC));
+        Slice<ItemRequestDto> requests = requestService.findAllByExpectRequesterId(
+                savedOwner.getId(), PageRequest.of(0, 2, SORT_CREATED_DESC));
+
+        assertTrue(items.hasNext());
+        assertTrue(found.hasNext());
+        assertTrue(bookings.hasNext());
+        assertTrue(requests.hasNext());
+        assertEquals(0, countCountQueryExecutions());
+
+        statistics.clear();
+        assertEquals(ITEMS_COUNT, itemService.countByOwnerId(savedOwner.getId()));
+        assertEquals(ITEMS_COUNT, itemService.countByOwnerId(savedOwner.getId()));
+        assertEquals(1, countCountQueryExecutions());
+    }
+
+    @Test
+    void createAll_whenManyItems_thenInsertedInJdbcBatches() {
+        UserDto savedOwner = userService.create(owner);
+        UserDto savedBooker = userService.create(booker);
+        long requestId = requestService.create(ItemRequestIncomingDto.builder().description("Request").build(),
+                savedBooker.getId()).getId();
+        List<ItemIncomingDto> itemDtos = IntStream.range(0, BATCH_ITEMS_COUNT)
+                .mapToObj(i -> itemIncomingDto.toBuilder().name("ItemName" + i).requestId(requestId).build())
+                .collect(Collectors.toList());
+
+        em.flush();
+        statistics.clear();
+        List<ItemDto> createdItems = itemService.createAll(itemDtos, savedOwner.getId());
+        em.flush();
+
+        assertEquals(BATCH_ITEMS_COUNT, createdItems.size());
+        assertEquals(BATCH_ITEMS_COUNT, createdItems.stream().map(ItemDto::getId).distinct().count());
+        assertEquals(BATCH_ITEMS_COUNT, statistics.getEntityInsertCount());
+        /* Владелец, запросы, три блока id из последовательности и три JDBC-пакета вставок */
+        assertTrue(statistics.getPrepareStatementCount() <= 10, () -> "Выполнено " +
+                statistics.getPrepareStatementCount() + " запросов");
+        assertEquals(BATCH_ITEMS_COUNT, itemService.countByOwnerId(savedOwner.getId()));
+    }
+
+    private long countCountQueryExecutions() {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.toLowerCase(Locale.ROOT).contains("count("))
+                .filter(query -> !query.contains("from User"))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+
+    private long countBookingQueryExecutions() {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("from Booking"))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+}
@@ -6,21 +6,31 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
 import ru.practicum.shareit.server.booking.BookingRepository;
 import ru.practicum.shareit.server.booking.dto.BookingShortDto;
 import ru.practicum.shareit.server.booking.model.*;
 import ru.practicum.shareit.server.exception.*;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.*;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
+import ru.practicum.shareit.server.request.ItemRequestFeed;
+import ru.practicum.shareit.server.request.ItemRequestMatcher;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -28,6 +38,7 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,7 +51,12 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private UserIdIndex userIdIndex;
     @Mock
     private ItemRepository itemRepository;
     @Mock
@@ -48,6 +64,17 @@ class ItemServiceImplTest {
 
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+    @Spy
+    private TotalCountCache totalCountCache = new TotalCountCache(30, 100);
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -104,22 +131,6 @@ class ItemServiceImplTest {
     LocalDateTime start = LocalDateTime.now().plusMinutes(5);
     LocalDateTime end = LocalDateTime.now().plusMinutes(10);
 
-    Booking lastBooking = Booking.builder()
-            .id(lastBookingId)
-            .start(start)
-            .end(end)
-            .item(item)
-            .booker(booker)
-            .status(BookingStatus.WAITING)
-            .build();
-    Booking nextBooking = Booking.builder()
-            .id(nextBookingId)
-            .start(start)
-            .end(end)
-            .item(item)
-            .booker(booker)
-            .status(BookingStatus.WAITING)
-            .build();
     BookingShortDto lastBookingShort = BookingShortDto.builder().id(lastBookingId).bookerId(booker.getId()).build();
     BookingShortDto nextBookingShort = BookingShortDto.builder().id(nextBookingId).bookerId(booker.getId()).build();
 
@@ -166,50 +177,43 @@ class ItemServiceImplTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, DEFAULT_PAGINATION_SORT);
-    Page<Item> pageItem = new PageImpl<>(
-            Collections.singletonList(item), pageable, 1);
-    Page<ItemDto> pageItemDto = new PageImpl<>(
-            Collections.singletonList(expectedItemDto), pageable, 1);
-    Page<ItemDto> pageBookingDtoForOwner = new PageImpl<>(
-            Collections.singletonList(expectedItemDtoForOwner), pageable, 1);
+    Slice<Item> pageItem = new SliceImpl<>(
+            Collections.singletonList(item), pageable, false);
+    Slice<ItemDto> pageItemDto = new SliceImpl<>(
+            Collections.singletonList(expectedItemDto), pageable, false);
+    Slice<ItemDto> pageBookingDtoForOwner = new SliceImpl<>(
+            Collections.singletonList(expectedItemDtoForOwner), pageable, false);
 
     String exceptionMessage = "Message";
 
     @Test
     void findById_WhenItemFoundAndOwner_thenReturnedItemDto() {
         when(itemRepository.extract(anyLong())).thenReturn(item);
-        when(bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(nextBooking);
+        when(bookingIntervalIndex.findLast(anyLong(), any(LocalDateTime.class))).thenReturn(lastBookingShort);
+        when(bookingIntervalIndex.findNext(anyLong(), any(LocalDateTime.class))).thenReturn(nextBookingShort);
         when(commentRepository.findAllByItem_IdOrderByCreatedDesc(anyLong())).thenReturn(comments);
 
         assertEquals(expectedItemDtoForOwner, itemService.findById(ownerId, itemId));
 
         verify(itemRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1))
-                .findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class));
-        verify(bookingRepository, times(1))
-                .findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class));
+        verify(bookingIntervalIndex, times(1)).findLast(eq(itemId), any(LocalDateTime.class));
+        verify(bookingIntervalIndex, times(1)).findNext(eq(itemId), any(LocalDateTime.class));
+        verifyNoInteractions(bookingRepository);
         verify(commentRepository, times(1)).findAllByItem_IdOrderByCreatedDesc(anyLong());
     }
 
     @Test
     void findById_WhenItemFoundAndNotOwner_thenReturnedItemDto() {
         when(itemRepository.extract(anyLong())).thenReturn(item);
-        when(bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(nextBooking);
+        when(bookingIntervalIndex.findLast(anyLong(), any(LocalDateTime.class))).thenReturn(lastBookingShort);
+        when(bookingIntervalIndex.findNext(anyLong(), any(LocalDateTime.class))).thenReturn(nextBookingShort);
         when(commentRepository.findAllByItem_IdOrderByCreatedDesc(anyLong())).thenReturn(comments);
 
         assertEquals(expectedItemDtoForNotOwner, itemService.findById(bookerId, itemId));
 
         verify(itemRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, atMostOnce())
-                .findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class));
-        verify(bookingRepository, atMostOnce())
-                .findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class));
+        verify(bookingIntervalIndex, never()).findLast(anyLong(), any(LocalDateTime.class));
+        verify(bookingIntervalIndex, never()).findNext(anyLong(), any(LocalDateTime.class));
         verify(commentRepository, times(1)).findAllByItem_IdOrderByCreatedDesc(anyLong());
     }
 
@@ -227,38 +231,75 @@ class ItemServiceImplTest {
 
     @Test
     void findAllByOwnerId_whenOwnerFound_thenReturnedPageItemDto() {
-        when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(bookingRepository.findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(nextBooking);
-        when(commentRepository.findAllByItem_IdOrderByCreatedDesc(anyLong())).thenReturn(comments);
+        when(bookingIntervalIndex.findLast(anyLong(), any(LocalDateTime.class))).thenReturn(lastBookingShort);
+        when(bookingIntervalIndex.findNext(anyLong(), any(LocalDateTime.class))).thenReturn(nextBookingShort);
+        when(commentRepository.findAllByItemIdIn(anyCollection())).thenReturn(List.of(comment));
         when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(pageItem);
 
-        assertEquals(pageBookingDtoForOwner, itemService.findAllByOwnerId(
-                ownerId, pageable));
+        Slice<ItemDto> result = itemService.findAllByOwnerId(ownerId, pageable);
+        assertEquals(pageBookingDtoForOwner, result);
+        assertEquals(List.of(commentDto), result.getContent().get(0).getComments());
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(bookingRepository, times(1))
-                .findFirstByItemIdAndEndLessThanOrderByStartDesc(anyLong(), any(LocalDateTime.class));
-        verify(bookingRepository, times(1))
-                .findFirstByItemIdAndStartGreaterThanOrderByStartAsc(anyLong(), any(LocalDateTime.class));
-        verify(commentRepository, times(1)).findAllByItem_IdOrderByCreatedDesc(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(bookingIntervalIndex, times(1)).findLast(eq(itemId), any(LocalDateTime.class));
+        verify(bookingIntervalIndex, times(1)).findNext(eq(itemId), any(LocalDateTime.class));
+        verifyNoInteractions(bookingRepository);
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyCollection());
+        verify(commentRepository, never()).findAllByItem_IdOrderByCreatedDesc(anyLong());
         verify(itemRepository, times(1)).findAllByOwnerId(anyLong(), any(Pageable.class));
     }
 
+    @Test
+    void findAllByOwnerId_whenOwnerHasNoItems_thenBookingsNotLoaded() {
+        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(Collections.emptyList(), pageable, false));
+
+        assertEquals(0, itemService.findAllByOwnerId(ownerId, pageable).getContent().size());
+
+        verifyNoInteractions(bookingIntervalIndex);
+        verify(commentRepository, never()).findAllByItemIdIn(anyCollection());
+    }
+
+    @Test
+    void findAllByOwnerId_whenCursorPassed_thenReturnedCursorPageWithIndexedBookings() {
+        Item nextItem = item.toBuilder().id(item.getId() + 1).build();
+        when(bookingIntervalIndex.findLast(anyLong(), any(LocalDateTime.class))).thenReturn(lastBookingShort);
+        when(bookingIntervalIndex.findNext(anyLong(), any(LocalDateTime.class))).thenReturn(nextBookingShort);
+        when(commentRepository.findAllByItemIdIn(anyCollection())).thenReturn(List.of(comment));
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(anyLong(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(item, nextItem));
+
+        CursorPage<ItemDto> result = itemService.findAllByOwnerId(ownerId, Cursor.of(itemId - 1).encode(), 1);
+
+        assertEquals(List.of(expectedItemDtoForOwner), result.getContent());
+        assertEquals(item.getId(), Cursor.decode(result.getNextCursor()).getId());
+        verify(itemRepository, times(1))
+                .findAllByOwnerIdAndIdGreaterThanOrderById(ownerId, itemId - 1, PageRequest.of(0, 2));
+        verify(bookingIntervalIndex, times(1)).findLast(eq(itemId), any(LocalDateTime.class));
+        verify(itemRepository, never()).findAllByOwnerId(anyLong(), any(Pageable.class));
+    }
+
     @Test
     void findAllByOwnerId_whenOwnerNotFound_thenNotReturnedPageItemDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> itemService.findAllByOwnerId(bookerId, pageable));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void countByOwnerId_whenCountedTwice_thenSingleCountQuery() {
+        when(itemRepository.countByOwnerId(anyLong())).thenReturn(6L);
+
+        assertEquals(6, itemService.countByOwnerId(ownerId));
+        assertEquals(6, itemService.countByOwnerId(ownerId));
+
+        verify(itemRepository, times(1)).countByOwnerId(ownerId);
+    }
+
     @Test
     void create_whenItemCreated_thenReturnedItemDto() {
         when(userRepository.extract(anyLong())).thenReturn(owner);
@@ -268,6 +309,10 @@ class ItemServiceImplTest {
 
         verify(userRepository, times(1)).extract(anyLong());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemSearchEngine, times(1)).index(any(Item.class));
+        verify(itemNameSuggester, times(1)).index(any(Item.class));
+        verify(itemRequestFeed, times(1)).index(item);
+        verify(itemRequestMatcher, times(1)).recordMatches(List.of(item), true);
     }
 
     @Test
@@ -296,10 +341,42 @@ class ItemServiceImplTest {
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
 
+    @Test
+    void createAll_whenItemsCreated_thenOwnerCheckedOnceAndSavedInOneCall() {
+        when(userRepository.extract(anyLong())).thenReturn(owner);
+        when(requestRepository.findExistingIds(anyCollection())).thenReturn(Set.of(77L));
+        when(itemRepository.saveAll(anyList())).thenReturn(List.of(item, item));
+
+        assertEquals(List.of(expectedItemDto, expectedItemDto),
+                itemService.createAll(List.of(itemIncomingDto, itemIncomingWithRequestIdDto), ownerId));
+
+        verify(userRepository, times(1)).extract(anyLong());
+        verify(requestRepository, times(1)).findExistingIds(Set.of(77L));
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(itemSearchEngine, times(2)).index(any(Item.class));
+        verify(itemNameSuggester, times(2)).index(any(Item.class));
+        verify(itemRequestFeed, times(2)).index(item);
+        verify(itemRequestMatcher, times(1)).recordMatches(List.of(item, item), true);
+        verifyNoMoreInteractions(userRepository, requestRepository);
+    }
+
+    @Test
+    void createAll_whenItemRequestNotFound_thenNothingSaved() {
+        when(userRepository.extract(anyLong())).thenReturn(owner);
+        when(requestRepository.findExistingIds(anyCollection())).thenReturn(Set.of());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> itemService.createAll(List.of(itemIncomingDto, itemIncomingWithRequestIdDto), ownerId));
+        assertEquals("Запрос на несуществующий для поиска нужной вещи запрос с id = 77", exception.getMessage());
+
+        verify(itemRepository, never()).saveAll(anyList());
+        verify(itemSearchEngine, never()).index(any(Item.class));
+    }
+
     @Test
     void update_whenItemUpdated_thenUpdatedOnlyAvailableFields() {
         when(userRepository.extract(anyLong())).thenReturn(owner);
-        when(itemRepository.extract(anyLong())).thenReturn(oldItem);
+        when(itemRepository.extractForUpdate(anyLong())).thenReturn(oldItem);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         assertEquals(expectedItemDto, itemService.update(itemIncomingDto, itemId, ownerId));
@@ -311,9 +388,12 @@ class ItemServiceImplTest {
         assertEquals(expectedItemDto.getName(),changedItem.getName());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(itemRepository, times(1)).extract(anyLong());
+        verify(itemRepository, times(1)).extractForUpdate(anyLong());
         verify(itemRepository, times(1)).save(any(Item.class));
         verifyNoMoreInteractions(userRepository, itemRepository);
+        verify(itemSearchEngine, times(1)).index(any(Item.class));
+        verify(itemNameSuggester, times(1)).index(any(Item.class));
+        verify(itemRequestMatcher, times(1)).recordMatches(List.of(item), false);
     }
 
     @Test
@@ -330,21 +410,21 @@ class ItemServiceImplTest {
 
     @Test
     void update_whenItemNotFound_thenNotReturnedItemDto() {
-        when(itemRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        when(itemRepository.extractForUpdate(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> itemService.update(itemIncomingDto, itemId, bookerId));
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(itemRepository, times(1)).extract(anyLong());
+        verify(itemRepository, times(1)).extractForUpdate(anyLong());
         verifyNoMoreInteractions(userRepository, itemRepository);
     }
 
     @Test
     void update_whenItemRequestNotFound_thenNotReturnedItemDto() {
         when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(itemRepository.extract(anyLong())).thenReturn(item);
+        when(itemRepository.extractForUpdate(anyLong())).thenReturn(item);
         when(requestRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
 
         NotFoundException exception =
@@ -352,7 +432,7 @@ class ItemServiceImplTest {
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(itemRepository, times(1)).extract(anyLong());
+        verify(itemRepository, times(1)).extractForUpdate(anyLong());
         verify(requestRepository, times(1)).extract(anyLong());
         verifyNoMoreInteractions(userRepository, itemRepository, requestRepository);
     }
@@ -360,7 +440,7 @@ class ItemServiceImplTest {
     @Test
     void update_whenNotOwner_thenNotReturnedItemDto() {
         when(userRepository.extract(anyLong())).thenReturn(booker);
-        when(itemRepository.extract(anyLong())).thenReturn(item);
+        when(itemRepository.extractForUpdate(anyLong())).thenReturn(item);
 
         ForbiddenException exception =
                 assertThrows(ForbiddenException.class, () -> itemService.update(itemIncomingDto, itemId, bookerId));
@@ -368,28 +448,123 @@ class ItemServiceImplTest {
                 "Только владелец может изменять/удалять вещь", exception.getMessage());
 
         verify(userRepository, times(1)).extract(anyLong());
-        verify(itemRepository, times(1)).extract(anyLong());
+        verify(itemRepository, times(1)).extractForUpdate(anyLong());
         verifyNoMoreInteractions(userRepository, itemRepository);
+        verify(itemSearchEngine, never()).index(any(Item.class));
+        verify(itemNameSuggester, never()).index(any(Item.class));
     }
 
     @Test
     void findAvailableByText_whenTextExists_thenReturnedPageItemDto() {
-        when(itemRepository.findAvailableByText(anyString(), any(Pageable.class))).thenReturn(pageItem);
+        when(itemSearchEngine.findAvailableByText(anyString(), any(Pageable.class))).thenReturn(pageItemDto);
 
         assertEquals(pageItemDto, itemService.findAvailableByText(
                 "teST", pageable));
 
-        verify(itemRepository, times(1)).findAvailableByText(anyString(), any(Pageable.class));
-        verifyNoMoreInteractions(itemRepository);
+        verify(itemSearchEngine, times(1)).findAvailableByText(anyString(), any(Pageable.class));
+        verifyNoMoreInteractions(itemSearchEngine);
     }
 
     @Test
     void findAvailableByText_whenTextIsEmpty_thenReturnedPageItemDto() {
 
-        assertEquals(new PageImpl<>(Collections.emptyList()), itemService.findAvailableByText(
+        assertEquals(new SliceImpl<>(Collections.emptyList()), itemService.findAvailableByText(
                 "", pageable));
 
-        verify(itemRepository, never()).findAvailableByText(anyString(), any(Pageable.class));
+        verify(itemSearchEngine, never()).findAvailableByText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void findAvailableByText_whenCursorPassed_thenDelegatedWithDecodedCursor() {
+        CursorPage<ItemDto> page = new CursorPage<>(List.of(expectedItemDto), null);
+        when(itemSearchEngine.findAvailableByText(anyString(), any(), anyInt())).thenReturn(page);
+
+        assertEquals(page, itemService.findAvailableByText("teST", "", size));
+        assertEquals(page, itemService.findAvailableByText("teST", Cursor.of(itemId).encode(), size));
+
+        verify(itemSearchEngine, times(1)).findAvailableByText("teST", null, size);
+        verify(itemSearchEngine, times(1))
+                .findAvailableByText(eq("teST"), argThat(cursor -> cursor != null && cursor.getId() == itemId), eq(size));
+    }
+
+    @Test
+    void findAvailableByText_whenCursorPassedAndTextIsEmpty_thenEmptyWithoutLookup() {
+        CursorPage<ItemDto> result = itemService.findAvailableByText("", "", size);
+
+        assertEquals(0, result.getContent().size());
+        assertNull(result.getNextCursor());
+        verify(itemSearchEngine, never()).findAvailableByText(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void countAvailableByText_whenCountedTwice_thenEngineCountedOnce() {
+        when(itemSearchEngine.countAvailableByText(anyString())).thenReturn(4L);
+
+        assertEquals(4, itemService.countAvailableByText("teST"));
+        assertEquals(4, itemService.countAvailableByText("teST"));
+        assertEquals(0, itemService.countAvailableByText(""));
+
+        verify(itemSearchEngine, times(1)).countAvailableByText("teST");
+        verifyNoMoreInteractions(itemSearchEngine);
+    }
+
+    @Test
+    void checkAvailability_whenIntervalFree_thenAvailable() {
+        when(itemRepository.extract(itemId)).thenReturn(item);
+        when(bookingIntervalIndex.isFree(itemId, start, end)).thenReturn(true);
+
+        ItemAvailabilityDto result = itemService.checkAvailability(itemId, start, end);
+
+        assertEquals(ItemAvailabilityDto.builder().itemId(itemId).start(start).end(end).available(true).build(),
+                result);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void checkAvailability_whenIntervalBooked_thenNotAvailable() {
+        when(itemRepository.extract(itemId)).thenReturn(item);
+        when(bookingIntervalIndex.isFree(itemId, start, end)).thenReturn(false);
+
+        assertFalse(itemService.checkAvailability(itemId, start, end).getAvailable());
+    }
+
+    @Test
+    void checkAvailability_whenItemUnavailable_thenNotAvailableWithoutIndexLookup() {
+        when(itemRepository.extract(itemId)).thenReturn(oldItem);
+
+        assertFalse(itemService.checkAvailability(itemId, start, end).getAvailable());
+
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void checkAvailability_whenEndNotAfterStart_thenInvalidConditionException() {
+        InvalidConditionException exception = assertThrows(InvalidConditionException.class,
+                () -> itemService.checkAvailability(itemId, end, start));
+        assertEquals("Начало интервала должно быть раньше его окончания", exception.getMessage());
+
+        verifyNoInteractions(itemRepository, bookingIntervalIndex);
+    }
+
+    @Test
+    void suggest_whenPrefixExists_thenReturnedSuggestions() {
+        List<ItemSuggestionDto> suggestions = List.of(ItemSuggestionDto.builder()
+                .text(item.getName())
+                .itemIds(List.of(itemId))
+                .build());
+        when(itemNameSuggester.suggest("test", 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, itemService.suggest("test", 5));
+
+        verify(itemNameSuggester, times(1)).suggest("test", 5);
+    }
+
+    @Test
+    void suggest_whenPrefixIsBlank_thenEmptyWithoutLookup() {
+
+        assertEquals(Collections.emptyList(), itemService.suggest(" ", 5));
+
+        verify(itemNameSuggester, never()).suggest(anyString(), anyInt());
     }
 
     @Test
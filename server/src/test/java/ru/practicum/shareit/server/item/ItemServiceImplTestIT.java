@@ -4,9 +4,10 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
 import ru.practicum.shareit.server.booking.BookingServiceImpl;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingIncomingDto;
@@ -46,6 +47,9 @@ class ItemServiceImplTestIT {
     @Autowired
     private BookingServiceImpl bookingService;
 
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
     @Autowired
     private EntityManager em;
 
@@ -153,6 +157,7 @@ class ItemServiceImplTestIT {
         BookingDto savedNextBooking = bookingService.create(savedBooker.getId(), nextBookingIncomingDto);
 
         CommentDto savedComment = itemService.createComment(savedBooker.getId(), savedItem.getId(), commentIncomingDto);
+        reloadBookingIntervalIndex();
 
         ItemDto resultItem = itemService.findById(savedOwner.getId(), savedItem.getId());
 
@@ -210,8 +215,9 @@ class ItemServiceImplTestIT {
         BookingDto savedNextBooking = bookingService.create(savedRequester.getId(), nextBookingIncomingDto);
 
         CommentDto savedComment = itemService.createComment(savedBooker.getId(), savedItem.getId(), commentIncomingDto);
+        reloadBookingIntervalIndex();
 
-        Page<ItemDto> result = itemService.findAllByOwnerId(savedOwner.getId(), pageable);
+        Slice<ItemDto> result = itemService.findAllByOwnerId(savedOwner.getId(), pageable);
 
         assertThat(1, equalTo(result.getContent().size()));
         assertThat(savedItem.getId(), equalTo(result.getContent().get(0).getId()));
@@ -332,7 +338,7 @@ class ItemServiceImplTestIT {
         ItemDto savedItem2 = itemService.create(itemIncoming2Dto, savedOwner.getId());
         itemService.create(itemIncoming3Dto, savedOwner.getId());
 
-        Page<ItemDto> result = itemService.findAvailableByText("EmNaM", pageable);
+        Slice<ItemDto> result = itemService.findAvailableByText("EmNaM", pageable);
 
         assertThat(2, equalTo(result.getContent().size()));
         assertThat(result, Matchers.containsInAnyOrder(savedItem, savedItem2));
@@ -385,4 +391,31 @@ class ItemServiceImplTestIT {
         assertThat(savedComment.getAuthor().getName(), equalTo(result.getAuthorName()));
     }
 
+    @Test
+    void checkAvailability() {
+        UserDto savedOwner = userService.create(owner);
+        UserDto savedBooker = userService.create(booker);
+        ItemDto savedItem = itemService.create(itemIncomingDto, savedOwner.getId());
+        bookingService.create(savedBooker.getId(), BookingIncomingDto.builder()
+                .itemId(savedItem.getId())
+                .start(start)
+                .end(end)
+                .build());
+        reloadBookingIntervalIndex();
+
+        assertFalse(itemService.checkAvailability(savedItem.getId(), start.minusMinutes(1), start.plusMinutes(1))
+                .getAvailable());
+        assertTrue(itemService.checkAvailability(savedItem.getId(), end.plusMinutes(1), end.plusHours(1))
+                .getAvailable());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> itemService.checkAvailability(UNKNOWN_ID, start, end));
+        assertEquals(exceptionMessageNotItem + UNKNOWN_ID, exception.getMessage());
+    }
+
+    /* Транзакция теста не фиксируется, поэтому индекс бронирований перечитывается явно */
+    private void reloadBookingIntervalIndex() {
+        em.flush();
+        bookingIntervalIndex.afterSingletonsInstantiated();
+    }
 }
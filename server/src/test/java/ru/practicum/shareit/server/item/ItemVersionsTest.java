@@ -0,0 +1,47 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemVersionsTest {
+
+    ItemVersions versions = new ItemVersions();
+
+    User owner = User.builder().id(1L).build();
+    User otherOwner = User.builder().id(2L).build();
+
+    @Test
+    void advance_whenVersionNotNewer_thenFalse() {
+        Item item = Item.builder().id(1L).owner(owner).version(1L).build();
+
+        assertTrue(versions.advance(item));
+        assertFalse(versions.advance(item));
+        assertFalse(versions.advance(item.toBuilder().version(0L).build()));
+        assertTrue(versions.advance(item.toBuilder().version(2L).build()));
+        assertTrue(versions.advance(Item.builder().id(2L).owner(owner).version(0L).build()));
+    }
+
+    @Test
+    void advance_whenNoVersion_thenAlwaysApplied() {
+        Item item = Item.builder().id(1L).build();
+
+        assertTrue(versions.advance(item));
+        assertTrue(versions.advance(item));
+    }
+
+    @Test
+    void removeAllByOwnerId_thenOnlyOwnerVersionsForgotten() {
+        Item item = Item.builder().id(1L).owner(owner).version(2L).build();
+        Item otherItem = Item.builder().id(2L).owner(otherOwner).version(2L).build();
+        versions.advance(item);
+        versions.advance(otherItem);
+
+        versions.removeAllByOwnerId(owner.getId());
+
+        assertTrue(versions.advance(item.toBuilder().version(1L).build()));
+        assertFalse(versions.advance(otherItem.toBuilder().version(1L).build()));
+    }
+}
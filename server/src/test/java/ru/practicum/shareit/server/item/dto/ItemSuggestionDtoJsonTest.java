@@ -0,0 +1,32 @@
+package ru.practicum.shareit.server.item.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.boot.test.json.JacksonTester;
+import org.springframework.boot.test.json.JsonContent;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+class ItemSuggestionDtoJsonTest {
+
+    @Autowired
+    private JacksonTester<ItemSuggestionDto> json;
+
+    @Test
+    void serialization() throws IOException {
+        ItemSuggestionDto suggestionDto = ItemSuggestionDto.builder()
+                .text("Дрель")
+                .itemIds(List.of(1L, 7L))
+                .build();
+
+        JsonContent<ItemSuggestionDto> result = json.write(suggestionDto);
+
+        assertThat(result).extractingJsonPathStringValue("$.text").isEqualTo("Дрель");
+        assertThat(result).extractingJsonPathArrayValue("$.itemIds").isEqualTo(List.of(1, 7));
+    }
+}
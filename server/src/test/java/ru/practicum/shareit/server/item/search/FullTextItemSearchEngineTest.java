@@ -0,0 +1,132 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FullTextItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private FullTextItemSearchEngine searchEngine;
+
+    User owner = User.builder().id(1L).name("TestName").email("test@test.com").build();
+    Item item = Item.builder()
+            .id(1L)
+            .name("Дрель")
+            .description("Аккумуляторная дрель")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    Pageable pageable = PageRequest.of(1, 10, DEFAULT_PAGINATION_SORT);
+    Pageable unsortedPageable = PageRequest.of(1, 10);
+
+    @Test
+    void findAvailableByText_thenPrefixQueryUsedWithoutSort() {
+        when(itemRepository.findAvailableByFullText("аккум:* & дрел:*", unsortedPageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(item), unsortedPageable, true));
+
+        Slice<ItemDto> result = searchEngine.findAvailableByText("Аккум, дРел!", pageable);
+
+        assertEquals(1, result.getNumberOfElements());
+        assertTrue(result.hasNext());
+        assertEquals(item.getId(), result.getContent().get(0).getId());
+        verify(itemRepository, times(1)).findAvailableByFullText("аккум:* & дрел:*", unsortedPageable);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void findAvailableByText_whenTextHasNoWords_thenEmptyPageWithoutQuery() {
+        Slice<ItemDto> result = searchEngine.findAvailableByText("&|!:* ", pageable);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getNumberOfElements());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void findAvailableByTextWithCursor_thenSeekByRankAndKeepRankOrder() {
+        ItemDto firstItem = ItemMapper.toItemDto(item);
+        ItemDto secondItem = ItemMapper.toItemDto(item.toBuilder().id(2L).build());
+        ItemDto thirdItem = ItemMapper.toItemDto(item.toBuilder().id(3L).build());
+        when(itemRepository.findAvailableRanksByFullText(anyString(), anyFloat(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(rank(2L, 0.5f), rank(1L, 0.25f), rank(3L, 0.125f)));
+        when(itemRepository.findAllItemDtoByIdIn(List.of(2L, 1L, 3L)))
+                .thenReturn(List.of(firstItem, secondItem, thirdItem));
+
+        CursorPage<ItemDto> firstPage = searchEngine.findAvailableByText("дрел", null, 2);
+        searchEngine.findAvailableByText("дрел", Cursor.decode(firstPage.getNextCursor()), 2);
+
+        assertEquals(List.of(2L, 1L), firstPage.getContent().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        verify(itemRepository, times(1))
+                .findAvailableRanksByFullText("дрел:*", Float.MAX_VALUE, 0, PageRequest.of(0, 3));
+        verify(itemRepository, times(1))
+                .findAvailableRanksByFullText("дрел:*", 0.25f, 1L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void countAvailableByText_thenCountedByPrefixQuery() {
+        when(itemRepository.countAvailableByFullText("аккум:* & дрел:*")).thenReturn(11L);
+
+        assertEquals(11, searchEngine.countAvailableByText("Аккум, дРел!"));
+        assertEquals(0, searchEngine.countAvailableByText("&|!:* "));
+        verify(itemRepository, times(1)).countAvailableByFullText("аккум:* & дрел:*");
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void findAvailableByTextWithCursor_whenTextHasNoWords_thenEmptyPageWithoutQuery() {
+        CursorPage<ItemDto> result = searchEngine.findAvailableByText("&|!:* ", null, 10);
+
+        assertTrue(result.getContent().isEmpty());
+        assertNull(result.getNextCursor());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private static ItemRepository.ItemRank rank(long id, float rank) {
+        return new ItemRepository.ItemRank() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+        };
+    }
+
+    @Test
+    void toPrefixTsQuery_thenOperatorsStripped() {
+        assertEquals("a:* & b2:* & в:*", FullTextItemSearchEngine.toPrefixTsQuery(" A'|B2 & (в) "));
+        assertEquals("", FullTextItemSearchEngine.toPrefixTsQuery("!"));
+    }
+}
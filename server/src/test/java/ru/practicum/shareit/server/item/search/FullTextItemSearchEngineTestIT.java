@@ -0,0 +1,101 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.server.db.PostgresContainerTest;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Поиск по tsvector и GIN-индексу на настоящем PostgreSQL: тот же контракт, что у остальных движков */
+class FullTextItemSearchEngineTestIT extends PostgresContainerTest {
+    private static final int ITEMS_COUNT = 7;
+
+    @Autowired
+    private FullTextItemSearchEngine searchEngine;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.create(UserDto.builder().name("Owner").email("owner@test.com").build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.delete(ownerId);
+    }
+
+    @Test
+    void findAvailableByText_thenAllWordPrefixesMatchedIgnoringCase() {
+        long drillId = createItem("Дрель ударная", "Аккумуляторная дрель", true);
+        createItem("Дрель", "Сетевая", true);
+        createItem("Аккумуляторная дрель", "Сломана", false);
+
+        List<ItemDto> found = searchEngine.findAvailableByText("аККум ДРЕ", PageRequest.of(0, 10)).getContent();
+
+        assertEquals(List.of(drillId), ids(found));
+        assertEquals(1, searchEngine.countAvailableByText("аККум ДРЕ"));
+    }
+
+    @Test
+    void findAvailableByText_whenNameAndDescriptionMatch_thenNameMatchRankedFirst() {
+        long descriptionMatchId = createItem("Инструмент", "Отвёртка крестовая", true);
+        long nameMatchId = createItem("Отвёртка", "Инструмент", true);
+
+        List<ItemDto> found = searchEngine.findAvailableByText("отвёрт", PageRequest.of(0, 10)).getContent();
+
+        assertEquals(List.of(nameMatchId, descriptionMatchId), ids(found));
+    }
+
+    @Test
+    void findAvailableByTextWithCursor_thenPagesFollowRankOrderWithoutGapsAndDuplicates() {
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            createItem(i % 2 == 0 ? "Пила " + i : "Ножовка " + i, i % 3 == 0 ? "Пила по дереву" : "Ручная", true);
+        }
+        List<Long> expected = ids(searchEngine.findAvailableByText("пила", PageRequest.of(0, ITEMS_COUNT))
+                .getContent());
+
+        List<Long> paged = new ArrayList<>();
+        Cursor cursor = null;
+        do {
+            CursorPage<ItemDto> page = searchEngine.findAvailableByText("пила", cursor, 2);
+            paged.addAll(ids(page.getContent()));
+            cursor = Cursor.decode(page.getNextCursor());
+        } while (cursor != null);
+
+        assertEquals(expected.size(), searchEngine.countAvailableByText("пила"));
+        assertEquals(expected, paged);
+    }
+
+    private long createItem(String name, String description, boolean available) {
+        return itemService.create(ItemIncomingDto.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build(), ownerId).getId();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
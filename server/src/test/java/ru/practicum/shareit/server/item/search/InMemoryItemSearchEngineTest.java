@@ -0,0 +1,250 @@
+package ru.practicum.shareit.server.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @TempDir
+    Path directory;
+
+    User owner = User.builder().id(1L).name("OwnerName").email("owner@test.com").build();
+    Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).owner(owner).build();
+    Item saw = Item.builder().id(2L).name("Пила").description("Ручная пила").available(true).owner(owner).build();
+    Item hammer = Item.builder().id(3L).name("Молоток").description("Большой").available(true).owner(owner).build();
+    Pageable pageable = PageRequest.of(0, 10, DEFAULT_PAGINATION_SORT);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void build_thenLoadedInChunksByLastId() {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(drill, saw));
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(hammer));
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 2, "");
+
+        engine.build();
+
+        assertEquals(3, engine.size());
+        assertEquals(1, engine.findAvailableByText("молот", pageable).getNumberOfElements());
+        verify(itemRepository, times(1)).findAllByAvailableTrueAndIdGreaterThan(0L, PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT));
+        verify(itemRepository, times(1)).findAllByAvailableTrueAndIdGreaterThan(2L, PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT));
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void index_whenNoTransaction_thenAppliedImmediately() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+
+        engine.index(drill);
+
+        assertEquals(1, engine.findAvailableByText("дрель", pageable).getNumberOfElements());
+        assertEquals(1, engine.countAvailableByText("дрель"));
+    }
+
+    @Test
+    void findAvailableByTextWithCursor_thenPagesFollowEachOther() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        engine.index(drill);
+        engine.index(saw);
+        engine.index(hammer);
+
+        CursorPage<ItemDto> firstPage = engine.findAvailableByText("л", null, 2);
+        CursorPage<ItemDto> secondPage = engine.findAvailableByText("л", Cursor.decode(firstPage.getNextCursor()), 2);
+
+        assertEquals(List.of(1L, 2L), firstPage.getContent().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(3L), secondPage.getContent().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void index_whenTransactionActive_thenAppliedOnlyAfterCommit() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        TransactionSynchronizationManager.initSynchronization();
+
+        engine.index(drill);
+
+        assertEquals(0, engine.findAvailableByText("дрель", pageable).getNumberOfElements());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, engine.findAvailableByText("дрель", pageable).getNumberOfElements());
+    }
+
+    @Test
+    void index_whenCallbacksOfTwoCommitsReordered_thenNewerVersionKept() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        TransactionSynchronizationManager.initSynchronization();
+        engine.index(drill.toBuilder().name("Перфоратор").version(1L).build());
+        engine.index(drill.toBuilder().name("Шуруповёрт").version(2L).build());
+        List<TransactionSynchronization> callbacks = TransactionSynchronizationManager.getSynchronizations();
+
+        callbacks.get(1).afterCommit();
+        callbacks.get(0).afterCommit();
+
+        assertEquals(1, engine.countAvailableByText("шуруп"));
+        assertEquals(0, engine.countAvailableByText("перфо"));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenNotApplied() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        TransactionSynchronizationManager.initSynchronization();
+
+        engine.index(drill);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, engine.findAvailableByText("дрель", pageable).getNumberOfElements());
+    }
+
+    @Test
+    void removeAllByOwnerId_thenOwnerItemsRemoved() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        engine.index(drill);
+        engine.index(saw);
+
+        engine.removeAllByOwnerId(owner.getId());
+
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void bindTo_thenMemoryAndSizeGaugesRegistered() {
+        InMemoryItemSearchEngine engine = emptyEngine();
+        engine.index(drill);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        engine.bindTo(registry);
+
+        assertEquals(1, registry.get("shareit.item.search.index.items").gauge().value());
+        assertEquals(engine.memoryFootprintBytes(),
+                registry.get("shareit.item.search.index.memory").gauge().value());
+    }
+
+    @Test
+    void build_whenStoredIndexMatchesDatabase_thenRestoredWithoutLoadingItems() throws Exception {
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(drill, saw));
+        engine.build();
+        engine.index(hammer);
+        engine.close();
+        when(itemRepository.countByAvailableTrue()).thenReturn(3L);
+        when(itemRepository.findMaxAvailableId()).thenReturn(3L);
+        clearInvocations(itemRepository);
+
+        InMemoryItemSearchEngine restored = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        restored.build();
+
+        assertEquals(3, restored.size());
+        assertEquals(1, restored.findAvailableByText("молот", pageable).getNumberOfElements());
+        verify(itemRepository, never()).findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class));
+        restored.close();
+    }
+
+    @Test
+    void build_whenStoredIndexDiffersFromDatabase_thenRebuilt() throws Exception {
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(drill, saw));
+        engine.build();
+        engine.close();
+        when(itemRepository.countByAvailableTrue()).thenReturn(1L);
+        when(itemRepository.findMaxAvailableId()).thenReturn(3L);
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(hammer));
+
+        InMemoryItemSearchEngine rebuilt = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        rebuilt.build();
+
+        assertEquals(1, rebuilt.size());
+        assertEquals(0, rebuilt.findAvailableByText("дрель", pageable).getNumberOfElements());
+        rebuilt.close();
+    }
+
+    @Test
+    void build_whenPreviousRunNotClosed_thenRebuiltEvenIfSizesMatch() throws Exception {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(drill, saw))
+                .thenReturn(List.of(drill, saw, hammer));
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        engine.build();
+        engine.close();
+        when(itemRepository.countByAvailableTrue()).thenReturn(2L);
+        when(itemRepository.findMaxAvailableId()).thenReturn(2L);
+        InMemoryItemSearchEngine crashed = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        crashed.build();
+        crashed.index(hammer);
+
+        InMemoryItemSearchEngine rebuilt = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        rebuilt.build();
+
+        assertEquals(3, rebuilt.size());
+        verify(itemRepository, times(2)).findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void close_thenOnlyLatestSegmentAndCleanShutdownMarkerKept() throws Exception {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(drill));
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        engine.build();
+        engine.close();
+        when(itemRepository.countByAvailableTrue()).thenReturn(1L);
+        when(itemRepository.findMaxAvailableId()).thenReturn(1L);
+        InMemoryItemSearchEngine restored = new InMemoryItemSearchEngine(itemRepository, 100, directory.toString());
+        restored.build();
+
+        restored.close();
+
+        assertTrue(Files.exists(directory.resolve("segment-2.seg")));
+        assertTrue(Files.exists(directory.resolve("clean-shutdown")));
+        assertFalse(Files.exists(directory.resolve("segment-1.seg")));
+    }
+
+    private InMemoryItemSearchEngine emptyEngine() {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, 100, "");
+        engine.build();
+        return engine;
+    }
+}
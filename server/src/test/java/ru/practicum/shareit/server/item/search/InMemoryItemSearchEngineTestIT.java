@@ -0,0 +1,66 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@SpringBootTest(properties = ItemSearchEngine.ENGINE_PROPERTY + "=in-memory")
+class InMemoryItemSearchEngineTestIT {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    UserDto owner = UserDto.builder().name("OwnerName").email("owner@search.com").build();
+    ItemIncomingDto itemIncomingDto = ItemIncomingDto.builder()
+            .name("Дрель")
+            .description("Аккумуляторная дрель")
+            .available(true)
+            .build();
+    Pageable pageable = PageRequest.of(0, 10, DEFAULT_PAGINATION_SORT);
+    UserDto savedOwner;
+
+    @AfterEach
+    void deleteOwner() {
+        if (savedOwner != null) {
+            userService.delete(savedOwner.getId());
+        }
+    }
+
+    @Test
+    void findAvailableByText_whenItemCreatedAndUpdated_thenIndexFollowsCommits() {
+        assertInstanceOf(InMemoryItemSearchEngine.class, itemSearchEngine);
+        savedOwner = userService.create(owner);
+        ItemDto savedItem = itemService.create(itemIncomingDto, savedOwner.getId());
+
+        assertEquals(1, itemService.findAvailableByText("уЛЯтор", pageable).getNumberOfElements());
+        assertEquals(1, itemService.suggest("дре", 10).size());
+
+        itemService.update(ItemIncomingDto.builder().available(false).build(), savedItem.getId(), savedOwner.getId());
+        assertEquals(0, itemService.findAvailableByText("дрель", pageable).getNumberOfElements());
+
+        itemService.update(ItemIncomingDto.builder().available(true).build(), savedItem.getId(), savedOwner.getId());
+        assertEquals(1, itemService.findAvailableByText("дрель", pageable).getNumberOfElements());
+
+        userService.delete(savedOwner.getId());
+        savedOwner = null;
+        assertEquals(0, itemService.findAvailableByText("дрель", pageable).getNumberOfElements());
+        assertEquals(0, itemService.suggest("дре", 10).size());
+    }
+}
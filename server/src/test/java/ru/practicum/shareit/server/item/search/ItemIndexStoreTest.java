@@ -0,0 +1,91 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+class ItemIndexStoreTest {
+    @TempDir
+    Path directory;
+
+    User owner = User.builder().id(1L).name("OwnerName").email("owner@test.com").build();
+    Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).owner(owner).build();
+    Item saw = Item.builder().id(2L).name("Пила").description("Ручная пила").available(true)
+            .requestId(5L).owner(owner).build();
+    Pageable pageable = PageRequest.of(0, 10, DEFAULT_PAGINATION_SORT);
+
+    @Test
+    void restore_whenDirectoryEmpty_thenNothingRestored() throws IOException {
+        assertTrue(new ItemIndexStore(directory).restore().isEmpty());
+    }
+
+    @Test
+    void restore_whenCheckpointedAndMarkedClean_thenSegmentMapped() throws IOException {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.upsert(drill);
+        index.upsert(saw);
+        ItemIndexStore store = new ItemIndexStore(directory);
+        store.checkpoint(ItemIndexStore.snapshot(index));
+        store.markCleanShutdown();
+
+        ItemTrigramIndex restored = new ItemIndexStore(directory).restore().orElseThrow();
+
+        assertEquals(2, restored.size());
+        assertEquals(1, restored.search("дрель", pageable).getTotalElements());
+        assertEquals(5L, restored.search("пила", pageable).getContent().get(0).getRequestId());
+    }
+
+    @Test
+    void restore_whenPreviousRunNotMarkedClean_thenNothingRestored() throws IOException {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.upsert(drill);
+        ItemIndexStore store = new ItemIndexStore(directory);
+        store.checkpoint(ItemIndexStore.snapshot(index));
+        store.markCleanShutdown();
+
+        assertEquals(1, new ItemIndexStore(directory).restore().orElseThrow().size());
+        assertFalse(Files.exists(directory.resolve("clean-shutdown")));
+        assertTrue(new ItemIndexStore(directory).restore().isEmpty());
+    }
+
+    @Test
+    void restore_whenSegmentHasUnknownFormat_thenNothingRestored() throws IOException {
+        Files.write(directory.resolve("segment-3.seg"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        Files.write(directory.resolve("segment-4.seg"), new byte[]{1});
+
+        assertTrue(new ItemIndexStore(directory).restore().isEmpty());
+    }
+
+    @Test
+    void checkpoint_thenPreviousGenerationsDeleted() throws IOException {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.upsert(drill);
+        ItemIndexStore store = new ItemIndexStore(directory);
+        store.checkpoint(ItemIndexStore.snapshot(index));
+        index.upsert(saw);
+        store.checkpoint(ItemIndexStore.snapshot(index));
+        store.markCleanShutdown();
+
+        assertEquals(List.of("clean-shutdown", "segment-2.seg"), fileNames());
+        assertEquals(2, new ItemIndexStore(directory).restore().orElseThrow().size());
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
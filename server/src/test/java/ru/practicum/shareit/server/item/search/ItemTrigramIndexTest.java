@@ -0,0 +1,185 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+class ItemTrigramIndexTest {
+    private final ItemTrigramIndex index = new ItemTrigramIndex();
+
+    User owner = User.builder().id(1L).name("OwnerName").email("owner@test.com").build();
+    User otherOwner = User.builder().id(2L).name("OtherName").email("other@test.com").build();
+    Pageable pageable = PageRequest.of(0, 10, DEFAULT_PAGINATION_SORT);
+
+    @Test
+    void search_whenSubstringOfNameOrDescription_thenFoundIgnoringCase() {
+        index.upsert(item(2L, owner, "Отвертка", "Аккумуляторная отвертка", true));
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", true));
+        index.upsert(item(3L, owner, "Пила", "Ручная", true));
+
+        assertEquals(List.of(2L), ids(index.search("оТверТ", pageable)));
+        assertEquals(List.of(1L), ids(index.search("дРелЬ", pageable)));
+        assertEquals(List.of(2L), ids(index.search("КУМУЛ", pageable)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("а", pageable)));
+        assertEquals(List.of(), ids(index.search("молоток", pageable)));
+        assertEquals(List.of(), ids(index.search("дрелка", pageable)));
+    }
+
+    @Test
+    void search_whenPageRequested_thenSlicedByIdWithTotal() {
+        for (long id = 10; id > 0; id--) {
+            index.upsert(item(id, owner, "Item" + id, "Description", true));
+        }
+
+        Page<ItemDto> page = index.search("item", PageRequest.of(1, 3, DEFAULT_PAGINATION_SORT));
+
+        assertEquals(List.of(4L, 5L, 6L), ids(page));
+        assertEquals(10, page.getTotalElements());
+        assertTrue(page.getContent().get(0).getAvailable());
+        assertEquals(10, index.count("item"));
+        assertEquals(1, index.count("item10"));
+    }
+
+    @Test
+    void searchAfter_thenSlicedAfterGivenIdEvenIfItWasRemoved() {
+        for (long id = 10; id > 0; id--) {
+            index.upsert(item(id, owner, "Item" + id, "Description", true));
+        }
+        index.upsert(item(4L, owner, "Item4", "Description", false));
+
+        assertEquals(List.of(1L, 2L, 3L), idsOf(index.searchAfter("item", 0, 3)));
+        assertEquals(List.of(5L, 6L, 7L), idsOf(index.searchAfter("item", 3, 3)));
+        assertEquals(List.of(5L, 6L), idsOf(index.searchAfter("item", 4, 2)));
+        assertEquals(List.of(), idsOf(index.searchAfter("item", 10, 3)));
+    }
+
+    @Test
+    void upsert_whenItemChanged_thenOldVersionNotFound() {
+        Item item = item(1L, owner, "Дрель", "Простая дрель", true);
+        item.setRequestId(7L);
+        index.upsert(item);
+        index.upsert(item(1L, owner, "Пила", "Ручная", true));
+
+        assertEquals(List.of(), ids(index.search("дрель", pageable)));
+        Page<ItemDto> page = index.search("пил", pageable);
+        assertEquals(List.of(1L), ids(page));
+        assertNull(page.getContent().get(0).getRequestId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void upsert_whenAvailableFlipped_thenRemovedAndRestored() {
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", true));
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", false));
+
+        assertEquals(List.of(), ids(index.search("дрель", pageable)));
+        assertEquals(0, index.size());
+
+        Item item = item(1L, owner, "Дрель", "Простая дрель", true);
+        item.setRequestId(7L);
+        index.upsert(item);
+
+        Page<ItemDto> page = index.search("дрель", pageable);
+        assertEquals(List.of(1L), ids(page));
+        assertEquals(7L, page.getContent().get(0).getRequestId());
+    }
+
+    @Test
+    void removeAllByOwnerId_thenOnlyOwnerItemsRemoved() {
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", true));
+        index.upsert(item(2L, otherOwner, "Дрель", "Ударная дрель", true));
+
+        index.removeAllByOwnerId(owner.getId());
+
+        assertEquals(List.of(2L), ids(index.search("дрель", pageable)));
+    }
+
+    @Test
+    void removeAllByOwnerId_whenEnoughItemsToCompact_thenAllOwnerItemsRemoved() {
+        for (long id = 1; id <= 3000; id++) {
+            index.upsert(item(id, id % 30 == 0 ? otherOwner : owner, "Дрель " + id, "Описание", true));
+        }
+
+        index.removeAllByOwnerId(owner.getId());
+
+        assertEquals(100, index.size());
+        assertEquals(100, index.count("дрель"));
+        assertEquals(List.of(30L, 60L), idsOf(index.searchAfter("дрель", 0, 2)));
+        assertEquals(List.of(), ids(index.search("дрель 2999", pageable)));
+    }
+
+    @Test
+    void upsert_whenManyUpdates_thenCompactedAndSearchStillCorrect() {
+        for (int version = 0; version < 3000; version++) {
+            index.upsert(item(1L, owner, "Дрель " + version, "Описание", true));
+            index.upsert(item(2L, owner, "Пила " + version, "Описание", true));
+        }
+
+        assertEquals(List.of(1L), ids(index.search("дрель 2999", pageable)));
+        assertEquals(List.of(1L, 2L), ids(index.search("писан", pageable)));
+        assertEquals(2, index.size());
+        assertTrue(index.memoryFootprintBytes() < 200_000);
+    }
+
+    @Test
+    void memoryFootprintBytes_whenItemsAdded_thenGrows() {
+        long empty = index.memoryFootprintBytes();
+
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", true));
+
+        assertTrue(index.memoryFootprintBytes() > empty);
+    }
+
+    @Test
+    void writeToAndReadFrom_thenOnlyLiveVersionsRestored() throws IOException {
+        index.upsert(item(1L, owner, "Дрель", "Простая дрель", true));
+        index.upsert(item(2L, otherOwner, "Пила", "Ручная пила", true));
+        index.upsert(item(1L, owner, "Дрель ударная", "Мощная дрель", true));
+        index.upsert(item(2L, otherOwner, "Пила", "Ручная пила", false));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        index.writeTo(new DataOutputStream(bytes));
+        ItemTrigramIndex restored = ItemTrigramIndex.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertEquals(1, restored.size());
+        assertEquals(1L, restored.maxItemId());
+        assertEquals(List.of(1L), ids(restored.search("ударн", pageable)));
+        assertEquals(List.of(), ids(restored.search("пила", pageable)));
+        restored.upsert(item(3L, owner, "Ударный молоток", "Молоток", true));
+        assertEquals(List.of(1L, 3L), ids(restored.search("ударн", pageable)));
+        restored.removeAllByOwnerId(owner.getId());
+        assertEquals(0, restored.size());
+    }
+
+    private static Item item(long id, User owner, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private static List<Long> idsOf(List<ItemDto> itemDtos) {
+        return itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(Page<ItemDto> page) {
+        return page.getContent().stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemMapper;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LikeItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private LikeItemSearchEngine searchEngine;
+
+    User owner = User.builder().id(1L).name("TestName").email("test@test.com").build();
+    Item item = Item.builder()
+            .id(1L)
+            .name("Дрель")
+            .description("Аккумуляторная дрель")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    Pageable pageable = PageRequest.of(0, 10, DEFAULT_PAGINATION_SORT);
+
+    @Test
+    void findAvailableByText_thenDelegatedToLikeQuery() {
+        when(itemRepository.findAvailableByText("дРелЬ", pageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(ItemMapper.toItemDto(item)), pageable, false));
+
+        Slice<ItemDto> result = searchEngine.findAvailableByText("дРелЬ", pageable);
+
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(item.getId(), result.getContent().get(0).getId());
+        assertEquals(item.getName(), result.getContent().get(0).getName());
+        verify(itemRepository, times(1)).findAvailableByText("дРелЬ", pageable);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void countAvailableByText_thenDelegatedToLikeCountQuery() {
+        when(itemRepository.countAvailableByText("дРелЬ")).thenReturn(2L);
+
+        assertEquals(2, searchEngine.countAvailableByText("дРелЬ"));
+        verify(itemRepository, times(1)).countAvailableByText("дРелЬ");
+    }
+
+    @Test
+    void findAvailableByTextWithCursor_thenSeekAfterCursorId() {
+        Item nextItem = item.toBuilder().id(2L).build();
+        when(itemRepository.findAvailableByTextAndIdGreaterThan(anyString(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(ItemMapper.toItemDto(item), ItemMapper.toItemDto(nextItem)));
+
+        CursorPage<ItemDto> firstPage = searchEngine.findAvailableByText("дРелЬ", null, 1);
+        searchEngine.findAvailableByText("дРелЬ", Cursor.decode(firstPage.getNextCursor()), 1);
+
+        assertEquals(1, firstPage.getContent().size());
+        assertEquals(item.getId(), firstPage.getContent().get(0).getId());
+        verify(itemRepository, times(1)).findAvailableByTextAndIdGreaterThan("дРелЬ", 0, PageRequest.of(0, 2));
+        verify(itemRepository, times(1))
+                .findAvailableByTextAndIdGreaterThan("дРелЬ", item.getId(), PageRequest.of(0, 2));
+    }
+
+    @Test
+    void indexAndRemoveAllByOwnerId_thenNothingToMaintain() {
+        searchEngine.index(item);
+        searchEngine.removeAllByOwnerId(owner.getId());
+
+        verifyNoInteractions(itemRepository);
+    }
+}
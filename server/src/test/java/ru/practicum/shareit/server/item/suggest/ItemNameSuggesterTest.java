@@ -0,0 +1,128 @@
+package ru.practicum.shareit.server.item.suggest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ItemNameSuggesterTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    User owner = User.builder().id(1L).name("OwnerName").email("owner@test.com").build();
+    User otherOwner = User.builder().id(2L).name("OtherName").email("other@test.com").build();
+    Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).owner(owner).build();
+    Item saw = Item.builder().id(2L).name("Пила").description("Ручная пила").available(true).owner(otherOwner).build();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void afterSingletonsInstantiated_thenBuiltInChunks() {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(drill));
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(saw));
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository, 1);
+
+        suggester.afterSingletonsInstantiated();
+
+        assertEquals(1, suggester.suggest("пи", 10).size());
+        verify(itemRepository, times(1))
+                .findAllByAvailableTrueAndIdGreaterThan(2L, PageRequest.of(0, 1, DEFAULT_PAGINATION_SORT));
+    }
+
+    @Test
+    void index_whenItemRenamedOrUnavailable_thenOldNameRemoved() {
+        ItemNameSuggester suggester = emptySuggester();
+        suggester.index(drill);
+
+        suggester.index(Item.builder().id(1L).name("Перфоратор").description("D").available(true).owner(owner).build());
+        assertEquals(0, suggester.suggest("дре", 10).size());
+        assertEquals(List.of(1L), suggester.suggest("перф", 10).get(0).getItemIds());
+
+        suggester.index(Item.builder().id(1L).name("Перфоратор").description("D").available(false).owner(owner).build());
+        assertEquals(0, suggester.suggest("перф", 10).size());
+    }
+
+    @Test
+    void index_whenTransactionActive_thenAppliedOnlyAfterCommit() {
+        ItemNameSuggester suggester = emptySuggester();
+        TransactionSynchronizationManager.initSynchronization();
+
+        suggester.index(drill);
+
+        assertEquals(0, suggester.suggest("дре", 10).size());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, suggester.suggest("дре", 10).size());
+    }
+
+    @Test
+    void index_whenOlderVersionArrivesLater_thenIgnored() {
+        ItemNameSuggester suggester = emptySuggester();
+
+        suggester.index(drill.toBuilder().name("Шуруповёрт").version(2L).build());
+        suggester.index(drill.toBuilder().name("Перфоратор").version(1L).build());
+
+        assertEquals(1, suggester.suggest("шуруп", 10).size());
+        assertEquals(0, suggester.suggest("перф", 10).size());
+    }
+
+    @Test
+    void removeAllByOwnerId_thenOnlyOwnerItemsRemoved() {
+        ItemNameSuggester suggester = emptySuggester();
+        suggester.index(drill);
+        suggester.index(saw);
+
+        suggester.removeAllByOwnerId(owner.getId());
+
+        assertEquals(0, suggester.suggest("дре", 10).size());
+        assertEquals(1, suggester.suggest("пи", 10).size());
+    }
+
+    @Test
+    void suggest_whenLimitAboveMax_thenMaxUsed() {
+        ItemNameSuggester suggester = emptySuggester();
+        for (long id = 1; id <= 12; id++) {
+            suggester.index(Item.builder().id(id).name("Лом " + id).description("D").available(true).owner(owner).build());
+        }
+
+        assertEquals(ItemNameSuggester.MAX_SUGGESTIONS, suggester.suggest("лом", 100).size());
+        assertEquals(2, suggester.suggest("лом", 2).size());
+    }
+
+    private ItemNameSuggester emptySuggester() {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository, 100);
+        suggester.afterSingletonsInstantiated();
+        return suggester;
+    }
+}
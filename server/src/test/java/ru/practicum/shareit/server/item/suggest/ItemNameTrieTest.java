@@ -0,0 +1,88 @@
+package ru.practicum.shareit.server.item.suggest;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemNameTrieTest {
+    private final ItemNameTrie trie = new ItemNameTrie(3);
+
+    @Test
+    void suggest_whenPrefixMatches_thenRankedByItemCountThenByName() {
+        trie.add("Дрель ударная", 1L);
+        trie.add("Дрель", 2L);
+        trie.add("дрель", 3L);
+        trie.add("Дрезина", 4L);
+        trie.add("Пила", 5L);
+
+        assertEquals(List.of("Дрель", "Дрезина", "Дрель ударная"), texts(trie.suggest("ДР", 10)));
+        assertEquals(List.of("Дрель", "Дрель ударная"), texts(trie.suggest("дрель", 10)));
+        assertEquals(List.of("Дрель ударная"), texts(trie.suggest("  дрель   уд", 10)));
+        assertEquals(List.of(2L, 3L), trie.suggest("дрель", 1).get(0).getItemIds());
+        assertEquals(List.of("Дрель", "Дрезина", "Дрель ударная"), texts(trie.suggest("", 10)));
+        assertEquals(List.of(), texts(trie.suggest("дрели", 10)));
+        assertEquals(List.of(), texts(trie.suggest("молоток", 10)));
+        assertEquals(List.of("Пила"), texts(trie.suggest("п", 10)));
+    }
+
+    @Test
+    void suggest_whenManyItemsWithSameName_thenOnlyTopItemIdsCarried() {
+        for (long id = 10; id > 0; id--) {
+            trie.add("Пила", id);
+        }
+
+        ItemSuggestionDto suggestion = trie.suggest("пи", 1).get(0);
+
+        assertEquals(List.of(1L, 2L, 3L), suggestion.getItemIds());
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void suggest_whenMoreNamesThanTopK_thenLimitedByTopK() {
+        trie.add("Лопата", 1L);
+        trie.add("Лодка", 2L);
+        trie.add("Лом", 3L);
+        trie.add("Лобзик", 4L);
+
+        assertEquals(List.of("Лобзик", "Лодка", "Лом"), texts(trie.suggest("ло", 10)));
+        assertEquals(List.of("Лобзик", "Лодка"), texts(trie.suggest("ло", 2)));
+    }
+
+    @Test
+    void remove_thenTopRecalculatedAndBranchesMerged() {
+        trie.add("Дрель", 1L);
+        trie.add("Дрель", 2L);
+        trie.add("Дрезина", 3L);
+        trie.add("Дрезина ручная", 4L);
+
+        trie.remove("Дрель", 1L);
+        assertEquals(List.of(2L), trie.suggest("дрель", 10).get(0).getItemIds());
+
+        trie.remove("Дрезина", 3L);
+        trie.remove("Дрель", 2L);
+        assertEquals(List.of("Дрезина ручная"), texts(trie.suggest("д", 10)));
+        assertEquals(List.of("Дрезина ручная"), texts(trie.suggest("дрезина р", 10)));
+        assertEquals(1, trie.size());
+
+        trie.remove("Дрезина ручная", 4L);
+        trie.remove("Дрезина ручная", 4L);
+        trie.remove("Молоток", 5L);
+        assertEquals(List.of(), texts(trie.suggest("", 10)));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void add_whenNameIsBlank_thenIgnored() {
+        trie.add("   ", 1L);
+
+        assertEquals(0, trie.size());
+    }
+
+    private static List<String> texts(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream().map(ItemSuggestionDto::getText).collect(Collectors.toList());
+    }
+}
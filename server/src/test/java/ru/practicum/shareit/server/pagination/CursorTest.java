@@ -0,0 +1,57 @@
+package ru.practicum.shareit.server.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.exception.InvalidConditionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void decode_whenEncodedCursor_thenReturnedSameKeyAndId() {
+        LocalDateTime start = LocalDateTime.of(2022, 9, 1, 12, 30, 15, 123456000);
+
+        Cursor cursor = Cursor.decode(Cursor.of(start, 42).encode());
+
+        assertEquals(start, cursor.getKeyAsDateTime());
+        assertEquals(42, cursor.getId());
+        assertEquals(0.0607927f, Cursor.decode(Cursor.of(0.0607927f, 7).encode()).getKeyAsFloat());
+        assertEquals("a|b", Cursor.decode(Cursor.of("a|b", 1).encode()).getKey());
+        assertEquals(5, Cursor.decode(Cursor.of(5).encode()).getId());
+    }
+
+    @Test
+    void decode_whenNullOrEmpty_thenReturnedNull() {
+        assertNull(Cursor.decode(null));
+        assertNull(Cursor.decode(""));
+    }
+
+    @Test
+    void decode_whenInvalidToken_thenThrownInvalidConditionException() {
+        assertThrows(InvalidConditionException.class, () -> Cursor.decode("%%%"));
+        assertThrows(InvalidConditionException.class, () -> Cursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(InvalidConditionException.class, () -> Cursor.decode("a2V5fHg"));
+        assertThrows(InvalidConditionException.class, () -> Cursor.of("key", 1).getKeyAsDateTime());
+        assertThrows(InvalidConditionException.class, () -> Cursor.of("key", 1).getKeyAsFloat());
+    }
+
+    @Test
+    void cursorPageOf_whenMoreRowsThanSize_thenReturnedCursorOfLastRowOnPage() {
+        CursorPage<String> page = CursorPage.of(List.of(1L, 2L, 3L), 2, Cursor::of, String::valueOf);
+
+        assertEquals(List.of("1", "2"), page.getContent());
+        assertEquals(2, Cursor.decode(page.getNextCursor()).getId());
+    }
+
+    @Test
+    void cursorPageOf_whenNotMoreRowsThanSize_thenReturnedWithoutNextCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L), 2, Cursor::of, Function.identity());
+
+        assertEquals(List.of(1L, 2L), page.getContent());
+        assertNull(page.getNextCursor());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.server.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotalCountCacheTest {
+
+    @Test
+    void get_whenCountIsFresh_thenCounterNotCalledAgain() {
+        TotalCountCache cache = new TotalCountCache(30, 100);
+        AtomicLong calls = new AtomicLong();
+
+        assertEquals(5, cache.get("key", () -> calls.incrementAndGet() + 4));
+        assertEquals(5, cache.get("key", () -> calls.incrementAndGet() + 4));
+        assertEquals(1, calls.get());
+        assertEquals(7, cache.get("other", () -> 7));
+    }
+
+    @Test
+    void get_whenTtlExpired_thenCountedAgain() {
+        TotalCountCache cache = new TotalCountCache(0, 100);
+
+        assertEquals(1, cache.get("key", () -> 1));
+        assertEquals(2, cache.get("key", () -> 2));
+    }
+
+    @Test
+    void get_whenMaxSizeReached_thenOldEntriesDropped() {
+        TotalCountCache cache = new TotalCountCache(30, 1);
+
+        assertEquals(1, cache.get("first", () -> 1));
+        assertEquals(2, cache.get("second", () -> 2));
+        assertEquals(3, cache.get("first", () -> 3));
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseItemRequestFeedTest {
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private DatabaseItemRequestFeed itemRequestFeed;
+
+    long userId = 1;
+    long requestId = 1;
+    LocalDateTime created = LocalDateTime.now().plusMinutes(5);
+    ItemRequestShortDto requestShortDto = new ItemRequestShortDto(requestId, "TestRequestDescription", created);
+    ItemRequestShortDto olderRequest = new ItemRequestShortDto(requestId + 1, "OlderDescription",
+            created.minusMinutes(1));
+    ItemForItemRequestDto itemDto = ItemForItemRequestDto.builder()
+            .id(1L)
+            .name("TestItemName")
+            .description("ItemDescription")
+            .ownerId(userId)
+            .available(true)
+            .requestId(requestId)
+            .build();
+    ItemRequestDto expectedRequestDto = ItemRequestDto.builder()
+            .id(requestId)
+            .description(requestShortDto.getDescription())
+            .created(created)
+            .items(List.of(itemDto))
+            .build();
+    Pageable pageable = PageRequest.of(0, 10, SORT_CREATED_DESC);
+
+    @Test
+    void findAllByRequesterIdNot_whenPageRequested_thenItemsLoadedOnce() {
+        when(requestRepository.findAllByRequesterIdNot(anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(requestShortDto, olderRequest), pageable, false));
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of(itemDto));
+
+        List<ItemRequestDto> result = itemRequestFeed.findAllByRequesterIdNot(userId, pageable).getContent();
+
+        assertEquals(expectedRequestDto, result.get(0));
+        assertEquals(List.of(), result.get(1).getItems());
+        verify(requestRepository, times(1)).findAllByRequesterIdNot(userId, pageable);
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(requestId, requestId + 1));
+        verifyNoMoreInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void findAllByRequesterIdNot_whenCursorPassed_thenReturnedCursorPage() {
+        when(requestRepository.findAllByRequesterIdNotBefore(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Pageable.class)))
+                .thenReturn(List.of(requestShortDto, olderRequest));
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of(itemDto));
+
+        CursorPage<ItemRequestDto> firstPage = itemRequestFeed.findAllByRequesterIdNot(userId, null, 1);
+        itemRequestFeed.findAllByRequesterIdNot(userId, Cursor.decode(firstPage.getNextCursor()), 1);
+
+        assertEquals(List.of(expectedRequestDto), firstPage.getContent());
+        assertEquals(Cursor.of(created, requestId).encode(), firstPage.getNextCursor());
+        verify(requestRepository, times(1)).findAllByRequesterIdNotBefore(
+                userId, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, PageRequest.of(0, 2));
+        verify(requestRepository, times(1)).findAllByRequesterIdNotBefore(
+                userId, created, requestId, PageRequest.of(0, 2));
+        verify(itemRepository, times(2)).findAllByRequestIdIn(List.of(requestId));
+    }
+
+    @Test
+    void findAllByRequesterIdNot_whenNoRequests_thenItemsNotLoaded() {
+        when(requestRepository.findAllByRequesterIdNotBefore(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(), itemRequestFeed.findAllByRequesterIdNot(userId, null, 1).getContent());
+
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void add_index_removeAllByUserId_thenNothingCached() {
+        itemRequestFeed.add(ItemRequest.builder().id(requestId).build());
+        itemRequestFeed.index(Item.builder().id(1L).requestId(requestId).build());
+        itemRequestFeed.removeAllByUserId(userId);
+
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+}
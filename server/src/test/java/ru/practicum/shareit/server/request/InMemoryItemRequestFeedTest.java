@@ -0,0 +1,148 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InMemoryItemRequestFeedTest {
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    User requester = User.builder().id(1L).name("RequesterName").email("requester@test.com").build();
+    User reader = User.builder().id(2L).name("ReaderName").email("reader@test.com").build();
+    LocalDateTime now = LocalDateTime.now();
+    ItemRequest request1 = request(1);
+    ItemRequest request2 = request(2);
+    ItemRequest request3 = request(3);
+    ItemForItemRequestDto itemDto = ItemForItemRequestDto.builder()
+            .id(10L)
+            .name("ItemName")
+            .description("ItemDescription")
+            .ownerId(reader.getId())
+            .available(true)
+            .requestId(request3.getId())
+            .build();
+
+    @Test
+    void load_thenNewestRequestsServedWithoutDatabase() {
+        InMemoryItemRequestFeed feed = loadedFeed(5, List.of(request3, request2, request1));
+
+        Slice<ItemRequestDto> page = feed.findAllByRequesterIdNot(
+                reader.getId(), PageRequest.of(0, 2, SORT_CREATED_DESC));
+        CursorPage<ItemRequestDto> cursorPage = feed.findAllByRequesterIdNot(reader.getId(),
+                Cursor.of(request3.getCreated(), request3.getId()), 5);
+
+        assertEquals(List.of(3L, 2L), ids(page.getContent()));
+        assertTrue(page.hasNext());
+        assertEquals(List.of(itemDto), page.getContent().get(0).getItems());
+        assertEquals(List.of(2L, 1L), ids(cursorPage.getContent()));
+        assertNull(cursorPage.getNextCursor());
+        verify(requestRepository, times(1)).findNewest(PageRequest.of(0, 6));
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(3L, 2L, 1L));
+        verifyNoMoreInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void findAllByRequesterIdNot_whenPageDeeperThanBuffer_thenReadFromDatabase() {
+        InMemoryItemRequestFeed feed = loadedFeed(2, List.of(request3, request2, request1));
+        Pageable secondPage = PageRequest.of(1, 2, SORT_CREATED_DESC);
+        when(requestRepository.findAllByRequesterIdNot(anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), secondPage, false));
+        when(requestRepository.findAllByRequesterIdNotBefore(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(3L), ids(feed.findAllByRequesterIdNot(
+                reader.getId(), PageRequest.of(0, 1, SORT_CREATED_DESC)).getContent()));
+        feed.findAllByRequesterIdNot(reader.getId(), secondPage);
+        feed.findAllByRequesterIdNot(reader.getId(), PageRequest.of(0, 2, Sort.by("id")));
+        feed.findAllByRequesterIdNot(reader.getId(), Cursor.of(request2.getCreated(), request2.getId()), 2);
+
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(3L, 2L));
+        verify(requestRepository, times(1)).findAllByRequesterIdNot(reader.getId(), secondPage);
+        verify(requestRepository, times(1)).findAllByRequesterIdNot(reader.getId(),
+                PageRequest.of(0, 2, Sort.by("id")));
+        verify(requestRepository, times(1)).findAllByRequesterIdNotBefore(reader.getId(),
+                request2.getCreated(), request2.getId(), PageRequest.of(0, 3));
+    }
+
+    @Test
+    void add_thenReaderRequestsFilteredAndUserRemoval() {
+        InMemoryItemRequestFeed feed = loadedFeed(5, List.of(request2, request1));
+        ItemRequest readerRequest = request(4).toBuilder().requester(reader).build();
+
+        feed.add(request3);
+        feed.add(readerRequest);
+        feed.index(Item.builder().id(11L).name("Other").description("Other").available(true).owner(requester)
+                .build());
+        Item item = Item.builder().id(10L).name("ItemName").description("ItemDescription").available(true)
+                .owner(reader).requestId(request3.getId()).version(2L).build();
+        feed.index(item);
+        feed.index(item.toBuilder().name("Outdated").version(1L).build());
+
+        List<ItemRequestDto> forReader = feed.findAllByRequesterIdNot(reader.getId(), null, 10).getContent();
+        assertEquals(List.of(3L, 2L, 1L), ids(forReader));
+        assertEquals(List.of(itemDto), forReader.get(0).getItems());
+        assertEquals(List.of(4L, 3L, 2L, 1L),
+                ids(feed.findAllByRequesterIdNot(requester.getId() + 100, null, 10).getContent()));
+
+        feed.removeAllByUserId(reader.getId());
+        List<ItemRequestDto> afterRemoval = feed.findAllByRequesterIdNot(requester.getId() + 100, null, 10)
+                .getContent();
+        assertEquals(List.of(3L, 2L, 1L), ids(afterRemoval));
+        assertEquals(List.of(), afterRemoval.get(0).getItems());
+    }
+
+    private InMemoryItemRequestFeed loadedFeed(int capacity, List<ItemRequest> newest) {
+        when(requestRepository.findNewest(any(Pageable.class))).thenReturn(newest);
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of(itemDto));
+        InMemoryItemRequestFeed feed = new InMemoryItemRequestFeed(requestRepository, itemRepository, capacity);
+        feed.afterSingletonsInstantiated();
+        return feed;
+    }
+
+    private ItemRequest request(long id) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Request" + id)
+                .requester(requester)
+                .created(now.plusMinutes(id))
+                .build();
+    }
+
+    private static List<Long> ids(List<ItemRequestDto> itemRequests) {
+        return itemRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+
+@SpringBootTest(properties = {
+        ItemRequestFeed.FEED_PROPERTY + "=in-memory",
+        ItemRequestFeed.FEED_PROPERTY + ".in-memory.capacity=3"
+})
+class InMemoryItemRequestFeedTestIT {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemRequestServiceImpl itemRequestService;
+
+    @Autowired
+    private ItemRequestFeed itemRequestFeed;
+
+    UserDto savedRequester;
+    UserDto savedOwner;
+    UserDto savedReader;
+
+    @AfterEach
+    void deleteUsers() {
+        if (savedReader != null) {
+            userService.delete(savedReader.getId());
+        }
+        if (savedOwner != null) {
+            userService.delete(savedOwner.getId());
+        }
+        if (savedRequester != null) {
+            userService.delete(savedRequester.getId());
+        }
+    }
+
+    @Test
+    void findAllByExpectRequesterId_whenRequestsAndItemsCreated_thenFeedFollowsCommits() {
+        assertInstanceOf(InMemoryItemRequestFeed.class, itemRequestFeed);
+        savedRequester = userService.create(UserDto.builder().name("Requester").email("requester@feed.com").build());
+        savedOwner = userService.create(UserDto.builder().name("Owner").email("owner@feed.com").build());
+        long ownerId = savedOwner.getId();
+        long[] requestIds = new long[4];
+        for (int i = 0; i < requestIds.length; i++) {
+            requestIds[i] = itemRequestService.create(
+                    new ItemRequestIncomingDto("Request" + i), savedRequester.getId()).getId();
+        }
+        ItemDto savedItem = itemService.create(ItemIncomingDto.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .requestId(requestIds[3])
+                .build(), ownerId);
+
+        List<ItemRequestDto> firstPage = itemRequestService.findAllByExpectRequesterId(
+                ownerId, PageRequest.of(0, 2, SORT_CREATED_DESC)).getContent();
+        assertEquals(List.of(requestIds[3], requestIds[2]), ids(firstPage));
+        assertEquals(savedItem.getId(), firstPage.get(0).getItems().iterator().next().getId());
+        assertEquals(List.of(requestIds[1], requestIds[0]), ids(itemRequestService.findAllByExpectRequesterId(
+                ownerId, PageRequest.of(1, 2, SORT_CREATED_DESC)).getContent()));
+        assertEquals(List.of(requestIds[3], requestIds[2], requestIds[1], requestIds[0]),
+                ids(itemRequestService.findAllByExpectRequesterId(ownerId, null, 10).getContent()));
+        assertEquals(List.of(), itemRequestService.findAllByExpectRequesterId(
+                savedRequester.getId(), null, 10).getContent());
+
+        userService.delete(ownerId);
+        savedOwner = null;
+        savedReader = userService.create(UserDto.builder().name("Reader").email("reader@feed.com").build());
+        assertTrue(itemRequestService.findAllByExpectRequesterId(savedReader.getId(),
+                PageRequest.of(0, 1, SORT_CREATED_DESC)).getContent().get(0).getItems().isEmpty());
+    }
+
+    private static List<Long> ids(List<ItemRequestDto> itemRequests) {
+        return itemRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -6,30 +6,39 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
 import ru.practicum.shareit.server.request.dto.*;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_ITEM_REQUEST_PATH;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.TOTAL_COUNT_HEADER;
 import static ru.practicum.shareit.server.request.ItemRequestController.ALL_PATH;
 import static ru.practicum.shareit.server.request.ItemRequestController.ITEM_REQUEST_PREFIX;
+import static ru.practicum.shareit.server.request.ItemRequestController.SUGGESTIONS_PATH;
 
 @WebMvcTest(controllers = ItemRequestController.class)
 class ItemRequestControllerTest {
@@ -68,8 +77,8 @@ class ItemRequestControllerTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_CREATED_DESC);
-    Page<ItemRequestDto> pageItemRequestDto = new PageImpl<>(
-            Collections.singletonList(expectedItemRequestDto), pageable, 1);
+    Slice<ItemRequestDto> pageItemRequestDto = new SliceImpl<>(
+            Collections.singletonList(expectedItemRequestDto), pageable, false);
 
     @Test
     @DisplayName("Метод getItemRequestById - Успех")
@@ -87,6 +96,41 @@ class ItemRequestControllerTest {
         verify(itemRequestService, times(1)).findById(anyLong(), anyLong());
     }
 
+    @Test
+    @DisplayName("Метод getSuggestions - Успех")
+    void getSuggestions_whenRequesterAsks_thenResponseStatusOkWithSuggestedItemsInBody() throws Exception {
+        List<ItemForItemRequestDto> suggestions = List.of(ItemForItemRequestDto.builder()
+                .id(2L)
+                .name("ItemName")
+                .description("ItemDescription")
+                .ownerId(3L)
+                .available(true)
+                .requestId(id)
+                .build());
+        when(itemRequestService.findSuggestions(anyLong(), anyLong()))
+                .thenReturn(suggestions);
+
+        mvc.perform(get(COMMON_ITEM_REQUEST_PATH + ITEM_REQUEST_PREFIX + SUGGESTIONS_PATH, id)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(suggestions)));
+        verify(itemRequestService, times(1)).findSuggestions(userId, id);
+    }
+
+    @Test
+    @DisplayName("Метод getSuggestions - Запрос чужой")
+    void getSuggestions_whenNotRequesterAsks_thenResponseStatusForbidden() throws Exception {
+        when(itemRequestService.findSuggestions(anyLong(), anyLong()))
+                .thenThrow(ForbiddenException.class);
+
+        mvc.perform(get(COMMON_ITEM_REQUEST_PATH + ITEM_REQUEST_PREFIX + SUGGESTIONS_PATH, id)
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("Метод getItemRequestById - Плохой userId или requestId")
     void getItemRequestById_whenInvalidUserIdOrRequestId_thenResponseStatusNotFound() throws Exception {
@@ -169,6 +213,42 @@ class ItemRequestControllerTest {
                 .findAllByExpectRequesterId(anyLong(), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("Метод getAllByExpectRequesterId - Успех: пагинация по курсору")
+    void getAllByExpectRequesterId_whenCursorPassed_thenResponseContainsNextCursorHeader() throws Exception {
+        String nextCursor = Cursor.of(created, id).encode();
+        when(itemRequestService.findAllByExpectRequesterId(userId, "", 1))
+                .thenReturn(new CursorPage<>(Collections.singletonList(expectedItemRequestDto), nextCursor));
+
+        mvc.perform(get(COMMON_ITEM_REQUEST_PATH + ALL_PATH)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(content().json(mapper.writeValueAsString(Collections.singletonList(expectedItemRequestDto))));
+        verify(itemRequestService, never()).findAllByExpectRequesterId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Метод getAllByExpectRequesterId - Успех: общее количество по запросу")
+    void getAllByExpectRequesterId_whenWithTotal_thenResponseContainsTotalCountHeader() throws Exception {
+        when(itemRequestService.findAllByExpectRequesterId(anyLong(), any(Pageable.class)))
+                .thenReturn(pageItemRequestDto);
+        when(itemRequestService.countByExpectRequesterId(anyLong())).thenReturn(5L);
+
+        mvc.perform(get(COMMON_ITEM_REQUEST_PATH + ALL_PATH)
+                        .param("withTotal", "true")
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "5"));
+        verify(itemRequestService, times(1)).countByExpectRequesterId(userId);
+    }
+
     @Test
     @DisplayName("Метод create - Успех")
     void create_whenValidAllParams_thenResponseStatusOkWithItemRequestShortDtoInBody() throws Exception {
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.request.model.ItemSuggestion;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.DEFAULT_PAGINATION_SORT;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestMatcherTest {
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private ItemSuggestionRepository suggestionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<ItemSuggestion>> suggestionsCaptor;
+
+    User requester = User.builder().id(1L).name("RequesterName").email("requester@test.com").build();
+    User owner = User.builder().id(2L).name("OwnerName").email("owner@test.com").build();
+    ItemRequest drillRequest = request(1, "Нужна дрель");
+    ItemRequest bikeRequest = request(2, "Хочу велосипед");
+    ItemRequest concreteDrillRequest = request(3, "Ищу дрель по бетону");
+    Item drill = Item.builder()
+            .id(10L)
+            .name("Дрель")
+            .description("Ударная дрель, сверлит бетон")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    @Test
+    void afterSingletonsInstantiated_thenRequestsLoadedInChunks() {
+        ItemRequestMatcher matcher = new ItemRequestMatcher(requestRepository, suggestionRepository, transactionManager,
+                2, 10);
+        when(requestRepository.findAllByIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(drillRequest, bikeRequest))
+                .thenReturn(List.of(concreteDrillRequest));
+
+        matcher.afterSingletonsInstantiated();
+        matcher.recordMatches(List.of(drill), true);
+
+        verify(requestRepository, times(1)).findAllByIdGreaterThan(0, PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT));
+        verify(requestRepository, times(1)).findAllByIdGreaterThan(2, PageRequest.of(0, 2, DEFAULT_PAGINATION_SORT));
+        assertEquals(List.of(3L, 1L), savedRequestIds());
+    }
+
+    @Test
+    void recordMatches_whenItemUpdated_thenOnlyNewMatchesSaved() {
+        ItemRequestMatcher matcher = new ItemRequestMatcher(requestRepository, suggestionRepository, transactionManager,
+                10, 10);
+        matcher.add(drillRequest);
+        matcher.add(concreteDrillRequest);
+        when(suggestionRepository.findRequestIdsByItemId(anyLong())).thenReturn(Set.of(1L));
+
+        matcher.recordMatches(List.of(drill), false);
+
+        verify(suggestionRepository, times(1)).findRequestIdsByItemId(drill.getId());
+        assertEquals(List.of(3L), savedRequestIds());
+    }
+
+    @Test
+    void recordMatches_whenConcurrentUpdateSavedSamePairs_thenRetriedWithoutThem() {
+        ItemRequestMatcher matcher = new ItemRequestMatcher(requestRepository, suggestionRepository, transactionManager,
+                10, 10);
+        matcher.add(drillRequest);
+        matcher.add(concreteDrillRequest);
+        when(suggestionRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uq_item_suggestion"))
+                .thenReturn(List.of());
+        when(suggestionRepository.findRequestIdsByItemId(drill.getId())).thenReturn(Set.of(3L));
+
+        matcher.recordMatches(List.of(drill), true);
+
+        verify(suggestionRepository, times(2)).saveAll(suggestionsCaptor.capture());
+        assertEquals(List.of(1L), suggestionsCaptor.getValue().stream()
+                .map(ItemSuggestion::getRequestId)
+                .collect(Collectors.toList()));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void recordMatches_whenRetryAlsoFails_thenNotPropagated() {
+        ItemRequestMatcher matcher = new ItemRequestMatcher(requestRepository, suggestionRepository, transactionManager,
+                10, 10);
+        matcher.add(drillRequest);
+        when(suggestionRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("fk_item"));
+
+        matcher.recordMatches(List.of(drill), false);
+
+        verify(suggestionRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void recordMatches_whenUnavailableOrNoMatches_thenNothingSaved() {
+        ItemRequestMatcher matcher = new ItemRequestMatcher(requestRepository, suggestionRepository, transactionManager,
+                10, 10);
+        matcher.add(drillRequest);
+        matcher.add(request(4, "Нужна дрель").toBuilder().requester(owner).build());
+
+        matcher.recordMatches(List.of(drill.toBuilder().available(false).build()), false);
+        matcher.recordMatches(List.of(drill.toBuilder().requestId(drillRequest.getId()).build()), false);
+        matcher.removeAllByUserId(requester.getId());
+        matcher.recordMatches(List.of(drill), true);
+
+        verifyNoInteractions(suggestionRepository);
+    }
+
+    private List<Long> savedRequestIds() {
+        verify(suggestionRepository, times(1)).saveAll(suggestionsCaptor.capture());
+        suggestionsCaptor.getValue().forEach(suggestion -> assertEquals(drill.getId(), suggestion.getItemId()));
+        return suggestionsCaptor.getValue().stream()
+                .map(ItemSuggestion::getRequestId)
+                .collect(Collectors.toList());
+    }
+
+    private ItemRequest request(long id, String description) {
+        return ItemRequest.builder()
+                .id(id)
+                .description(description)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.server.exception.ForbiddenException;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.item.dto.ItemIncomingDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.user.UserServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemRequestMatcherTestIT {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemRequestServiceImpl itemRequestService;
+
+    @Autowired
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    UserDto savedRequester;
+    UserDto savedOwner;
+
+    @AfterEach
+    void deleteUsers() {
+        if (savedOwner != null) {
+            userService.delete(savedOwner.getId());
+        }
+        if (savedRequester != null) {
+            userService.delete(savedRequester.getId());
+        }
+    }
+
+    @Test
+    void findSuggestions_whenMatchingItemCreatedAndUpdated_thenSuggestedToRequester() {
+        savedRequester = userService.create(UserDto.builder().name("Requester").email("requester@match.com").build());
+        savedOwner = userService.create(UserDto.builder().name("Owner").email("owner@match.com").build());
+        long requesterId = savedRequester.getId();
+        long ownerId = savedOwner.getId();
+        long drillRequestId = itemRequestService.create(
+                new ItemRequestIncomingDto("Нужна дрель по бетону"), requesterId).getId();
+        long bikeRequestId = itemRequestService.create(
+                new ItemRequestIncomingDto("Хочу велосипед"), requesterId).getId();
+
+        ItemDto drill = itemService.create(ItemIncomingDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .build(), ownerId);
+        ItemDto bike = itemService.createAll(List.of(ItemIncomingDto.builder()
+                .name("Самокат")
+                .description("Детский")
+                .available(true)
+                .build()), ownerId).get(0);
+
+        assertEquals(List.of(drill.getId()), ids(itemRequestService.findSuggestions(requesterId, drillRequestId)));
+        assertEquals(List.of(), itemRequestService.findSuggestions(requesterId, bikeRequestId));
+        assertThrows(ForbiddenException.class, () -> itemRequestService.findSuggestions(ownerId, drillRequestId));
+
+        itemService.update(ItemIncomingDto.builder().name("Велосипед").build(), bike.getId(), ownerId);
+        itemService.update(ItemIncomingDto.builder().description("Дрель по бетону").build(), drill.getId(), ownerId);
+        itemService.update(ItemIncomingDto.builder().available(false).build(), drill.getId(), ownerId);
+
+        assertEquals(List.of(), itemRequestService.findSuggestions(requesterId, drillRequestId));
+        List<ItemForItemRequestDto> bikeSuggestions = itemRequestService.findSuggestions(requesterId, bikeRequestId);
+        assertEquals(List.of(bike.getId()), ids(bikeSuggestions));
+        assertEquals(bikeRequestId, bikeSuggestions.get(0).getRequestId());
+        assertEquals(ownerId, bikeSuggestions.get(0).getOwnerId());
+
+        itemService.update(ItemIncomingDto.builder().available(true).build(), drill.getId(), ownerId);
+        assertEquals(List.of(drill.getId()), ids(itemRequestService.findSuggestions(requesterId, drillRequestId)));
+
+        /* Повторная запись той же пары, как при параллельной правке: uq_item_suggestion не выходит наружу */
+        itemRequestMatcher.recordMatches(List.of(itemRepository.extract(drill.getId())), true);
+        assertEquals(List.of(drill.getId()), ids(itemRequestService.findSuggestions(requesterId, drillRequestId)));
+    }
+
+    private static List<Long> ids(List<ItemForItemRequestDto> items) {
+        return items.stream()
+                .map(ItemForItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -5,19 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
+import ru.practicum.shareit.server.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
 import static ru.practicum.shareit.server.pagination.PaginationConstant.SORT_CREATED_DESC;
 
 @DataJpaTest
@@ -34,7 +39,7 @@ class ItemRequestRepositoryTest {
     User saveRequester;
     User saveRequester2;
 
-    LocalDateTime created = LocalDateTime.now().plusMinutes(5);
+    LocalDateTime created = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MICROS);
     ItemRequest saveRequest;
     ItemRequest saveRequest2;
     ItemRequest saveRequest3;
@@ -81,20 +86,46 @@ class ItemRequestRepositoryTest {
 
     @Test
     void findAllByRequesterIdOrderByCreatedDesc() {
-        List<ItemRequest> result =
+        List<ItemRequestShortDto> result =
                 requestRepository.findAllByRequesterIdOrderByCreatedDesc(saveRequester.getId());
         assertEquals(2, result.size());
-        assertEquals(saveRequest3, result.get(0));
-        assertEquals(saveRequest, result.get(1));
+        assertEquals(ItemRequestMapper.toItemRequestShortDto(saveRequest3), result.get(0));
+        assertEquals(ItemRequestMapper.toItemRequestShortDto(saveRequest), result.get(1));
     }
 
     @Test
     void findAllByRequesterIdNotOrderByCreatedDesc() {
-        Page<ItemRequest> result = requestRepository.findAllByRequesterIdNot(
+        Slice<ItemRequestShortDto> result = requestRepository.findAllByRequesterIdNot(
                 saveRequester.getId(), pageable);
         assertEquals(2, result.getContent().size());
-        assertEquals(saveRequest4, result.getContent().get(0));
-        assertEquals(saveRequest2, result.getContent().get(1));
+        assertEquals(ItemRequestMapper.toItemRequestShortDto(saveRequest4), result.getContent().get(0));
+        assertEquals(ItemRequestMapper.toItemRequestShortDto(saveRequest2), result.getContent().get(1));
+        assertFalse(result.hasNext());
+        assertEquals(2, requestRepository.countByRequesterIdNot(saveRequester.getId()));
+    }
+
+    @Test
+    void findAllByRequesterIdNotBefore() {
+        ItemRequest saveRequest5 = requestRepository.save(ItemRequest.builder()
+                .description("TestRequest5Description")
+                .requester(saveRequester2)
+                .created(created)
+                .build());
+        Pageable first = PageRequest.of(0, 2);
+
+        assertEquals(List.of(ItemRequestMapper.toItemRequestShortDto(saveRequest4),
+                        ItemRequestMapper.toItemRequestShortDto(saveRequest5)),
+                requestRepository.findAllByRequesterIdNotBefore(
+                        saveRequester.getId(), MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, first));
+        assertEquals(List.of(ItemRequestMapper.toItemRequestShortDto(saveRequest2)),
+                requestRepository.findAllByRequesterIdNotBefore(
+                        saveRequester.getId(), saveRequest5.getCreated(), saveRequest5.getId(), first));
+    }
+
+    @Test
+    void findExistingIds() {
+        assertEquals(Set.of(saveRequest.getId(), saveRequest3.getId()), requestRepository.findExistingIds(
+                List.of(saveRequest.getId(), saveRequest3.getId(), saveRequest4.getId() + 100)));
     }
 
     @AfterEach
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.server.request.ItemRequestRingBuffer.Entry;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.server.pagination.PaginationConstant.MAX_CURSOR_DATE_TIME;
+
+class ItemRequestRingBufferTest {
+    private static final long READER_ID = 100;
+
+    LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void add_whenNewestRequests_thenReadNewestFirst() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(5);
+        for (long id = 1; id <= 4; id++) {
+            buffer.add(entry(id, 1));
+        }
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(newest(buffer, 0, 10)));
+        assertTrue(buffer.isComplete());
+    }
+
+    @Test
+    void add_whenFull_thenOldestEvictedAndDeepPagesNotServed() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(3);
+        for (long id = 1; id <= 5; id++) {
+            buffer.add(entry(id, 1));
+        }
+
+        assertEquals(3, buffer.size());
+        assertFalse(buffer.isComplete());
+        assertEquals(List.of(5L, 4L), ids(newest(buffer, 0, 2)));
+        assertEquals(List.of(3L), ids(newest(buffer, 2, 1)));
+        assertNull(newest(buffer, 2, 2));
+        assertNull(buffer.find(READER_ID, created(3), 3, 0, 1));
+
+        buffer.add(entry(2, 1));
+        assertEquals(List.of(5L, 4L, 3L), ids(newest(buffer, 0, 3)));
+    }
+
+    @Test
+    void add_whenOutOfOrder_thenInsertedByCreatedAndId() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(4);
+        buffer.add(entry(2, 1));
+        buffer.add(entry(4, 1));
+        buffer.add(entry(1, 1));
+        buffer.add(entry(3, 1));
+        buffer.add(entry(3, 1));
+        buffer.add(new Entry(5, "Request5", created(4), 1, List.of()));
+
+        assertEquals(List.of(5L, 4L, 3L, 2L), ids(newest(buffer, 0, 4)));
+        assertEquals(List.of(3L, 2L), ids(buffer.find(READER_ID, created(4), 4, 0, 2)));
+    }
+
+    @Test
+    void find_whenReaderRequestsInBuffer_thenFilteredBeforeSkip() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(10);
+        for (long id = 1; id <= 6; id++) {
+            buffer.add(entry(id, id % 2 == 0 ? READER_ID : 1));
+        }
+
+        assertEquals(List.of(3L, 1L), ids(newest(buffer, 1, 5)));
+        assertEquals(List.of(6L, 4L, 2L), ids(buffer.find(1, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, 0, 5)));
+    }
+
+    @Test
+    void index_thenItemAddedOrReplacedInItsRequest() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(10);
+        buffer.add(entry(1, 1));
+        buffer.add(entry(2, 1));
+
+        buffer.index(item(10, 2, 2, true));
+        buffer.index(item(11, 2, 3, true));
+        buffer.index(item(10, 2, 2, false));
+        buffer.index(item(12, 99, 2, true));
+
+        List<ItemRequestDto> found = newest(buffer, 0, 10);
+        assertEquals(List.of(item(10, 2, 2, false), item(11, 2, 3, true)), found.get(0).getItems());
+        assertEquals(List.of(), found.get(1).getItems());
+    }
+
+    @Test
+    void removeAllByUserId_thenRequestsAndItemsOfUserRemoved() {
+        ItemRequestRingBuffer buffer = new ItemRequestRingBuffer(3);
+        buffer.add(entry(1, 1));
+        buffer.add(entry(2, 2));
+        buffer.add(entry(3, 1));
+        buffer.index(item(10, 3, 2, true));
+        buffer.index(item(11, 3, 3, true));
+
+        buffer.removeAllByUserId(2);
+
+        List<ItemRequestDto> found = newest(buffer, 0, 10);
+        assertEquals(List.of(3L, 1L), ids(found));
+        assertEquals(List.of(item(11, 3, 3, true)), found.get(0).getItems());
+
+        buffer.add(entry(4, 1));
+        buffer.add(entry(5, 1));
+        assertEquals(List.of(5L, 4L, 3L), ids(newest(buffer, 0, 3)));
+        assertFalse(buffer.isComplete());
+    }
+
+    private static List<ItemRequestDto> newest(ItemRequestRingBuffer buffer, long skip, int limit) {
+        return buffer.find(READER_ID, MAX_CURSOR_DATE_TIME, Long.MAX_VALUE, skip, limit);
+    }
+
+    private Entry entry(long id, long requesterId) {
+        return new Entry(id, "Request" + id, created(id), requesterId, List.of());
+    }
+
+    private LocalDateTime created(long id) {
+        return now.plusMinutes(id);
+    }
+
+    private static ItemForItemRequestDto item(long id, long requestId, long ownerId, boolean available) {
+        return ItemForItemRequestDto.builder()
+                .id(id)
+                .name("Item" + id)
+                .description("Description")
+                .ownerId(ownerId)
+                .available(available)
+                .requestId(requestId)
+                .build();
+    }
+
+    private static List<Long> ids(List<ItemRequestDto> itemRequests) {
+        return itemRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
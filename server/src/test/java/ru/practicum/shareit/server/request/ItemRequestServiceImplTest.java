@@ -4,20 +4,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.pagination.PaginationUtils;
+import ru.practicum.shareit.server.pagination.TotalCountCache;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.dto.ItemRequestIncomingDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.server.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.UserIdIndex;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -36,12 +43,27 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdIndex userIdIndex;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private ItemRequestRepository requestRepository;
 
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Mock
+    private ItemSuggestionRepository suggestionRepository;
+
+    @Spy
+    private TotalCountCache totalCountCache = new TotalCountCache(30, 100);
+
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
@@ -60,7 +82,6 @@ class ItemRequestServiceImplTest {
             .owner(user)
             .requestId(requestId)
             .build();
-    Collection<Item> collectionItem = Collections.singletonList(item);
 
     ItemForItemRequestDto itemDto = ItemForItemRequestDto.builder()
             .id(item.getId())
@@ -70,6 +91,7 @@ class ItemRequestServiceImplTest {
             .available(item.getAvailable())
             .requestId(requestId)
             .build();
+    List<ItemForItemRequestDto> collectionItem = Collections.singletonList(itemDto);
     Collection<ItemForItemRequestDto> collectionItemForRequestDto = Collections.singletonList(itemDto);
 
     LocalDateTime created = LocalDateTime.now().plusMinutes(5);
@@ -79,7 +101,8 @@ class ItemRequestServiceImplTest {
             .requester(requester)
             .created(created)
             .build();
-    List<ItemRequest> expectedCollectionRequest = Collections.singletonList(request);
+    ItemRequestShortDto requestShortDto = ItemRequestMapper.toItemRequestShortDto(request);
+    List<ItemRequestShortDto> expectedCollectionRequest = Collections.singletonList(requestShortDto);
 
     ItemRequestDto expectedRequestDto = ItemRequestDto.builder()
             .id(request.getId())
@@ -101,107 +124,171 @@ class ItemRequestServiceImplTest {
     int from = 0;
     int size = 10;
     Pageable pageable = PageRequest.of(PaginationUtils.getCalculatedPage(from, size), size, SORT_CREATED_DESC);
-    Page<ItemRequest> pageItemRequest = new PageImpl<>(
-            Collections.singletonList(request), pageable, 1);
-    Page<ItemRequestDto> pageItemRequestDto = new PageImpl<>(
-            Collections.singletonList(expectedRequestDto), pageable, 1);
+    Slice<ItemRequestShortDto> pageItemRequest = new SliceImpl<>(
+            Collections.singletonList(requestShortDto), pageable, false);
+    Slice<ItemRequestDto> pageItemRequestDto = new SliceImpl<>(
+            Collections.singletonList(expectedRequestDto), pageable, false);
 
     String exceptionMessage = "Message";
 
     @Test
     void findById_WhenItemRequestFound_thenReturnedItemRequestDto() {
-        when(userRepository.extract(anyLong())).thenReturn(user);
         when(requestRepository.extract(anyLong())).thenReturn(request);
         when(itemRepository.findAllByRequestId(anyLong())).thenReturn(collectionItem);
 
         assertEquals(expectedRequestDto, requestService.findById(userId, requestId));
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verify(requestRepository, times(1)).extract(anyLong());
         verify(itemRepository, times(1)).findAllByRequestId(anyLong());
     }
 
     @Test
     void findById_WhenUserNotFound_thenNotReturnedItemRequestDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> requestService.findById(userId, requestId));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void findById_WhenItemRequestNotFound_thenNotReturnedItemRequestDto() {
-        when(userRepository.extract(anyLong())).thenReturn(user);
         when(requestRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> requestService.findById(userId, requestId));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verify(requestRepository, times(1)).extract(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
 
     @Test
     void findAllByRequesterId_WhenRequesterFound_thenReturnedItemRequestDtoCollection() {
-        when(userRepository.extract(anyLong())).thenReturn(requester);
-        when(itemRepository.findAllByRequestId(anyLong())).thenReturn(collectionItem);
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(collectionItem);
         when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(expectedCollectionRequest);
 
         assertEquals(expectedCollectionRequestDto, requestService.findAllByRequesterId(requesterId));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(itemRepository, times(1)).findAllByRequestId(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(requestId));
         verify(requestRepository, times(1)).findAllByRequesterIdOrderByCreatedDesc(anyLong());
         verifyNoMoreInteractions(userRepository, itemRepository, requestRepository);
     }
 
+    @Test
+    void findAllByRequesterId_WhenSeveralRequests_thenItemsLoadedOnceAndGroupedByRequest() {
+        ItemRequestShortDto requestWithoutItems = new ItemRequestShortDto(requestId + 1, request.getDescription(),
+                created.minusMinutes(1));
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(requestShortDto, requestWithoutItems));
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(collectionItem);
+
+        List<ItemRequestDto> result = requestService.findAllByRequesterId(requesterId);
+
+        assertEquals(expectedRequestDto, result.get(0));
+        assertEquals(requestWithoutItems.getId(), result.get(1).getId());
+        assertTrue(result.get(1).getItems().isEmpty());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(requestId, requestId + 1));
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void findAllByRequesterId_WhenNoRequests_thenItemsNotLoaded() {
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong())).thenReturn(List.of());
+
+        assertTrue(requestService.findAllByRequesterId(requesterId).isEmpty());
+
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void findAllByRequesterId_WhenRequesterNotFound_thenNotReturnedItemRequestDtoCollection() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () -> requestService.findAllByRequesterId(requesterId));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
-    void findAllByExpectRequesterId_whenRequesterFound_thenReturnedPageItemRequestDto() {
-        when(userRepository.extract(anyLong())).thenReturn(user);
-        when(requestRepository.findAllByRequesterIdNot(anyLong(), any(Pageable.class)))
-                .thenReturn(pageItemRequest);
-        when(itemRepository.findAllByRequestId(anyLong())).thenReturn(collectionItem);
+    void findAllByExpectRequesterId_whenRequesterFound_thenPageReadFromFeed() {
+        when(itemRequestFeed.findAllByRequesterIdNot(anyLong(), any(Pageable.class))).thenReturn(pageItemRequestDto);
 
         assertEquals(pageItemRequestDto, requestService.findAllByExpectRequesterId(userId, pageable));
 
-        verify(userRepository, times(1)).extract(anyLong());
-        verify(requestRepository, times(1)).findAllByRequesterIdNot(anyLong(), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByRequestId(anyLong());
-        verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
+        verify(userIdIndex, times(1)).requireExists(anyLong());
+        verify(itemRequestFeed, times(1)).findAllByRequesterIdNot(userId, pageable);
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void findAllByExpectRequesterId_whenCursorPassed_thenCursorDecodedAndPageReadFromFeed() {
+        CursorPage<ItemRequestDto> page = new CursorPage<>(List.of(expectedRequestDto), null);
+        Cursor cursor = Cursor.of(created, requestId);
+        when(itemRequestFeed.findAllByRequesterIdNot(anyLong(), any(), anyInt())).thenReturn(page);
+
+        assertEquals(page, requestService.findAllByExpectRequesterId(userId, "", 1));
+        assertEquals(page, requestService.findAllByExpectRequesterId(userId, cursor.encode(), 1));
+
+        verify(itemRequestFeed, times(1)).findAllByRequesterIdNot(userId, null, 1);
+        verify(itemRequestFeed, times(1)).findAllByRequesterIdNot(eq(userId),
+                argThat(decoded -> decoded != null && decoded.getId() == requestId), eq(1));
+        verifyNoInteractions(requestRepository, itemRepository);
     }
 
     @Test
     void findAllByExpectRequesterId_whenRequesterNotFound_thenNotReturnedPageItemRequestDto() {
-        when(userRepository.extract(anyLong())).thenThrow(new NotFoundException(exceptionMessage));
+        doThrow(new NotFoundException(exceptionMessage)).when(userIdIndex).requireExists(anyLong());
 
         NotFoundException exception =
                 assertThrows(NotFoundException.class, () ->
                         requestService.findAllByExpectRequesterId(userId, pageable));
         assertEquals(exceptionMessage, exception.getMessage());
 
-        verify(userRepository, times(1)).extract(anyLong());
+        verify(userIdIndex, times(1)).requireExists(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void countByExpectRequesterId_whenCountedTwice_thenSingleCountQuery() {
+        when(requestRepository.countByRequesterIdNot(anyLong())).thenReturn(8L);
+
+        assertEquals(8, requestService.countByExpectRequesterId(userId));
+        assertEquals(8, requestService.countByExpectRequesterId(userId));
+
+        verify(requestRepository, times(1)).countByRequesterIdNot(userId);
+    }
+
+    @Test
+    void findSuggestions_whenRequesterAsks_thenReturnedSuggestedItems() {
+        when(requestRepository.extract(anyLong())).thenReturn(request);
+        when(suggestionRepository.findAvailableItemsByRequestId(anyLong())).thenReturn(collectionItem);
+
+        assertEquals(collectionItem, requestService.findSuggestions(requesterId, requestId));
+
+        verify(userIdIndex, times(1)).requireExists(requesterId);
+        verify(suggestionRepository, times(1)).findAvailableItemsByRequestId(requestId);
+    }
+
+    @Test
+    void findSuggestions_whenNotRequesterAsks_thenForbidden() {
+        when(requestRepository.extract(anyLong())).thenReturn(request);
+
+        assertThrows(ForbiddenException.class, () -> requestService.findSuggestions(userId, requestId));
+
+        verifyNoInteractions(suggestionRepository);
+    }
+
     @Test
     void create_whenItemRequestCreated_thenReturnedItemRequestShortDto() {
         when(userRepository.extract(anyLong())).thenReturn(requester);
@@ -211,6 +298,8 @@ class ItemRequestServiceImplTest {
 
         verify(userRepository, times(1)).extract(anyLong());
         verify(requestRepository, times(1)).save(any(ItemRequest.class));
+        verify(itemRequestFeed, times(1)).add(request);
+        verify(itemRequestMatcher, times(1)).add(request);
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
 
@@ -4,9 +4,9 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemServiceImpl;
 import ru.practicum.shareit.server.item.dto.*;
@@ -152,7 +152,7 @@ class ItemRequestServiceImplTestIT {
         ItemRequestDto savedRequest2 = requestService.findById(resultOwner.getId(), resultRequest2.getId());
         ItemRequestDto savedRequest4 = requestService.findById(resultRequester.getId(), resultRequest4.getId());
 
-        Page<ItemRequestDto> result = requestService.findAllByExpectRequesterId(resultUser.getId(), pageable);
+        Slice<ItemRequestDto> result = requestService.findAllByExpectRequesterId(resultUser.getId(), pageable);
 
         assertThat(3, equalTo(result.getContent().size()));
         assertThat(result.getContent(), Matchers.containsInRelativeOrder(
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.server.request;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestKeywordIndexTest {
+    private static final long OWNER_ID = 100;
+
+    RequestKeywordIndex index = new RequestKeywordIndex();
+
+    @Test
+    void keywords_thenStemsWithoutShortAndStopWords() {
+        assertEquals(Set.of("щетк", "обув"), RequestKeywordIndex.keywords("Хотел бы воспользоваться щёткой для обуви"));
+        assertEquals(Set.of("дрел", "бетон"), RequestKeywordIndex.keywords("Нужна дрель по бетону", null));
+        assertEquals(RequestKeywordIndex.keywords("щётка для обуви"), RequestKeywordIndex.keywords("Щётки, обувь"));
+        assertEquals(Set.of(), RequestKeywordIndex.keywords("Нужно, пожалуйста!"));
+    }
+
+    @Test
+    void match_whenItemWordsHitRequests_thenMostMatchedAndNewestFirst() {
+        index.add(1, 1, "Нужна дрель");
+        index.add(2, 2, "Ищу дрель по бетону");
+        index.add(3, 3, "Нужна дрель");
+        index.add(4, 4, "Хочу велосипед");
+
+        assertEquals(List.of(2L, 3L, 1L), index.match(OWNER_ID, null, 10, "Дрель", "Дрелью сверлит бетон"));
+        assertEquals(List.of(2L, 3L), index.match(OWNER_ID, null, 2, "Дрель", "Дрелью сверлит бетон"));
+        assertEquals(List.of(), index.match(OWNER_ID, null, 10, "Самокат", "Детский"));
+    }
+
+    @Test
+    void match_whenOwnRequestOrLinkedRequest_thenSkipped() {
+        index.add(1, OWNER_ID, "Нужна дрель");
+        index.add(2, 2, "Нужна дрель");
+        index.add(3, 3, "Нужна дрель");
+
+        assertEquals(List.of(2L), index.match(OWNER_ID, 3L, 10, "Дрель", "Ударная"));
+    }
+
+    @Test
+    void add_whenNoKeywordsOrAlreadyAdded_thenNotIndexed() {
+        index.add(1, 1, "Нужно");
+        index.add(2, 1, "Нужна дрель");
+        index.add(2, 1, "Нужен велосипед");
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(), index.match(OWNER_ID, null, 10, "Велосипед"));
+    }
+
+    @Test
+    void removeAllByUserId_thenRequestsOfUserNoLongerMatched() {
+        index.add(1, 1, "Нужна дрель");
+        index.add(2, 2, "Нужна дрель");
+        index.add(3, 1, "Хочу велосипед");
+
+        index.removeAllByUserId(1);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), index.match(OWNER_ID, null, 10, "Дрель", "Велосипед"));
+    }
+}
@@ -13,14 +13,19 @@ import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.server.exception.InvalidConditionException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportLineResult;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_USER_PATH;
+import static ru.practicum.shareit.server.user.UserController.IMPORT_PATH;
 import static ru.practicum.shareit.server.user.UserController.USER_PREFIX;
 
 @WebMvcTest(controllers = UserController.class)
@@ -186,4 +191,30 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
         verify(userService, times(1)).delete(anyLong());
     }
+
+    @Test
+    @DisplayName("Метод importAll - Успех: счётчики и отклонённые строки")
+    void importAll_whenNdjsonBody_thenResponseStatusOkWithCountsAndRejectedLines() throws Exception {
+        UserImportResult expectedResult = UserImportResult.builder()
+                .created(1)
+                .updated(2)
+                .unchanged(3)
+                .rejected(1)
+                .rejectedLines(List.of(UserImportLineResult.builder().line(2).error("Ошибка").build()))
+                .build();
+        when(userService.importAll(any(InputStream.class)))
+                .thenReturn(expectedResult);
+
+        mvc.perform(post(COMMON_USER_PATH + IMPORT_PATH)
+                        .content(mapper.writeValueAsString(userDto) + "\n{}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.unchanged").value(3))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(content().json(mapper.writeValueAsString(expectedResult)));
+        verify(userService, times(1)).importAll(any(InputStream.class));
+    }
 }
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.server.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.server.exception.NotFoundException;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void load_thenAllIdsLoadedByChunks() {
+        UserIdIndex index = new UserIdIndex(userRepository, 2);
+        when(userRepository.findAllIdsGreaterThan(0, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findAllIdsGreaterThan(2, PageRequest.of(0, 2))).thenReturn(List.of(1000L));
+
+        index.afterSingletonsInstantiated();
+
+        assertTrue(index.contains(1));
+        assertTrue(index.contains(2));
+        assertTrue(index.contains(1000));
+        assertFalse(index.contains(3));
+        assertFalse(index.contains(1001));
+        verify(userRepository, times(2)).findAllIdsGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    void requireExists_whenIdIndexed_thenNoRepositoryCall() {
+        UserIdIndex index = new UserIdIndex(userRepository, 10);
+        index.add(64);
+
+        index.requireExists(64);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void requireExists_whenIdNotIndexedButExists_thenCheckedOnceAndIndexed() {
+        UserIdIndex index = new UserIdIndex(userRepository, 10);
+        when(userRepository.existsById(5L)).thenReturn(true);
+
+        index.requireExists(5);
+        index.requireExists(5);
+
+        assertTrue(index.contains(5));
+        verify(userRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void requireExists_whenUserRemovedWhileCheckedInDatabase_thenNotIndexed() {
+        UserIdIndex index = new UserIdIndex(userRepository, 10);
+        when(userRepository.existsById(5L)).thenAnswer(invocation -> {
+            index.remove(5);
+            return true;
+        });
+
+        index.requireExists(5);
+
+        assertFalse(index.contains(5));
+    }
+
+    @Test
+    void requireExists_whenUserNotFound_thenNotFoundException() {
+        UserIdIndex index = new UserIdIndex(userRepository, 10);
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> index.requireExists(7));
+        assertEquals("Запрос на несуществующего пользователя с id = 7", exception.getMessage());
+        assertThrows(NotFoundException.class, () -> index.requireExists(-1));
+        assertFalse(index.contains(7));
+    }
+
+    @Test
+    void remove_thenOnlyRemovedIdMissing() {
+        UserIdIndex index = new UserIdIndex(userRepository, 10);
+        index.add(63);
+        index.add(64);
+
+        index.remove(63);
+        index.remove(100_000);
+
+        assertFalse(index.contains(63));
+        assertTrue(index.contains(64));
+        assertFalse(index.contains(0));
+        index.add(0);
+        assertFalse(index.contains(0));
+        when(userRepository.findAllIdsGreaterThan(0, PageRequest.of(0, 10))).thenReturn(Collections.emptyList());
+        index.load();
+        assertTrue(index.contains(64));
+    }
+}
@@ -0,0 +1,231 @@
+package ru.practicum.shareit.server.user;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportLineResult;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
+import ru.practicum.shareit.server.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImporterTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    /* Как в Spring Boot: UserDto создаётся через конструктор по именам параметров */
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new ParameterNamesModule(JsonCreator.Mode.DEFAULT));
+
+    private UserImporter userImporter;
+
+    User oldUser = User.builder().id(5L).name("Old").email("old@test.com").build();
+    User newUser = User.builder().id(10L).name("New").email("new@test.com").build();
+
+    @BeforeEach
+    void setUp() {
+        userImporter = new UserImporter(jdbcTemplate, transactionTemplate, userIdIndex, entityManagerFactory,
+                objectMapper, 2, 10);
+    }
+
+    @Test
+    void importAll_whenNewExistingAndInvalidLines_thenUpsertedByChunksWithCountsAndRejectedLines() throws Exception {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        Answer<List<User>> existingInFirstChunk = rows(oldUser);
+        Answer<List<User>> createdInFirstChunk = rows(newUser);
+        Answer<List<User>> existingInSecondChunk = rows(newUser);
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(existingInFirstChunk)
+                .thenAnswer(createdInFirstChunk)
+                .thenAnswer(existingInSecondChunk);
+
+        UserImportResult result = userImporter.importAll(ndjson(
+                "{\"name\":\"New\",\"email\":\"new@test.com\"}",
+                "",
+                "{oops",
+                "{\"name\":\"Renamed\",\"email\":\"old@test.com\"}",
+                "{\"name\":\" \",\"email\":\"blank@test.com\"}",
+                "{\"name\":\"Newer\",\"email\":\"new@test.com\"}",
+                "{\"name\":\"Bad\",\"email\":\"bad\"}"));
+
+        assertEquals(List.of(
+                rejected(3, UserImporter.NOT_USER_ERROR),
+                rejected(5, "Не указано имя (name) пользователя"),
+                rejected(7, "Указан некорректный email пользователя")), result.getRejectedLines());
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getUpdated());
+        assertEquals(0, result.getUnchanged());
+        assertEquals(3, result.getRejected());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("insert into users"),
+                argThat((SqlParameterSource[] users) -> users.length == 1
+                        && "new@test.com".equals(users[0].getValue("email"))));
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("update users"), any(SqlParameterSource[].class));
+        verify(userIdIndex, times(1)).add(newUser.getId());
+        verify(cache, times(2)).evict(User.class);
+    }
+
+    @Test
+    void importAll_whenSameEmailTwiceInChunk_thenOneInsertWithLastNameAndFirstLineUnchanged() throws Exception {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Answer<List<User>> createdInChunk = rows(newUser);
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of())
+                .thenAnswer(createdInChunk);
+
+        UserImportResult result = userImporter.importAll(ndjson(
+                "{\"name\":\"First\",\"email\":\"new@test.com\"}",
+                "{\"name\":\"New\",\"email\":\"new@test.com\"}"));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(0, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(List.of(), result.getRejectedLines());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("insert into users"),
+                argThat((SqlParameterSource[] users) -> users.length == 1
+                        && "New".equals(users[0].getValue("name"))));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("update users"), any(SqlParameterSource[].class));
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void importAll_whenChunkViolatesConstraint_thenOnlyThisChunkRejected() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new DuplicateKeyException("uq_email"))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(oldUser));
+
+        UserImportResult result = userImporter.importAll(ndjson(
+                "{\"name\":\"A\",\"email\":\"a@test.com\"}",
+                "{\"name\":\"B\",\"email\":\"b@test.com\"}",
+                "{\"name\":\"Old\",\"email\":\"old@test.com\"}"));
+
+        assertEquals(List.of(
+                rejected(1, UserImporter.CHUNK_CONFLICT_ERROR),
+                rejected(2, UserImporter.CHUNK_CONFLICT_ERROR)), result.getRejectedLines());
+        assertEquals(0, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(2, result.getRejected());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verifyNoInteractions(userIdIndex, entityManagerFactory);
+    }
+
+    @Test
+    void importAll_whenMoreRejectedLinesThanLimit_thenAllCountedAndFirstKept() {
+        userImporter = new UserImporter(jdbcTemplate, transactionTemplate, userIdIndex, entityManagerFactory,
+                objectMapper, 2, 2);
+
+        UserImportResult result = userImporter.importAll(ndjson("{oops", "[]", "42", "{\"name\":\"NoEmail\"}"));
+
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(
+                rejected(1, UserImporter.NOT_USER_ERROR),
+                rejected(2, UserImporter.NOT_USER_ERROR)), result.getRejectedLines());
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+    }
+
+    @Test
+    void importAll_whenBodyNotReadable_thenUncheckedIOException() {
+        InputStream brokenBody = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Соединение закрыто");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> userImporter.importAll(brokenBody));
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+    }
+
+    @Test
+    void validate_thenErrorForEveryInvalidField() {
+        String longName = "n".repeat(256);
+
+        assertNull(UserImporter.validate(UserDto.builder().name("Name").email("name@test.com").build()));
+        assertEquals(UserImporter.NOT_USER_ERROR, UserImporter.validate(null));
+        assertEquals("Не указано имя (name) пользователя",
+                UserImporter.validate(UserDto.builder().email("name@test.com").build()));
+        assertEquals("Имя (name) пользователя длиннее 255 символов",
+                UserImporter.validate(UserDto.builder().name(longName).email("name@test.com").build()));
+        assertEquals("Не указан email пользователя",
+                UserImporter.validate(UserDto.builder().name("Name").build()));
+        for (String email : List.of("@test.com", "name@", "name@@test.com", "na me@test.com",
+                "n".repeat(510) + "@t.com")) {
+            assertEquals("Указан некорректный email пользователя",
+                    UserImporter.validate(UserDto.builder().name("Name").email(email).build()), email);
+        }
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* Строки результата запроса проходят через RowMapper импортёра */
+    private static Answer<List<User>> rows(User... users) throws SQLException {
+        List<ResultSet> resultSets = new ArrayList<>();
+        for (User user : users) {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("id")).thenReturn(user.getId());
+            when(resultSet.getString("name")).thenReturn(user.getName());
+            when(resultSet.getString("email")).thenReturn(user.getEmail());
+            resultSets.add(resultSet);
+        }
+        return invocation -> {
+            RowMapper<User> rowMapper = invocation.getArgument(2);
+            List<User> rows = new ArrayList<>();
+            for (int i = 0; i < resultSets.size(); i++) {
+                rows.add(rowMapper.mapRow(resultSets.get(i), i));
+            }
+            return rows;
+        };
+    }
+
+    private static UserImportLineResult rejected(long line, String error) {
+        return UserImportLineResult.builder().line(line).error(error).build();
+    }
+}
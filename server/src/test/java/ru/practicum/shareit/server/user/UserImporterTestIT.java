@@ -0,0 +1,70 @@
+package ru.practicum.shareit.server.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportLineResult;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.user.import.chunk-size=2")
+class UserImporterTestIT {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserIdIndex userIdIndex;
+
+    List<Long> userIds = List.of();
+
+    @AfterEach
+    void deleteUsers() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    void importAll_whenChunksWithNewExistingAndInvalidLines_thenUpsertedAndVisibleThroughService() {
+        UserDto existing = userService.create(UserDto.builder().name("Old").email("old@import.com").build());
+        assertEquals("Old", userService.findById(existing.getId()).getName());
+
+        UserImportResult result = userService.importAll(new ByteArrayInputStream(String.join("\n",
+                "{\"name\":\"Anna\",\"email\":\"anna@import.com\"}",
+                "{\"name\":\"Renamed\",\"email\":\"old@import.com\"}",
+                "{\"name\":\"Broken\",\"email\":\"broken.import.com\"}",
+                "{\"name\":\"Anna Maria\",\"email\":\"anna@import.com\"}",
+                "{\"name\":\"Boris\",\"email\":\"boris@import.com\"}",
+                "{\"name\":\"Boris\",\"email\":\"boris@import.com\"}").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of(3L), result.getRejectedLines().stream()
+                .map(UserImportLineResult::getLine)
+                .collect(Collectors.toList()));
+        Map<String, UserDto> usersByEmail = userService.findAll().stream()
+                .filter(user -> user.getEmail().endsWith("@import.com"))
+                .collect(Collectors.toMap(UserDto::getEmail, Function.identity()));
+        userIds = usersByEmail.values().stream()
+                .map(UserDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(Set.of("old@import.com", "anna@import.com", "boris@import.com"), usersByEmail.keySet());
+        assertEquals(existing.getId(), usersByEmail.get("old@import.com").getId());
+        assertEquals("Renamed", userService.findById(existing.getId()).getName());
+        assertEquals("Anna Maria", userService.findById(usersByEmail.get("anna@import.com").getId()).getName());
+        userIds.forEach(id -> assertTrue(userIdIndex.contains(id)));
+    }
+}
@@ -3,9 +3,12 @@ package ru.practicum.shareit.server.user;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.user.model.User;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -25,4 +28,15 @@ class UserRepositoryTest {
                 assertThrows(NotFoundException.class, () -> userRepository.extract(saveUser.getId() + 1));
         assertEquals("Запрос на несуществующего пользователя с id = " + (saveUser.getId() + 1), exception.getMessage());
     }
+
+    @Test
+    void findAllIdsGreaterThan() {
+        User saveUser = userRepository.save(User.builder().name("TestName").email("test@test.com").build());
+        User saveUser2 = userRepository.save(User.builder().name("TestName2").email("test2@test.com").build());
+
+        assertEquals(List.of(saveUser.getId()), userRepository.findAllIdsGreaterThan(0, PageRequest.of(0, 1)));
+        assertEquals(List.of(saveUser2.getId()),
+                userRepository.findAllIdsGreaterThan(saveUser.getId(), PageRequest.of(0, 1)));
+        assertEquals(0, userRepository.findAllIdsGreaterThan(saveUser2.getId(), PageRequest.of(0, 1)).size());
+    }
 }
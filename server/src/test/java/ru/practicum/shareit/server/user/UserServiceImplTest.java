@@ -7,10 +7,24 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.server.request.ItemRequestFeed;
+import ru.practicum.shareit.server.request.ItemRequestMatcher;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.dto.UserImportResult;
 import ru.practicum.shareit.server.user.model.User;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +38,39 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private UserImporter userImporter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -78,6 +125,7 @@ class UserServiceImplTest {
         assertEquals(expectedUserDto, userService.create(newUserDto));
 
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userIdIndex, times(1)).add(id);
     }
 
     @Test
@@ -110,10 +158,24 @@ class UserServiceImplTest {
     void delete_whenUserFound_thenDeletedUser() {
 
         when(userRepository.extract(anyLong())).thenReturn(expectedUser);
+        when(itemRepository.findIdsByOwnerIdOrRequesterId(id)).thenReturn(List.of(10L, 11L));
+        when(itemRequestRepository.findIdsByRequesterId(id)).thenReturn(List.of(20L));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
 
         userService.delete(id);
 
         verify(userRepository, times(1)).deleteById(anyLong());
+        verify(userIdIndex, times(1)).remove(id);
+        verify(cache, times(1)).evict(Item.class, 10L);
+        verify(cache, times(1)).evict(Item.class, 11L);
+        verify(cache, times(1)).evict(ItemRequest.class, 20L);
+        verify(cache, never()).evict(Item.class);
+        verify(cache, never()).evict(ItemRequest.class);
+        verify(itemSearchEngine, times(1)).removeAllByOwnerId(id);
+        verify(itemNameSuggester, times(1)).removeAllByOwnerId(id);
+        verify(bookingIntervalIndex, times(1)).removeAllByUserId(id);
+        verify(itemRequestFeed, times(1)).removeAllByUserId(id);
+        verify(itemRequestMatcher, times(1)).removeAllByUserId(id);
     }
 
     @Test
@@ -125,6 +187,21 @@ class UserServiceImplTest {
         assertEquals(exceptionMessage, exception.getMessage());
 
         verify(userRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(entityManagerFactory);
+        verify(itemSearchEngine, never()).removeAllByOwnerId(anyLong());
+        verify(itemNameSuggester, never()).removeAllByOwnerId(anyLong());
+        verify(bookingIntervalIndex, never()).removeAllByUserId(anyLong());
+        verify(itemRequestFeed, never()).removeAllByUserId(anyLong());
+        verify(itemRequestMatcher, never()).removeAllByUserId(anyLong());
     }
 
+    @Test
+    void importAll_thenDelegatedToImporter() {
+        InputStream ndjson = new ByteArrayInputStream(new byte[0]);
+        UserImportResult expectedResult = UserImportResult.builder().rejectedLines(List.of()).build();
+        when(userImporter.importAll(ndjson)).thenReturn(expectedResult);
+
+        assertSame(expectedResult, userService.importAll(ndjson));
+        verifyNoInteractions(userRepository, userIdIndex);
+    }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.server.booking.BookingService;
+import ru.practicum.shareit.server.booking.dto.BookingState;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.server.ShareItServerConstants.COMMON_BOOKING_PATH;
+import static ru.practicum.shareit.server.ShareItServerConstants.USER_REQUEST_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.mvc.async.pool-size=1")
+class AsyncSupportConfigurationTestIT {
+
+    @MockBean
+    private BookingService bookingService;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void export_whenAllAsyncThreadsBusy_thenServiceUnavailableWithoutQueueing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(bookingService.exportWithStateForUser(anyLong(), any(BookingState.class))).thenReturn(action -> {
+            started.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<ResponseEntity<String>> running = CompletableFuture.supplyAsync(() -> export(1));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        ResponseEntity<String> rejected = export(2);
+        released.countDown();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, rejected.getHeaders().getContentType());
+        assertEquals(503, new ObjectMapper().readTree(rejected.getBody()).get("statusCode").asInt());
+        assertEquals(HttpStatus.OK, running.get(10, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(HttpStatus.OK, export(3).getStatusCode());
+    }
+
+    private ResponseEntity<String> export(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_REQUEST_HEADER, String.valueOf(userId));
+        return rest.exchange(COMMON_BOOKING_PATH + "/export", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}